@@ -0,0 +1,91 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(AndroidJUnit4.class)
+public class AccountListenerDispatcherTest {
+
+    @Test
+    public void test_deltas_follow_the_cursors() throws Exception {
+        TxOutStore txOutStore = new TxOutStore(TestKeysManager.getNextAccountKey());
+        AccountListenerDispatcher dispatcher = new AccountListenerDispatcher(txOutStore);
+        RecordingListener listener = new RecordingListener();
+        dispatcher.addListener(listener);
+        listener.expect("block 0", "balance 0");
+
+        OwnedTxOut first = createTxOut(1, 5, 10);
+        OwnedTxOut second = createTxOut(2, 7, 20);
+        dispatcher.onTxOutAdded(0, first);
+        dispatcher.onTxOutAdded(0, second);
+        // the same TxOut found by another seed
+        dispatcher.onTxOutAdded(1, first);
+        dispatcher.onCursorsChanged(UnsignedLong.valueOf(3), UnsignedLong.valueOf(3), 0, null);
+        listener.expect("block 3");
+
+        // synchronized up to the lower of the cursors
+        dispatcher.onCursorsChanged(UnsignedLong.valueOf(9), UnsignedLong.valueOf(6), 0, null);
+        listener.expect("received 1", "block 6", "balance 10");
+
+        first.setSpent(UnsignedLong.valueOf(8), null);
+        dispatcher.onTxOutSpent(first);
+        dispatcher.onCursorsChanged(UnsignedLong.valueOf(9), UnsignedLong.valueOf(9), 0, null);
+        listener.expect("received 2", "spent 1", "block 9", "balance 20");
+
+        // nothing changed
+        dispatcher.onCursorsChanged(UnsignedLong.valueOf(9), UnsignedLong.valueOf(9), 0, null);
+        dispatcher.removeListener(listener);
+        dispatcher.shutdown();
+        assertEquals(null, listener.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static OwnedTxOut createTxOut(long index, long receivedBlock, long value) {
+        return new OwnedTxOut(UnsignedLong.valueOf(index), UnsignedLong.valueOf(receivedBlock),
+                new Date(), BigInteger.valueOf(value),
+                RistrettoPrivate.generateNewKey().getPublicKey(), new byte[32]);
+    }
+
+    private static final class RecordingListener implements AccountListener {
+        final LinkedBlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onTxOutReceived(OwnedTxOut txOut) {
+            events.add("received " + txOut.getTxOutGlobalIndex());
+        }
+
+        @Override
+        public void onTxOutSpent(OwnedTxOut txOut) {
+            events.add("spent " + txOut.getTxOutGlobalIndex());
+        }
+
+        @Override
+        public void onBlockIndexChanged(UnsignedLong blockIndex) {
+            events.add("block " + blockIndex);
+        }
+
+        @Override
+        public void onBalanceChanged(Balance balance) {
+            events.add("balance " + balance.getAmountPicoMob());
+        }
+
+        void expect(String... expected) throws InterruptedException {
+            List<String> expectedEvents = Arrays.asList(expected);
+            for (String event : expectedEvents) {
+                assertEquals(event, events.poll(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.network.uri.FogUri;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+
+@RunWith(AndroidJUnit4.class)
+public class AttestationManagerTest {
+    private static final long BACKGROUND_ATTESTATION_TIMEOUT_MS = 60000;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    @Test
+    public void test_reset_session_fails_over_to_standby() throws Exception {
+        MobileCoinClient mobileCoinClient = MobileCoinClientBuilder.newBuilder().build();
+        try {
+            AttestationManager attestationManager = mobileCoinClient.attestationManager;
+            waitForStandby(attestationManager, mobileCoinClient.viewClient);
+            Assert.assertTrue(mobileCoinClient.viewClient.isAttested());
+
+            mobileCoinClient.viewClient.deattest();
+            long adoptionsBefore = attestationManager.getStandbyAdoptionCount();
+            mobileCoinClient.viewClient.request(null, 0, 0);
+            Assert.assertEquals(adoptionsBefore + 1,
+                    attestationManager.getStandbyAdoptionCount());
+        } finally {
+            mobileCoinClient.shutdown();
+        }
+    }
+
+    @Test
+    public void test_unconfigured_client_is_not_attested_in_background() throws Exception {
+        AttestedViewClient viewClient = new AttestedViewClient(
+                RandomLoadBalancer.create(new FogUri(Environment.getTestFogConfig().getFogUri())),
+                Environment.getTestFogConfig().getClientConfig().fogView);
+        AttestationManager attestationManager = new AttestationManager(Duration.ofMinutes(10));
+        attestationManager.manage(viewClient, () -> {
+            throw new AssertionError("A standby session must not be prepared");
+        });
+        Thread.sleep(500);
+        Assert.assertFalse(viewClient.isAttested());
+        attestationManager.shutdown();
+        viewClient.shutdown();
+    }
+
+    private static void waitForStandby(AttestationManager attestationManager,
+                                       AttestedClient client) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + BACKGROUND_ATTESTATION_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (client.isAttested() && attestationManager.hasStandby(client)) {
+                return;
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        Assert.fail("Background attestation did not complete in time");
+    }
+}
@@ -0,0 +1,71 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.network.uri.FogUri;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import fog_ledger.Ledger;
+
+/**
+ * Stress test of a single attested session shared by many concurrent requests, the requests must
+ * reach the server in the nonce order or the session is reset
+ */
+@RunWith(AndroidJUnit4.class)
+public class AttestedClientConcurrencyTest {
+    private static final int REQUESTS_TO_TEST = 64;
+    private static final int CONCURRENCY = 8;
+    private final TestFogConfig fogConfig = Environment.getTestFogConfig();
+
+    @Test
+    public void test_concurrent_requests_on_one_session() throws Exception {
+        AttestedLedgerClient ledgerClient = new AttestedLedgerClient(
+                RandomLoadBalancer.create(new FogUri(fogConfig.getFogUri())),
+                fogConfig.getClientConfig().fogLedger
+        );
+        ledgerClient.setAuthorization(
+                fogConfig.getUsername(),
+                fogConfig.getPassword()
+        );
+        checkRandomKeyImage(ledgerClient);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<Ledger.CheckKeyImagesResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS_TO_TEST; ++i) {
+            futures.add(executorService.submit(() -> checkRandomKeyImage(ledgerClient)));
+        }
+        // a request reaching the server out of the nonce order fails and resets the session
+        for (Future<Ledger.CheckKeyImagesResponse> future : futures) {
+            Assert.assertEquals(1, future.get().getResultsCount());
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+
+        Assert.assertTrue("The attested session must survive concurrent requests",
+                ledgerClient.isAttested());
+        ledgerClient.shutdown();
+    }
+
+    private static Ledger.CheckKeyImagesResponse checkRandomKeyImage(
+            AttestedLedgerClient ledgerClient
+    ) throws Exception {
+        byte[] keyImageBytes = new byte[32];
+        new SecureRandom().nextBytes(keyImageBytes);
+        return ledgerClient.checkKeyImages(
+                Collections.singleton(KeyImage.fromBytes(keyImageBytes)));
+    }
+}
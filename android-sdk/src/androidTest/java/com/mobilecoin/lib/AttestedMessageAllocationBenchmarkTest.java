@@ -0,0 +1,187 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import android.os.Debug;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.protobuf.ByteString;
+import com.mobilecoin.lib.log.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import attest.Attest;
+import fog_view.View;
+
+/**
+ * Measures the bytes allocated by the attested message layer per request/response round trip.
+ * <p>
+ * The enclave encryption is replaced with a plain copy of the payload, which allocates the same
+ * amount of memory as the native calls in both measured paths.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AttestedMessageAllocationBenchmarkTest {
+    private static final String TAG = AttestedMessageAllocationBenchmarkTest.class.getName();
+    private static final int ITERATIONS = 200;
+    private static final int SEARCH_RESULTS = 256;
+    private static final int CIPHERTEXT_SIZE = 256;
+    private static final int SEARCH_KEY_SIZE = 16;
+    private static final int BINDING_SIZE = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Test
+    public void test_zero_copy_message_allocations() throws Exception {
+        View.QueryRequest request = createRequest();
+        byte[] responsePayload = createResponse().toByteArray();
+        byte[] binding = randomBytes(BINDING_SIZE);
+        ByteString cachedBinding = ByteStrings.wrap(binding);
+
+        // warm up both paths before measuring
+        for (int i = 0; i < ITERATIONS; ++i) {
+            Assert.assertNotNull(copyingRoundTrip(request, responsePayload, binding));
+            Assert.assertNotNull(zeroCopyRoundTrip(request, responsePayload, cachedBinding));
+        }
+        long copyingBytes = measureAllocatedBytes(() ->
+                copyingRoundTrip(request, responsePayload, binding));
+        long zeroCopyBytes = measureAllocatedBytes(() ->
+                zeroCopyRoundTrip(request, responsePayload, cachedBinding));
+
+        Logger.d(TAG, "Attested message allocations", null,
+                "response size:", responsePayload.length,
+                "copying bytes/op:", copyingBytes / ITERATIONS,
+                "zero-copy bytes/op:", zeroCopyBytes / ITERATIONS);
+        Assert.assertTrue("Zero-copy path must allocate less than the copying path",
+                zeroCopyBytes < copyingBytes);
+    }
+
+    @Test
+    public void test_zero_copy_round_trip_preserves_content() throws Exception {
+        View.QueryRequest request = createRequest();
+        View.QueryResponse response = createResponse();
+        byte[] binding = randomBytes(BINDING_SIZE);
+
+        View.QueryResponse copied = copyingRoundTrip(request, response.toByteArray(), binding);
+        View.QueryResponse zeroCopied = zeroCopyRoundTrip(request, response.toByteArray(),
+                ByteStrings.wrap(binding));
+        Assert.assertEquals(response, copied);
+        Assert.assertEquals(response, zeroCopied);
+    }
+
+    @Test
+    public void test_backing_array_is_shared() {
+        byte[] bytes = randomBytes(CIPHERTEXT_SIZE);
+        Assert.assertSame(bytes, ByteStrings.toByteArray(ByteStrings.wrap(bytes)));
+        // a substring is not backed by the whole array and has to be copied
+        ByteString substring = ByteStrings.wrap(bytes).substring(1);
+        Assert.assertArrayEquals(Arrays.copyOfRange(bytes, 1, bytes.length),
+                ByteStrings.toByteArray(substring));
+    }
+
+    /**
+     * The attested message handling as it was done before the zero-copy changes
+     */
+    private static View.QueryResponse copyingRoundTrip(View.QueryRequest request,
+                                                       byte[] responsePayload,
+                                                       byte[] binding) throws Exception {
+        byte[] aad = new byte[0];
+        byte[] encryptedRequest = encrypt(request.toByteArray());
+        Attest.Message requestMessage = Attest.Message.newBuilder()
+                .setData(ByteString.copyFrom(encryptedRequest))
+                .setChannelId(ByteString.copyFrom(binding))
+                .setAad(ByteString.copyFrom(aad))
+                .build();
+        Attest.Message responseMessage = receive(requestMessage, responsePayload);
+        byte[] decrypted = encrypt(responseMessage.getData().toByteArray());
+        Attest.Message decryptedMessage = Attest.Message.newBuilder(responseMessage)
+                .setData(ByteString.copyFrom(decrypted))
+                .build();
+        return View.QueryResponse.parseFrom(decryptedMessage.getData());
+    }
+
+    /**
+     * The attested message handling of {@link AttestedClient}
+     */
+    private static View.QueryResponse zeroCopyRoundTrip(View.QueryRequest request,
+                                                        byte[] responsePayload,
+                                                        ByteString binding) throws Exception {
+        byte[] encryptedRequest = encrypt(request.toByteArray());
+        Attest.Message requestMessage = Attest.Message.newBuilder()
+                .setData(ByteStrings.wrap(encryptedRequest))
+                .setChannelId(binding)
+                .setAad(ByteStrings.wrap(ByteStrings.EMPTY_BYTES))
+                .build();
+        Attest.Message responseMessage = receive(requestMessage, responsePayload);
+        byte[] decrypted = encrypt(ByteStrings.toByteArray(responseMessage.getData()));
+        return ByteStrings.parseFrom(decrypted, View.QueryResponse.parser());
+    }
+
+    /**
+     * Stands in for the native encryption and decryption, which return a new array
+     */
+    private static byte[] encrypt(byte[] payload) {
+        return Arrays.copyOf(payload, payload.length);
+    }
+
+    /**
+     * Stands in for the transport, the request is sent and the response is received as bytes
+     */
+    private static Attest.Message receive(Attest.Message requestMessage, byte[] responsePayload)
+            throws Exception {
+        Assert.assertTrue(requestMessage.getSerializedSize() > 0);
+        byte[] wireBytes = Attest.Message.newBuilder()
+                .setData(ByteString.copyFrom(responsePayload))
+                .build()
+                .toByteArray();
+        return Attest.Message.parseFrom(wireBytes);
+    }
+
+    private static long measureAllocatedBytes(RoundTrip roundTrip) throws Exception {
+        Debug.startAllocCounting();
+        try {
+            Debug.resetThreadAllocSize();
+            for (int i = 0; i < ITERATIONS; ++i) {
+                roundTrip.run();
+            }
+            return Debug.getThreadAllocSize();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    private View.QueryRequest createRequest() {
+        View.QueryRequest.Builder requestBuilder = View.QueryRequest.newBuilder();
+        for (int i = 0; i < SEARCH_RESULTS; ++i) {
+            requestBuilder.addGetTxos(ByteString.copyFrom(randomBytes(SEARCH_KEY_SIZE)));
+        }
+        return requestBuilder.build();
+    }
+
+    private View.QueryResponse createResponse() {
+        View.QueryResponse.Builder responseBuilder = View.QueryResponse.newBuilder()
+                .setHighestProcessedBlockCount(SEARCH_RESULTS);
+        for (int i = 0; i < SEARCH_RESULTS; ++i) {
+            responseBuilder.addTxOutSearchResults(View.TxOutSearchResult.newBuilder()
+                    .setSearchKey(ByteString.copyFrom(randomBytes(SEARCH_KEY_SIZE)))
+                    .setResultCode(View.TxOutSearchResultCode.Found_VALUE)
+                    .setCiphertext(ByteString.copyFrom(randomBytes(CIPHERTEXT_SIZE))));
+        }
+        return responseBuilder.build();
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private interface RoundTrip {
+        Object run() throws Exception;
+    }
+}
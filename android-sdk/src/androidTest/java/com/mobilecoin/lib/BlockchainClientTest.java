@@ -127,6 +127,45 @@ public class BlockchainClientTest {
         Assert.assertNotSame(lastBlockInfoResponse1, lastBlockInfoResponse2);
     }
 
+    @Test
+    public void clientRefreshesAheadOfExpiryOffline() throws Exception {
+        // Setup mock API manager and blockchain services
+        ServiceAPIManager apiManager = mock(ServiceAPIManager.class);
+        BlockchainService blockchainService = mock(BlockchainService.class);
+        when(blockchainService.getLastBlockInfo(any())).thenReturn(
+                ConsensusCommon.LastBlockInfoResponse.newBuilder()
+                        .setIndex(1)
+                        .setMinimumFee(1)
+                        .build()
+        ).thenReturn(
+                ConsensusCommon.LastBlockInfoResponse.newBuilder()
+                        .setIndex(2)
+                        .setMinimumFee(3)
+                        .build()
+        );
+        when(apiManager.getBlockchainService(any())).thenReturn(blockchainService);
+
+        // Setup blockchain client, the refresh starts after 3/4 of the TTL
+        BlockchainClient blockchainClient = new BlockchainClient(
+                createLoadBalancer(),
+                Environment.getTestFogConfig().getClientConfig().consensus,
+                Duration.ofSeconds(4), apiManager);
+        ConsensusCommon.LastBlockInfoResponse lastBlockInfoResponse1 =
+                blockchainClient.getOrFetchLastBlockInfo();
+        Thread.sleep(3200);
+
+        // Test the cached info is served while it is refreshed
+        Assert.assertSame(lastBlockInfoResponse1, blockchainClient.getOrFetchLastBlockInfo());
+        Thread.sleep(500);
+        BlockchainClient.LastBlockInfo lastBlockInfo = blockchainClient.getOrFetchBlockInfo();
+        Assert.assertEquals(UnsignedLong.valueOf(2), lastBlockInfo.getBlockIndex());
+        Assert.assertEquals(UnsignedLong.valueOf(3), lastBlockInfo.getMinimumFee());
+
+        // Test the reset keeps the last block info available
+        blockchainClient.resetCache();
+        Assert.assertNotNull(blockchainClient.getLastBlockInfo());
+    }
+
     private static LoadBalancer createLoadBalancer() throws Exception {
         ConsensusUri consensusUri =
             new ConsensusUri(Environment.getTestFogConfig().getConsensusUri());
@@ -0,0 +1,123 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import fog_ledger.Ledger;
+
+@RunWith(AndroidJUnit4.class)
+public class DecoyPoolTest {
+    private static final UnsignedLong LEDGER_SIZE = UnsignedLong.valueOf(100000);
+    private static final long NUM_BLOCKS = 5000;
+
+    @Test
+    public void test_decoys_are_prefetched_and_used_once() throws Exception {
+        DecoyPool pool = new DecoyPool(mockLedgerClient(), 100, Duration.ofMinutes(5));
+        // the first use only schedules the prefetch
+        assertNull(pool.take(10, Collections.emptySet(), UnsignedLong.ZERO, LEDGER_SIZE));
+        DecoyPool.Decoys decoys = awaitDecoys(pool, 40, LEDGER_SIZE);
+        assertEquals(40, decoys.getOutputs().size());
+        assertEquals(NUM_BLOCKS - 1, decoys.getMerkleRootBlock());
+
+        Set<Long> used = new HashSet<>();
+        for (Ledger.OutputResult decoy : decoys.getOutputs()) {
+            assertTrue(used.add(decoy.getIndex()));
+        }
+        DecoyPool.Decoys moreDecoys = pool.take(40, Collections.emptySet(), UnsignedLong.ZERO,
+                LEDGER_SIZE);
+        assertNotNull(moreDecoys);
+        for (Ledger.OutputResult decoy : moreDecoys.getOutputs()) {
+            assertTrue("Decoys must not be reused", used.add(decoy.getIndex()));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void test_excluded_indices_and_root_block() throws Exception {
+        // a small ledger, so the pool holds most of its outputs
+        UnsignedLong ledgerSize = UnsignedLong.valueOf(60);
+        DecoyPool pool = new DecoyPool(mockLedgerClient(), 50,
+                Duration.ofMinutes(5));
+        pool.take(1, Collections.emptySet(), UnsignedLong.ZERO, ledgerSize);
+        awaitDecoys(pool, 1, ledgerSize);
+
+        // the inputs received after the Merkle root block can't use the pooled decoys
+        assertNull(pool.take(1, Collections.emptySet(), UnsignedLong.valueOf(NUM_BLOCKS),
+                ledgerSize));
+
+        Set<UnsignedLong> excluded = new HashSet<>();
+        for (long index = 0; index < 10; ++index) {
+            excluded.add(UnsignedLong.valueOf(index));
+        }
+        DecoyPool.Decoys decoys = pool.take(30, excluded, UnsignedLong.ZERO, ledgerSize);
+        assertNotNull(decoys);
+        assertEquals(30, decoys.getOutputs().size());
+        for (Ledger.OutputResult decoy : decoys.getOutputs()) {
+            assertFalse(excluded.contains(UnsignedLong.fromLongBits(decoy.getIndex())));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void test_stale_decoys_are_evicted() throws Exception {
+        DecoyPool pool = new DecoyPool(mockLedgerClient(), 50,
+                Duration.ZERO);
+        pool.take(10, Collections.emptySet(), UnsignedLong.ZERO, LEDGER_SIZE);
+        Thread.sleep(500);
+        assertNull("Stale decoys must not be used",
+                pool.take(10, Collections.emptySet(), UnsignedLong.ZERO, LEDGER_SIZE));
+        pool.shutdown();
+    }
+
+    private static DecoyPool.Decoys awaitDecoys(DecoyPool pool, int count,
+                                                UnsignedLong ledgerSize) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            DecoyPool.Decoys decoys = pool.take(count, Collections.emptySet(),
+                    UnsignedLong.ZERO, ledgerSize);
+            if (decoys != null) {
+                return decoys;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("The pool was not refilled");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AttestedLedgerClient mockLedgerClient() throws Exception {
+        AttestedLedgerClient ledgerClient = mock(AttestedLedgerClient.class);
+        when(ledgerClient.getOutputs(any(Collection.class), anyLong())).thenAnswer(invocation -> {
+            Collection<UnsignedLong> indices = invocation.getArgument(0);
+            Ledger.GetOutputsResponse.Builder response = Ledger.GetOutputsResponse.newBuilder()
+                    .setNumBlocks(NUM_BLOCKS)
+                    .setGlobalTxoCount(LEDGER_SIZE.longValue());
+            for (UnsignedLong index : indices) {
+                response.addResults(Ledger.OutputResult.newBuilder()
+                        .setIndex(index.longValue())
+                        .setResultCode(Ledger.OutputResultCode.Exists_VALUE));
+            }
+            return response.build();
+        });
+        return ledgerClient;
+    }
+}
@@ -0,0 +1,138 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(AndroidJUnit4.class)
+public class FileStorageAdapterTest {
+    private static final String KEY = "12345-com.mobilecoin.lib.TxOutStore/with:separators";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("storage", "");
+        assertTrue(directory.delete());
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+        }
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void test_set_get_clear() {
+        FileStorageAdapter storage = new FileStorageAdapter(directory);
+        assertFalse(storage.has(KEY));
+        assertNull(storage.get(KEY));
+        assertNull(storage.getBuffer(KEY));
+        assertEquals(0, storage.size(KEY));
+
+        byte[] value = randomBytes(100000);
+        storage.set(KEY, value);
+        assertTrue(storage.has(KEY));
+        assertArrayEquals(value, storage.get(KEY));
+        ByteBuffer buffer = storage.getBuffer(KEY);
+        assertTrue("Values must be memory-mapped", buffer.isDirect());
+        assertEquals(value.length, buffer.remaining());
+
+        // the mapping keeps the replaced value
+        byte[] newValue = randomBytes(10);
+        storage.set(KEY, newValue);
+        assertArrayEquals(newValue, storage.get(KEY));
+        byte[] mappedValue = new byte[buffer.remaining()];
+        buffer.get(mappedValue);
+        assertArrayEquals(value, mappedValue);
+
+        storage.set(KEY, new byte[0]);
+        assertTrue(storage.has(KEY));
+        assertArrayEquals(new byte[0], storage.get(KEY));
+
+        storage.clear(KEY);
+        assertFalse(storage.has(KEY));
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void test_append_and_range_read() {
+        FileStorageAdapter storage = new FileStorageAdapter(directory);
+        byte[] first = randomBytes(1000);
+        byte[] second = randomBytes(500);
+        storage.append(KEY, first);
+        storage.append(KEY, second);
+        assertEquals(first.length + second.length, storage.size(KEY));
+        assertArrayEquals(second, storage.read(KEY, first.length, second.length));
+        assertArrayEquals(Arrays.copyOfRange(first, 10, 20), storage.read(KEY, 10, 10));
+        // reads past the end are truncated
+        assertArrayEquals(Arrays.copyOfRange(second, 400, 500),
+                storage.read(KEY, first.length + 400, 1000));
+        assertEquals(0, storage.read(KEY, 10000, 10).length);
+        assertEquals(0, storage.read("missing", 0, 10).length);
+    }
+
+    @Test
+    public void test_interrupted_writes_are_discarded() throws IOException {
+        FileStorageAdapter storage = new FileStorageAdapter(directory);
+        byte[] value = randomBytes(100);
+        storage.set(KEY, value);
+        // a crash before the rename leaves the temporary file behind
+        try (FileOutputStream outputStream = new FileOutputStream(
+                new File(directory, "leftover.bin.tmp"))) {
+            outputStream.write(randomBytes(10));
+        }
+        storage = new FileStorageAdapter(directory);
+        assertArrayEquals(value, storage.get(KEY));
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void test_journal_persistence() throws Exception {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        AccountKey accountKey = AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+        FileStorageAdapter storage = new FileStorageAdapter(directory);
+        TxOutStoreJournal journal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore store = journal.load(accountKey);
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 1000);
+        store.addRecoveredTxOuts(txOuts.subList(0, 900));
+        journal.persist(store);
+        store.addRecoveredTxOuts(txOuts.subList(900, 1000));
+        journal.persist(store);
+
+        TxOutStore restored = new TxOutStoreJournal(new FileStorageAdapter(directory), accountKey)
+                .load(accountKey);
+        assertEquals(store, restored);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
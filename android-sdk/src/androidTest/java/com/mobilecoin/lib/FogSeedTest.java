@@ -1,5 +1,6 @@
 package com.mobilecoin.lib;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import android.content.Intent;
@@ -38,4 +39,22 @@ public class FogSeedTest {
         assertEquals(parcelInput, parcelOutput);
     }
 
+    @Test
+    public void testBinaryFormat() throws SerializationException, KexRngException {
+        View.RngRecord rngRecord = View.RngRecord.newBuilder()
+                .setPubkey(KexRng.KexRngPubkey.newBuilder()
+                        .setPubkey(ByteString.copyFrom(new byte[32])))
+                .setIngestInvocationId(-62L)
+                .setStartBlock(4234234L)
+                .build();
+        FogSeed input = new FogSeed(RistrettoPrivate.fromBytes(new byte[32]), rngRecord);
+        input.advance();
+        input.markObsolete();
+        BinaryEncoder encoder = new BinaryEncoder(0);
+        input.writeTo(encoder);
+        FogSeed output = FogSeed.readFrom(new BinaryDecoder(encoder.toByteArray()));
+        assertEquals(input, output);
+        assertArrayEquals(input.getOutput(), output.getOutput());
+    }
+
 }
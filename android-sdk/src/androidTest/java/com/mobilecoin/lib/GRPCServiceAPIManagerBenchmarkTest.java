@@ -0,0 +1,154 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.network.AuthInterceptor;
+import com.mobilecoin.lib.network.CookieInterceptor;
+import com.mobilecoin.lib.network.services.FogViewService;
+import com.mobilecoin.lib.network.services.GRPCServiceAPIManager;
+import com.mobilecoin.lib.network.services.grpc.GRPCFogViewService;
+import com.mobilecoin.lib.network.services.transport.Transport;
+import com.mobilecoin.lib.network.uri.FogUri;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.ManagedChannel;
+import io.grpc.okhttp.OkHttpChannelBuilder;
+
+/**
+ * Benchmarks of the gRPC service acquisition time and of the request latency with different call
+ * executors under concurrency, both measure the wall time only
+ */
+@RunWith(AndroidJUnit4.class)
+public class GRPCServiceAPIManagerBenchmarkTest {
+    private static final String TAG = GRPCServiceAPIManagerBenchmarkTest.class.getName();
+    private static final int SERVICE_ACQUISITIONS = 100000;
+    private static final int CONCURRENT_REQUESTS = 64;
+    private static final int CONCURRENCY = 8;
+    private final TestFogConfig fogConfig = Environment.getTestFogConfig();
+
+    @Test
+    public void test_cached_service_acquisition_time() {
+        // the channel connects lazily, no calls are made in this benchmark
+        ManagedChannel managedChannel = OkHttpChannelBuilder.forAddress("localhost", 3223)
+                .usePlaintext()
+                .build();
+        Transport transport = Transport.fromManagedChannel(managedChannel);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        CookieInterceptor cookieInterceptor = new CookieInterceptor();
+        AuthInterceptor authInterceptor = new AuthInterceptor();
+        GRPCServiceAPIManager apiManager = new GRPCServiceAPIManager(executorService);
+
+        FogViewService firstService = apiManager.getFogViewService(transport);
+        long cachedStart = System.nanoTime();
+        for (int i = 0; i < SERVICE_ACQUISITIONS; ++i) {
+            Assert.assertSame(firstService, apiManager.getFogViewService(transport));
+        }
+        long cachedNanos = System.nanoTime() - cachedStart;
+
+        // per request stubs and interceptor chains, as they were created before the caching
+        long uncachedStart = System.nanoTime();
+        for (int i = 0; i < SERVICE_ACQUISITIONS; ++i) {
+            Assert.assertNotNull(new GRPCFogViewService(managedChannel, cookieInterceptor,
+                    authInterceptor, executorService));
+        }
+        long uncachedNanos = System.nanoTime() - uncachedStart;
+
+        // a new channel invalidates the cached services
+        ManagedChannel newManagedChannel = OkHttpChannelBuilder.forAddress("localhost", 3223)
+                .usePlaintext()
+                .build();
+        Assert.assertNotSame(firstService,
+                apiManager.getFogViewService(Transport.fromManagedChannel(newManagedChannel)));
+
+        managedChannel.shutdownNow();
+        newManagedChannel.shutdownNow();
+        executorService.shutdown();
+        Logger.d(TAG, "Service acquisition", null,
+                "acquisitions:", SERVICE_ACQUISITIONS,
+                "cached ns/op:", cachedNanos / SERVICE_ACQUISITIONS,
+                "uncached ns/op:", uncachedNanos / SERVICE_ACQUISITIONS);
+        Assert.assertTrue("Cached services must be cheaper than creating new ones",
+                cachedNanos < uncachedNanos);
+    }
+
+    @Test
+    public void test_concurrent_latency_with_call_executor() throws Exception {
+        ExecutorService sharedCallExecutor = Executors.newFixedThreadPool(CONCURRENCY);
+        long defaultNanos = measureConcurrentLatency(createFogLedgerConfig());
+        long sharedNanos = measureConcurrentLatency(createFogLedgerConfig()
+                .withCallExecutor(sharedCallExecutor));
+        long directNanos = measureConcurrentLatency(createFogLedgerConfig()
+                .withCallExecutor(Runnable::run));
+        sharedCallExecutor.shutdown();
+        Logger.d(TAG, "Concurrent block requests", null,
+                "requests:", CONCURRENT_REQUESTS,
+                "threads:", CONCURRENCY,
+                "single thread executor avg ms:", TimeUnit.NANOSECONDS.toMillis(defaultNanos),
+                "shared executor avg ms:", TimeUnit.NANOSECONDS.toMillis(sharedNanos),
+                "direct executor avg ms:", TimeUnit.NANOSECONDS.toMillis(directNanos));
+        Assert.assertTrue(defaultNanos > 0);
+        Assert.assertTrue(sharedNanos > 0);
+        Assert.assertTrue(directNanos > 0);
+    }
+
+    private ClientConfig.Service createFogLedgerConfig() {
+        ClientConfig.Service fogLedgerConfig = fogConfig.getClientConfig().fogLedger;
+        ClientConfig.Service service = new ClientConfig.Service()
+                .withVerifier(fogLedgerConfig.getVerifier());
+        if (fogLedgerConfig.getTrustRoots() != null) {
+            service.withTrustRoots(fogLedgerConfig.getTrustRoots());
+        }
+        return service;
+    }
+
+    /**
+     * Make the concurrent requests, each of them must return the records of the block
+     *
+     * @return average latency of a request in nanoseconds
+     */
+    private long measureConcurrentLatency(ClientConfig.Service serviceConfig) throws Exception {
+        FogBlockClient blockClient = new FogBlockClient(
+                RandomLoadBalancer.create(new FogUri(fogConfig.getFogUri())),
+                serviceConfig
+        );
+        blockClient.setAuthorization(
+                fogConfig.getUsername(),
+                fogConfig.getPassword()
+        );
+        // establish the connection before measuring
+        int recordCount = blockClient.fetchTxRecordsInBlockRange(new BlockRange(1, 2)).size();
+        Assert.assertTrue(recordCount > 0);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; ++i) {
+            futures.add(executorService.submit(() -> {
+                long startTime = System.nanoTime();
+                int count = blockClient.fetchTxRecordsInBlockRange(new BlockRange(1, 2)).size();
+                long latencyNanos = System.nanoTime() - startTime;
+                Assert.assertEquals(recordCount, count);
+                return latencyNanos;
+            }));
+        }
+        long totalNanos = 0;
+        for (Future<Long> future : futures) {
+            totalNanos += future.get();
+        }
+        executorService.shutdown();
+        blockClient.shutdown();
+        return totalNanos / CONCURRENT_REQUESTS;
+    }
+}
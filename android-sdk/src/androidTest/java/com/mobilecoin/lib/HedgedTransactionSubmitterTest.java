@@ -0,0 +1,151 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import com.mobilecoin.api.MobileCoinAPI;
+import com.mobilecoin.lib.exceptions.NetworkException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import consensus_common.ConsensusCommon;
+
+public class HedgedTransactionSubmitterTest {
+    private static final long SLOW_NODE_DELAY_MS = 5000;
+
+    @Test
+    public void test_slow_node_is_hedged() throws Exception {
+        ConsensusCommon.ProposeTxResponse fastResponse =
+                ConsensusCommon.ProposeTxResponse.newBuilder().setBlockCount(1).build();
+        AttestedConsensusClient slowClient = mock(AttestedConsensusClient.class);
+        when(slowClient.proposeTx(any())).thenAnswer(invocation -> {
+            Thread.sleep(SLOW_NODE_DELAY_MS);
+            return ConsensusCommon.ProposeTxResponse.newBuilder().setBlockCount(2).build();
+        });
+        AttestedConsensusClient fastClient = mock(AttestedConsensusClient.class);
+        when(fastClient.proposeTx(any())).thenReturn(fastResponse);
+
+        HedgedTransactionSubmitter submitter = new HedgedTransactionSubmitter(
+                Arrays.asList(slowClient, fastClient), 0.95, Duration.ofMillis(100));
+        long startTime = System.currentTimeMillis();
+        ConsensusCommon.ProposeTxResponse response =
+                submitter.proposeTx(MobileCoinAPI.Tx.getDefaultInstance());
+        long elapsed = System.currentTimeMillis() - startTime;
+        submitter.shutdown();
+
+        Assert.assertEquals(fastResponse, response);
+        Assert.assertTrue("Hedged submission must not wait for the slow node",
+                elapsed < SLOW_NODE_DELAY_MS);
+    }
+
+    @Test
+    public void test_failed_node_is_hedged_immediately() throws Exception {
+        ConsensusCommon.ProposeTxResponse response =
+                ConsensusCommon.ProposeTxResponse.newBuilder().setBlockCount(1).build();
+        AttestedConsensusClient failingClient = mock(AttestedConsensusClient.class);
+        when(failingClient.proposeTx(any())).thenThrow(new NetworkException(500, "failed"));
+        AttestedConsensusClient workingClient = mock(AttestedConsensusClient.class);
+        when(workingClient.proposeTx(any())).thenReturn(response);
+
+        HedgedTransactionSubmitter submitter = new HedgedTransactionSubmitter(
+                Arrays.asList(failingClient, workingClient), 0.95,
+                Duration.ofMillis(SLOW_NODE_DELAY_MS));
+        long startTime = System.currentTimeMillis();
+        Assert.assertEquals(response, submitter.proposeTx(MobileCoinAPI.Tx.getDefaultInstance()));
+        Assert.assertTrue(System.currentTimeMillis() - startTime < SLOW_NODE_DELAY_MS);
+        submitter.shutdown();
+    }
+
+    @Test
+    public void test_rejection_is_returned_without_hedging() throws Exception {
+        ConsensusCommon.ProposeTxResponse rejected = ConsensusCommon.ProposeTxResponse.newBuilder()
+                .setResult(ConsensusCommon.ProposeTxResult.TombstoneBlockExceeded).build();
+        AttestedConsensusClient rejectingClient1 = mock(AttestedConsensusClient.class);
+        when(rejectingClient1.proposeTx(any())).thenReturn(rejected);
+        AttestedConsensusClient rejectingClient2 = mock(AttestedConsensusClient.class);
+        when(rejectingClient2.proposeTx(any())).thenReturn(rejected);
+
+        HedgedTransactionSubmitter submitter = new HedgedTransactionSubmitter(
+                Arrays.asList(rejectingClient1, rejectingClient2), 0.95,
+                Duration.ofMillis(SLOW_NODE_DELAY_MS));
+        try {
+            Assert.assertEquals(rejected,
+                    submitter.proposeTx(MobileCoinAPI.Tx.getDefaultInstance()));
+        } finally {
+            submitter.shutdown();
+        }
+        int proposals = mockingDetails(rejectingClient1).getInvocations().size()
+                + mockingDetails(rejectingClient2).getInvocations().size();
+        Assert.assertEquals("A rejected transaction must not be proposed again", 1, proposals);
+    }
+
+    @Test
+    public void test_rejection_after_hedge_waits_for_the_other_node() throws Exception {
+        ConsensusCommon.ProposeTxResponse rejected = ConsensusCommon.ProposeTxResponse.newBuilder()
+                .setResult(ConsensusCommon.ProposeTxResult.ContainsSpentKeyImage).build();
+        ConsensusCommon.ProposeTxResponse accepted =
+                ConsensusCommon.ProposeTxResponse.newBuilder().setBlockCount(1).build();
+        AttestedConsensusClient rejectingClient = mock(AttestedConsensusClient.class);
+        when(rejectingClient.proposeTx(any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return rejected;
+        });
+        AttestedConsensusClient acceptingClient = mock(AttestedConsensusClient.class);
+        when(acceptingClient.proposeTx(any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return accepted;
+        });
+
+        HedgedTransactionSubmitter submitter = new HedgedTransactionSubmitter(
+                Arrays.asList(rejectingClient, acceptingClient), 0.95, Duration.ofMillis(0));
+        try {
+            Assert.assertEquals(accepted,
+                    submitter.proposeTx(MobileCoinAPI.Tx.getDefaultInstance()));
+        } finally {
+            submitter.shutdown();
+        }
+    }
+
+    @Test
+    public void test_rejection_is_returned_if_no_node_accepts() throws Exception {
+        ConsensusCommon.ProposeTxResponse rejected = ConsensusCommon.ProposeTxResponse.newBuilder()
+                .setResult(ConsensusCommon.ProposeTxResult.ContainsSpentKeyImage).build();
+        AttestedConsensusClient rejectingClient = mock(AttestedConsensusClient.class);
+        when(rejectingClient.proposeTx(any())).thenReturn(rejected);
+        AttestedConsensusClient failingClient = mock(AttestedConsensusClient.class);
+        when(failingClient.proposeTx(any())).thenThrow(new NetworkException(500, "failed"));
+
+        HedgedTransactionSubmitter submitter = new HedgedTransactionSubmitter(
+                Arrays.asList(rejectingClient, failingClient), 0.95, Duration.ofMillis(0));
+        try {
+            Assert.assertEquals(rejected,
+                    submitter.proposeTx(MobileCoinAPI.Tx.getDefaultInstance()));
+        } finally {
+            submitter.shutdown();
+        }
+    }
+
+    @Test(expected = NetworkException.class)
+    public void test_all_nodes_failed() throws Exception {
+        AttestedConsensusClient failingClient1 = mock(AttestedConsensusClient.class);
+        when(failingClient1.proposeTx(any())).thenThrow(new NetworkException(500, "failed"));
+        AttestedConsensusClient failingClient2 = mock(AttestedConsensusClient.class);
+        when(failingClient2.proposeTx(any())).thenThrow(new NetworkException(500, "failed"));
+
+        HedgedTransactionSubmitter submitter = new HedgedTransactionSubmitter(
+                Arrays.asList(failingClient1, failingClient2), 0.95, Duration.ofMillis(100));
+        try {
+            submitter.proposeTx(MobileCoinAPI.Tx.getDefaultInstance());
+        } finally {
+            submitter.shutdown();
+        }
+    }
+}
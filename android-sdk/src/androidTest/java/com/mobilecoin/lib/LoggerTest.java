@@ -0,0 +1,179 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.log.DebugLogAdapter;
+import com.mobilecoin.lib.log.LogAdapter;
+import com.mobilecoin.lib.log.Logger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(AndroidJUnit4.class)
+public class LoggerTest {
+    private static final String TAG = LoggerTest.class.getName();
+    private static final int THREADS = 8;
+    private static final int MESSAGES_PER_THREAD = 200000;
+
+    @Before
+    public void setUp() {
+        Logger.clearAllAdapters();
+    }
+
+    @After
+    public void tearDown() {
+        Logger.setMinimumLevel(Logger.Level.VERBOSE);
+        Logger.clearAllAdapters();
+        Logger.addAdapter(new DebugLogAdapter());
+    }
+
+    @Test
+    public void test_minimum_level_drops_messages() {
+        CountingLogAdapter adapter = new CountingLogAdapter(true);
+        Logger.addAdapter(adapter);
+        Logger.setMinimumLevel(Logger.Level.WARNING);
+
+        Logger.i(TAG, "info");
+        Logger.d(TAG, "debug", null, "metadata");
+        Logger.w(TAG, "warning");
+        Logger.e(TAG, "error", null, "metadata");
+
+        Assert.assertEquals(2, adapter.count.get());
+        Assert.assertFalse(Logger.isLoggable(Logger.Level.INFO));
+        Assert.assertTrue(Logger.isLoggable(Logger.Level.ERROR));
+    }
+
+    @Test
+    public void test_supplier_is_not_called_below_minimum_level() {
+        CountingLogAdapter adapter = new CountingLogAdapter(true);
+        Logger.addAdapter(adapter);
+        Logger.setMinimumLevel(Logger.Level.INFO);
+        AtomicInteger supplierCalls = new AtomicInteger();
+
+        Logger.d(TAG, () -> "debug " + supplierCalls.incrementAndGet());
+        Assert.assertEquals(0, supplierCalls.get());
+        Assert.assertEquals(0, adapter.count.get());
+
+        Logger.i(TAG, () -> "info " + supplierCalls.incrementAndGet());
+        Assert.assertEquals(1, supplierCalls.get());
+        Assert.assertEquals(1, adapter.count.get());
+    }
+
+    @Test
+    public void test_no_adapters_is_not_loggable() {
+        Assert.assertFalse(Logger.isLoggable(Logger.Level.WTF));
+        Logger.addAdapter(new CountingLogAdapter(true));
+        Assert.assertTrue(Logger.isLoggable(Logger.Level.VERBOSE));
+    }
+
+    @Test
+    public void test_adapters_can_change_while_logging() throws Exception {
+        CountingLogAdapter adapter = new CountingLogAdapter(true);
+        Logger.addAdapter(adapter);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; ++i) {
+            futures.add(executorService.submit(() -> {
+                for (int j = 0; j < 10000; ++j) {
+                    Logger.i(TAG, "message");
+                }
+            }));
+        }
+        for (int i = 0; i < 1000; ++i) {
+            CountingLogAdapter transientAdapter = new CountingLogAdapter(true);
+            Logger.addAdapter(transientAdapter);
+            Logger.removeAdapter(transientAdapter);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        Assert.assertEquals(THREADS * 10000, adapter.count.get());
+    }
+
+    @Test
+    public void test_concurrent_logging_throughput() throws Exception {
+        // release builds: the adapter is consulted but nothing is logged
+        Logger.addAdapter(new CountingLogAdapter(false));
+        Object globalLock = new Object();
+        long lockedNanos = measureConcurrentLogging(() -> {
+            // every message serialized on one monitor, as before the lock-free adapters
+            synchronized (globalLock) {
+                Logger.i(TAG, "message");
+            }
+        });
+        long lockFreeNanos = measureConcurrentLogging(() -> Logger.i(TAG, "message"));
+        Logger.setMinimumLevel(Logger.Level.WARNING);
+        long droppedNanos = measureConcurrentLogging(() -> Logger.i(TAG, "message"));
+
+        long messages = (long) THREADS * MESSAGES_PER_THREAD;
+        tearDown();
+        Logger.d(TAG, "Concurrent logging", null,
+                "threads:", THREADS,
+                "global lock ns/msg:", lockedNanos / messages,
+                "lock-free ns/msg:", lockFreeNanos / messages,
+                "below minimum level ns/msg:", droppedNanos / messages);
+        Assert.assertTrue("Lock-free logging must not be slower than a global lock",
+                lockFreeNanos <= lockedNanos);
+    }
+
+    private static long measureConcurrentLogging(Runnable logCall) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; ++i) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < MESSAGES_PER_THREAD; ++j) {
+                    logCall.run();
+                }
+                return null;
+            }));
+        }
+        long startTime = System.nanoTime();
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+        return elapsedNanos;
+    }
+
+    private static final class CountingLogAdapter implements LogAdapter {
+        final AtomicInteger count = new AtomicInteger();
+        final boolean loggable;
+
+        CountingLogAdapter(boolean loggable) {
+            this.loggable = loggable;
+        }
+
+        @Override
+        public boolean isLoggable(Logger.Level logLevel, @NonNull String tag) {
+            return loggable;
+        }
+
+        @Override
+        public void log(Logger.Level logLevel, @NonNull String tag, @NonNull String message,
+                        @Nullable Throwable throwable, @NonNull Object... metadata) {
+            count.incrementAndGet();
+        }
+    }
+}
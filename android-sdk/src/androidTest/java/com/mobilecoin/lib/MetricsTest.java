@@ -0,0 +1,146 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.metrics.Histogram;
+import com.mobilecoin.lib.metrics.HistogramMetricsAdapter;
+import com.mobilecoin.lib.metrics.Metrics;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+@RunWith(AndroidJUnit4.class)
+public class MetricsTest {
+    private static final String TAG = MetricsTest.class.getName();
+    private static final String VIEW_SERVICE = "fog_view.FogViewAPI";
+
+    @After
+    public void tearDown() {
+        Metrics.clearAllAdapters();
+    }
+
+    @Test
+    public void test_histogram_percentiles() {
+        Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(0.5));
+        for (long value = 1; value <= 1000; ++value) {
+            histogram.record(value);
+        }
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(1000, histogram.getMax());
+        Assert.assertEquals(500.5, histogram.getMean(), 0.001);
+        // buckets are within 25% of the recorded values
+        assertWithin(500, histogram.getValueAtPercentile(0.5), 0.25);
+        assertWithin(990, histogram.getValueAtPercentile(0.99), 0.25);
+        Assert.assertEquals(1000, histogram.getValueAtPercentile(1));
+    }
+
+    @Test
+    public void test_histogram_extreme_values() {
+        Histogram histogram = new Histogram();
+        histogram.record(-1);
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(0, histogram.getValueAtPercentile(0.5));
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(1));
+    }
+
+    @Test
+    public void test_adapter_aggregates_events() {
+        HistogramMetricsAdapter adapter = new HistogramMetricsAdapter();
+        Metrics.addAdapter(adapter);
+
+        Metrics.onRpcStarted(VIEW_SERVICE, "Query");
+        Metrics.recordRpc(VIEW_SERVICE, "Query", "OK", 1000, 10, 100);
+        Metrics.recordRpc(VIEW_SERVICE, "Query", "UNAVAILABLE", 3000, 10, 0);
+        Metrics.recordRetry(503);
+        Metrics.recordAttestation(VIEW_SERVICE, 5000, false);
+        Metrics.recordStage(Metrics.Stage.VIEW_QUERY, 2000);
+
+        HistogramMetricsAdapter.RpcMetrics rpcMetrics = adapter.getRpcMetrics(VIEW_SERVICE,
+                "Query");
+        Assert.assertNotNull(rpcMetrics);
+        Assert.assertEquals(2, rpcMetrics.getLatency().getCount());
+        Assert.assertEquals(20, rpcMetrics.getRequestBytes());
+        Assert.assertEquals(100, rpcMetrics.getResponseBytes());
+        Assert.assertEquals(1, rpcMetrics.getRetryCount());
+        Assert.assertEquals(1, rpcMetrics.getStatusCount("OK"));
+        Assert.assertEquals(1, rpcMetrics.getStatusCount("UNAVAILABLE"));
+        HistogramMetricsAdapter.AttestationMetrics attestationMetrics =
+                adapter.getAttestationMetrics(VIEW_SERVICE);
+        Assert.assertNotNull(attestationMetrics);
+        Assert.assertEquals(1, attestationMetrics.getFailureCount());
+        Assert.assertEquals(1, adapter.getStageDurations(Metrics.Stage.VIEW_QUERY).getCount());
+        Assert.assertEquals(0, adapter.getStageDurations(Metrics.Stage.KEY_IMAGE_CHECK)
+                .getCount());
+
+        Metrics.removeAdapter(adapter);
+        Assert.assertFalse(Metrics.isEnabled());
+        Metrics.recordStage(Metrics.Stage.VIEW_QUERY, 2000);
+        Assert.assertEquals(1, adapter.getStageDurations(Metrics.Stage.VIEW_QUERY).getCount());
+    }
+
+    @Test
+    public void test_client_reports_rpc_and_sync_metrics() throws Exception {
+        HistogramMetricsAdapter adapter = new HistogramMetricsAdapter();
+        TestFogConfig fogConfig = TestFogConfig.getFogConfig(Environment.CURRENT_TEST_ENV);
+        fogConfig.getClientConfig().metricsAdapter = adapter;
+        MobileCoinClient mobileCoinClient = MobileCoinClientBuilder.newBuilder()
+                .setTestFogConfig(fogConfig)
+                .build();
+        try {
+            Assert.assertNotNull(mobileCoinClient.getBalance());
+
+            HistogramMetricsAdapter.RpcMetrics queryMetrics =
+                    adapter.getRpcMetrics(VIEW_SERVICE, "Query");
+            Assert.assertNotNull(queryMetrics);
+            Assert.assertTrue(queryMetrics.getStatusCount("OK") > 0);
+            Assert.assertTrue(queryMetrics.getResponseBytes() > 0);
+            Assert.assertNotNull(adapter.getAttestationMetrics(VIEW_SERVICE));
+            Assert.assertTrue(adapter.getStageDurations(Metrics.Stage.VIEW_QUERY)
+                    .getCount() > 0);
+            Assert.assertTrue(adapter.getStageDurations(Metrics.Stage.KEY_IMAGE_CHECK)
+                    .getCount() > 0);
+            Logger.d(TAG, "Balance metrics", null, adapter);
+        } finally {
+            mobileCoinClient.shutdown();
+        }
+        // the shutdown client no longer reports to its adapter
+        long stageCount = adapter.getStageDurations(Metrics.Stage.VIEW_QUERY).getCount();
+        Metrics.recordStage(Metrics.Stage.VIEW_QUERY, 1000);
+        Assert.assertEquals(stageCount,
+                adapter.getStageDurations(Metrics.Stage.VIEW_QUERY).getCount());
+    }
+
+    @Test
+    public void test_recording_throughput() {
+        HistogramMetricsAdapter adapter = new HistogramMetricsAdapter();
+        Metrics.addAdapter(adapter);
+        // create the statistics before measuring
+        Metrics.recordRpc(VIEW_SERVICE, "Query", "OK", 1000, 10, 100);
+        long startTime = System.nanoTime();
+        int events = 1000000;
+        for (int i = 0; i < events; ++i) {
+            Metrics.recordRpc(VIEW_SERVICE, "Query", "OK", i, 10, 100);
+            Metrics.recordStage(Metrics.Stage.TXO_DECRYPTION, i);
+        }
+        long nanosPerEvent = (System.nanoTime() - startTime) / (2L * events);
+        Logger.d(TAG, "Metrics recording", null,
+                "ns/event:", nanosPerEvent);
+        Assert.assertEquals(events + 1, adapter.getRpcMetrics(VIEW_SERVICE, "Query")
+                .getLatency().getCount());
+        Assert.assertTrue(nanosPerEvent < TimeUnit.MICROSECONDS.toNanos(10));
+    }
+
+    private static void assertWithin(long expected, long actual, double tolerance) {
+        Assert.assertTrue("Expected " + expected + " got " + actual,
+                Math.abs(actual - expected) <= expected * tolerance);
+    }
+}
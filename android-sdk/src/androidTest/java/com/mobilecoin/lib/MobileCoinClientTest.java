@@ -29,6 +29,7 @@ import com.mobilecoin.lib.exceptions.SerializationException;
 import com.mobilecoin.lib.exceptions.TransactionBuilderException;
 import com.mobilecoin.lib.log.Logger;
 import com.mobilecoin.lib.network.TransportProtocol;
+import com.mobilecoin.lib.network.services.http.PooledHttpRequester;
 import com.mobilecoin.lib.network.uri.FogUri;
 
 import java.util.HashMap;
@@ -694,6 +695,31 @@ public class MobileCoinClientTest {
         Assert.assertNotNull(balance);
     }
 
+    // Tests the built-in pooled Requester, including the authorization set on the REST transport
+    @Test
+    public void getBalance_withPooledHttpRequester_retrievesBalance() throws Exception {
+        MobileCoinClient mobileCoinClient = MobileCoinClientBuilder.newBuilder().build();
+        TestFogConfig fogConfig = Environment.getTestFogConfig();
+        mobileCoinClient.setTransportProtocol(
+                TransportProtocol.forHTTP(new PooledHttpRequester()));
+        mobileCoinClient.setFogBasicAuthorization(
+                fogConfig.getUsername(),
+                fogConfig.getPassword()
+        );
+        mobileCoinClient.setConsensusBasicAuthorization(
+                fogConfig.getUsername(),
+                fogConfig.getPassword()
+        );
+        try {
+            Balance balance = mobileCoinClient.getBalance();
+            Assert.assertNotNull(balance);
+            // the subsequent requests reuse the pooled connections
+            Assert.assertNotNull(mobileCoinClient.getBalance());
+        } finally {
+            mobileCoinClient.shutdown();
+        }
+    }
+
     // Tests RestBlockchainService.
     @Test
     public void getOrFetchMinimumTxFee_afterSetTransportProtocolWithHTTP_retrievesTransferableAmount() throws Exception {
@@ -0,0 +1,103 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import android.os.Debug;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.log.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and drops many native objects and checks that the native and Java heaps stay flat, both
+ * when the objects are closed and when they are left to the {@link NativeCleaner}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NativeResourceSoakTest {
+    private static final String TAG = NativeResourceSoakTest.class.getName();
+    private static final int ROUNDS = 20;
+    private static final int OBJECTS_PER_ROUND = 2000;
+    // allowed growth of the native heap over the soak, the allocator keeps some freed memory
+    private static final long MAX_NATIVE_HEAP_GROWTH = 4 * 1024 * 1024;
+
+    @Test
+    public void test_close_releases_eagerly() {
+        RistrettoPrivate privateKey = RistrettoPrivate.generateNewKey();
+        Assert.assertNotEquals(0, privateKey.rustObj);
+        privateKey.close();
+        Assert.assertEquals(0, privateKey.rustObj);
+        // closing again must not release the native object twice
+        privateKey.close();
+        Assert.assertEquals(0, privateKey.rustObj);
+    }
+
+    @Test
+    public void test_unreachable_objects_are_released() throws Exception {
+        int registeredCount = NativeCleaner.getRegisteredCount();
+        createObjects(OBJECTS_PER_ROUND, false);
+        Assert.assertTrue(NativeCleaner.getRegisteredCount() > registeredCount);
+        awaitCleaner(registeredCount);
+        Assert.assertTrue("Unreachable objects must be released",
+                NativeCleaner.getRegisteredCount() <= registeredCount);
+    }
+
+    @Test
+    public void test_soak_footprint() throws Exception {
+        Runtime runtime = Runtime.getRuntime();
+        int registeredCount = NativeCleaner.getRegisteredCount();
+        // warm up the allocators before taking the baseline
+        createObjects(OBJECTS_PER_ROUND, true);
+        awaitCleaner(registeredCount);
+        long nativeBaseline = Debug.getNativeHeapAllocatedSize();
+        long javaBaseline = runtime.totalMemory() - runtime.freeMemory();
+
+        long startTime = System.nanoTime();
+        for (int round = 0; round < ROUNDS; ++round) {
+            // every other round relies on the cleaner instead of close()
+            createObjects(OBJECTS_PER_ROUND, round % 2 == 0);
+        }
+        long soakNanos = System.nanoTime() - startTime;
+        awaitCleaner(registeredCount);
+        long nativeGrowth = Debug.getNativeHeapAllocatedSize() - nativeBaseline;
+        long javaGrowth = runtime.totalMemory() - runtime.freeMemory() - javaBaseline;
+
+        Logger.d(TAG, "Native objects soak", null,
+                "objects:", ROUNDS * OBJECTS_PER_ROUND * 3,
+                "ms:", TimeUnit.NANOSECONDS.toMillis(soakNanos),
+                "native heap growth:", nativeGrowth,
+                "java heap growth:", javaGrowth);
+        Assert.assertTrue("Native heap must not grow with the dropped objects",
+                nativeGrowth < MAX_NATIVE_HEAP_GROWTH);
+        Assert.assertTrue("All the dropped objects must be released",
+                NativeCleaner.getRegisteredCount() <= registeredCount);
+    }
+
+    private static void createObjects(int count, boolean close) throws Exception {
+        for (int i = 0; i < count; ++i) {
+            RistrettoPrivate privateKey = RistrettoPrivate.generateNewKey();
+            RistrettoPublic publicKey = privateKey.getPublicKey();
+            Amount amount = new Amount(publicKey, i);
+            Assert.assertNotNull(amount.getCommitment());
+            if (close) {
+                amount.close();
+                publicKey.close();
+                privateKey.close();
+            }
+        }
+    }
+
+    private static void awaitCleaner(int registeredCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (NativeCleaner.getRegisteredCount() > registeredCount
+                && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+}
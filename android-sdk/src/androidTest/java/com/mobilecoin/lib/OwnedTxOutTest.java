@@ -1,6 +1,9 @@
 package com.mobilecoin.lib;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -16,6 +19,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.Random;
 
 import fog_view.View;
@@ -48,4 +52,45 @@ public class OwnedTxOutTest {
         assertEquals(parcelInput, parcelOutput);
     }
 
+    @Test
+    public void testBinaryFormat() throws SerializationException {
+        byte[] keyImage = new byte[32];
+        new Random().nextBytes(keyImage);
+        OwnedTxOut input = new OwnedTxOut(UnsignedLong.fromLongBits(20000000L),
+                UnsignedLong.valueOf(322L), new Date(), UnsignedLong.MAX_VALUE.toBigInteger(),
+                RistrettoPrivate.generateNewKey().getPublicKey(), keyImage);
+        input.setSpent(UnsignedLong.valueOf(400L), null);
+        BinaryEncoder encoder = new BinaryEncoder(0);
+        input.writeTo(encoder);
+        OwnedTxOut output = OwnedTxOut.readFrom(new BinaryDecoder(encoder.toByteArray()));
+        assertEquals(input, output);
+        assertEquals(input.getValue(), output.getValue());
+        assertEquals(input.getReceivedBlockTimestamp(), output.getReceivedBlockTimestamp());
+        assertNull(output.getSpentBlockTimestamp());
+    }
+
+    @Test
+    public void testUnsignedFields() throws SerializationException {
+        OwnedTxOut input = new OwnedTxOut(UnsignedLong.MAX_VALUE, UnsignedLong.MAX_VALUE, null,
+                UnsignedLong.MAX_VALUE.toBigInteger(),
+                RistrettoPrivate.generateNewKey().getPublicKey(), new byte[32]);
+        assertNull(input.getReceivedBlockTimestamp());
+        assertFalse(input.isSpent(UnsignedLong.MAX_VALUE));
+        assertTrue(input.isReceived(UnsignedLong.MAX_VALUE));
+        assertFalse(input.isReceived(UnsignedLong.valueOf(Long.MAX_VALUE)));
+
+        Date spentBlockTimestamp = new Date();
+        input.setSpent(UnsignedLong.fromLongBits(Long.MIN_VALUE), spentBlockTimestamp);
+        assertTrue(input.isSpent(UnsignedLong.MAX_VALUE));
+        assertFalse(input.isSpent(UnsignedLong.valueOf(Long.MAX_VALUE)));
+        BinaryEncoder encoder = new BinaryEncoder(0);
+        input.writeTo(encoder);
+        OwnedTxOut output = OwnedTxOut.readFrom(new BinaryDecoder(encoder.toByteArray()));
+        assertEquals(input, output);
+        assertEquals(UnsignedLong.MAX_VALUE, output.getTxOutGlobalIndex());
+        assertEquals(UnsignedLong.MAX_VALUE.toBigInteger(), output.getValue());
+        assertEquals(spentBlockTimestamp, output.getSpentBlockTimestamp());
+        assertNull(output.getReceivedBlockTimestamp());
+    }
+
 }
@@ -0,0 +1,131 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.api.MobileCoinAPI;
+import com.mobilecoin.lib.log.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import fog_ledger.Ledger;
+
+/**
+ * Measures the ring stage of {@link MobileCoinClient#prepareTransaction} as the number of the
+ * inputs grows, the decoding of the native TxOuts and membership proofs on the calling thread
+ * compared to the parallel decoding of {@link Ring#decodeAll}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RingDecodeBenchmarkTest {
+    private static final String TAG = RingDecodeBenchmarkTest.class.getName();
+    private static final int[] INPUT_COUNTS = {1, 2, 4, 8, 16};
+    private static final int ITERATIONS = 3;
+    private static final int RING_SIZE = 11;
+
+    @Test
+    public void test_ring_decode_time() throws Exception {
+        MobileCoinClient mobileCoinClient = MobileCoinClientBuilder.newBuilder().build();
+        try {
+            mobileCoinClient.getAccountActivity();
+            UnsignedLong ledgerSize = mobileCoinClient.getTxOutStore().getLedgerTotalTxCount();
+            for (int inputCount : INPUT_COUNTS) {
+                List<Ledger.OutputResult> outputs =
+                        fetchOutputs(mobileCoinClient, ledgerSize, inputCount * RING_SIZE);
+                List<OwnedTxOut> inputs = createInputs(outputs, inputCount);
+
+                long serialNanos = Long.MAX_VALUE;
+                long parallelNanos = Long.MAX_VALUE;
+                for (int i = 0; i < ITERATIONS; ++i) {
+                    List<Callable<Ring>> decoders = createDecoders(outputs, inputs);
+                    long startTime = System.nanoTime();
+                    for (Callable<Ring> decoder : decoders) {
+                        decoder.call().close();
+                    }
+                    serialNanos = Math.min(serialNanos, System.nanoTime() - startTime);
+
+                    startTime = System.nanoTime();
+                    List<Ring> rings = Ring.decodeAll(decoders);
+                    parallelNanos = Math.min(parallelNanos, System.nanoTime() - startTime);
+                    Assert.assertEquals(inputCount, rings.size());
+                    for (Ring ring : rings) {
+                        Assert.assertEquals(RING_SIZE, ring.getNativeTxOuts().size());
+                        ring.close();
+                    }
+                }
+
+                // the complete ring stage including the ledger request
+                long startTime = System.nanoTime();
+                List<Ring> rings = mobileCoinClient.getRingsForUTXOs(inputs, ledgerSize);
+                long stageNanos = System.nanoTime() - startTime;
+                Assert.assertEquals(inputCount, rings.size());
+                for (Ring ring : rings) {
+                    ring.close();
+                }
+
+                Logger.d(TAG, "Ring decoding", null,
+                        "inputs:", inputCount,
+                        "serial ms:", TimeUnit.NANOSECONDS.toMillis(serialNanos),
+                        "parallel ms:", TimeUnit.NANOSECONDS.toMillis(parallelNanos),
+                        "ring stage ms:", TimeUnit.NANOSECONDS.toMillis(stageNanos));
+            }
+        } finally {
+            mobileCoinClient.shutdown();
+        }
+    }
+
+    private static List<Ledger.OutputResult> fetchOutputs(MobileCoinClient mobileCoinClient,
+                                                          UnsignedLong ledgerSize,
+                                                          int count) throws Exception {
+        Random random = new Random(count);
+        HashSet<UnsignedLong> indices = new HashSet<>();
+        while (indices.size() < count) {
+            indices.add(UnsignedLong.valueOf(Math.abs(random.nextLong())).remainder(ledgerSize));
+        }
+        List<Ledger.OutputResult> outputs =
+                mobileCoinClient.ledgerClient.getOutputs(indices, 0).getResultsList();
+        Assert.assertEquals(count, outputs.size());
+        return outputs;
+    }
+
+    // the rings are decoded without spending, so any ledger output can stand for an input
+    private static List<OwnedTxOut> createInputs(List<Ledger.OutputResult> outputs,
+                                                 int inputCount) {
+        RistrettoPublic publicKey = RistrettoPrivate.generateNewKey().getPublicKey();
+        List<OwnedTxOut> inputs = new ArrayList<>(inputCount);
+        for (int i = 0; i < inputCount; ++i) {
+            inputs.add(new OwnedTxOut(
+                    UnsignedLong.fromLongBits(outputs.get(i * RING_SIZE).getIndex()),
+                    UnsignedLong.ZERO, new Date(), BigInteger.ONE, publicKey, new byte[32]));
+        }
+        return inputs;
+    }
+
+    private static List<Callable<Ring>> createDecoders(List<Ledger.OutputResult> outputs,
+                                                       List<OwnedTxOut> inputs) {
+        List<Callable<Ring>> decoders = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); ++i) {
+            List<MobileCoinAPI.TxOut> txOuts = new ArrayList<>(RING_SIZE);
+            List<MobileCoinAPI.TxOutMembershipProof> proofs = new ArrayList<>(RING_SIZE);
+            for (Ledger.OutputResult output : outputs.subList(i * RING_SIZE,
+                    (i + 1) * RING_SIZE)) {
+                txOuts.add(output.getOutput());
+                proofs.add(output.getProof());
+            }
+            OwnedTxOut input = inputs.get(i);
+            decoders.add(() -> new Ring(txOuts, proofs, (short) 0, input));
+        }
+        return decoders;
+    }
+}
@@ -0,0 +1,54 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(AndroidJUnit4.class)
+public class TombstoneReaperTest {
+
+    @Test
+    public void test_watched_transaction_is_accepted() throws Exception {
+        MobileCoinClient mobileCoinClient = MobileCoinClientBuilder.newBuilder().build();
+        try {
+            PublicAddress recipient = TestKeysManager.getNextAccountKey().getPublicAddress();
+            PendingTransaction pending = mobileCoinClient.prepareTransaction(recipient,
+                    BigInteger.TEN, mobileCoinClient.estimateTotalFee(BigInteger.TEN));
+            mobileCoinClient.submitTransaction(pending.getTransaction());
+
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicReference<Transaction.Status> status = new AtomicReference<>();
+            mobileCoinClient.watchTransaction(pending.getTransaction(), (transaction, s) -> {
+                status.set(s);
+                latch.countDown();
+            });
+            Assert.assertTrue(latch.await(2, TimeUnit.MINUTES));
+            Assert.assertEquals(Transaction.Status.ACCEPTED, status.get());
+        } finally {
+            mobileCoinClient.shutdown();
+        }
+    }
+
+    @Test
+    public void test_tombstone_policy() {
+        TombstonePolicy policy = new TombstonePolicy(10, Duration.ofSeconds(5));
+        Assert.assertEquals(UnsignedLong.valueOf(110),
+                policy.getTombstoneBlockIndex(UnsignedLong.valueOf(100)));
+        try {
+            new TombstonePolicy(0, Duration.ZERO);
+            Assert.fail("Tombstone blocks must be positive");
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,69 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static com.mobilecoin.lib.UtilTest.waitForTransactionStatus;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(AndroidJUnit4.class)
+public class TransactionPipelineTest {
+    private static final int PAYMENTS = 3;
+
+    @Test
+    public void test_payments_use_distinct_inputs() throws Exception {
+        MobileCoinClient mobileCoinClient = MobileCoinClientBuilder.newBuilder().build();
+        PublicAddress recipient = TestKeysManager.getNextAccountKey().getPublicAddress();
+        try (TransactionPipeline pipeline = new TransactionPipeline(mobileCoinClient, 2, 4)) {
+            List<TransactionPipeline.Payment> payments = new ArrayList<>();
+            for (int i = 0; i < PAYMENTS; ++i) {
+                payments.add(pipeline.send(recipient, BigInteger.TEN, null));
+            }
+            HashSet<KeyImage> keyImages = new HashSet<>();
+            for (TransactionPipeline.Payment payment : payments) {
+                PendingTransaction pending = payment.get(2, TimeUnit.MINUTES);
+                for (KeyImage keyImage : pending.getTransaction().getKeyImages()) {
+                    Assert.assertTrue("Payments must not share inputs", keyImages.add(keyImage));
+                }
+            }
+            for (TransactionPipeline.Payment payment : payments) {
+                Transaction.Status status = waitForTransactionStatus(mobileCoinClient,
+                        payment.get().getTransaction());
+                Assert.assertEquals(Transaction.Status.ACCEPTED, status);
+            }
+        } finally {
+            mobileCoinClient.shutdown();
+        }
+    }
+
+    @Test
+    public void test_shutdown_cancels_queued_payments() throws Exception {
+        MobileCoinClient mobileCoinClient = MobileCoinClientBuilder.newBuilder().build();
+        PublicAddress recipient = TestKeysManager.getNextAccountKey().getPublicAddress();
+        try {
+            TransactionPipeline pipeline = new TransactionPipeline(mobileCoinClient, 1, 1);
+            TransactionPipeline.Payment payment = pipeline.send(recipient, BigInteger.TEN, null);
+            pipeline.shutdown();
+            Assert.assertTrue(payment.isDone());
+            try {
+                payment.get();
+                Assert.fail("A queued payment must be cancelled");
+            } catch (CancellationException ignored) {
+                // expected
+            }
+        } finally {
+            mobileCoinClient.shutdown();
+        }
+    }
+}
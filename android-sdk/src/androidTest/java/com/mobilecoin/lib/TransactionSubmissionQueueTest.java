@@ -0,0 +1,180 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.api.MobileCoinAPI;
+import com.mobilecoin.lib.network.uri.ConsensusUri;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import consensus_common.ConsensusCommon;
+
+@RunWith(AndroidJUnit4.class)
+public class TransactionSubmissionQueueTest {
+
+    @Test
+    public void test_user_lane_is_served_first() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> proposed = Collections.synchronizedList(new ArrayList<>());
+        AttestedConsensusClient consensusClient = mockConsensusClient(release, proposed,
+                new AtomicInteger(), new AtomicInteger());
+        TransactionSubmissionQueue queue = new TransactionSubmissionQueue(
+                Collections.singletonList(consensusClient), createBlockchainClient(), 1, 10);
+
+        // occupies the only slot of the node
+        TransactionSubmission first = queue.submit(createTransaction(1),
+                TransactionSubmission.Priority.USER);
+        TransactionSubmission background = queue.submit(createTransaction(2),
+                TransactionSubmission.Priority.BACKGROUND);
+        TransactionSubmission user = queue.submit(createTransaction(3),
+                TransactionSubmission.Priority.USER);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        user.get(5, TimeUnit.SECONDS);
+        background.get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, proposed.size());
+        assertEquals(Long.valueOf(3), proposed.get(1));
+        assertEquals(Long.valueOf(2), proposed.get(2));
+        assertNotNull(user.getLatency());
+        assertTrue(user.getLatency().compareTo(user.getQueueDelay()) >= 0);
+        queue.shutdown();
+    }
+
+    @Test
+    public void test_in_flight_proposals_are_limited_per_node() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<AttestedConsensusClient> nodes = new ArrayList<>();
+        for (int i = 0; i < 2; ++i) {
+            nodes.add(mockConsensusClient(release,
+                    Collections.synchronizedList(new ArrayList<>()), inFlight, maxInFlight));
+        }
+        TransactionSubmissionQueue queue = new TransactionSubmissionQueue(nodes,
+                createBlockchainClient(), 2, 10);
+        List<TransactionSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            submissions.add(queue.submit(createTransaction(i),
+                    TransactionSubmission.Priority.USER));
+        }
+        Thread.sleep(200);
+        assertEquals(4, inFlight.get());
+        release.countDown();
+        for (TransactionSubmission submission : submissions) {
+            submission.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(4, maxInFlight.get());
+        queue.shutdown();
+    }
+
+    @Test
+    public void test_background_lane_leaves_the_last_slot_to_users() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> proposed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger inFlight = new AtomicInteger();
+        AttestedConsensusClient consensusClient = mockConsensusClient(release, proposed,
+                inFlight, new AtomicInteger());
+        TransactionSubmissionQueue queue = new TransactionSubmissionQueue(
+                Collections.singletonList(consensusClient), createBlockchainClient(), 2, 10);
+        List<TransactionSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            submissions.add(queue.submit(createTransaction(i),
+                    TransactionSubmission.Priority.BACKGROUND));
+        }
+        Thread.sleep(200);
+        assertEquals(1, inFlight.get());
+
+        // the user submission takes the reserved slot without waiting for the background ones
+        TransactionSubmission user = queue.submit(createTransaction(10),
+                TransactionSubmission.Priority.USER);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (inFlight.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, inFlight.get());
+        assertEquals(Long.valueOf(10), proposed.get(1));
+        release.countDown();
+        user.get(5, TimeUnit.SECONDS);
+        for (TransactionSubmission submission : submissions) {
+            submission.get(5, TimeUnit.SECONDS);
+        }
+        queue.shutdown();
+    }
+
+    @Test
+    public void test_shutdown_cancels_queued_submissions() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AttestedConsensusClient consensusClient = mockConsensusClient(release,
+                Collections.synchronizedList(new ArrayList<>()), new AtomicInteger(),
+                new AtomicInteger());
+        TransactionSubmissionQueue queue = new TransactionSubmissionQueue(
+                Collections.singletonList(consensusClient), createBlockchainClient(), 1, 10);
+        TransactionSubmission inFlight = queue.submit(createTransaction(1),
+                TransactionSubmission.Priority.USER);
+        TransactionSubmission queued = queue.submit(createTransaction(2),
+                TransactionSubmission.Priority.BACKGROUND);
+        queue.shutdown();
+        assertTrue(queued.isCancelled());
+        assertFalse(inFlight.isCancelled());
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+    }
+
+    // the transactions are told apart by their tombstone blocks
+    private static Transaction createTransaction(long id) throws Exception {
+        MobileCoinAPI.Tx tx = MobileCoinAPI.Tx.newBuilder()
+                .setPrefix(MobileCoinAPI.TxPrefix.newBuilder().setTombstoneBlock(id))
+                .build();
+        return Transaction.fromBytes(tx.toByteArray());
+    }
+
+    private static BlockchainClient createBlockchainClient() throws Exception {
+        return new BlockchainClient(
+                RandomLoadBalancer.create(
+                        new ConsensusUri(Environment.getTestFogConfig().getConsensusUri())),
+                Environment.getTestFogConfig().getClientConfig().consensus,
+                Duration.ofHours(1));
+    }
+
+    // the proposals wait for the release and record the tombstones in the order they are sent
+    private static AttestedConsensusClient mockConsensusClient(CountDownLatch release,
+                                                               List<Long> proposed,
+                                                               AtomicInteger inFlight,
+                                                               AtomicInteger maxInFlight)
+            throws Exception {
+        AttestedConsensusClient consensusClient = mock(AttestedConsensusClient.class);
+        when(consensusClient.proposeTx(any())).thenAnswer(invocation -> {
+            MobileCoinAPI.Tx tx = invocation.getArgument(0);
+            proposed.add(tx.getPrefix().getTombstoneBlock());
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                release.await();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return ConsensusCommon.ProposeTxResponse.getDefaultInstance();
+        });
+        return consensusClient;
+    }
+}
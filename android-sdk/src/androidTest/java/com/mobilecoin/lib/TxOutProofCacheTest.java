@@ -0,0 +1,156 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fog_ledger.Ledger;
+
+@RunWith(AndroidJUnit4.class)
+public class TxOutProofCacheTest {
+    private static final long NUM_BLOCKS = 5000;
+    private static final long LATEST_ROOT_BLOCK = NUM_BLOCKS - 1;
+
+    @Test
+    public void test_proofs_are_fetched_in_batches() throws Exception {
+        AccountKey accountKey = TestKeysManager.getNextAccountKey();
+        TxOutStore store = new TxOutStore(accountKey);
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 100);
+        store.addRecoveredTxOuts(txOuts);
+        AtomicInteger requests = new AtomicInteger();
+        TxOutProofCache cache = new TxOutProofCache(store, mockLedgerClient(requests),
+                Duration.ofMinutes(10));
+        // nothing is cached before the store is synchronized
+        assertNull(cache.get(txOuts, LATEST_ROOT_BLOCK));
+
+        cache.onCursorsChanged(UnsignedLong.ZERO, UnsignedLong.ZERO, 0, null);
+        Map<UnsignedLong, Ledger.OutputResult> outputs = awaitProofs(cache, txOuts, LATEST_ROOT_BLOCK);
+        assertEquals(txOuts.size(), outputs.size());
+        for (OwnedTxOut txOut : txOuts) {
+            assertEquals(txOut.getTxOutGlobalIndex().longValue(),
+                    outputs.get(txOut.getTxOutGlobalIndex()).getIndex());
+        }
+        // 100 proofs in batches of 64
+        assertEquals(2, requests.get());
+
+        // the fresh proofs are not fetched again
+        cache.onCursorsChanged(UnsignedLong.ZERO, UnsignedLong.ZERO, 0, null);
+        Thread.sleep(200);
+        assertEquals(2, requests.get());
+        cache.shutdown();
+    }
+
+    @Test
+    public void test_spent_and_stale_proofs_are_not_used() throws Exception {
+        AccountKey accountKey = TestKeysManager.getNextAccountKey();
+        TxOutStore store = new TxOutStore(accountKey);
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 10);
+        store.addRecoveredTxOuts(txOuts);
+        TxOutProofCache cache = new TxOutProofCache(store,
+                mockLedgerClient(new AtomicInteger()), Duration.ofMinutes(10));
+        cache.onCursorsChanged(UnsignedLong.ZERO, UnsignedLong.ZERO, 0, null);
+        awaitProofs(cache, txOuts, LATEST_ROOT_BLOCK);
+
+        OwnedTxOut spent = txOuts.get(0);
+        cache.onTxOutSpent(spent);
+        assertNull("Spent TxOut proofs must be evicted",
+                cache.get(Collections.singletonList(spent), LATEST_ROOT_BLOCK));
+        assertNotNull(cache.get(txOuts.subList(1, txOuts.size()), LATEST_ROOT_BLOCK));
+        cache.shutdown();
+
+        TxOutProofCache staleCache = new TxOutProofCache(store,
+                mockLedgerClient(new AtomicInteger()), Duration.ZERO);
+        staleCache.onCursorsChanged(UnsignedLong.ZERO, UnsignedLong.ZERO, 0, null);
+        Thread.sleep(500);
+        assertNull("Stale proofs must not be used", staleCache.get(txOuts, LATEST_ROOT_BLOCK));
+        staleCache.shutdown();
+    }
+
+    @Test
+    public void test_proofs_of_another_root_are_not_used() throws Exception {
+        AccountKey accountKey = TestKeysManager.getNextAccountKey();
+        TxOutStore store = new TxOutStore(accountKey);
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 10);
+        store.addRecoveredTxOuts(txOuts);
+        AtomicInteger requests = new AtomicInteger();
+        List<Long> requestedRoots = Collections.synchronizedList(new ArrayList<>());
+        TxOutProofCache cache = new TxOutProofCache(store,
+                mockLedgerClient(requests, requestedRoots), Duration.ofMinutes(10));
+        // the proofs are relative to the latest block until a root is requested
+        cache.onCursorsChanged(UnsignedLong.ZERO, UnsignedLong.ZERO, 0, null);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0L, (long) requestedRoots.get(0));
+        awaitProofs(cache, txOuts, LATEST_ROOT_BLOCK);
+
+        // the decoys share an older root, the proofs are fetched again relative to it
+        long decoysRootBlock = LATEST_ROOT_BLOCK - 100;
+        assertNull("Proofs of another root must not be used",
+                cache.get(txOuts, decoysRootBlock));
+        awaitProofs(cache, txOuts, decoysRootBlock);
+        assertEquals(decoysRootBlock, (long) requestedRoots.get(requestedRoots.size() - 1));
+        assertNull(cache.get(txOuts, LATEST_ROOT_BLOCK));
+        cache.shutdown();
+    }
+
+    private static Map<UnsignedLong, Ledger.OutputResult> awaitProofs(
+            TxOutProofCache cache, List<OwnedTxOut> txOuts, long merkleRootBlock)
+            throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Map<UnsignedLong, Ledger.OutputResult> outputs = cache.get(txOuts, merkleRootBlock);
+            if (outputs != null) {
+                return outputs;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("The proofs were not fetched");
+    }
+
+    private static AttestedLedgerClient mockLedgerClient(AtomicInteger requests)
+            throws Exception {
+        return mockLedgerClient(requests, new ArrayList<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AttestedLedgerClient mockLedgerClient(AtomicInteger requests,
+                                                         List<Long> requestedRoots)
+            throws Exception {
+        AttestedLedgerClient ledgerClient = mock(AttestedLedgerClient.class);
+        when(ledgerClient.getOutputs(any(Collection.class), anyLong())).thenAnswer(invocation -> {
+            requests.incrementAndGet();
+            requestedRoots.add(invocation.getArgument(1));
+            Collection<UnsignedLong> indices = new ArrayList<>(invocation.getArgument(0));
+            Ledger.GetOutputsResponse.Builder response = Ledger.GetOutputsResponse.newBuilder()
+                    .setNumBlocks(NUM_BLOCKS);
+            for (UnsignedLong index : indices) {
+                response.addResults(Ledger.OutputResult.newBuilder()
+                        .setIndex(index.longValue())
+                        .setResultCode(Ledger.OutputResultCode.Exists_VALUE));
+            }
+            return response.build();
+        });
+        return ledgerClient;
+    }
+}
@@ -0,0 +1,103 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(AndroidJUnit4.class)
+public class TxOutStoreAutosaverTest {
+
+    @Test
+    public void test_changes_are_coalesced() throws Exception {
+        CountingSaver saver = new CountingSaver();
+        TxOutStoreAutosaver autosaver = new TxOutStoreAutosaver(
+                new AutosavePolicy(Duration.ofMillis(200), Long.MAX_VALUE), saver);
+        for (int i = 0; i < 100; ++i) {
+            autosaver.onIngestInvocationDecommissioned(i);
+        }
+        assertTrue(saver.saved.tryAcquire(5, TimeUnit.SECONDS));
+        Thread.sleep(500);
+        assertEquals(1, saver.saves.get());
+
+        // the next change schedules another save
+        autosaver.onIngestInvocationDecommissioned(100);
+        assertTrue(saver.saved.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals(2, saver.saves.get());
+        autosaver.shutdown();
+        assertEquals(2, saver.saves.get());
+    }
+
+    @Test
+    public void test_size_threshold_saves_immediately() throws Exception {
+        CountingSaver saver = new CountingSaver();
+        TxOutStoreAutosaver autosaver = new TxOutStoreAutosaver(
+                new AutosavePolicy(Duration.ofHours(1), 1000), saver);
+        autosaver.onIngestInvocationDecommissioned(1);
+        assertEquals(0, saver.saves.get());
+        for (int i = 0; i < 100; ++i) {
+            autosaver.onIngestInvocationDecommissioned(i);
+        }
+        assertTrue(saver.saved.tryAcquire(5, TimeUnit.SECONDS));
+        autosaver.shutdown();
+    }
+
+    @Test
+    public void test_shutdown_flushes_changes() {
+        CountingSaver saver = new CountingSaver();
+        TxOutStoreAutosaver autosaver = new TxOutStoreAutosaver(
+                new AutosavePolicy(Duration.ofHours(1), Long.MAX_VALUE), saver);
+        autosaver.shutdown();
+        assertEquals(0, saver.saves.get());
+
+        autosaver = new TxOutStoreAutosaver(
+                new AutosavePolicy(Duration.ofHours(1), Long.MAX_VALUE), saver);
+        autosaver.onIngestInvocationDecommissioned(1);
+        autosaver.shutdown();
+        assertEquals(1, saver.saves.get());
+        // changes after the shutdown are not saved in the background
+        autosaver.onIngestInvocationDecommissioned(2);
+        autosaver.shutdown();
+        assertEquals(1, saver.saves.get());
+    }
+
+    @Test
+    public void test_failed_save_is_retried_on_shutdown() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch saveStarted = new CountDownLatch(1);
+        TxOutStoreAutosaver autosaver = new TxOutStoreAutosaver(
+                new AutosavePolicy(Duration.ZERO, Long.MAX_VALUE), () -> {
+            if (attempts.incrementAndGet() == 1) {
+                saveStarted.countDown();
+                throw new IllegalStateException("Storage is unavailable");
+            }
+        });
+        autosaver.onIngestInvocationDecommissioned(1);
+        // the shutdown awaits the failing background save and retries it
+        assertTrue(saveStarted.await(5, TimeUnit.SECONDS));
+        autosaver.shutdown();
+        assertEquals(2, attempts.get());
+    }
+
+    private static final class CountingSaver implements TxOutStoreAutosaver.Saver {
+        final AtomicInteger saves = new AtomicInteger();
+        final Semaphore saved = new Semaphore(0);
+
+        @Override
+        public void save() {
+            saves.incrementAndGet();
+            saved.release();
+        }
+    }
+}
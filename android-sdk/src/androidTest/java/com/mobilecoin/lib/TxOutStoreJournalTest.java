@@ -0,0 +1,210 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.protobuf.ByteString;
+import com.mobilecoin.api.MobileCoinAPI;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fog_ledger.Ledger;
+
+@RunWith(AndroidJUnit4.class)
+public class TxOutStoreJournalTest {
+
+    @Test
+    public void test_changes_are_appended_and_replayed() throws Exception {
+        AccountKey accountKey = createAccountKey();
+        TestStreamingStorageAdapter storage = new TestStreamingStorageAdapter();
+        TxOutStoreJournal journal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore store = journal.load(accountKey);
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 200);
+
+        // the first persist writes a snapshot
+        store.addRecoveredTxOuts(txOuts.subList(0, 100));
+        journal.persist(store);
+        String snapshotKey = TxOutStore.createStorageKey(accountKey);
+        byte[] snapshot = storage.get(snapshotKey);
+        assertEquals(0, storage.size(snapshotKey + "-journal"));
+
+        // the following changes are appended to the journal
+        store.addRecoveredTxOuts(txOuts.subList(100, 110));
+        store.updateTxOutsSpentState(createSpentResponse(txOuts.get(1), 5000L));
+        journal.persist(store);
+        assertArrayEquals(snapshot, storage.get(snapshotKey));
+        long journalSize = storage.size(snapshotKey + "-journal");
+        assertTrue(journalSize > 0);
+        assertTrue(journalSize < snapshot.length);
+
+        TxOutStoreJournal restoredJournal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore restored = restoredJournal.load(accountKey);
+        assertEquals(store, restored);
+        assertEquals(store.getSyncedTxOuts(), restored.getSyncedTxOuts());
+        assertEquals(UnsignedLong.valueOf(5000L),
+                restored.getUtxoByKeyImage(txOuts.get(1).getKeyImage().getData())
+                        .getSpentBlockIndex());
+    }
+
+    @Test
+    public void test_truncated_journal_is_compacted() throws Exception {
+        AccountKey accountKey = createAccountKey();
+        TestStreamingStorageAdapter storage = new TestStreamingStorageAdapter();
+        TxOutStoreJournal journal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore store = journal.load(accountKey);
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 20);
+        store.addRecoveredTxOuts(txOuts.subList(0, 10));
+        journal.persist(store);
+        store.addRecoveredTxOuts(txOuts.subList(10, 20));
+        journal.persist(store);
+
+        // drop the last byte of the journal as if the app was killed while appending
+        String journalKey = TxOutStore.createStorageKey(accountKey) + "-journal";
+        byte[] journalBytes = storage.get(journalKey);
+        storage.set(journalKey, Arrays.copyOf(journalBytes, journalBytes.length - 1));
+
+        TxOutStoreJournal restoredJournal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore restored = restoredJournal.load(accountKey);
+        assertEquals(19, restored.getSyncedTxOuts().size());
+
+        restoredJournal.persist(restored);
+        assertFalse(storage.has(journalKey));
+        TxOutStore compacted = new TxOutStoreJournal(storage, accountKey).load(accountKey);
+        assertEquals(restored, compacted);
+    }
+
+    @Test
+    public void test_journal_is_compacted_when_it_grows() throws Exception {
+        AccountKey accountKey = createAccountKey();
+        TestStreamingStorageAdapter storage = new TestStreamingStorageAdapter();
+        TxOutStoreJournal journal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore store = journal.load(accountKey);
+        String journalKey = TxOutStore.createStorageKey(accountKey) + "-journal";
+        journal.persist(store);
+        // each batch is small, the journal outgrows the compaction threshold
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 2000);
+        long maxJournalSize = 0;
+        for (int i = 0; i < txOuts.size(); i += 100) {
+            store.addRecoveredTxOuts(txOuts.subList(i, i + 100));
+            journal.persist(store);
+            maxJournalSize = Math.max(maxJournalSize, storage.size(journalKey));
+        }
+        assertTrue(maxJournalSize > 0);
+        assertTrue(storage.size(journalKey) < maxJournalSize);
+        TxOutStore restored = new TxOutStoreJournal(storage, accountKey).load(accountKey);
+        assertEquals(store, restored);
+    }
+
+    @Test
+    public void test_journal_of_an_interrupted_compaction_is_discarded() throws Exception {
+        AccountKey accountKey = createAccountKey();
+        TestStreamingStorageAdapter storage = new TestStreamingStorageAdapter();
+        TxOutStoreJournal journal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore store = journal.load(accountKey);
+        String journalKey = TxOutStore.createStorageKey(accountKey) + "-journal";
+        journal.persist(store);
+        List<OwnedTxOut> txOuts = TxOutStoreTest.createTxOuts(accountKey, 2000);
+        byte[] staleJournal = null;
+        for (int i = 0; i < txOuts.size() && staleJournal == null; i += 100) {
+            byte[] previousJournal = storage.get(journalKey);
+            store.addRecoveredTxOuts(txOuts.subList(i, i + 100));
+            journal.persist(store);
+            if (previousJournal != null && !storage.has(journalKey)) {
+                staleJournal = previousJournal;
+            }
+        }
+        assertTrue(staleJournal != null);
+
+        // the app was killed after the new snapshot was written but before the journal was cleared
+        storage.set(journalKey, staleJournal);
+        TxOutStoreJournal restoredJournal = new TxOutStoreJournal(storage, accountKey);
+        TxOutStore restored = restoredJournal.load(accountKey);
+        assertEquals(store, restored);
+        assertEquals(store.getSyncedTxOuts(), restored.getSyncedTxOuts());
+
+        restoredJournal.persist(restored);
+        assertFalse(storage.has(journalKey));
+    }
+
+    private static AccountKey createAccountKey() throws Exception {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        return AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+    }
+
+    private static Ledger.CheckKeyImagesResponse createSpentResponse(OwnedTxOut txOut,
+                                                                     long spentAt) {
+        return Ledger.CheckKeyImagesResponse.newBuilder()
+                .setNumBlocks(spentAt + 1)
+                .setGlobalTxoCount(spentAt * 10)
+                .addResults(Ledger.KeyImageResult.newBuilder()
+                        .setKeyImage(MobileCoinAPI.KeyImage.newBuilder()
+                                .setData(ByteString.copyFrom(txOut.getKeyImage().getData())))
+                        .setSpentAt(spentAt)
+                        .setTimestamp(-1L)
+                        .setKeyImageResultCode(Ledger.KeyImageResultCode.Spent_VALUE))
+                .build();
+    }
+
+    static final class TestStreamingStorageAdapter implements StreamingStorageAdapter {
+        private final Map<String, byte[]> storage = new HashMap<>();
+
+        @Override
+        public synchronized boolean has(String key) {
+            return storage.containsKey(key);
+        }
+
+        @Override
+        public synchronized byte[] get(String key) {
+            return storage.get(key);
+        }
+
+        @Override
+        public synchronized void set(String key, byte[] value) {
+            storage.put(key, value);
+        }
+
+        @Override
+        public synchronized void clear(String key) {
+            storage.remove(key);
+        }
+
+        @Override
+        public synchronized void append(String key, byte[] bytes) {
+            byte[] value = storage.containsKey(key) ? storage.get(key) : new byte[0];
+            byte[] newValue = Arrays.copyOf(value, value.length + bytes.length);
+            System.arraycopy(bytes, 0, newValue, value.length, bytes.length);
+            storage.put(key, newValue);
+        }
+
+        @Override
+        public synchronized long size(String key) {
+            return storage.containsKey(key) ? storage.get(key).length : 0;
+        }
+
+        @Override
+        public synchronized byte[] read(String key, long offset, int length) {
+            byte[] value = storage.get(key);
+            int from = (int) Math.min(offset, value.length);
+            return Arrays.copyOfRange(value, from, Math.min(value.length, from + length));
+        }
+
+        @Override
+        public synchronized ByteBuffer getBuffer(String key) {
+            return storage.containsKey(key) ? ByteBuffer.wrap(storage.get(key)) : null;
+        }
+    }
+}
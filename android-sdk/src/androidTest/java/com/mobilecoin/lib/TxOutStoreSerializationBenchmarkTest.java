@@ -0,0 +1,75 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.log.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary storage format of the {@link TxOutStore} with the previous parcel format
+ * for the encoding time, the decoding time and the serialized size of a large account.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TxOutStoreSerializationBenchmarkTest {
+    private static final String TAG = TxOutStoreSerializationBenchmarkTest.class.getName();
+    private static final int TXO_COUNT = 100000;
+    private static final int ITERATIONS = 3;
+
+    @Test
+    public void test_binary_format_vs_parcel() throws Exception {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        AccountKey accountKey = AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+        TxOutStore store = new TxOutStore(accountKey);
+        store.addRecoveredTxOuts(TxOutStoreTest.createTxOuts(accountKey, TXO_COUNT));
+
+        // warm up both paths before measuring
+        byte[] binary = store.toByteArray();
+        byte[] parcel = store.toParcelBytes();
+        Assert.assertEquals(TXO_COUNT, TxOutStore.fromBytes(binary).getSyncedTxOuts().size());
+        Assert.assertEquals(TXO_COUNT, TxOutStore.fromParcelBytes(parcel)
+                .getSyncedTxOuts().size());
+
+        long binaryEncodeNanos = Long.MAX_VALUE;
+        long parcelEncodeNanos = Long.MAX_VALUE;
+        long binaryDecodeNanos = Long.MAX_VALUE;
+        long parcelDecodeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; ++i) {
+            long startTime = System.nanoTime();
+            binary = store.toByteArray();
+            binaryEncodeNanos = Math.min(binaryEncodeNanos, System.nanoTime() - startTime);
+
+            startTime = System.nanoTime();
+            parcel = store.toParcelBytes();
+            parcelEncodeNanos = Math.min(parcelEncodeNanos, System.nanoTime() - startTime);
+
+            startTime = System.nanoTime();
+            Assert.assertNotNull(TxOutStore.fromBytes(binary));
+            binaryDecodeNanos = Math.min(binaryDecodeNanos, System.nanoTime() - startTime);
+
+            startTime = System.nanoTime();
+            Assert.assertNotNull(TxOutStore.fromParcelBytes(parcel));
+            parcelDecodeNanos = Math.min(parcelDecodeNanos, System.nanoTime() - startTime);
+        }
+
+        Logger.d(TAG, "TxOutStore serialization", null,
+                "txos:", TXO_COUNT,
+                "binary bytes:", binary.length,
+                "parcel bytes:", parcel.length,
+                "binary encode ms:", TimeUnit.NANOSECONDS.toMillis(binaryEncodeNanos),
+                "parcel encode ms:", TimeUnit.NANOSECONDS.toMillis(parcelEncodeNanos),
+                "binary decode ms:", TimeUnit.NANOSECONDS.toMillis(binaryDecodeNanos),
+                "parcel decode ms:", TimeUnit.NANOSECONDS.toMillis(parcelDecodeNanos));
+        Assert.assertTrue("Binary format must be smaller than the parcel format",
+                binary.length < parcel.length);
+        Assert.assertTrue("Binary encoding must be faster than the parcel encoding",
+                binaryEncodeNanos < parcelEncodeNanos);
+    }
+}
@@ -0,0 +1,60 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mobilecoin.lib.log.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of a client with a large cached account, the time to restore the
+ * {@link TxOutStore} compared to the time to decode all of its TxOuts and their keys.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TxOutStoreStartupBenchmarkTest {
+    private static final String TAG = TxOutStoreStartupBenchmarkTest.class.getName();
+    private static final int TXO_COUNT = 50000;
+    private static final int ITERATIONS = 3;
+
+    @Test
+    public void test_lazy_restore() throws Exception {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        AccountKey accountKey = AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+        TxOutStore store = new TxOutStore(accountKey);
+        store.addRecoveredTxOuts(TxOutStoreTest.createTxOuts(accountKey, TXO_COUNT));
+        byte[] serialized = store.toByteArray();
+
+        long restoreNanos = Long.MAX_VALUE;
+        long loadNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; ++i) {
+            long startTime = System.nanoTime();
+            TxOutStore restored = TxOutStore.fromBytes(serialized);
+            restored.setAccountKey(accountKey);
+            restoreNanos = Math.min(restoreNanos, System.nanoTime() - startTime);
+
+            // the first sync or selection decodes the TxOuts and their native keys
+            startTime = System.nanoTime();
+            Set<OwnedTxOut> txOuts = restored.getSyncedTxOuts();
+            for (OwnedTxOut txOut : txOuts) {
+                Assert.assertNotNull(txOut.getPublicKey());
+            }
+            loadNanos = Math.min(loadNanos, System.nanoTime() - startTime);
+            Assert.assertEquals(TXO_COUNT, txOuts.size());
+        }
+
+        Logger.d(TAG, "TxOutStore cold start", null,
+                "txos:", TXO_COUNT,
+                "bytes:", serialized.length,
+                "restore ms:", TimeUnit.NANOSECONDS.toMillis(restoreNanos),
+                "first use ms:", TimeUnit.NANOSECONDS.toMillis(loadNanos));
+        Assert.assertTrue("Restoring must not decode the TxOuts", restoreNanos < loadNanos);
+    }
+}
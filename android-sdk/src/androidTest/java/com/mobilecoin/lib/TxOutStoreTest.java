@@ -2,6 +2,7 @@
 
 package com.mobilecoin.lib;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -12,6 +13,8 @@ import static org.mockito.Mockito.when;
 
 import android.os.Parcel;
 
+import androidx.annotation.NonNull;
+
 import com.google.protobuf.ByteString;
 import com.mobilecoin.lib.exceptions.AttestationException;
 import com.mobilecoin.lib.exceptions.BadBip39EntropyException;
@@ -33,10 +36,15 @@ import org.junit.Test;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import fog_common.FogCommon;
 import fog_view.View;
@@ -310,6 +318,88 @@ public class TxOutStoreTest {
         assertEquals(parcelInput, parcelOutput);
     }
 
+    @Test
+    public void testBinaryFormat() throws BadBip39EntropyException, SerializationException {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        AccountKey accountWithoutFog = AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+        TxOutStore input = new TxOutStore(accountWithoutFog);
+        input.addRecoveredTxOuts(createTxOuts(accountWithoutFog, 100));
+        TxOutStore output = TxOutStore.fromBytes(input.toByteArray());
+        output.setAccountKey(accountWithoutFog);
+        assertEquals(input, output);
+        assertEquals(input.getSyncedTxOuts(), output.getSyncedTxOuts());
+    }
+
+    @Test
+    public void testParcelFormatMigration()
+            throws BadBip39EntropyException, SerializationException {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        AccountKey accountWithoutFog = AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+        TxOutStore input = new TxOutStore(accountWithoutFog);
+        input.addRecoveredTxOuts(createTxOuts(accountWithoutFog, 100));
+        TxOutStore migrated = TxOutStore.fromBytes(input.toParcelBytes());
+        migrated.setAccountKey(accountWithoutFog);
+        assertEquals(input, migrated);
+        TxOutStore output = TxOutStore.fromBytes(migrated.toByteArray());
+        output.setAccountKey(accountWithoutFog);
+        assertEquals(input, output);
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testTruncatedBinaryFormat()
+            throws BadBip39EntropyException, SerializationException {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        AccountKey accountWithoutFog = AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+        TxOutStore input = new TxOutStore(accountWithoutFog);
+        input.addRecoveredTxOuts(createTxOuts(accountWithoutFog, 10));
+        byte[] serialized = input.toByteArray();
+        TxOutStore.fromBytes(Arrays.copyOf(serialized, serialized.length - 1));
+    }
+
+    @Test
+    public void testLazyRestore() throws BadBip39EntropyException, SerializationException {
+        AccountTest.AccountTestData accountData = AccountTest.loadAccountTestData().get(0);
+        AccountKey accountWithoutFog = AccountKeyDeriver.deriveAccountKeyFromMnemonic(
+                accountData.mnemonic, accountData.accountIndex);
+        TxOutStore input = new TxOutStore(accountWithoutFog);
+        input.addRecoveredTxOuts(createTxOuts(accountWithoutFog, 100));
+        byte[] serialized = input.toByteArray();
+
+        // the contents of a store which has not been used yet are copied as they are
+        TxOutStore restored = TxOutStore.fromBytes(serialized);
+        restored.setAccountKey(accountWithoutFog);
+        assertEquals(input.getCurrentBlockIndex(), restored.getCurrentBlockIndex());
+        assertArrayEquals(serialized, restored.toByteArray());
+
+        assertEquals(input.getSyncedTxOuts(), restored.getSyncedTxOuts());
+        for (OwnedTxOut txOut : restored.getSyncedTxOuts()) {
+            assertEquals(accountWithoutFog.getViewKey().getPublicKey(), txOut.getPublicKey());
+        }
+        assertArrayEquals(serialized, restored.toByteArray());
+    }
+
+    static List<OwnedTxOut> createTxOuts(@NonNull AccountKey accountKey, int count) {
+        Random random = new Random(count);
+        RistrettoPublic publicKey = accountKey.getViewKey().getPublicKey();
+        ArrayList<OwnedTxOut> txOuts = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            byte[] keyImage = new byte[32];
+            random.nextBytes(keyImage);
+            OwnedTxOut txOut = new OwnedTxOut(UnsignedLong.valueOf(1000000L + i),
+                    UnsignedLong.valueOf(1000L + i / 10),
+                    new Date(TimeUnit.SECONDS.toMillis(1600000000L + i)),
+                    BigInteger.valueOf(Math.abs(random.nextLong())), publicKey, keyImage);
+            if (i % 3 == 0) {
+                txOut.setSpent(UnsignedLong.valueOf(2000L + i), null);
+            }
+            txOuts.add(txOut);
+        }
+        return txOuts;
+    }
+
     private static final byte[] SAMPLE_TXOUT_BYTES = new byte[] {17, -93, 2, -81, 7, -62,
             104, -128, -95, 26, 32, -94, -11, 86, 42, 90, -43, 32, 5, 21, 72, -110, -74, 68, -108, 87, 37,
             57, -50, 90, 45, -3, -43, 96, -3, 21, -40, 27, -88, -34, -60, 124, 31, 34, 32, 116, -23, -29,
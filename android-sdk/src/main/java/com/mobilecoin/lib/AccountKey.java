@@ -29,6 +29,9 @@ import java.util.Objects;
  */
 public class AccountKey extends Native implements Parcelable {
     private final static String TAG = AccountKey.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new AccountKey(RELEASE_ONLY), AccountKey::finalize_jni);
     private final Uri fogReportUri;
     private final String fogReportId;
     private final byte[] fogAuthoritySpki;
@@ -72,6 +75,7 @@ public class AccountKey extends Native implements Parcelable {
                     fogAuthoritySpki,
                     fogReportId
             );
+            registerNativeObject(RELEASER);
             // normalize fog report Uri
             this.fogReportUri = fogReportUri;
             this.fogReportId = fogReportId;
@@ -121,6 +125,7 @@ public class AccountKey extends Native implements Parcelable {
                     fogAuthoritySpki,
                     fogReportId
             );
+            registerNativeObject(RELEASER);
             this.fogReportUri = fogReportUri;
             this.fogReportId = fogReportId;
             this.fogAuthoritySpki = fogAuthoritySpki;
@@ -145,6 +150,7 @@ public class AccountKey extends Native implements Parcelable {
      */
     AccountKey(long rustObj) {
         this.rustObj = rustObj;
+        registerNativeObject(RELEASER);
         String fogUriString = getFogUriString();
         this.fogReportUri = (fogUriString != null && !fogUriString.isEmpty())
                 ? Uri.parse(fogUriString)
@@ -497,13 +503,16 @@ public class AccountKey extends Native implements Parcelable {
         return result;
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        Logger.i(TAG, "Finalizing the object");
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private AccountKey(@NonNull ReleaseOnly releaseOnly) {
+        fogReportUri = null;
+        fogReportId = null;
+        fogAuthoritySpki = null;
+        subAddressViewKey = null;
+        subAddressSpendKey = null;
+        viewKey = null;
+        spendKey = null;
+        publicAddress = null;
     }
 
     /* Native calls */
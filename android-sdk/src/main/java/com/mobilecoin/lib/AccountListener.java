@@ -0,0 +1,36 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the changes of the account found by its synchronization, see
+ * {@link MobileCoinClient#addAccountListener}
+ * <p>
+ * The changes are delivered in order on a background thread. A TxOut is reported once the account
+ * is synchronized up to the block it was received or spent in, as it appears in
+ * {@link MobileCoinClient#getAccountSnapshot}.
+ */
+public interface AccountListener {
+    /**
+     * Called once a TxOut received by the account is synchronized
+     */
+    void onTxOutReceived(@NonNull OwnedTxOut txOut);
+
+    /**
+     * Called once the spending of a received TxOut is synchronized
+     */
+    void onTxOutSpent(@NonNull OwnedTxOut txOut);
+
+    /**
+     * Called once the account is synchronized up to a higher block, after the TxOuts received or
+     * spent up to that block are reported
+     */
+    void onBlockIndexChanged(@NonNull UnsignedLong blockIndex);
+
+    /**
+     * Called once the received and spent TxOuts change the balance
+     */
+    void onBalanceChanged(@NonNull Balance balance);
+}
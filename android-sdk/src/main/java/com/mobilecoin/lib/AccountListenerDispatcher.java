@@ -0,0 +1,235 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.log.Logger;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Turns the changes of a {@link TxOutStore} into the deltas delivered to the
+ * {@link AccountListener}s
+ * <p>
+ * The found TxOuts wait until the store is synchronized up to their received block, the unspent
+ * ones are checked once the store cursors move, so a synchronization costs the number of the
+ * unspent TxOuts rather than of all the TxOuts of the account. The state is tracked once the first
+ * listener is added.
+ */
+final class AccountListenerDispatcher implements TxOutStore.ChangeListener {
+    private static final String TAG = AccountListenerDispatcher.class.getName();
+    private final TxOutStore txOutStore;
+    private final List<AccountListener> listeners = new CopyOnWriteArrayList<>();
+    // a single thread delivers the deltas in order
+    private final ExecutorService executorService;
+    // guarded by this, the TxOuts are keyed by their global indices since a TxOut may be found
+    // more than once, e.g. by different seeds, and its hash code changes once it is spent
+    private final HashSet<Long> knownTxOuts = new HashSet<>();
+    private final HashMap<Long, OwnedTxOut> pendingTxOuts = new HashMap<>();
+    private final HashMap<Long, OwnedTxOut> unspentTxOuts = new HashMap<>();
+    private UnsignedLong blockIndex = UnsignedLong.ZERO;
+    private BigInteger balance = BigInteger.ZERO;
+    private boolean isTracking;
+
+    AccountListenerDispatcher(@NonNull TxOutStore txOutStore) {
+        this.txOutStore = txOutStore;
+        this.executorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-AccountListeners");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add the listener and deliver the current state of the account to it as the deltas
+     */
+    void addListener(@NonNull AccountListener listener) {
+        // the store does not change between the current state and the following deltas
+        synchronized (txOutStore) {
+            synchronized (this) {
+                if (!isTracking) {
+                    startTracking();
+                }
+                List<OwnedTxOut> received = new ArrayList<>();
+                List<OwnedTxOut> spent = new ArrayList<>();
+                HashSet<Long> replayed = new HashSet<>();
+                for (OwnedTxOut txOut : txOutStore.getAllTxOuts()) {
+                    if (txOut.isReceived(blockIndex) && replayed.add(indexOf(txOut))) {
+                        received.add(txOut);
+                        if (txOut.isSpent(blockIndex)) {
+                            spent.add(txOut);
+                        }
+                    }
+                }
+                listeners.add(listener);
+                deliver(Collections.singletonList(listener), received, spent, blockIndex,
+                        new Balance(balance, blockIndex));
+            }
+        }
+    }
+
+    /**
+     * Remove the listener, the deltas already queued for it may still be delivered
+     */
+    void removeListener(@NonNull AccountListener listener) {
+        listeners.remove(listener);
+    }
+
+    void shutdown() {
+        listeners.clear();
+        executorService.shutdownNow();
+    }
+
+    @Override
+    public void onSeedAdded(int seedKey, @NonNull FogSeed seed) {
+    }
+
+    @Override
+    public synchronized void onTxOutAdded(int seedKey, @NonNull OwnedTxOut txOut) {
+        addTxOut(txOut);
+    }
+
+    @Override
+    public void onSeedObsolete(int seedKey) {
+    }
+
+    @Override
+    public void onIngestInvocationDecommissioned(long ingestInvocationId) {
+    }
+
+    @Override
+    public synchronized void onTxOutRecovered(@NonNull OwnedTxOut txOut) {
+        addTxOut(txOut);
+    }
+
+    // the spending is reported once the cursors reach its block
+    @Override
+    public void onTxOutSpent(@NonNull OwnedTxOut txOut) {
+    }
+
+    @Override
+    public synchronized void onCursorsChanged(@NonNull UnsignedLong ledgerBlockIndex,
+                                              @NonNull UnsignedLong viewBlockIndex,
+                                              long lastKnownFogViewEventId,
+                                              @Nullable UnsignedLong ledgerTotalTxCount) {
+        if (!isTracking) {
+            return;
+        }
+        // the store is synchronized up to the lower of the cursors
+        UnsignedLong currentBlockIndex = (ledgerBlockIndex.compareTo(viewBlockIndex) < 0)
+                ? ledgerBlockIndex
+                : viewBlockIndex;
+        BigInteger newBalance = balance;
+        List<OwnedTxOut> received = new ArrayList<>();
+        Iterator<OwnedTxOut> pendingIterator = pendingTxOuts.values().iterator();
+        while (pendingIterator.hasNext()) {
+            OwnedTxOut txOut = pendingIterator.next();
+            if (txOut.isReceived(currentBlockIndex)) {
+                pendingIterator.remove();
+                received.add(txOut);
+                unspentTxOuts.put(indexOf(txOut), txOut);
+                newBalance = newBalance.add(txOut.getValue());
+            }
+        }
+        List<OwnedTxOut> spent = new ArrayList<>();
+        Iterator<OwnedTxOut> unspentIterator = unspentTxOuts.values().iterator();
+        while (unspentIterator.hasNext()) {
+            OwnedTxOut txOut = unspentIterator.next();
+            if (txOut.isSpent(currentBlockIndex)) {
+                unspentIterator.remove();
+                spent.add(txOut);
+                newBalance = newBalance.subtract(txOut.getValue());
+            }
+        }
+        UnsignedLong newBlockIndex = null;
+        if (currentBlockIndex.compareTo(blockIndex) > 0) {
+            blockIndex = currentBlockIndex;
+            newBlockIndex = currentBlockIndex;
+        }
+        Balance newBalanceAtBlock = null;
+        if (!newBalance.equals(balance)) {
+            balance = newBalance;
+            newBalanceAtBlock = new Balance(newBalance, blockIndex);
+        }
+        if (received.isEmpty() && spent.isEmpty() && newBlockIndex == null) {
+            return;
+        }
+        deliver(new ArrayList<>(listeners), received, spent, newBlockIndex, newBalanceAtBlock);
+    }
+
+    // called with the store locked
+    private void startTracking() {
+        blockIndex = txOutStore.getCurrentBlockIndex();
+        for (OwnedTxOut txOut : txOutStore.getAllTxOuts()) {
+            if (!knownTxOuts.add(indexOf(txOut))) {
+                continue;
+            }
+            if (!txOut.isReceived(blockIndex)) {
+                pendingTxOuts.put(indexOf(txOut), txOut);
+            } else if (!txOut.isSpent(blockIndex)) {
+                unspentTxOuts.put(indexOf(txOut), txOut);
+                balance = balance.add(txOut.getValue());
+            }
+        }
+        isTracking = true;
+        Logger.d(TAG, "Tracking the account changes", null,
+                "block:", blockIndex,
+                "unspent:", unspentTxOuts.size());
+    }
+
+    private void addTxOut(@NonNull OwnedTxOut txOut) {
+        if (isTracking && knownTxOuts.add(indexOf(txOut))) {
+            pendingTxOuts.put(indexOf(txOut), txOut);
+        }
+    }
+
+    private static long indexOf(@NonNull OwnedTxOut txOut) {
+        return txOut.getTxOutGlobalIndex().longValue();
+    }
+
+    private void deliver(@NonNull List<AccountListener> targets,
+                         @NonNull List<OwnedTxOut> received,
+                         @NonNull List<OwnedTxOut> spent,
+                         @Nullable UnsignedLong newBlockIndex,
+                         @Nullable Balance newBalance) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        try {
+            executorService.execute(() -> {
+                for (AccountListener listener : targets) {
+                    try {
+                        for (OwnedTxOut txOut : received) {
+                            listener.onTxOutReceived(txOut);
+                        }
+                        for (OwnedTxOut txOut : spent) {
+                            listener.onTxOutSpent(txOut);
+                        }
+                        if (newBlockIndex != null) {
+                            listener.onBlockIndexChanged(newBlockIndex);
+                        }
+                        if (newBalance != null) {
+                            listener.onBalanceChanged(newBalance);
+                        }
+                    } catch (RuntimeException exception) {
+                        Logger.w(TAG, "Account listener failed", exception);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // the dispatcher is shut down
+        }
+    }
+}
@@ -89,9 +89,9 @@ public final class AccountSnapshot {
     @NonNull
     public Receipt.Status getReceiptStatus(@NonNull Receipt receipt) throws InvalidReceiptException {
         Logger.i(TAG, "Checking receipt status");
-        RistrettoPublic txOutPubKey = receipt.getPublicKey();
+        byte[] txOutPubKeyBytes = receipt.getPublicKey().getKeyBytes();
         for (OwnedTxOut txOut : txOuts) {
-            if (txOut.getPublicKey().equals(txOutPubKey)) {
+            if (txOut.hasPublicKey(txOutPubKeyBytes)) {
                 try {
                     AccountKey accountKey = mobileCoinClient.getAccountKey();
                     BigInteger receiptAmountValue = receipt.getAmount(accountKey);
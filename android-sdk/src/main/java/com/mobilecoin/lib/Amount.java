@@ -17,6 +17,9 @@ import java.math.BigInteger;
  */
 final class Amount extends Native {
     private final static String TAG = Amount.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new Amount(RELEASE_ONLY), Amount::finalize_jni);
     private final MobileCoinAPI.Amount protoBufAmount;
 
     /**
@@ -35,6 +38,7 @@ final class Amount extends Native {
                     commitment,
                     maskedValue
             );
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             AmountDecoderException amountDecoderException = new AmountDecoderException("Unable to" +
                     " initialize amount object", exception);
@@ -55,6 +59,7 @@ final class Amount extends Native {
                 txOutSharedSecret,
                 maskedValue
             );
+            registerNativeObject(RELEASER);
             byte[] amountBytes = get_bytes();
             protoBufAmount = MobileCoinAPI.Amount.parseFrom(amountBytes);
         } catch (Exception exception) {
@@ -133,13 +138,9 @@ final class Amount extends Native {
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        Logger.i(TAG, "Finalizing object");
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private Amount(@NonNull ReleaseOnly releaseOnly) {
+        protoBufAmount = null;
     }
 
     /* Native methods */
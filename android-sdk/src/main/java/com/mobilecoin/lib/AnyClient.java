@@ -43,8 +43,8 @@ class AnyClient extends Native {
     private final static long MANAGED_CONNECTION_SHUTDOWN_TIME_LIMIT = 1000;
     private final LoadBalancer loadBalancer;
     private final ClientConfig.Service serviceConfig;
-    private final ServiceAPIManager grpcApiManager;
-    private final ServiceAPIManager restApiManager;
+    private ServiceAPIManager grpcApiManager;
+    private ServiceAPIManager restApiManager;
     private ManagedChannel managedChannel;
     private RestClient restClient;
     private Transport networkTransport;
@@ -59,7 +59,7 @@ class AnyClient extends Native {
     protected AnyClient(@NonNull LoadBalancer loadBalancer, @NonNull Service serviceConfig) {
         this.loadBalancer = loadBalancer;
         this.serviceConfig = serviceConfig;
-        this.grpcApiManager = new GRPCServiceAPIManager();
+        this.grpcApiManager = new GRPCServiceAPIManager(serviceConfig.getCallExecutor());
         this.restApiManager = new RestServiceAPIManager();
         this.transportProtocol = TransportProtocol.forGRPC();
     }
@@ -75,7 +75,7 @@ class AnyClient extends Native {
     }
 
     @NonNull
-    final ServiceAPIManager getAPIManager() {
+    final synchronized ServiceAPIManager getAPIManager() {
         switch (transportProtocol.getTransportType()) {
             case HTTP:
                 return restApiManager;
@@ -86,6 +86,11 @@ class AnyClient extends Native {
         }
     }
 
+    @NonNull
+    synchronized TransportProtocol getTransportProtocol() {
+        return transportProtocol;
+    }
+
     synchronized void setTransportProtocol(@NonNull TransportProtocol protocol) {
         this.transportProtocol = protocol;
         this.networkTransport = null;
@@ -114,17 +119,49 @@ class AnyClient extends Native {
        networkTransport = null;
     }
 
+    /**
+     * Exchange the network connection with another client of the same service. The API managers
+     * are exchanged as well, since they carry the cookies binding the connection to a server.
+     */
+    protected synchronized void exchangeConnection(@NonNull AnyClient other) {
+        synchronized (other) {
+            ManagedChannel managedChannel = this.managedChannel;
+            this.managedChannel = other.managedChannel;
+            other.managedChannel = managedChannel;
+            RestClient restClient = this.restClient;
+            this.restClient = other.restClient;
+            other.restClient = restClient;
+            Transport networkTransport = this.networkTransport;
+            this.networkTransport = other.networkTransport;
+            other.networkTransport = networkTransport;
+            MobileCoinUri currentServiceUri = this.currentServiceUri;
+            this.currentServiceUri = other.currentServiceUri;
+            other.currentServiceUri = currentServiceUri;
+            ServiceAPIManager grpcApiManager = this.grpcApiManager;
+            this.grpcApiManager = other.grpcApiManager;
+            other.grpcApiManager = grpcApiManager;
+            ServiceAPIManager restApiManager = this.restApiManager;
+            this.restApiManager = other.restApiManager;
+            other.restApiManager = restApiManager;
+        }
+    }
+
     @NonNull
     private MobileCoinUri getNextServiceUri() {
         return loadBalancer.getNextServiceUri();
     }
 
+    @NonNull
+    final LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
     @NonNull
     final ClientConfig.Service getServiceConfig() {
         return serviceConfig;
     }
 
-    protected MobileCoinUri getCurrentServiceUri() {
+    protected synchronized MobileCoinUri getCurrentServiceUri() {
         return currentServiceUri;
     }
 
@@ -0,0 +1,273 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.exceptions.AttestationException;
+import com.mobilecoin.lib.exceptions.NetworkException;
+import com.mobilecoin.lib.log.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Establishes attested sessions ahead of time.
+ * <p>
+ * The managed clients are attested in the background once they are configured or first used, so
+ * the handshakes are not made before the credentials are set. For each of them a warm standby
+ * session is kept, so a client whose session was reset adopts the standby
+ * session instead of performing the attestation handshake inline. Sessions older than the refresh
+ * interval are replaced with fresh ones before the servers are expected to evict them.
+ */
+final class AttestationManager {
+    private static final String TAG = AttestationManager.class.getName();
+    @Nullable
+    private final Duration refreshInterval;
+    @Nullable
+    private final ScheduledExecutorService executorService;
+    private final List<ManagedService> managedServices;
+    private final AtomicLong standbyAdoptionCount;
+
+    /**
+     * Creates and initializes an instance of {@link AttestationManager}
+     *
+     * @param refreshInterval the age after which attested sessions are replaced, {@code null}
+     *                        disables background attestation
+     */
+    AttestationManager(@Nullable Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+        this.managedServices = new CopyOnWriteArrayList<>();
+        this.standbyAdoptionCount = new AtomicLong();
+        if (refreshInterval != null) {
+            long refreshMillis = refreshInterval.toMillis();
+            executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MobileCoin-Attestation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // check the sessions more often than they expire, so they are replaced in time
+            long checkMillis = Math.max(1, refreshMillis / 4);
+            executorService.scheduleWithFixedDelay(this::refreshSessions, checkMillis,
+                    checkMillis, TimeUnit.MILLISECONDS);
+        } else {
+            executorService = null;
+        }
+    }
+
+    /**
+     * Attest the client in the background and keep a standby session for it, once it is
+     * configured or first used
+     *
+     * @param client         client to manage
+     * @param standbyFactory creates a new, not yet configured, client of the same service
+     */
+    void manage(@NonNull AttestedClient client, @NonNull Supplier<AttestedClient> standbyFactory) {
+        ManagedService managedService = new ManagedService(client, standbyFactory);
+        client.setAttestationManager(this);
+        if (executorService == null) {
+            return;
+        }
+        managedServices.add(managedService);
+    }
+
+    /**
+     * Take over the standby session of the client, a new standby session is prepared in the
+     * background
+     *
+     * @return attested standby client or {@code null} if there is no standby session ready
+     */
+    @Nullable
+    AttestedClient takeStandby(@NonNull AttestedClient client) {
+        ManagedService managedService = findManagedService(client);
+        if (managedService == null) {
+            return null;
+        }
+        if (managedService.isStarted.compareAndSet(false, true)) {
+            // the first use attests inline, the standby session is prepared for the next one
+            execute(() -> prepareStandby(managedService));
+            return null;
+        }
+        AttestedClient standby = managedService.standby.getAndSet(null);
+        if (standby != null) {
+            standbyAdoptionCount.incrementAndGet();
+            execute(() -> prepareStandby(managedService));
+        }
+        return standby;
+    }
+
+    /**
+     * Free the attested state and the connection of a standby client in the background
+     */
+    void disposeStandby(@NonNull AttestedClient standby) {
+        if (!execute(standby::deattest)) {
+            standby.deattest();
+        }
+    }
+
+    /**
+     * Credentials or transport of the client have changed, so the standby session prepared for
+     * the previous configuration can no longer be used
+     */
+    void onConfigurationChanged(@NonNull AttestedClient client) {
+        ManagedService managedService = findManagedService(client);
+        if (managedService == null) {
+            return;
+        }
+        managedService.configurationVersion.incrementAndGet();
+        managedService.isStarted.set(true);
+        AttestedClient standby = managedService.standby.getAndSet(null);
+        if (standby != null) {
+            disposeStandby(standby);
+        }
+        execute(() -> {
+            preattest(managedService);
+            prepareStandby(managedService);
+        });
+    }
+
+    /**
+     * @return number of times a reset session was replaced with a standby session instead of
+     * performing the handshake inline
+     */
+    long getStandbyAdoptionCount() {
+        return standbyAdoptionCount.get();
+    }
+
+    /**
+     * @return whether a standby session is ready for the client
+     */
+    boolean hasStandby(@NonNull AttestedClient client) {
+        ManagedService managedService = findManagedService(client);
+        return managedService != null && managedService.standby.get() != null;
+    }
+
+    /**
+     * Stop the background attestation and dispose of the standby sessions
+     */
+    void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+        for (ManagedService managedService : managedServices) {
+            AttestedClient standby = managedService.standby.getAndSet(null);
+            if (standby != null) {
+                standby.deattest();
+            }
+        }
+        managedServices.clear();
+    }
+
+    private void refreshSessions() {
+        long refreshNanos = (refreshInterval != null) ? refreshInterval.toNanos() : Long.MAX_VALUE;
+        for (ManagedService managedService : managedServices) {
+            if (!managedService.isStarted.get()) {
+                continue;
+            }
+            AttestedClient standby = managedService.standby.get();
+            if (standby != null && isOlderThan(standby, refreshNanos)
+                    && managedService.standby.compareAndSet(standby, null)) {
+                Logger.i(TAG, "Standby attested session is about to expire");
+                disposeStandby(standby);
+            }
+            prepareStandby(managedService);
+            if (isOlderThan(managedService.client, refreshNanos)) {
+                AttestedClient fresh = managedService.standby.getAndSet(null);
+                if (fresh == null) {
+                    continue;
+                }
+                if (managedService.client.replaceIdleSession(fresh)) {
+                    // the standby client now holds the expiring session
+                    disposeStandby(fresh);
+                    prepareStandby(managedService);
+                } else if (!managedService.standby.compareAndSet(null, fresh)) {
+                    disposeStandby(fresh);
+                }
+            }
+        }
+    }
+
+    private void preattest(@NonNull ManagedService managedService) {
+        try {
+            managedService.client.ensureAttested();
+        } catch (AttestationException | NetworkException | RuntimeException exception) {
+            Logger.w(TAG, "Unable to pre-attest the client", exception);
+        }
+    }
+
+    private void prepareStandby(@NonNull ManagedService managedService) {
+        if (managedService.standby.get() != null) {
+            return;
+        }
+        long configurationVersion = managedService.configurationVersion.get();
+        AttestedClient standby = managedService.standbyFactory.get();
+        standby.copyConfiguration(managedService.client);
+        standby.setAttestationManager(this);
+        try {
+            standby.ensureAttested();
+        } catch (AttestationException | NetworkException | RuntimeException exception) {
+            Logger.w(TAG, "Unable to prepare a standby attested session", exception);
+            standby.deattest();
+            return;
+        }
+        if (configurationVersion != managedService.configurationVersion.get()
+                || !managedService.standby.compareAndSet(null, standby)) {
+            standby.deattest();
+        }
+    }
+
+    private static boolean isOlderThan(@NonNull AttestedClient client, long ageNanos) {
+        Long sessionAgeNanos = client.getSessionAgeNanos();
+        return sessionAgeNanos != null && sessionAgeNanos >= ageNanos;
+    }
+
+    @Nullable
+    private ManagedService findManagedService(@NonNull AttestedClient client) {
+        for (ManagedService managedService : managedServices) {
+            if (managedService.client == client) {
+                return managedService;
+            }
+        }
+        return null;
+    }
+
+    private boolean execute(@NonNull Runnable task) {
+        if (executorService == null) {
+            return false;
+        }
+        try {
+            executorService.execute(task);
+            return true;
+        } catch (RejectedExecutionException exception) {
+            return false;
+        }
+    }
+
+    private static final class ManagedService {
+        final AttestedClient client;
+        final Supplier<AttestedClient> standbyFactory;
+        final AtomicReference<AttestedClient> standby;
+        final AtomicLong configurationVersion;
+        // the background attestation starts once the client is configured or first used
+        final AtomicBoolean isStarted;
+
+        ManagedService(@NonNull AttestedClient client,
+                       @NonNull Supplier<AttestedClient> standbyFactory) {
+            this.client = client;
+            this.standbyFactory = standbyFactory;
+            this.standby = new AtomicReference<>();
+            this.configurationVersion = new AtomicLong();
+            this.isStarted = new AtomicBoolean();
+        }
+    }
+}
@@ -9,10 +9,14 @@ import androidx.annotation.Nullable;
 
 import com.google.protobuf.AbstractMessageLite;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
 import com.mobilecoin.lib.ClientConfig.Service;
 import com.mobilecoin.lib.exceptions.AttestationException;
 import com.mobilecoin.lib.exceptions.NetworkException;
 import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.metrics.Metrics;
+import com.mobilecoin.lib.network.TransportProtocol;
 import com.mobilecoin.lib.network.services.ServiceAPIManager;
 import com.mobilecoin.lib.network.services.http.clients.RestClient;
 import com.mobilecoin.lib.network.services.transport.GRPCTransport;
@@ -24,11 +28,36 @@ import io.grpc.ManagedChannel;
 
 /**
  * Base class for attested communication with View/Ledger/Consensus servers
+ * <p>
+ * The native state of the attested session is released by {@link #close()}, which the owners of
+ * the clients call once they shut down.
  */
 
 abstract class AttestedClient extends AnyClient {
     private final static String TAG = AttestedClient.class.getName();
-    // How long to wait for the managed connection to gracefully shutdown in milliseconds
+    // makes the round trips over the attested session one at a time, so the requests reach the
+    // server in the nonce order; the client monitor is not held during the call
+    private final Object exchangeLock = new Object();
+    // guards the native session state and the fields below
+    private final Object sessionLock = new Object();
+    // incremented on every reset to invalidate the requests of the previous session
+    private long sessionGeneration;
+    // whether a request is encrypted and its round trip is not finished yet
+    private boolean exchangeInProgress;
+    // System.nanoTime() of the moment the current session was established
+    private long sessionEstablishedAt;
+    // channel binding of the current session, it does not change until the session is reset
+    @Nullable
+    private ByteString sessionBinding;
+    // number of attempts to encrypt a request if the session is replaced in the meantime
+    private final static int MAX_SESSION_ATTEMPTS = 3;
+    @Nullable
+    private volatile AttestationManager attestationManager;
+    // credentials are remembered to configure the standby clients
+    @Nullable
+    private String username;
+    @Nullable
+    private String password;
 
     /**
      * Creates and initializes an instance of {@link AttestedClient}
@@ -50,9 +79,12 @@ abstract class AttestedClient extends AnyClient {
     @Override
     protected synchronized ManagedChannel getManagedChannel()
             throws AttestationException, NetworkException {
+        if (!isAttested() && adoptStandbySession()) {
+            return super.getManagedChannel();
+        }
         ManagedChannel managedChannel = super.getManagedChannel();
         if (!isAttested()) {
-            attest(GRPCTransport.fromManagedChannel(managedChannel));
+            attestAndRecord(GRPCTransport.fromManagedChannel(managedChannel));
         }
         return managedChannel;
     }
@@ -61,19 +93,160 @@ abstract class AttestedClient extends AnyClient {
     @Override
     protected synchronized RestClient getRestClient()
             throws NetworkException, AttestationException {
+        if (!isAttested() && adoptStandbySession()) {
+            return super.getRestClient();
+        }
         RestClient restClient = super.getRestClient();
         if (!isAttested()) {
-            attest(Transport.fromRestClient(restClient));
+            attestAndRecord(Transport.fromRestClient(restClient));
         }
         return restClient;
     }
 
+    /**
+     * Attest the connection and report the duration of the handshake to the metrics
+     */
+    private void attestAndRecord(@NonNull Transport transport)
+            throws AttestationException, NetworkException {
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            attest(transport);
+            synchronized (sessionLock) {
+                sessionEstablishedAt = System.nanoTime();
+            }
+            success = true;
+        } finally {
+            Metrics.recordAttestation(getServiceName(), System.nanoTime() - startTime, success);
+        }
+    }
+
+    /**
+     * Take over the warm standby session prepared by the attestation manager, if there is one
+     *
+     * @return whether the standby session was adopted
+     */
+    private synchronized boolean adoptStandbySession() {
+        AttestationManager manager = attestationManager;
+        if (manager == null) {
+            return false;
+        }
+        AttestedClient standby = manager.takeStandby(this);
+        if (standby == null) {
+            return false;
+        }
+        Logger.i(TAG, "Adopting the standby attested session");
+        exchangeSession(standby);
+        manager.disposeStandby(standby);
+        return true;
+    }
+
+    /**
+     * Replace the current session with the standby one if no requests are in progress, the old
+     * session is handed over to the standby client to be disposed of
+     *
+     * @return whether the session was replaced
+     */
+    synchronized boolean replaceIdleSession(@NonNull AttestedClient standby) {
+        synchronized (sessionLock) {
+            if (exchangeInProgress) {
+                return false;
+            }
+        }
+        Logger.i(TAG, "Replacing the attested session with a fresh standby session");
+        exchangeSession(standby);
+        return true;
+    }
+
+    /**
+     * Exchange the attested session and its connection with another client of the same service
+     */
+    private synchronized void exchangeSession(@NonNull AttestedClient other) {
+        synchronized (other) {
+            exchangeConnection(other);
+            synchronized (sessionLock) {
+                synchronized (other.sessionLock) {
+                    long rustObj = this.rustObj;
+                    this.rustObj = other.rustObj;
+                    other.rustObj = rustObj;
+                    long sessionEstablishedAt = this.sessionEstablishedAt;
+                    this.sessionEstablishedAt = other.sessionEstablishedAt;
+                    other.sessionEstablishedAt = sessionEstablishedAt;
+                    ByteString sessionBinding = this.sessionBinding;
+                    this.sessionBinding = other.sessionBinding;
+                    other.sessionBinding = sessionBinding;
+                    // requests encrypted for the previous session must not use the new one
+                    sessionGeneration++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the age of the current attested session
+     *
+     * @return age in nanoseconds or {@code null} if the client is not attested
+     */
+    @Nullable
+    Long getSessionAgeNanos() {
+        synchronized (sessionLock) {
+            return (rustObj != 0) ? System.nanoTime() - sessionEstablishedAt : null;
+        }
+    }
+
+    /**
+     * Establish the attested session unless the client is already attested
+     */
+    synchronized void ensureAttested() throws AttestationException, NetworkException {
+        getNetworkTransport();
+    }
+
+    void setAttestationManager(@Nullable AttestationManager attestationManager) {
+        this.attestationManager = attestationManager;
+    }
+
+    /**
+     * Configure this client the same way as the provided client of the same service
+     * <p>
+     * The monitors of the two clients are not held at the same time, {@link #exchangeSession}
+     * takes them in its own order.
+     */
+    void copyConfiguration(@NonNull AttestedClient other) {
+        String username;
+        String password;
+        TransportProtocol transportProtocol;
+        synchronized (other) {
+            username = other.username;
+            password = other.password;
+            transportProtocol = other.getTransportProtocol();
+        }
+        setTransportProtocol(transportProtocol);
+        if (username != null && password != null) {
+            setAuthorization(username, password);
+        }
+    }
+
+    @Override
+    synchronized void setTransportProtocol(@NonNull TransportProtocol protocol) {
+        super.setTransportProtocol(protocol);
+        AttestationManager manager = attestationManager;
+        if (manager != null) {
+            manager.onConfigurationChanged(this);
+        }
+    }
+
     /**
      * Attest service connection or throw an exception if error occurs.
      */
     protected abstract void attest(@NonNull Transport transport)
             throws AttestationException, NetworkException;
 
+    /**
+     * Full name of the attested service, used to report the attestation metrics
+     */
+    @NonNull
+    protected abstract String getServiceName();
+
     /**
      * Reset service connection
      */
@@ -88,68 +261,213 @@ abstract class AttestedClient extends AnyClient {
      *
      * @return whether or no the client is attested
      */
-    protected synchronized boolean isAttested() {
-        Logger.i(TAG, "Is channel attested?", null, (rustObj != 0) ? "Yes" : "No");
-        return (rustObj != 0);
+    protected boolean isAttested() {
+        boolean attested;
+        synchronized (sessionLock) {
+            attested = (rustObj != 0);
+        }
+        if (Logger.isLoggable(Logger.Level.INFO)) {
+            Logger.i(TAG, "Is channel attested?", null, attested ? "Yes" : "No");
+        }
+        return attested;
     }
 
     /**
-     * Encrypt protocol request and wrap it into an {@link Attest.Message}
+     * Encrypt the request, send it using the provided call and decrypt the response
+     * <p>
+     * The round trips sharing an attested session are made one at a time, so the server receives
+     * the requests in the nonce order. The client monitor is not held during the call. If the
+     * exchange fails, the session it used is reset.
+     * <p>
+     * The response is parsed directly from the decrypted buffer, its bytes fields reference the
+     * buffer instead of copying it.
      *
-     * @return encrypted {@link Attest.Message}
+     * @return the decrypted response parsed with the provided parser
      */
     @NonNull
-    protected synchronized Attest.Message encryptMessage(
+    protected <T> T exchangeMessage(
+            @Nullable AbstractMessageLite<?, ?> message,
+            @Nullable AbstractMessageLite<?, ?> aadMessage,
+            @NonNull Parser<T> responseParser,
+            @NonNull AttestedCall<Attest.Message> call
+    ) throws AttestationException, NetworkException, InvalidProtocolBufferException {
+        byte[] decrypted;
+        synchronized (exchangeLock) {
+            PendingRequest request = encryptRequest(message, aadMessage);
+            try {
+                Attest.Message encryptedResponse = dispatchRequest(request, call);
+                decrypted = decryptResponse(request, encryptedResponse);
+            } catch (AttestationException | NetworkException | RuntimeException exception) {
+                resetSession(request.connection.sessionGeneration);
+                throw exception;
+            } finally {
+                finishExchange();
+            }
+        }
+        return ByteStrings.parseFrom(decrypted, responseParser);
+    }
+
+    /**
+     * Encrypt the request and send it using the provided call, the response of the call is not
+     * encrypted
+     */
+    @NonNull
+    protected <T> T sendMessage(
+            @NonNull AbstractMessageLite<?, ?> message,
+            @NonNull AttestedCall<T> call
+    ) throws AttestationException, NetworkException {
+        synchronized (exchangeLock) {
+            PendingRequest request = encryptRequest(message, null);
+            try {
+                return dispatchRequest(request, call);
+            } catch (AttestationException | NetworkException | RuntimeException exception) {
+                resetSession(request.connection.sessionGeneration);
+                throw exception;
+            } finally {
+                finishExchange();
+            }
+        }
+    }
+
+    /**
+     * Encrypt protocol request with the current session, must be called under the exchange lock
+     */
+    @NonNull
+    private PendingRequest encryptRequest(
             @Nullable AbstractMessageLite<?, ?> message,
             @Nullable AbstractMessageLite<?, ?> aadMessage
-    ) throws AttestationException {
+    ) throws AttestationException, NetworkException {
         Logger.i(TAG, "Encrypting request message for attested channel");
         // Nullable parameters are allowed in this method
         // but encryptPayload requires parameters to be nonnull even if empty
         byte[] aad = (aadMessage != null)
                 ? aadMessage.toByteArray()
-                : new byte[0];
+                : ByteStrings.EMPTY_BYTES;
         byte[] payload = (message != null)
                 ? message.toByteArray()
-                : new byte[0];
+                : ByteStrings.EMPTY_BYTES;
+        // the arrays are not modified after this point, so the message can share them
+        ByteString aadBytes = ByteStrings.wrap(aad);
+        for (int attempt = 0; attempt < MAX_SESSION_ATTEMPTS; ++attempt) {
+            Connection connection = getConnection();
+            AttestationException encryptionError;
+            synchronized (sessionLock) {
+                if (connection.sessionGeneration != sessionGeneration) {
+                    // the session was replaced after the connection was obtained
+                    continue;
+                }
+                try {
+                    byte[] encryptedPayload = encryptPayload(payload, aad);
+                    Attest.Message encryptedMessage = Attest.Message.newBuilder()
+                            .setData(ByteStrings.wrap(encryptedPayload))
+                            .setChannelId(getBinding())
+                            .setAad(aadBytes)
+                            .build();
+                    exchangeInProgress = true;
+                    return new PendingRequest(encryptedMessage, connection);
+                } catch (AttestationException exception) {
+                    // the session is reset below, outside of the session lock
+                    encryptionError = exception;
+                }
+            }
+            resetSession(connection.sessionGeneration);
+            throw encryptionError;
+        }
+        AttestationException attestationException =
+                new AttestationException("The attested session was reset");
+        Util.logException(TAG, attestationException);
+        throw attestationException;
+    }
 
-        byte[] encryptedPayload = encryptPayload(payload, aad);
-        return Attest.Message.newBuilder()
-                .setData(ByteString.copyFrom(encryptedPayload))
-                .setChannelId(ByteString.copyFrom(getBinding()))
-                .setAad(ByteString.copyFrom(aad))
-                .build();
+    /**
+     * Get the attested connection, establishing it if necessary
+     */
+    @NonNull
+    private synchronized Connection getConnection() throws AttestationException, NetworkException {
+        Transport transport = getNetworkTransport();
+        ServiceAPIManager apiManager = getAPIManager();
+        synchronized (sessionLock) {
+            if (rustObj == 0) {
+                // the connection will be attested again on the next call
+                resetNetworkTransport();
+                AttestationException attestationException =
+                        new AttestationException("The attested session is not established");
+                Util.logException(TAG, attestationException);
+                throw attestationException;
+            }
+            return new Connection(apiManager, transport, sessionGeneration);
+        }
     }
 
+    /**
+     * Make the call of the encrypted request without holding the client monitor or the session
+     * lock
+     */
     @NonNull
-    protected synchronized Attest.Message encryptMessage(@NonNull AbstractMessageLite<?, ?> message)
-            throws AttestationException {
-        return encryptMessage(message, null);
+    private <T> T dispatchRequest(@NonNull PendingRequest request, @NonNull AttestedCall<T> call)
+            throws AttestationException, NetworkException {
+        return call.call(
+                request.connection.apiManager,
+                request.connection.transport,
+                request.message
+        );
     }
 
     /**
-     * Decrypt an attested response {@link Attest.Message}
+     * Decrypt an attested response {@link Attest.Message} with the session the request was
+     * encrypted with
      *
-     * @return decrypted {@link Attest.Message}
+     * @return decrypted payload
      */
     @NonNull
-    protected synchronized Attest.Message decryptMessage(@NonNull Attest.Message message)
-            throws AttestationException {
+    private byte[] decryptResponse(
+            @NonNull PendingRequest request,
+            @NonNull Attest.Message message
+    ) throws AttestationException, NetworkException {
         Logger.i(TAG, "Decrypt response message");
-        try {
-            byte[] encrypted = message.getData().toByteArray();
-            byte[] decrypted = decryptPayload(
-                    encrypted,
-                    message.getAad().toByteArray()
-            );
-            return Attest.Message.newBuilder(message).setData(ByteString.copyFrom(decrypted))
-                    .build();
-        } catch (Exception exception) {
-            AttestationException attestationException =
-                    new AttestationException("Unable to decrypt response message", exception);
-            Util.logException(TAG, attestationException);
-            throw attestationException;
+        // the response is only read by the native code, so its buffers are passed as they are
+        byte[] encrypted = ByteStrings.toByteArray(message.getData());
+        byte[] aad = ByteStrings.toByteArray(message.getAad());
+        byte[] decrypted;
+        synchronized (sessionLock) {
+            if (request.connection.sessionGeneration != sessionGeneration) {
+                AttestationException attestationException =
+                        new AttestationException("The attested session was reset");
+                Util.logException(TAG, attestationException);
+                throw attestationException;
+            }
+            try {
+                decrypted = decrypt_payload(encrypted, aad);
+            } catch (Exception exception) {
+                AttestationException attestationException =
+                        new AttestationException("Unable to decrypt response message", exception);
+                Util.logException(TAG, attestationException);
+                throw attestationException;
+            }
         }
+        return decrypted;
+    }
+
+    /**
+     * Mark the round trip as finished, so the session may be replaced while the client is idle
+     */
+    private void finishExchange() {
+        synchronized (sessionLock) {
+            exchangeInProgress = false;
+        }
+    }
+
+    /**
+     * Reset the attestation state only if it still belongs to the specified session, so a request
+     * failing on a stale session does not tear down the session established after it
+     */
+    private synchronized void resetSession(long generation) {
+        synchronized (sessionLock) {
+            if (generation != sessionGeneration) {
+                return;
+            }
+        }
+        attestReset();
     }
 
     /**
@@ -168,7 +486,9 @@ abstract class AttestedClient extends AnyClient {
             } else {
                 responderId = ResponderId.fromUri(serviceUri.getUri());
             }
-            return attest_start(responderId);
+            synchronized (sessionLock) {
+                return attest_start(responderId);
+            }
         } catch (Exception exception) {
             AttestationException attestationException =
                     new AttestationException("Unable to start attestation", exception);
@@ -188,10 +508,14 @@ abstract class AttestedClient extends AnyClient {
     ) throws AttestationException {
         Logger.i(TAG, "FFI: attest_finish call");
         try {
-            attest_finish(
-                    authResponse,
-                    attestVerifier
-            );
+            synchronized (sessionLock) {
+                attest_finish(
+                        authResponse,
+                        attestVerifier
+                );
+                // the binding is taken from the established session on the first request
+                sessionBinding = null;
+            }
         } catch (Exception exception) {
             AttestationException attestationException =
                     new AttestationException("Unable to finish attestation", exception);
@@ -210,13 +534,18 @@ abstract class AttestedClient extends AnyClient {
     protected synchronized void attestReset() {
         Logger.i(TAG, "Reset attested state");
         resetNetworkTransport();
-        if (rustObj != 0) {
-            try {
-                finalize_jni();
-            } catch (Exception exception) {
-                Logger.e(TAG, "Unable to free attested state", exception);
+        synchronized (sessionLock) {
+            if (rustObj != 0) {
+                try {
+                    finalize_jni();
+                } catch (Exception exception) {
+                    Logger.e(TAG, "Unable to free attested state", exception);
+                }
+                rustObj = 0;
             }
-            rustObj = 0;
+            sessionBinding = null;
+            // the request of the previous session in progress fails to decrypt its response
+            sessionGeneration++;
         }
         shutdown();
     }
@@ -229,63 +558,54 @@ abstract class AttestedClient extends AnyClient {
      * Basic <credentials>, where credentials is the Base64 encoding of ID and password joined by a
      * single colon :
      */
-    public void setAuthorization(
+    public synchronized void setAuthorization(
             @NonNull String username,
             @NonNull String password
     ) {
         Logger.i(TAG, "Set API authorization");
+        this.username = username;
+        this.password = password;
         getAPIManager().setAuthorization(
                 username,
                 password
         );
+        AttestationManager manager = attestationManager;
+        if (manager != null) {
+            manager.onConfigurationChanged(this);
+        }
     }
 
+    /**
+     * Reset the attested session and release its native state
+     */
     @Override
-    protected void finalize() throws Throwable {
+    public void close() {
         Logger.i(TAG, "Destroying attested client object");
         deattest();
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
     }
 
+    /**
+     * @return channel binding of the current session, must be called under the session lock
+     */
     @NonNull
-    private synchronized byte[] getBinding() throws AttestationException {
+    private ByteString getBinding() throws AttestationException {
+        if (sessionBinding != null) {
+            return sessionBinding;
+        }
         try {
             Logger.i(TAG, "FFI: get_binding call");
-            return get_binding();
+            sessionBinding = ByteStrings.wrap(get_binding());
+            return sessionBinding;
         } catch (Exception exception) {
             AttestationException attestationException =
                     new AttestationException("Unable to get connection binding", exception);
             Util.logException(TAG, attestationException);
-            attestReset();
-            throw attestationException;
-        }
-    }
-
-    @NonNull
-    private synchronized byte[] decryptPayload(
-            @NonNull byte[] payload,
-            @NonNull byte[] aad
-    ) throws AttestationException {
-        Logger.i(TAG, "FFI: decrypt_payload call");
-        try {
-            return decrypt_payload(
-                    payload,
-                    aad
-            );
-        } catch (Exception exception) {
-            AttestationException attestationException =
-                    new AttestationException("Unable to decrypt payload", exception);
-            Util.logException(TAG, attestationException);
-            attestReset();
             throw attestationException;
         }
     }
 
     @NonNull
-    private synchronized byte[] encryptPayload(@NonNull byte[] payload, @NonNull byte[] aad)
+    private byte[] encryptPayload(@NonNull byte[] payload, @NonNull byte[] aad)
             throws AttestationException {
         Logger.i(TAG, "FFI: encrypt_payload call");
         try {
@@ -294,11 +614,47 @@ abstract class AttestedClient extends AnyClient {
             AttestationException attestationException =
                     new AttestationException("Unable to encrypt payload", exception);
             Util.logException(TAG, attestationException);
-            attestReset();
             throw attestationException;
         }
     }
 
+    /**
+     * A network call sending an encrypted request over the attested transport
+     */
+    protected interface AttestedCall<T> {
+        @NonNull
+        T call(@NonNull ServiceAPIManager apiManager,
+               @NonNull Transport transport,
+               @NonNull Attest.Message encryptedRequest
+        ) throws AttestationException, NetworkException;
+    }
+
+    /**
+     * The connection the attested session was established over
+     */
+    private static final class Connection {
+        final ServiceAPIManager apiManager;
+        final Transport transport;
+        final long sessionGeneration;
+
+        Connection(@NonNull ServiceAPIManager apiManager, @NonNull Transport transport,
+                   long sessionGeneration) {
+            this.apiManager = apiManager;
+            this.transport = transport;
+            this.sessionGeneration = sessionGeneration;
+        }
+    }
+
+    private static final class PendingRequest {
+        final Attest.Message message;
+        final Connection connection;
+
+        PendingRequest(@NonNull Attest.Message message, @NonNull Connection connection) {
+            this.message = message;
+            this.connection = connection;
+        }
+    }
+
     private native void finalize_jni();
 
     @NonNull
@@ -12,12 +12,12 @@ import com.mobilecoin.lib.exceptions.AttestationException;
 import com.mobilecoin.lib.exceptions.NetworkException;
 import com.mobilecoin.lib.log.Logger;
 import com.mobilecoin.lib.network.services.AttestedService;
-import com.mobilecoin.lib.network.services.ConsensusClientService;
 import com.mobilecoin.lib.network.services.transport.Transport;
 import com.mobilecoin.lib.network.uri.MobileCoinUri;
 import com.mobilecoin.lib.util.NetworkingCall;
 
 import attest.Attest;
+import attest.AttestedApiGrpc;
 import consensus_common.ConsensusCommon;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -42,6 +42,12 @@ class AttestedConsensusClient extends AttestedClient {
                 "verifier:", serviceConfig);
     }
 
+    @NonNull
+    @Override
+    protected String getServiceName() {
+        return AttestedApiGrpc.SERVICE_NAME;
+    }
+
     /**
      * Attest a managed connection
      * <p>
@@ -92,19 +98,17 @@ class AttestedConsensusClient extends AttestedClient {
     /**
      * Propose a new transaction to a consensus network
      */
-    synchronized ConsensusCommon.ProposeTxResponse proposeTx(@NonNull MobileCoinAPI.Tx tx)
+    ConsensusCommon.ProposeTxResponse proposeTx(@NonNull MobileCoinAPI.Tx tx)
             throws AttestationException, NetworkException {
         NetworkingCall<ConsensusCommon.ProposeTxResponse> networkingCall =
                 new NetworkingCall<>(
                         () -> {
                             Logger.i(TAG, "Propose transaction to consensus");
-                            ConsensusClientService consensusClientService =
-                                    getAPIManager().getConsensusClientService(getNetworkTransport());
-                            Attest.Message encryptedRequest = encryptMessage(tx);
                             try {
-                                return consensusClientService.clientTxPropose(encryptedRequest);
+                                return sendMessage(tx, (apiManager, transport, message) ->
+                                        apiManager.getConsensusClientService(transport)
+                                                .clientTxPropose(message));
                             } catch (StatusRuntimeException exception) {
-                                attestReset();
                                 throw new NetworkException(exception);
                             }
                         }
@@ -112,7 +116,6 @@ class AttestedConsensusClient extends AttestedClient {
         try {
             return networkingCall.run();
         } catch (AttestationException | NetworkException | RuntimeException exception) {
-            attestReset();
             Util.logException(TAG, exception);
             throw exception;
         } catch (Exception exception) {
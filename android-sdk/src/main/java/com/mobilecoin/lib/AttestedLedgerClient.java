@@ -14,7 +14,6 @@ import com.mobilecoin.lib.exceptions.InvalidFogResponse;
 import com.mobilecoin.lib.exceptions.NetworkException;
 import com.mobilecoin.lib.log.Logger;
 import com.mobilecoin.lib.network.services.FogKeyImageService;
-import com.mobilecoin.lib.network.services.FogMerkleProofService;
 import com.mobilecoin.lib.network.services.transport.Transport;
 import com.mobilecoin.lib.util.NetworkingCall;
 
@@ -25,6 +24,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import attest.Attest;
+import fog_ledger.FogKeyImageAPIGrpc;
 import fog_ledger.Ledger;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -49,6 +49,12 @@ class AttestedLedgerClient extends AttestedClient {
                 "verifier:", serviceConfig);
     }
 
+    @NonNull
+    @Override
+    protected String getServiceName() {
+        return FogKeyImageAPIGrpc.SERVICE_NAME;
+    }
+
     /**
      * Attest a managed connection
      * <p>
@@ -103,7 +109,7 @@ class AttestedLedgerClient extends AttestedClient {
      * @return initialized or empty {@link Ledger.GetOutputsResponse} instance
      */
     @NonNull
-    public synchronized Ledger.GetOutputsResponse getOutputs(
+    public Ledger.GetOutputsResponse getOutputs(
             @NonNull Collection<UnsignedLong> indexes,
             long merkleRootBlock
     ) throws InvalidFogResponse, AttestationException, NetworkException {
@@ -115,17 +121,14 @@ class AttestedLedgerClient extends AttestedClient {
         NetworkingCall<Ledger.GetOutputsResponse> networkingCall =
                 new NetworkingCall<>(() -> {
                     try {
-                        FogMerkleProofService fogMerkleProofService =
-                                getAPIManager().getFogMerkleProofService(getNetworkTransport());
-                        Attest.Message message = encryptMessage(request);
-                        Attest.Message responseMessage = fogMerkleProofService.getOutputs(message);
-                        Attest.Message response = decryptMessage(responseMessage);
-                        return Ledger.GetOutputsResponse.parseFrom(response.getData());
+                        return exchangeMessage(request, null,
+                                Ledger.GetOutputsResponse.parser(),
+                                (apiManager, transport, message) -> apiManager
+                                        .getFogMerkleProofService(transport)
+                                        .getOutputs(message));
                     } catch (StatusRuntimeException exception) {
-                        attestReset();
                         throw new NetworkException(exception);
                     } catch (InvalidProtocolBufferException exception) {
-                        attestReset();
                         throw new InvalidFogResponse("GetOutputsResponse contains invalid data",
                                 exception);
                     }
@@ -133,7 +136,6 @@ class AttestedLedgerClient extends AttestedClient {
         try {
             return networkingCall.run();
         } catch (InvalidFogResponse | AttestationException | NetworkException | RuntimeException exception) {
-            attestReset();
             Util.logException(TAG, exception);
             throw exception;
         } catch (Exception exception) {
@@ -147,7 +149,7 @@ class AttestedLedgerClient extends AttestedClient {
      * @param keyImages a list of key images to check
      */
     @NonNull
-    public synchronized Ledger.CheckKeyImagesResponse checkKeyImages(
+    public Ledger.CheckKeyImagesResponse checkKeyImages(
             @NonNull Set<KeyImage> keyImages
     ) throws InvalidFogResponse, AttestationException, NetworkException {
         Logger.i(TAG, "Checking key images", null,
@@ -165,25 +167,21 @@ class AttestedLedgerClient extends AttestedClient {
         NetworkingCall<Ledger.CheckKeyImagesResponse> networkingCall =
                 new NetworkingCall<>(() -> {
                     try {
-                        FogKeyImageService fogKeyImageService =
-                                getAPIManager().getFogKeyImageService(getNetworkTransport());
-                        Attest.Message encryptedRequest = encryptMessage(imagesRequest);
-                        Attest.Message encryptedResponse = fogKeyImageService.checkKeyImages(encryptedRequest);
-                        Attest.Message response = decryptMessage(encryptedResponse);
-                        return Ledger.CheckKeyImagesResponse.parseFrom(response.getData().toByteArray());
+                        return exchangeMessage(imagesRequest, null,
+                                Ledger.CheckKeyImagesResponse.parser(),
+                                (apiManager, transport, message) -> apiManager
+                                        .getFogKeyImageService(transport)
+                                        .checkKeyImages(message));
                     } catch (InvalidProtocolBufferException exception) {
-                        attestReset();
                         throw new InvalidFogResponse(
                                 "CheckKeyImagesResponse contains invalid data", exception);
                     } catch (StatusRuntimeException exception) {
-                        attestReset();
                         throw new NetworkException(exception);
                     }
                 });
         try {
             return networkingCall.run();
         } catch (InvalidFogResponse | AttestationException | NetworkException | RuntimeException exception) {
-            attestReset();
             Util.logException(TAG, exception);
             throw exception;
         } catch (Exception exception) {
@@ -197,7 +195,7 @@ class AttestedLedgerClient extends AttestedClient {
      * @param txos a list of OwnedTxOuts whose key images to check
      */
     @NonNull
-    public synchronized Ledger.CheckKeyImagesResponse checkUtxoKeyImages(@NonNull Set<OwnedTxOut> txos)
+    public Ledger.CheckKeyImagesResponse checkUtxoKeyImages(@NonNull Set<OwnedTxOut> txos)
             throws InvalidFogResponse, AttestationException, NetworkException {
         Logger.i(TAG, "Checking unspent OwnedTxOut key images");
         HashSet<KeyImage> keyImages = new HashSet<>();
@@ -19,6 +19,7 @@ import com.mobilecoin.lib.util.NetworkingCall;
 import java.util.List;
 
 import attest.Attest;
+import fog_view.FogViewAPIGrpc;
 import fog_view.View;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -42,6 +43,12 @@ class AttestedViewClient extends AttestedClient {
                 "verifier:", serviceConfig);
     }
 
+    @NonNull
+    @Override
+    protected String getServiceName() {
+        return FogViewAPIGrpc.SERVICE_NAME;
+    }
+
     /**
      * Attest a managed connection
      * <p>
@@ -94,7 +101,7 @@ class AttestedViewClient extends AttestedClient {
      * @param getTxosKexRngOutputs (optional) list of search keys to query
      */
     @NonNull
-    synchronized View.QueryResponse request(
+    View.QueryResponse request(
             @Nullable List<byte[]> getTxosKexRngOutputs, long lastKnownEventId, long lastKnownBlockIndex
     ) throws InvalidFogResponse, AttestationException, NetworkException {
         View.QueryRequest.Builder requestBuilder = View.QueryRequest.newBuilder();
@@ -103,7 +110,8 @@ class AttestedViewClient extends AttestedClient {
             Logger.i(TAG, "Requesting outputs from fog view", null,
                     "search keys count:", getTxosKexRngOutputs.size());
             for (byte[] kexRngOutput : getTxosKexRngOutputs) {
-                requestBuilder.addGetTxos(ByteString.copyFrom(kexRngOutput));
+                // the request is serialized right away, the outputs are not copied
+                requestBuilder.addGetTxos(ByteStrings.wrap(kexRngOutput));
             }
         }
         aadRequestBuilder.setStartFromUserEventId(lastKnownEventId);
@@ -111,26 +119,22 @@ class AttestedViewClient extends AttestedClient {
 
         NetworkingCall<View.QueryResponse> networkingCall = new NetworkingCall<>(() -> {
             try {
-                FogViewService fogViewService = getAPIManager().getFogViewService(getNetworkTransport());
-                Attest.Message message = encryptMessage(requestBuilder.build(), aadRequestBuilder.build());
-                Attest.Message encryptedResponse = fogViewService.query(message);
-                Attest.Message response = decryptMessage(encryptedResponse);
-                View.QueryResponse queryResponse = View.QueryResponse.parseFrom(response.getData());
-                return queryResponse;
+                return exchangeMessage(requestBuilder.build(), aadRequestBuilder.build(),
+                        View.QueryResponse.parser(), (apiManager, transport, message) -> apiManager
+                                .getFogViewService(transport)
+                                .query(message));
             } catch (InvalidProtocolBufferException exception) {
                 InvalidFogResponse invalidFogResponse = new InvalidFogResponse("View response " +
                         "contains invalid data", exception);
                 Util.logException(TAG, invalidFogResponse);
                 throw invalidFogResponse;
             } catch (StatusRuntimeException exception) {
-                attestReset();
                 throw new NetworkException(exception);
             }
         });
         try {
             return networkingCall.run();
         } catch (InvalidFogResponse | AttestationException | NetworkException | RuntimeException exception) {
-            attestReset();
             Util.logException(TAG, exception);
             throw exception;
         } catch (Exception exception) {
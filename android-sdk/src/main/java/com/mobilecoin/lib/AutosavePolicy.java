@@ -0,0 +1,54 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Configures the automatic persistence of the account state to the {@link StorageAdapter}
+ * <p>
+ * The account changes made by the synchronization are saved on a background thread. Changes are
+ * coalesced into a single save which happens at most {@code maxLatency} after the first unsaved
+ * change, or as soon as the estimated size of the unsaved changes reaches {@code maxBytes}.
+ * Unsaved changes are flushed when the client is shut down.
+ */
+public final class AutosavePolicy {
+    private static final String TAG = AutosavePolicy.class.getName();
+    private final Duration maxLatency;
+    private final long maxBytes;
+
+    /**
+     * @param maxLatency the longest time a change may stay unsaved
+     * @param maxBytes   the estimated size of the unsaved changes which triggers a save
+     */
+    public AutosavePolicy(@NonNull Duration maxLatency, long maxBytes) {
+        if (maxLatency.isNegative() || maxBytes <= 0) {
+            IllegalArgumentException illegalArgumentException =
+                    new IllegalArgumentException(
+                            "Autosave latency must not be negative and maxBytes must be positive");
+            Util.logException(TAG, illegalArgumentException);
+            throw illegalArgumentException;
+        }
+        this.maxLatency = maxLatency;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Saves the changes within 30 seconds or once they reach 256KiB
+     */
+    @NonNull
+    public static AutosavePolicy defaultPolicy() {
+        return new AutosavePolicy(Duration.ofSeconds(30), 256 * 1024);
+    }
+
+    @NonNull
+    public Duration getMaxLatency() {
+        return maxLatency;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
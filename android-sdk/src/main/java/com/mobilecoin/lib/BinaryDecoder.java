@@ -0,0 +1,125 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import com.mobilecoin.lib.exceptions.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reader of the compact binary format written by {@link BinaryEncoder}
+ * <p>
+ * The decoder reads from a {@link ByteBuffer} without changing its position, so it can read
+ * directly from a memory-mapped file. Every read is bounds checked, truncated or malformed input
+ * results in a {@link SerializationException}.
+ */
+final class BinaryDecoder {
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    BinaryDecoder(@NonNull byte[] buffer) {
+        this(ByteBuffer.wrap(buffer));
+    }
+
+    BinaryDecoder(@NonNull ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.limit());
+    }
+
+    private BinaryDecoder(@NonNull ByteBuffer buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    int readByte() throws SerializationException {
+        require(1);
+        return buffer.get(position++) & 0xFF;
+    }
+
+    long readVarint() throws SerializationException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    int readLength() throws SerializationException {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new SerializationException("Invalid length " + length);
+        }
+        return (int) length;
+    }
+
+    long readFixed64() throws SerializationException {
+        require(Long.BYTES);
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; ++i) {
+            value |= (long) (buffer.get(position++) & 0xFF) << (i * Byte.SIZE);
+        }
+        return value;
+    }
+
+    @NonNull
+    byte[] readKey() throws SerializationException {
+        return readRaw(BinaryEncoder.KEY_SIZE);
+    }
+
+    @NonNull
+    byte[] readBytes() throws SerializationException {
+        return readRaw(readLength());
+    }
+
+    @NonNull
+    byte[] readRaw(int length) throws SerializationException {
+        require(length);
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(position);
+        source.get(bytes);
+        position += length;
+        return bytes;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int remaining() {
+        return limit - position;
+    }
+
+    /**
+     * @return an independent decoder of the remaining bytes, reads do not advance this decoder
+     */
+    @NonNull
+    BinaryDecoder duplicate() {
+        return new BinaryDecoder(buffer, position, limit);
+    }
+
+    /**
+     * Read a length-prefixed record, the returned decoder is limited to the record fields and
+     * ignores the fields it does not read
+     */
+    @NonNull
+    BinaryDecoder readRecord() throws SerializationException {
+        int length = readLength();
+        BinaryDecoder record = new BinaryDecoder(buffer, position, position + length);
+        position += length;
+        return record;
+    }
+
+    private void require(int bytes) throws SerializationException {
+        if (bytes < 0 || limit - position < bytes) {
+            throw new SerializationException("Unexpected end of the serialized data");
+        }
+    }
+}
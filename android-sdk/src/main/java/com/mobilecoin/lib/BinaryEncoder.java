@@ -0,0 +1,127 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Writer of the compact binary format used to persist the account state
+ * <p>
+ * Unsigned integers are written as LEB128 varints, fixed size values are little-endian. Records
+ * are prefixed with their length so that the readers can skip the fields appended by newer
+ * versions of the format.
+ *
+ * @see BinaryDecoder
+ */
+final class BinaryEncoder {
+    static final int KEY_SIZE = 32;
+    private static final int MAX_VARINT_SIZE = 10;
+
+    private byte[] buffer;
+    private int position;
+
+    BinaryEncoder(int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, MAX_VARINT_SIZE)];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Write an unsigned value as a varint, values below 128 take a single byte
+     */
+    void writeVarint(long value) {
+        ensureCapacity(MAX_VARINT_SIZE);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeFixed64(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int i = 0; i < Long.BYTES; ++i) {
+            buffer[position++] = (byte) (value >>> (i * Byte.SIZE));
+        }
+    }
+
+    /**
+     * Write a 32 byte key without a length prefix
+     */
+    void writeKey(@NonNull byte[] key) {
+        if (key.length != KEY_SIZE) {
+            throw new IllegalArgumentException("Keys must be " + KEY_SIZE + " bytes long");
+        }
+        writeRaw(key);
+    }
+
+    /**
+     * Write a length-prefixed byte array
+     */
+    void writeBytes(@NonNull byte[] bytes) {
+        writeVarint(bytes.length);
+        writeRaw(bytes);
+    }
+
+    void writeRaw(@NonNull byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Start a length-prefixed record
+     *
+     * @return the mark to pass to {@link #endRecord(int)} after the record fields are written
+     */
+    int beginRecord() {
+        // most records are shorter than 128 bytes and fit a single byte length prefix
+        writeByte(0);
+        return position;
+    }
+
+    void endRecord(int mark) {
+        int length = position - mark;
+        int prefixSize = varintSize(length);
+        if (prefixSize > 1) {
+            ensureCapacity(prefixSize - 1);
+            System.arraycopy(buffer, mark, buffer, mark + prefixSize - 1, length);
+            position += prefixSize - 1;
+        }
+        int prefixPosition = mark - 1;
+        while ((length & ~0x7F) != 0) {
+            buffer[prefixPosition++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        buffer[prefixPosition] = (byte) length;
+    }
+
+    int size() {
+        return position;
+    }
+
+    @NonNull
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            ++size;
+        }
+        return size;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.length - position < bytes) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.mobilecoin.lib;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.protobuf.Empty;
 import com.mobilecoin.lib.ClientConfig.Service;
@@ -14,7 +15,14 @@ import com.mobilecoin.lib.util.NetworkingCall;
 
 import java.math.BigInteger;
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import consensus_common.ConsensusCommon;
 import io.grpc.StatusRuntimeException;
@@ -23,8 +31,13 @@ final class BlockchainClient extends AnyClient {
     private static final String TAG = BlockchainClient.class.getName();
     private static final BigInteger DEFAULT_TX_FEE = BigInteger.valueOf(10000000000L);
     private final Duration minimumFeeCacheTTL;
-    private ConsensusCommon.LastBlockInfoResponse lastBlockInfo;
-    private LocalDateTime lastBlockInfoTimestamp;
+    // the cached block info is refreshed in the background once it's older than this
+    private final Duration refreshAfter;
+    // read without locking, replaced by the refreshes
+    private final AtomicReference<LastBlockInfo> lastBlockInfo = new AtomicReference<>();
+    private final AtomicReference<FutureTask<LastBlockInfo>> pendingRefresh =
+            new AtomicReference<>();
+    private final ThreadPoolExecutor refreshExecutor;
 
     /**
      * Creates and initializes an instance of {@link BlockchainClient}
@@ -37,6 +50,8 @@ final class BlockchainClient extends AnyClient {
                      @NonNull Duration minimumFeeCacheTTL) {
         super(loadBalancer, serviceConfig);
         this.minimumFeeCacheTTL = minimumFeeCacheTTL;
+        this.refreshAfter = minimumFeeCacheTTL.multipliedBy(3).dividedBy(4);
+        this.refreshExecutor = createRefreshExecutor();
     }
 
     BlockchainClient(@NonNull LoadBalancer loadBalancer,
@@ -45,6 +60,8 @@ final class BlockchainClient extends AnyClient {
                    @NonNull ServiceAPIManager apiManager) {
         super(loadBalancer, serviceConfig, apiManager);
         this.minimumFeeCacheTTL = minimumFeeCacheTTL;
+        this.refreshAfter = minimumFeeCacheTTL.multipliedBy(3).dividedBy(4);
+        this.refreshExecutor = createRefreshExecutor();
         Logger.i(TAG, "Created new BlockchainClient", null,
                 "loadBalancer:", loadBalancer,
                 "verifier:", serviceConfig,
@@ -55,37 +72,140 @@ final class BlockchainClient extends AnyClient {
      * Fetch or return cached current minimal fee
      */
     @NonNull
-    synchronized UnsignedLong getOrFetchMinimumFee() throws NetworkException {
-        ConsensusCommon.LastBlockInfoResponse response = getOrFetchLastBlockInfo();
-        long minimumFeeBits = response.getMinimumFee();
-        UnsignedLong minimumFee = UnsignedLong.fromLongBits(minimumFeeBits);
-        if (minimumFee.equals(UnsignedLong.ZERO)) {
-            minimumFee = UnsignedLong.fromBigInteger(DEFAULT_TX_FEE);
-        }
-        return minimumFee;
+    UnsignedLong getOrFetchMinimumFee() throws NetworkException {
+        return getOrFetchBlockInfo().getMinimumFee();
     }
 
     /**
-     * Reset cache
+     * Reset cache, the last block info is refetched before it is used again and remains
+     * available through {@link #getLastBlockInfo()} until then
      */
-    synchronized void resetCache() {
-        lastBlockInfo = null;
-        lastBlockInfoTimestamp = null;
+    void resetCache() {
+        LastBlockInfo blockInfo = lastBlockInfo.get();
+        if (blockInfo != null) {
+            lastBlockInfo.compareAndSet(blockInfo, blockInfo.expired());
+        }
+        startRefresh(true);
     }
 
     /**
      * Fetch or return cached last block info
      */
     @NonNull
-    synchronized ConsensusCommon.LastBlockInfoResponse getOrFetchLastBlockInfo() throws NetworkException {
-        if (lastBlockInfo == null ||
-                lastBlockInfoTimestamp
-                        .plus(minimumFeeCacheTTL)
-                        .compareTo(LocalDateTime.now()) <= 0) {
-            lastBlockInfo = fetchLastBlockInfo();
-            lastBlockInfoTimestamp = LocalDateTime.now();
+    ConsensusCommon.LastBlockInfoResponse getOrFetchLastBlockInfo() throws NetworkException {
+        return getOrFetchBlockInfo().getResponse();
+    }
+
+    /**
+     * Fetch or return cached last block info, the cached info is refreshed in the background
+     * ahead of its expiry and concurrent fetches share a single request
+     */
+    @NonNull
+    LastBlockInfo getOrFetchBlockInfo() throws NetworkException {
+        return getOrFetchBlockInfo(minimumFeeCacheTTL);
+    }
+
+    /**
+     * Fetch or return cached last block info which is not older than {@code maxAge}
+     */
+    @NonNull
+    LastBlockInfo getOrFetchBlockInfo(@NonNull Duration maxAge) throws NetworkException {
+        LastBlockInfo blockInfo = lastBlockInfo.get();
+        if (blockInfo != null && !blockInfo.isExpired) {
+            Duration age = blockInfo.getAge();
+            if (age.compareTo(minimumFeeCacheTTL) < 0 && age.compareTo(maxAge) < 0) {
+                if (age.compareTo(refreshAfter) >= 0) {
+                    startRefresh(true);
+                }
+                return blockInfo;
+            }
+        }
+        try {
+            return startRefresh(false).get();
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof NetworkException) {
+                throw (NetworkException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("BUG: unreachable code", cause);
+        } catch (CancellationException exception) {
+            // the shared background refresh was rejected by the executor
+            return refresh();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new NetworkException(504, "Interrupted fetching last block info", exception);
+        }
+    }
+
+    /**
+     * Returns the cached last block info without fetching it
+     *
+     * @return the last fetched block info, possibly expired, or {@code null} if it was never
+     * fetched
+     */
+    @Nullable
+    LastBlockInfo getLastBlockInfo() {
+        return lastBlockInfo.get();
+    }
+
+    /**
+     * Returns the pending refresh or starts a new one, in the background or on the calling thread
+     */
+    @NonNull
+    private FutureTask<LastBlockInfo> startRefresh(boolean inBackground) {
+        while (true) {
+            FutureTask<LastBlockInfo> pending = pendingRefresh.get();
+            if (pending != null) {
+                return pending;
+            }
+            FutureTask<LastBlockInfo> refresh = new FutureTask<LastBlockInfo>(this::refresh) {
+                @Override
+                protected void done() {
+                    pendingRefresh.compareAndSet(this, null);
+                }
+            };
+            if (!pendingRefresh.compareAndSet(null, refresh)) {
+                continue;
+            }
+            if (inBackground) {
+                try {
+                    refreshExecutor.execute(refresh);
+                } catch (RejectedExecutionException exception) {
+                    refresh.cancel(false);
+                }
+            } else {
+                refresh.run();
+            }
+            return refresh;
+        }
+    }
+
+    @NonNull
+    private LastBlockInfo refresh() throws NetworkException {
+        try {
+            LastBlockInfo blockInfo =
+                    new LastBlockInfo(fetchLastBlockInfo(), System.nanoTime(), false);
+            lastBlockInfo.set(blockInfo);
+            return blockInfo;
+        } catch (NetworkException | RuntimeException exception) {
+            // the last good block info is kept
+            Logger.w(TAG, "Unable to refresh the last block info", exception);
+            throw exception;
         }
-        return lastBlockInfo;
+    }
+
+    @NonNull
+    private static ThreadPoolExecutor createRefreshExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-BlockInfo");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
@@ -120,4 +240,56 @@ final class BlockchainClient extends AnyClient {
         }
         return response;
     }
+
+    /**
+     * Snapshot of the last block info fetched from consensus
+     */
+    static final class LastBlockInfo {
+        private final ConsensusCommon.LastBlockInfoResponse response;
+        // System.nanoTime() of the moment the info was fetched
+        private final long fetchedAt;
+        private final boolean isExpired;
+
+        LastBlockInfo(@NonNull ConsensusCommon.LastBlockInfoResponse response, long fetchedAt,
+                      boolean isExpired) {
+            this.response = response;
+            this.fetchedAt = fetchedAt;
+            this.isExpired = isExpired;
+        }
+
+        @NonNull
+        ConsensusCommon.LastBlockInfoResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * @return the index of the last block known to consensus when the info was fetched
+         */
+        @NonNull
+        UnsignedLong getBlockIndex() {
+            return UnsignedLong.fromLongBits(response.getIndex());
+        }
+
+        /**
+         * @return the minimum fee or the default fee if consensus didn't report it
+         */
+        @NonNull
+        UnsignedLong getMinimumFee() {
+            UnsignedLong minimumFee = UnsignedLong.fromLongBits(response.getMinimumFee());
+            if (minimumFee.equals(UnsignedLong.ZERO)) {
+                minimumFee = UnsignedLong.fromBigInteger(DEFAULT_TX_FEE);
+            }
+            return minimumFee;
+        }
+
+        @NonNull
+        Duration getAge() {
+            return Duration.ofNanos(System.nanoTime() - fetchedAt);
+        }
+
+        @NonNull
+        LastBlockInfo expired() {
+            return new LastBlockInfo(response, fetchedAt, true);
+        }
+    }
 }
@@ -0,0 +1,118 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import com.google.protobuf.ByteOutput;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Conversions between {@link ByteString} and byte arrays that avoid copying the data.
+ * <p>
+ * The arrays passed to and returned from these methods are shared with the {@link ByteString}s
+ * and the parsed messages, so they must not be modified afterwards.
+ */
+final class ByteStrings {
+    static final byte[] EMPTY_BYTES = new byte[0];
+
+    private ByteStrings() {
+    }
+
+    /**
+     * Wrap the array without copying it
+     */
+    @NonNull
+    static ByteString wrap(@NonNull byte[] bytes) {
+        return (bytes.length == 0)
+                ? ByteString.EMPTY
+                : UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
+    /**
+     * @return the array backing the {@link ByteString} if it is backed by exactly one array,
+     * otherwise a copy of its content
+     */
+    @NonNull
+    static byte[] toByteArray(@NonNull ByteString byteString) {
+        if (byteString.isEmpty()) {
+            return EMPTY_BYTES;
+        }
+        BackingArrayOutput output = new BackingArrayOutput(byteString.size());
+        try {
+            UnsafeByteOperations.unsafeWriteTo(byteString, output);
+        } catch (IOException exception) {
+            throw new IllegalStateException("BUG: unreachable code");
+        }
+        byte[] backingArray = output.getBackingArray();
+        return (backingArray != null)
+                ? backingArray
+                : byteString.toByteArray();
+    }
+
+    /**
+     * Parse the message directly from the array, the bytes fields of the message reference the
+     * array instead of copying it
+     */
+    @NonNull
+    static <T> T parseFrom(@NonNull byte[] bytes, @NonNull Parser<T> parser)
+            throws InvalidProtocolBufferException {
+        CodedInputStream inputStream = CodedInputStream.newInstance(bytes);
+        inputStream.enableAliasing(true);
+        return parser.parseFrom(inputStream);
+    }
+
+    /**
+     * Captures the array backing a {@link ByteString} written in a single chunk
+     */
+    private static final class BackingArrayOutput extends ByteOutput {
+        private final int size;
+        private byte[] backingArray;
+        private boolean complete = true;
+
+        BackingArrayOutput(int size) {
+            this.size = size;
+        }
+
+        byte[] getBackingArray() {
+            return complete ? backingArray : null;
+        }
+
+        @Override
+        public void write(byte value) {
+            complete = false;
+        }
+
+        @Override
+        public void write(byte[] value, int offset, int length) {
+            complete = false;
+        }
+
+        @Override
+        public void writeLazy(byte[] value, int offset, int length) {
+            if (backingArray == null && offset == 0 && length == size
+                    && value.length == size) {
+                backingArray = value;
+            } else {
+                complete = false;
+            }
+        }
+
+        @Override
+        public void write(ByteBuffer value) {
+            complete = false;
+        }
+
+        @Override
+        public void writeLazy(ByteBuffer value) {
+            complete = false;
+        }
+    }
+}
@@ -7,11 +7,13 @@ import androidx.annotation.Nullable;
 
 import com.mobilecoin.lib.exceptions.AttestationException;
 import com.mobilecoin.lib.log.LogAdapter;
+import com.mobilecoin.lib.metrics.MetricsAdapter;
 
 import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * This class provides configuration for MobileCoinClient
@@ -23,8 +25,39 @@ public final class ClientConfig {
     public Service consensus;
     public StorageAdapter storageAdapter;
     public LogAdapter logAdapter;
+    // receives the RPC, attestation and synchronization measurements, e.g. HistogramMetricsAdapter
+    public MetricsAdapter metricsAdapter;
     // default minimum fee cache TTL is 30 minutes
     public Duration minimumFeeCacheTTL = Duration.ofMinutes(30);
+    // hedged transaction submission is disabled by default (0), otherwise the percentile (0..1) of
+    // the observed submit latency after which a transaction is also proposed to a second node
+    public double hedgedSubmissionPercentile = 0;
+    // hedge delay used until enough submit latency samples are collected
+    public Duration hedgedSubmissionDelay = Duration.ofSeconds(2);
+    // background attestation is disabled by default (null), otherwise a standby attested session
+    // is kept for each service and the sessions are replaced once older than this interval
+    public Duration attestationRefreshInterval;
+    // the synchronized account state is saved to the storageAdapter in the background according to
+    // this policy, e.g. AutosavePolicy.defaultPolicy(), null disables the autosave
+    public AutosavePolicy autosavePolicy;
+    // decoy prefetch is disabled by default (0) and the decoys are fetched with the real inputs,
+    // otherwise the number of the ring decoys prefetched in the background, e.g. 160
+    public int decoyPoolSize = 0;
+    // the prefetched decoys are dropped once their Merkle root is older than this
+    public Duration decoyPoolMaxAge = Duration.ofMinutes(5);
+    // the proof cache is disabled by default (null) and the proofs are fetched with the rings,
+    // otherwise the membership proofs of the unspent TxOuts are fetched in the background and used
+    // until they are older than this, e.g. Duration.ofMinutes(10)
+    public Duration txOutProofCacheMaxAge;
+    // number of the transactions proposed at the same time to each of the consensus nodes by
+    // MobileCoinClient.submitTransactionAsync, the attested session of a node sends its requests
+    // one at a time, so the additional proposals only wait on the session
+    public int submissionsPerConsensusNode = 1;
+    // MobileCoinClient.submitTransactionAsync blocks once this many transactions of the same
+    // priority wait for a consensus node
+    public int maxQueuedSubmissions = 64;
+    // the tombstone block of the new transactions, null uses TombstonePolicy.defaultPolicy()
+    public TombstonePolicy tombstonePolicy = TombstonePolicy.defaultPolicy();
 
     /**
      * Service Configuration
@@ -32,6 +65,7 @@ public final class ClientConfig {
     public static final class Service {
         private Verifier verifier;
         private Set<X509Certificate> trustRoots;
+        private Executor callExecutor;
 
         /**
          * Set attestation Verifier
@@ -51,6 +85,17 @@ public final class ClientConfig {
             return this;
         }
 
+        /**
+         * Run the gRPC calls of the service on the provided executor, e.g. an executor shared by
+         * all the services or a direct executor, as the SDK uses blocking stubs only. By default
+         * each client runs its calls on a dedicated single thread executor.
+         */
+        @NonNull
+        public Service withCallExecutor(@NonNull Executor callExecutor) {
+            this.callExecutor = callExecutor;
+            return this;
+        }
+
         /**
          * Get current attestation verifier
          */
@@ -66,6 +111,14 @@ public final class ClientConfig {
         public Set<X509Certificate> getTrustRoots() {
             return trustRoots;
         }
+
+        /**
+         * Get the gRPC call executor
+         */
+        @Nullable
+        public Executor getCallExecutor() {
+            return callExecutor;
+        }
     }
 
     @NonNull
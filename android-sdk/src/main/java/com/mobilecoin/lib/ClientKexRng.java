@@ -13,6 +13,9 @@ import java.util.Arrays;
 
 final class ClientKexRng extends Native implements Parcelable {
     private final static String TAG = ClientKexRng.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new ClientKexRng(RELEASE_ONLY), ClientKexRng::finalize_jni);
 
     ClientKexRng(
             @NonNull RistrettoPrivate viewKey,
@@ -26,6 +29,7 @@ final class ClientKexRng extends Native implements Parcelable {
                     seed,
                     version
             );
+            registerNativeObject(RELEASER);
         } catch (Exception ex) {
             KexRngException kexRngException =
                     new KexRngException("Unable to create a KexRng with the provided arguments", ex);
@@ -38,6 +42,7 @@ final class ClientKexRng extends Native implements Parcelable {
         Logger.i(TAG, "Initializing ClientKexRng");
         try {
             init_from_stored_rng_protobuf_bytes(protobufBytes);
+            registerNativeObject(RELEASER);
         } catch (Exception ex) {
             KexRngException kexRngException =
                 new KexRngException("Unable to create a KexRng from the protobuf bytes", ex);
@@ -97,12 +102,8 @@ final class ClientKexRng extends Native implements Parcelable {
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private ClientKexRng(@NonNull ReleaseOnly releaseOnly) {
     }
 
     private native void init_jni(
@@ -0,0 +1,38 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.FutureTask;
+
+/**
+ * Completion state of an operation finished by the SDK rather than by running a task
+ * <p>
+ * The public futures handed out to the callers delegate to it, so its {@link #run()} is never
+ * exposed.
+ */
+final class Completion<V> extends FutureTask<V> {
+
+    Completion() {
+        super(() -> {
+            throw new IllegalStateException("BUG: the completion is set by its owner");
+        });
+    }
+
+    /**
+     * The completion is set by its owner only
+     */
+    @Override
+    public void run() {
+    }
+
+    void complete(@Nullable V value) {
+        set(value);
+    }
+
+    void fail(@NonNull Exception exception) {
+        setException(exception);
+    }
+}
@@ -0,0 +1,225 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.exceptions.AttestationException;
+import com.mobilecoin.lib.exceptions.InvalidFogResponse;
+import com.mobilecoin.lib.exceptions.NetworkException;
+import com.mobilecoin.lib.log.Logger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import fog_ledger.Ledger;
+
+/**
+ * Prefetches random ledger outputs with their membership proofs to be used as ring decoys
+ * <p>
+ * The pool is refilled in the background once it is used and drops below half of its capacity.
+ * All the pooled proofs share the same Merkle root block, the pool is emptied once it is older
+ * than {@code maxAge}. Every decoy is handed out once.
+ */
+final class DecoyPool {
+    private static final String TAG = DecoyPool.class.getName();
+
+    private final AttestedLedgerClient ledgerClient;
+    private final int capacity;
+    private final Duration maxAge;
+    private final ExecutorService executorService;
+    private final Random random = new Random();
+    // guarded by this
+    private final ArrayDeque<Ledger.OutputResult> decoys = new ArrayDeque<>();
+    private final Set<Long> decoyIndices = new HashSet<>();
+    private long merkleRootBlock;
+    // System.nanoTime() of the moment the Merkle root was fetched
+    private long merkleRootFetchedAt;
+    @Nullable
+    private UnsignedLong numTxOutsInLedger;
+    private boolean isRefillScheduled;
+    private boolean isShutdown;
+
+    DecoyPool(@NonNull AttestedLedgerClient ledgerClient, int capacity, @NonNull Duration maxAge) {
+        this.ledgerClient = ledgerClient;
+        this.capacity = capacity;
+        this.maxAge = maxAge;
+        this.executorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-DecoyPool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Take decoys sharing a Merkle root block, the pool is refilled in the background afterwards
+     *
+     * @param count              number of the decoys to take
+     * @param excludedIndices    global indices of the outputs which must not be used as decoys
+     * @param minMerkleRootBlock the oldest Merkle root block the proofs may be relative to
+     * @param numTxOutsInLedger  the current number of outputs in the ledger
+     * @return the decoys or {@code null} if the pool can't provide them yet
+     */
+    @Nullable
+    synchronized Decoys take(
+            int count,
+            @NonNull Set<UnsignedLong> excludedIndices,
+            @NonNull UnsignedLong minMerkleRootBlock,
+            @NonNull UnsignedLong numTxOutsInLedger
+    ) {
+        this.numTxOutsInLedger = numTxOutsInLedger;
+        evictIfStale();
+        Decoys taken = null;
+        if (decoys.size() >= count + excludedIndices.size()
+                && UnsignedLong.compare(merkleRootBlock, minMerkleRootBlock.longValue()) >= 0) {
+            List<Ledger.OutputResult> results = new ArrayList<>(count);
+            Iterator<Ledger.OutputResult> iterator = decoys.iterator();
+            while (results.size() < count && iterator.hasNext()) {
+                Ledger.OutputResult decoy = iterator.next();
+                if (!excludedIndices.contains(UnsignedLong.fromLongBits(decoy.getIndex()))) {
+                    iterator.remove();
+                    decoyIndices.remove(decoy.getIndex());
+                    results.add(decoy);
+                }
+            }
+            taken = new Decoys(results, merkleRootBlock);
+        }
+        Logger.d(TAG, "Decoys requested", null,
+                "count:", count,
+                "pooled:", decoys.size(),
+                "hit:", taken != null);
+        scheduleRefill();
+        return taken;
+    }
+
+    /**
+     * Stop the background refills
+     */
+    synchronized void shutdown() {
+        isShutdown = true;
+        executorService.shutdownNow();
+        decoys.clear();
+        decoyIndices.clear();
+    }
+
+    private void evictIfStale() {
+        if (!decoys.isEmpty() && System.nanoTime() - merkleRootFetchedAt > maxAge.toNanos()) {
+            Logger.d(TAG, "Evicting the decoys of a stale Merkle root");
+            decoys.clear();
+            decoyIndices.clear();
+        }
+    }
+
+    private void scheduleRefill() {
+        if (isShutdown || isRefillScheduled || decoys.size() >= capacity / 2) {
+            return;
+        }
+        try {
+            executorService.execute(this::refill);
+            isRefillScheduled = true;
+        } catch (RejectedExecutionException ignored) {
+            // the pool is shut down
+        }
+    }
+
+    private void refill() {
+        HashSet<UnsignedLong> indices = new HashSet<>();
+        long rootBlock;
+        synchronized (this) {
+            evictIfStale();
+            UnsignedLong ledgerSize = numTxOutsInLedger;
+            // the pool can't hold more distinct outputs than the ledger contains
+            int missing = (ledgerSize != null)
+                    ? (int) Math.min(capacity, ledgerSize.longValue()) - decoys.size()
+                    : 0;
+            if (missing <= 0) {
+                isRefillScheduled = false;
+                return;
+            }
+            while (indices.size() < missing) {
+                UnsignedLong index = UnsignedLong.valueOf(Math.abs(random.nextLong()))
+                        .remainder(ledgerSize);
+                if (!decoyIndices.contains(index.longValue())) {
+                    indices.add(index);
+                }
+            }
+            // 0 requests the proofs relative to the latest block
+            rootBlock = decoys.isEmpty() ? 0 : merkleRootBlock;
+        }
+        try {
+            Ledger.GetOutputsResponse response = ledgerClient.getOutputs(indices, rootBlock);
+            addDecoys(response.getResultsList(),
+                    (rootBlock != 0) ? rootBlock : response.getNumBlocks() - 1);
+        } catch (InvalidFogResponse | AttestationException | NetworkException
+                | RuntimeException exception) {
+            // the pool is refilled again on the next use
+            Logger.w(TAG, "Unable to prefetch the decoys", exception);
+        } finally {
+            synchronized (this) {
+                isRefillScheduled = false;
+            }
+        }
+    }
+
+    private synchronized void addDecoys(@NonNull Collection<Ledger.OutputResult> results,
+                                        long rootBlock) {
+        if (isShutdown) {
+            return;
+        }
+        if (decoys.isEmpty() || rootBlock != merkleRootBlock) {
+            // the pooled proofs must share the same root
+            decoys.clear();
+            decoyIndices.clear();
+            merkleRootBlock = rootBlock;
+            merkleRootFetchedAt = System.nanoTime();
+        }
+        for (Ledger.OutputResult result : results) {
+            if (result.getResultCode() == Ledger.OutputResultCode.Exists_VALUE
+                    && decoyIndices.add(result.getIndex())) {
+                decoys.add(result);
+            }
+        }
+        Logger.d(TAG, "Decoys prefetched", null,
+                "pooled:", decoys.size(),
+                "merkle root block:", merkleRootBlock);
+    }
+
+    /**
+     * Decoys taken from the pool
+     */
+    static final class Decoys {
+        private final ArrayDeque<Ledger.OutputResult> outputs;
+        private final long merkleRootBlock;
+
+        private Decoys(@NonNull List<Ledger.OutputResult> outputs, long merkleRootBlock) {
+            this.outputs = new ArrayDeque<>(outputs);
+            this.merkleRootBlock = merkleRootBlock;
+        }
+
+        /**
+         * @return the decoys in the order they should be used
+         */
+        @NonNull
+        ArrayDeque<Ledger.OutputResult> getOutputs() {
+            return outputs;
+        }
+
+        /**
+         * @return the Merkle root block the proofs of the decoys are relative to
+         */
+        long getMerkleRootBlock() {
+            return merkleRootBlock;
+        }
+    }
+}
@@ -19,8 +19,10 @@ public class DefaultVersionedCryptoBox extends Native implements VersionedCrypto
     @Override
     public byte[] versionedCryptoBoxDecrypt(@NonNull RistrettoPrivate viewKey,
                                             @NonNull byte[] cipherText) throws InvalidFogResponse {
-        Logger.i(TAG, "Decrypting with view key", null,
-                "viewKey public:", viewKey.getPublicKey());
+        if (Logger.isLoggable(Logger.Level.INFO)) {
+            Logger.i(TAG, "Decrypting with view key", null,
+                    "viewKey public:", viewKey.getPublicKey());
+        }
         try {
             return versioned_crypto_box_decrypt(
                     viewKey,
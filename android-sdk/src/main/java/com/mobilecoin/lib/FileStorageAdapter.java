@@ -0,0 +1,179 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.util.Hex;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link StreamingStorageAdapter} keeping every value in a file of the provided directory
+ * <p>
+ * Values are read through memory mappings, so {@link #getBuffer(String)} does not copy them to the
+ * heap. {@link #set(String, byte[])} writes the value to a temporary file, syncs it and renames it
+ * over the previous value, so a crash leaves either the previous or the new value behind.
+ * {@link #append(String, byte[])} syncs the appended bytes before returning, a crash during an
+ * append can only leave a partially appended tail.
+ * <p>
+ * The adapter depends on {@code java.io} and {@code java.nio} only and works on any platform.
+ */
+public final class FileStorageAdapter implements StreamingStorageAdapter {
+    private static final String TAG = FileStorageAdapter.class.getName();
+    private static final String VALUE_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+
+    /**
+     * @param directory the directory to keep the files in, it is created if it does not exist
+     * @throws IllegalArgumentException if the directory cannot be created
+     */
+    public FileStorageAdapter(@NonNull File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            IllegalArgumentException illegalArgumentException =
+                    new IllegalArgumentException("Unable to create the storage directory");
+            Util.logException(TAG, illegalArgumentException);
+            throw illegalArgumentException;
+        }
+        this.directory = directory;
+        // remove the leftovers of the writes interrupted by a crash
+        File[] tempFiles = directory.listFiles((dir, name) -> name.endsWith(TEMP_SUFFIX));
+        if (tempFiles != null) {
+            for (File tempFile : tempFiles) {
+                if (!tempFile.delete()) {
+                    Logger.w(TAG, "Unable to delete " + tempFile);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean has(@NonNull String key) {
+        return getFile(key).isFile();
+    }
+
+    /**
+     * @return a copy of the value or {@code null} if there is none
+     */
+    @Nullable
+    @Override
+    public synchronized byte[] get(@NonNull String key) {
+        ByteBuffer buffer = getBuffer(key);
+        if (buffer == null) {
+            return null;
+        }
+        byte[] value = new byte[buffer.remaining()];
+        buffer.get(value);
+        return value;
+    }
+
+    @Override
+    public synchronized void set(@NonNull String key, @NonNull byte[] value) {
+        File file = getFile(key);
+        File tempFile = new File(directory, file.getName() + TEMP_SUFFIX);
+        try {
+            try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+                outputStream.write(value);
+                outputStream.getFD().sync();
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Unable to rename " + tempFile + " to " + file);
+            }
+        } catch (IOException exception) {
+            if (tempFile.exists() && !tempFile.delete()) {
+                Logger.w(TAG, "Unable to delete " + tempFile);
+            }
+            throw storageException("Unable to store the value", exception);
+        }
+    }
+
+    @Override
+    public synchronized void clear(@NonNull String key) {
+        File file = getFile(key);
+        if (file.exists() && !file.delete()) {
+            throw storageException("Unable to delete the value", null);
+        }
+    }
+
+    @Override
+    public synchronized void append(@NonNull String key, @NonNull byte[] bytes) {
+        try (FileOutputStream outputStream = new FileOutputStream(getFile(key), true)) {
+            outputStream.write(bytes);
+            outputStream.getFD().sync();
+        } catch (IOException exception) {
+            throw storageException("Unable to append to the value", exception);
+        }
+    }
+
+    @Override
+    public synchronized long size(@NonNull String key) {
+        return getFile(key).length();
+    }
+
+    @NonNull
+    @Override
+    public synchronized byte[] read(@NonNull String key, long offset, int length) {
+        ByteBuffer buffer = map(key, offset, length);
+        byte[] value = new byte[buffer != null ? buffer.remaining() : 0];
+        if (buffer != null) {
+            buffer.get(value);
+        }
+        return value;
+    }
+
+    /**
+     * @return read-only memory mapping of the value or {@code null} if there is none, the mapping
+     * keeps the value it was created for after the value is replaced
+     */
+    @Nullable
+    @Override
+    public synchronized ByteBuffer getBuffer(@NonNull String key) {
+        return map(key, 0, Integer.MAX_VALUE);
+    }
+
+    @Nullable
+    private ByteBuffer map(@NonNull String key, long offset, int length) {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            long size = channel.size();
+            long start = Math.min(Math.max(offset, 0), size);
+            long mappedSize = Math.min(length, size - start);
+            if (mappedSize == 0) {
+                return ByteBuffer.allocate(0);
+            }
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, mappedSize);
+        } catch (IOException exception) {
+            throw storageException("Unable to read the value", exception);
+        }
+    }
+
+    @NonNull
+    private File getFile(@NonNull String key) {
+        // keys may contain characters which are not allowed in the file names
+        return new File(directory, Hex.toString(key.getBytes(StandardCharsets.UTF_8))
+                + VALUE_SUFFIX);
+    }
+
+    @NonNull
+    private static IllegalStateException storageException(@NonNull String message,
+                                                          @Nullable IOException cause) {
+        IllegalStateException illegalStateException = new IllegalStateException(message, cause);
+        Util.logException(TAG, illegalStateException);
+        return illegalStateException;
+    }
+}
@@ -74,11 +74,13 @@ final class FogBlockClient extends AnyClient {
             try {
                 OwnedTxOut txo = new OwnedTxOut(record, accountKey);
                 txos.add(txo);
-                Logger.d(TAG, "Found TxOut", null,
-                        "block:", record.getBlockIndex());
+                if (Logger.isLoggable(Logger.Level.DEBUG)) {
+                    Logger.d(TAG, "Found TxOut", null,
+                            "block:", record.getBlockIndex());
+                }
             } catch (Exception ignored) { /* */ }
         }
-        Logger.d(TAG, String.format(Locale.US,
+        Logger.d(TAG, () -> String.format(Locale.US,
                 "Found total %d TxOuts",
                 txos.size())
         );
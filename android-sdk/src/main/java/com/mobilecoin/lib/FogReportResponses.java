@@ -7,14 +7,17 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 
 import com.mobilecoin.lib.exceptions.FogReportException;
-import com.mobilecoin.lib.log.Logger;
 
 final class FogReportResponses extends Native {
     private static final String TAG = FogReportResponses.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new FogReportResponses(RELEASE_ONLY), FogReportResponses::finalize_jni);
 
     FogReportResponses() throws FogReportException {
         try {
             init_jni();
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             FogReportException fogReportException =
                     new FogReportException("Unable to create fog report responses container",
@@ -36,14 +39,8 @@ final class FogReportResponses extends Native {
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        try {
-            finalize_jni();
-        } catch (Exception exception) {
-            Logger.e(TAG, "Failed to free fog report data", exception);
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private FogReportResponses(@NonNull ReleaseOnly releaseOnly) {
     }
 
     // native calls
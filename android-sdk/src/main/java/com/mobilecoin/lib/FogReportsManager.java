@@ -11,24 +11,60 @@ import com.mobilecoin.lib.log.Logger;
 import com.mobilecoin.lib.network.uri.FogUri;
 import com.mobilecoin.lib.util.Result;
 import com.mobilecoin.lib.util.Task;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Fetches and caches the fog reports of the fog URIs
+ * <p>
+ * Concurrent requests for the same URI share a single fetch and every URI reuses a single
+ * {@link ReportClient}. A cached report close to its expiry is still used while a fresh one is
+ * fetched in the background. The verified {@link FogResolver} of a set of reports is shared by
+ * the transactions until one of the reports is replaced.
+ */
 final class FogReportsManager {
     private final static String TAG = FogReportsManager.class.getName();
     private static final int MAX_FETCH_THREADS = 10;
     // timeout the network call if it's more than 5 minutes
     private static final int MAX_WAIT_TIME_SECONDS = 300;
+    // a report expiring within this number of blocks after the tombstone is refreshed ahead
+    private static final long REFRESH_AHEAD_BLOCKS = 50;
+    // number of the report sets whose resolvers are kept
+    private static final int MAX_CACHED_RESOLVERS = 16;
+    // guarded by this
     private final HashMap<FogUri, ReportResponse> cachedResponses;
+    private final HashMap<FogUri, Future<Result<ReportResponse, Exception>>> pendingFetches;
+    private final HashMap<FogUri, ReportClient> reportClients;
+    // least recently used first
+    private final LinkedHashMap<ResolverKey, FogResolver> cachedResolvers;
+    // shared by all the fetches, the idle threads are stopped
+    private final ThreadPoolExecutor fetchExecutor;
 
     FogReportsManager() {
         cachedResponses = new HashMap<>();
+        pendingFetches = new HashMap<>();
+        reportClients = new HashMap<>();
+        cachedResolvers = new LinkedHashMap<>(MAX_CACHED_RESOLVERS, 0.75f, true);
+        fetchExecutor = new ThreadPoolExecutor(MAX_FETCH_THREADS, MAX_FETCH_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-FogReports");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetchExecutor.allowCoreThreadTimeOut(true);
     }
 
     @Nullable
@@ -38,17 +74,12 @@ final class FogReportsManager {
         Logger.i(TAG, "Checking for cached report response");
         ReportResponse response = cachedResponses.get(fogUri);
         if (response != null) {
-            Optional<Report> report = response.getReports().stream()
-                    .min((o1, o2) -> Long.compare(
-                            o1.getPublicKeyExpiry(),
-                            o2.getPublicKeyExpiry()));
-            if (report.isPresent()) {
-                UnsignedLong reportExpiryBlockIndex =
-                        UnsignedLong.fromLongBits(report.get().getPublicKeyExpiry());
-                if (reportExpiryBlockIndex.compareTo(tombstoneBlockIndex) < 0) {
-                    cachedResponses.remove(fogUri);
-                    response = null;
-                }
+            UnsignedLong reportExpiryBlockIndex = getExpiryBlockIndex(response);
+            if (reportExpiryBlockIndex != null
+                    && reportExpiryBlockIndex.compareTo(tombstoneBlockIndex) < 0) {
+                cachedResponses.remove(fogUri);
+                invalidateResolvers(fogUri);
+                response = null;
             }
             Logger.i(TAG, "Got cached report response", null,
                     "fogUri:", fogUri,
@@ -64,71 +95,95 @@ final class FogReportsManager {
     ) {
         Logger.i(TAG, "Caching report response", null, fogUri, reportResponse);
         cachedResponses.put(fogUri, reportResponse);
+        invalidateResolvers(fogUri);
     }
 
+    /**
+     * Returns the resolver verifying the reports of the URIs valid at least until the tombstone
+     * block, the resolver is shared and must not be closed
+     */
     @NonNull
-    FogReportResponses fetchReports(@NonNull Set<FogUri> fogUriList,
+    FogResolver getFogResolver(@NonNull Set<FogUri> fogUriList,
+                               @NonNull UnsignedLong tombstoneBlockIndex,
+                               @NonNull ClientConfig.Service serviceConfig
+    ) throws NetworkException, FogReportException {
+        HashMap<FogUri, ReportResponse> responses =
+                fetchReports(fogUriList, tombstoneBlockIndex, serviceConfig);
+        Verifier verifier = serviceConfig.getVerifier();
+        ResolverKey key = new ResolverKey(responses, verifier);
+        synchronized (this) {
+            FogResolver fogResolver = cachedResolvers.get(key);
+            if (fogResolver != null) {
+                Logger.i(TAG, "Using the cached fog resolver");
+                return fogResolver;
+            }
+        }
+        // the verification runs outside of the lock, concurrent misses may build it twice
+        FogResolver fogResolver;
+        try (FogReportResponses fogReportResponses = new FogReportResponses()) {
+            for (FogUri fogUri : responses.keySet()) {
+                fogReportResponses.addResponse(fogUri.getUri(), responses.get(fogUri));
+            }
+            fogResolver = new FogResolver(fogReportResponses, verifier);
+        }
+        synchronized (this) {
+            // skip the reports replaced in the meantime
+            for (FogUri fogUri : responses.keySet()) {
+                if (cachedResponses.get(fogUri) != responses.get(fogUri)) {
+                    return fogResolver;
+                }
+            }
+            cachedResolvers.put(key, fogResolver);
+            Iterator<ResolverKey> iterator = cachedResolvers.keySet().iterator();
+            while (cachedResolvers.size() > MAX_CACHED_RESOLVERS) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return fogResolver;
+    }
+
+    @NonNull
+    private HashMap<FogUri, ReportResponse> fetchReports(@NonNull Set<FogUri> fogUriList,
                                     @NonNull UnsignedLong tombstoneBlockIndex,
                                     @NonNull ClientConfig.Service serviceConfig
     ) throws NetworkException, FogReportException {
         Logger.i(TAG, "Fetching reports from fogUriList and tombstone block index", null,
                 fogUriList, tombstoneBlockIndex);
-        FogReportResponses fogReportResponses = new FogReportResponses();
-        ExecutorService fixedExecutorService =
-                Executors.newFixedThreadPool(Math.min(fogUriList.size(),
-                        MAX_FETCH_THREADS));
-        HashMap<FogUri, Task<ReportResponse, Exception>> reportTasks = new HashMap<>();
-
+        HashMap<FogUri, ReportResponse> reportResponses = new HashMap<>();
+        HashMap<FogUri, Future<Result<ReportResponse, Exception>>> futures = new HashMap<>();
         for (FogUri fogUri : fogUriList) {
             ReportResponse response = getCachedReportResponse(fogUri, tombstoneBlockIndex);
             // if there is no valid cached report for the fogUri,
-            // create a task to fetch it
+            // join or start a fetch of it
             if (response == null) {
-                Task<ReportResponse, Exception> task = new Task<ReportResponse, Exception>() {
-                    @Override
-                    public ReportResponse execute() throws Exception {
-                        ReportClient reportClient = new ReportClient(
-                            RandomLoadBalancer.create(fogUri),
-                            serviceConfig);
-                        ReportResponse response = reportClient.getReports();
-                        reportClient.shutdown();
-                        return response;
-                    }
-                };
-                reportTasks.put(fogUri, task);
+                futures.put(fogUri, fetchReportResponse(fogUri, serviceConfig));
             } else {
-                fogReportResponses.addResponse(fogUri.getUri(), response);
+                reportResponses.put(fogUri, response);
+                UnsignedLong reportExpiryBlockIndex = getExpiryBlockIndex(response);
+                if (reportExpiryBlockIndex != null && reportExpiryBlockIndex.compareTo(
+                        tombstoneBlockIndex.add(UnsignedLong.fromLongBits(REFRESH_AHEAD_BLOCKS)))
+                        < 0) {
+                    // the cached report is still used, the next transactions get a fresh one
+                    Logger.i(TAG, "Refreshing the report response ahead of its expiry", null,
+                            "fogUri:", fogUri,
+                            "expiry:", reportExpiryBlockIndex);
+                    fetchReportResponse(fogUri, serviceConfig);
+                }
             }
         }
         try {
-            HashMap<FogUri, Future<Result<ReportResponse, Exception>>> futures = new HashMap<>();
-            for (FogUri uri : reportTasks.keySet()) {
-                Future<Result<ReportResponse, Exception>> future =
-                        fixedExecutorService.submit(reportTasks.get(uri));
-                futures.put(uri, future);
-            }
-            fixedExecutorService.shutdown();
-            // wait for the executor service to complete all tasks
-            fixedExecutorService.awaitTermination(MAX_WAIT_TIME_SECONDS, TimeUnit.SECONDS);
-
-            HashMap<FogUri, Result<ReportResponse, Exception>> taskResults = new HashMap<>();
-            for (FogUri uri : futures.keySet()) {
-                Future<Result<ReportResponse, Exception>> future = futures.get(uri);
-                if (future != null) {
-                    Result<ReportResponse, Exception> responseResult = future.get();
-                    taskResults.put(uri, responseResult);
-                }
-            }
-            for (FogUri fogUri : taskResults.keySet()) {
-                Result<ReportResponse, Exception> responseResult = taskResults.get(fogUri);
-                if (responseResult != null && responseResult.isOk()) {
-                    fogReportResponses.addResponse(fogUri.getUri(), responseResult.getValue());
-                    cacheReportResponse(fogUri, responseResult.getValue());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(MAX_WAIT_TIME_SECONDS);
+            for (FogUri fogUri : futures.keySet()) {
+                Result<ReportResponse, Exception> responseResult = futures.get(fogUri)
+                        .get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (responseResult.isOk()) {
+                    reportResponses.put(fogUri, responseResult.getValue());
                 } else {
                     throw responseResult.getError();
                 }
             }
-        } catch (InterruptedException | ExecutionException exception) {
+        } catch (InterruptedException | ExecutionException | TimeoutException exception) {
             NetworkException networkException =
                     new NetworkException(504, "Timeout fetching fog reports", exception);
             Util.logException(TAG, networkException);
@@ -142,6 +197,100 @@ final class FogReportsManager {
             Logger.wtf(TAG, "Unexpected exception", exception);
             throw new IllegalStateException(exception);
         }
-        return fogReportResponses;
+        return reportResponses;
+    }
+
+    /**
+     * Closes the connections of the report clients, they reconnect once used again
+     */
+    void shutdown() {
+        List<ReportClient> clients;
+        synchronized (this) {
+            clients = new ArrayList<>(reportClients.values());
+        }
+        for (ReportClient reportClient : clients) {
+            reportClient.shutdown();
+        }
+    }
+
+    /**
+     * Returns the pending fetch of the URI or starts a new one
+     */
+    @NonNull
+    private synchronized Future<Result<ReportResponse, Exception>> fetchReportResponse(
+            @NonNull FogUri fogUri,
+            @NonNull ClientConfig.Service serviceConfig
+    ) {
+        Future<Result<ReportResponse, Exception>> pendingFetch = pendingFetches.get(fogUri);
+        if (pendingFetch != null) {
+            return pendingFetch;
+        }
+        ReportClient reportClient = reportClients.get(fogUri);
+        if (reportClient == null) {
+            reportClient = new ReportClient(RandomLoadBalancer.create(fogUri), serviceConfig);
+            reportClients.put(fogUri, reportClient);
+        }
+        ReportClient client = reportClient;
+        Task<ReportResponse, Exception> task = new Task<ReportResponse, Exception>() {
+            @Override
+            public ReportResponse execute() throws Exception {
+                try {
+                    ReportResponse response = client.getReports();
+                    cacheReportResponse(fogUri, response);
+                    return response;
+                } finally {
+                    removePendingFetch(fogUri);
+                }
+            }
+        };
+        // registered before it runs, so the task removes it once done
+        FutureTask<Result<ReportResponse, Exception>> fetch = new FutureTask<>(task);
+        pendingFetches.put(fogUri, fetch);
+        fetchExecutor.execute(fetch);
+        return fetch;
+    }
+
+    // the resolvers in use are released by the NativeCleaner once dropped
+    private void invalidateResolvers(@NonNull FogUri fogUri) {
+        cachedResolvers.keySet().removeIf(key -> key.responses.containsKey(fogUri));
+    }
+
+    private synchronized void removePendingFetch(@NonNull FogUri fogUri) {
+        pendingFetches.remove(fogUri);
+    }
+
+    @Nullable
+    private static UnsignedLong getExpiryBlockIndex(@NonNull ReportResponse response) {
+        Optional<Report> report = response.getReports().stream()
+                .min((o1, o2) -> Long.compare(
+                        o1.getPublicKeyExpiry(),
+                        o2.getPublicKeyExpiry()));
+        return report.map(value -> UnsignedLong.fromLongBits(value.getPublicKeyExpiry()))
+                .orElse(null);
+    }
+
+    // identifies a set of reports by their cached responses, a refreshed report is a new response
+    private static final class ResolverKey {
+        private final HashMap<FogUri, ReportResponse> responses;
+        private final Verifier verifier;
+
+        ResolverKey(@NonNull HashMap<FogUri, ReportResponse> responses,
+                    @NonNull Verifier verifier) {
+            this.responses = responses;
+            this.verifier = verifier;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ResolverKey that = (ResolverKey) o;
+            return responses.equals(that.responses) && verifier == that.verifier;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(responses, System.identityHashCode(verifier));
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,28 +5,25 @@ package com.mobilecoin.lib;
 import androidx.annotation.NonNull;
 
 import com.mobilecoin.lib.exceptions.FogReportException;
-import com.mobilecoin.lib.log.Logger;
 
 final class FogResolver extends Native {
     private final static String TAG = FogResolver.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new FogResolver(RELEASE_ONLY), FogResolver::finalize_jni);
 
     FogResolver(@NonNull FogReportResponses responses, @NonNull Verifier verifier) throws FogReportException {
         try {
             init_jni(responses, verifier);
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             throw new FogReportException("Unable to create fog report responses container",
                     exception);
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        try {
-            finalize_jni();
-        } catch (Exception exception) {
-            Logger.e(TAG, "Failed to free fog report data", exception);
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private FogResolver(@NonNull ReleaseOnly releaseOnly) {
     }
 
     // native calls
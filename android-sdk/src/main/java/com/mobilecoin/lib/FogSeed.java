@@ -11,9 +11,6 @@ import com.mobilecoin.lib.exceptions.KexRngException;
 import com.mobilecoin.lib.exceptions.SerializationException;
 import com.mobilecoin.lib.log.Logger;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -24,11 +21,14 @@ import java.util.Objects;
 class FogSeed implements Parcelable {
     private final static String TAG = FogSeed.class.getName();
 
-    // Bump serial version and read/write code if fields change
-    private static final long serialVersionUID = 1L;
+    // Binary storage format flags
+    private static final int FLAG_OBSOLETE = 1;
+    // Upper bound of the list capacity allocated before the stored TxOuts are read
+    private static final int MAX_PREALLOCATED_TXOS = 1024;
 
-    // RNG
+    // RNG, restored seeds keep the stored RNG state until the RNG is first used
     private ClientKexRng kexRng;
+    private byte[] storedRngProtobufBytes;
     // Data that comes straight from fog.
     private byte[] nonce;
     private int rngVersion;
@@ -95,21 +95,23 @@ class FogSeed implements Parcelable {
     // Get the next N search keys
     @NonNull
     byte[][] getNextN(long n) throws KexRngException {
-        Logger.i(TAG, "Getting the next N search keys", null, n);
-        return kexRng.getNextN(n);
+        if (Logger.isLoggable(Logger.Level.INFO)) {
+            Logger.i(TAG, "Getting the next N search keys", null, n);
+        }
+        return getKexRng().getNextN(n);
     }
 
     // Get current search key for this seed
     @NonNull
     byte[] getOutput() throws KexRngException {
         Logger.i(TAG, "Getting output");
-        return kexRng.getOutput();
+        return getKexRng().getOutput();
     }
 
     // Advance this seed by 1.
     void advance() throws KexRngException {
         Logger.i(TAG, "Advancing seed");
-        kexRng.advance();
+        getKexRng().advance();
     }
 
     void addTXO(@NonNull OwnedTxOut utxo) throws KexRngException {
@@ -128,10 +130,29 @@ class FogSeed implements Parcelable {
         return utxos;
     }
 
+    @NonNull
+    byte[] getNonce() {
+        return nonce;
+    }
+
     long getIngestInvocationId() {
         return ingestInvocationId;
     }
 
+    @NonNull
+    private synchronized ClientKexRng getKexRng() throws KexRngException {
+        if (kexRng == null) {
+            kexRng = new ClientKexRng(storedRngProtobufBytes);
+            storedRngProtobufBytes = null;
+        }
+        return kexRng;
+    }
+
+    @NonNull
+    private synchronized byte[] getRngProtobufBytes() throws KexRngException {
+        return kexRng != null ? kexRng.getProtobufBytes() : storedRngProtobufBytes;
+    }
+
     boolean isObsolete() {
         return isObsolete;
     }
@@ -141,42 +162,55 @@ class FogSeed implements Parcelable {
     }
 
 
-    private void writeObject(ObjectOutputStream out) throws IOException, KexRngException {
-        out.write(nonce.length);
-        out.write(nonce);
-
-        byte[] storedRngProtobufBytes = kexRng.getProtobufBytes();
-        out.write(storedRngProtobufBytes.length);
-        out.write(storedRngProtobufBytes);
-
-        out.writeInt(rngVersion);
-        out.writeObject(startBlock);
-        out.writeObject(utxos);
-        out.writeLong(ingestInvocationId);
+    /**
+     * Writes this object as a record of the binary storage format
+     * @param encoder The encoder to write the record to
+     */
+    void writeTo(@NonNull BinaryEncoder encoder) throws SerializationException {
+        byte[] storedRngProtobufBytes;
+        try {
+            storedRngProtobufBytes = getRngProtobufBytes();
+        } catch (KexRngException exception) {
+            throw new SerializationException("Unable to serialize the KexRng state", exception);
+        }
+        int record = encoder.beginRecord();
+        encoder.writeByte(isObsolete ? FLAG_OBSOLETE : 0);
+        encoder.writeBytes(storedRngProtobufBytes);
+        encoder.writeKey(nonce);
+        encoder.writeVarint(rngVersion);
+        encoder.writeFixed64(ingestInvocationId);
+        encoder.writeVarint(startBlock.longValue());
+        encoder.writeVarint(utxos.size());
+        for (OwnedTxOut utxo : utxos) {
+            utxo.writeTo(encoder);
+        }
+        encoder.endRecord(record);
     }
 
-    @SuppressWarnings("unchecked")
-    private void readObject(ObjectInputStream in)
-        throws IOException, ClassNotFoundException, KexRngException {
-        int nonceLength = in.read();
-        nonce = new byte[nonceLength];
-        int bytesRead = in.read(nonce);
-        if (bytesRead != nonceLength) {
-            throw new IOException();
-        }
-        int storedRngProtobufBytesLength = in.read();
-        byte[] storedRngProtobufBytes = new byte[storedRngProtobufBytesLength];
-        int kexRngProtobufBytesRead = in.read(storedRngProtobufBytes);
-        if (kexRngProtobufBytesRead != storedRngProtobufBytesLength) {
-            throw new IOException();
+    /**
+     * Reads a FogSeed record of the binary storage format
+     * @param decoder The decoder positioned at the record
+     */
+    @NonNull
+    static FogSeed readFrom(@NonNull BinaryDecoder decoder) throws SerializationException {
+        BinaryDecoder record = decoder.readRecord();
+        FogSeed seed = new FogSeed();
+        seed.isObsolete = (record.readByte() & FLAG_OBSOLETE) != 0;
+        seed.storedRngProtobufBytes = record.readBytes();
+        seed.nonce = record.readKey();
+        seed.rngVersion = (int) record.readVarint();
+        seed.ingestInvocationId = record.readFixed64();
+        seed.startBlock = UnsignedLong.fromLongBits(record.readVarint());
+        long utxoCount = record.readVarint();
+        seed.utxos = new ArrayList<>((int) Math.min(utxoCount, MAX_PREALLOCATED_TXOS));
+        for (long i = 0; i < utxoCount; ++i) {
+            seed.utxos.add(OwnedTxOut.readFrom(record));
         }
-        kexRng = new ClientKexRng(storedRngProtobufBytes);
-        rngVersion = in.readInt();
-        startBlock = (UnsignedLong) in.readObject();
-        utxos = (ArrayList<OwnedTxOut>) in.readObject();
-        ingestInvocationId = in.readLong();
+        return seed;
     }
 
+    private FogSeed() { /* used by the binary storage format decoder */ }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -186,10 +220,16 @@ class FogSeed implements Parcelable {
             return false;
         }
         FogSeed fogSeed = (FogSeed) o;
+        try {
+            if (!Arrays.equals(getRngProtobufBytes(), fogSeed.getRngProtobufBytes())) {
+                return false;
+            }
+        } catch (KexRngException exception) {
+            return false;
+        }
         return rngVersion == fogSeed.rngVersion &&
             isObsolete == fogSeed.isObsolete &&
             ingestInvocationId == fogSeed.ingestInvocationId &&
-            Objects.equals(kexRng, fogSeed.kexRng) &&
             Arrays.equals(nonce, fogSeed.nonce) &&
             Objects.equals(startBlock, fogSeed.startBlock) &&
             Objects.equals(utxos, fogSeed.utxos);
@@ -210,7 +250,14 @@ class FogSeed implements Parcelable {
      */
     @Override
     public void writeToParcel(Parcel parcel, int flags) {
-        parcel.writeParcelable(kexRng, flags);
+        try {
+            parcel.writeParcelable(getKexRng(), flags);
+        } catch (KexRngException exception) {
+            IllegalStateException illegalStateException =
+                    new IllegalStateException("Unable to restore the KexRng state", exception);
+            Util.logException(TAG, illegalStateException);
+            throw illegalStateException;
+        }
         parcel.writeByteArray(nonce);
         parcel.writeInt(rngVersion);
         parcel.writeByte((byte) (isObsolete ? 1 : 0));
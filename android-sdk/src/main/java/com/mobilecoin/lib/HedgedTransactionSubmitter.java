@@ -0,0 +1,233 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import com.mobilecoin.api.MobileCoinAPI;
+import com.mobilecoin.lib.exceptions.AttestationException;
+import com.mobilecoin.lib.exceptions.NetworkException;
+import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.util.Result;
+import com.mobilecoin.lib.util.Task;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import consensus_common.ConsensusCommon;
+
+/**
+ * Proposes transactions to a consensus node and, if the node does not respond within the
+ * configured percentile of the observed submit latency, proposes the same transaction to a second
+ * consensus node. A transport error from the primary node is hedged right away.
+ * <p>
+ * A rejection received before the hedge is returned immediately, it would be the same on any node.
+ * Once both proposals are in flight, consensus may reject the duplicate by its key images, so a
+ * rejection waits for the other node and the first response accepting the transaction wins.
+ */
+final class HedgedTransactionSubmitter {
+    private static final String TAG = HedgedTransactionSubmitter.class.getName();
+    // number of the most recent submit latencies used to calculate the hedge delay
+    private static final int LATENCY_WINDOW_SIZE = 128;
+    // minimum number of latency samples required before the percentile is used
+    private static final int MIN_LATENCY_SAMPLES = 10;
+    // maximum number of proposals in flight, the others wait for a free thread
+    private static final int MAX_THREADS = 4;
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 30;
+    private final List<AttestedConsensusClient> consensusClients;
+    private final double percentile;
+    private final long fallbackDelayMillis;
+    private final long[] latencySamples;
+    private final ExecutorService executorService;
+    private final Random random;
+    private int latencySampleCount;
+    private int nextLatencySample;
+
+    /**
+     * Creates and initializes an instance of {@link HedgedTransactionSubmitter}
+     *
+     * @param consensusClients clients for each of the consensus nodes, at least two are required
+     * @param percentile       percentile (0..1) of the observed latency to use as a hedge delay
+     * @param fallbackDelay    hedge delay to use until enough latency samples are collected
+     */
+    HedgedTransactionSubmitter(@NonNull List<AttestedConsensusClient> consensusClients,
+                               double percentile,
+                               @NonNull Duration fallbackDelay) {
+        if (consensusClients.size() < 2) {
+            IllegalArgumentException exception = new IllegalArgumentException(
+                    "Hedged submission requires at least two consensus nodes");
+            Util.logException(TAG, exception);
+            throw exception;
+        }
+        if (percentile <= 0 || percentile > 1) {
+            IllegalArgumentException exception =
+                    new IllegalArgumentException("Hedge percentile must be in (0, 1] range");
+            Util.logException(TAG, exception);
+            throw exception;
+        }
+        this.consensusClients = new ArrayList<>(consensusClients);
+        this.percentile = percentile;
+        this.fallbackDelayMillis = fallbackDelay.toMillis();
+        this.latencySamples = new long[LATENCY_WINDOW_SIZE];
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "MobileCoin-HedgedSubmitter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.executorService = executor;
+        this.random = new Random();
+        Logger.i(TAG, "Created new HedgedTransactionSubmitter", null,
+                "nodes:", consensusClients.size(),
+                "percentile:", percentile);
+    }
+
+    /**
+     * Propose a new transaction to the consensus network, hedging the request if the primary
+     * node is slow to respond
+     */
+    @NonNull
+    ConsensusCommon.ProposeTxResponse proposeTx(@NonNull MobileCoinAPI.Tx tx)
+            throws AttestationException, NetworkException {
+        ExecutorCompletionService<Result<ConsensusCommon.ProposeTxResponse, Exception>>
+                completionService = new ExecutorCompletionService<>(executorService);
+        AttestedConsensusClient primary = selectPrimary();
+        completionService.submit(proposeTask(primary, tx));
+        int pending = 1;
+        boolean hedged = false;
+        Exception firstError = null;
+        ConsensusCommon.ProposeTxResponse firstRejection = null;
+        try {
+            while (pending > 0) {
+                Future<Result<ConsensusCommon.ProposeTxResponse, Exception>> future = hedged
+                        ? completionService.take()
+                        : completionService.poll(getHedgeDelayMillis(), TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    pending--;
+                    Result<ConsensusCommon.ProposeTxResponse, Exception> result = future.get();
+                    if (result.isOk()) {
+                        ConsensusCommon.ProposeTxResponse response =
+                                Objects.requireNonNull(result.getValue());
+                        // a rejection before the hedge is deterministic, do not propose it again
+                        if (!hedged
+                                || response.getResult() == ConsensusCommon.ProposeTxResult.Ok) {
+                            return response;
+                        }
+                        if (firstRejection == null) {
+                            firstRejection = response;
+                        }
+                    } else if (firstError == null) {
+                        firstError = result.getError();
+                    }
+                }
+                // hedge when the primary node is either slow or failed to deliver the proposal
+                if (!hedged) {
+                    hedged = true;
+                    AttestedConsensusClient secondary = selectSecondary(primary);
+                    Logger.i(TAG, "Hedging transaction submission", null,
+                            "primary:", primary.getCurrentServiceUri(),
+                            "secondary:", secondary.getCurrentServiceUri());
+                    completionService.submit(proposeTask(secondary, tx));
+                    pending++;
+                }
+            }
+        } catch (InterruptedException | ExecutionException exception) {
+            NetworkException networkException =
+                    new NetworkException(504, "Interrupted proposing transaction", exception);
+            Util.logException(TAG, networkException);
+            throw networkException;
+        }
+        if (firstRejection != null) {
+            return firstRejection;
+        }
+        if (firstError instanceof AttestationException) {
+            throw (AttestationException) firstError;
+        } else if (firstError instanceof NetworkException) {
+            throw (NetworkException) firstError;
+        } else if (firstError instanceof RuntimeException) {
+            throw (RuntimeException) firstError;
+        }
+        throw new IllegalStateException("BUG: unreachable code", firstError);
+    }
+
+    @NonNull
+    private Task<ConsensusCommon.ProposeTxResponse, Exception> proposeTask(
+            @NonNull AttestedConsensusClient consensusClient,
+            @NonNull MobileCoinAPI.Tx tx
+    ) {
+        return new Task<ConsensusCommon.ProposeTxResponse, Exception>() {
+            @Override
+            public ConsensusCommon.ProposeTxResponse execute() throws Exception {
+                long startTime = System.nanoTime();
+                ConsensusCommon.ProposeTxResponse response = consensusClient.proposeTx(tx);
+                recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                return response;
+            }
+        };
+    }
+
+    @NonNull
+    private synchronized AttestedConsensusClient selectPrimary() {
+        return consensusClients.get(random.nextInt(consensusClients.size()));
+    }
+
+    /**
+     * Select a node other than the primary, preferring the nodes with an attested session so the
+     * hedged request does not have to pay for the attestation handshake
+     */
+    @NonNull
+    private synchronized AttestedConsensusClient selectSecondary(
+            @NonNull AttestedConsensusClient primary
+    ) {
+        List<AttestedConsensusClient> attested = new ArrayList<>();
+        List<AttestedConsensusClient> others = new ArrayList<>();
+        for (AttestedConsensusClient consensusClient : consensusClients) {
+            if (consensusClient == primary) {
+                continue;
+            }
+            if (consensusClient.isAttested()) {
+                attested.add(consensusClient);
+            } else {
+                others.add(consensusClient);
+            }
+        }
+        List<AttestedConsensusClient> candidates = attested.isEmpty() ? others : attested;
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private synchronized void recordLatency(long latencyMillis) {
+        latencySamples[nextLatencySample] = latencyMillis;
+        nextLatencySample = (nextLatencySample + 1) % latencySamples.length;
+        latencySampleCount = Math.min(latencySampleCount + 1, latencySamples.length);
+    }
+
+    synchronized long getHedgeDelayMillis() {
+        if (latencySampleCount < MIN_LATENCY_SAMPLES) {
+            return fallbackDelayMillis;
+        }
+        long[] sorted = Arrays.copyOf(latencySamples, latencySampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Stop accepting new submissions, the requests in flight are allowed to complete
+     */
+    void shutdown() {
+        executorService.shutdown();
+    }
+}
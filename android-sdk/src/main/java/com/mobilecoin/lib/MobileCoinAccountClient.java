@@ -99,6 +99,12 @@ public interface MobileCoinAccountClient {
    * <p>You must provide an implementation for {@link StorageAdapter} in the {@code
    * ClientConfig}</p>
    *
+   * <p>When the {@link StorageAdapter} is a {@link StreamingStorageAdapter} only the changes made
+   * since the previous call are appended to a journal, which is periodically compacted.</p>
+   *
+   * <p>With an {@link AutosavePolicy} in the {@code ClientConfig} the data is also cached in the
+   * background after the synchronization changes it, and flushed on {@code shutdown()}.</p>
+   *
    * <p>The serialized data is sensitive, so we encrypt it using a private key via Android's {@code
    * KeyStore}. Please consider adding additional layers of security.
    *
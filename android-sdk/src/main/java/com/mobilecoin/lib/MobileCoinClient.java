@@ -21,6 +21,8 @@ import com.mobilecoin.lib.exceptions.StorageNotFoundException;
 import com.mobilecoin.lib.exceptions.TransactionBuilderException;
 import com.mobilecoin.lib.log.LogAdapter;
 import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.metrics.Metrics;
+import com.mobilecoin.lib.metrics.MetricsAdapter;
 import com.mobilecoin.lib.network.TransportProtocol;
 import com.mobilecoin.lib.network.uri.ConsensusUri;
 import com.mobilecoin.lib.network.uri.FogUri;
@@ -30,18 +32,22 @@ import com.mobilecoin.lib.util.Task;
 import consensus_common.ConsensusCommon;
 import fog_ledger.Ledger;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
@@ -54,7 +60,7 @@ import java.util.stream.Collectors;
  * </pre>
  */
 public final class MobileCoinClient implements MobileCoinAccountClient, MobileCoinTransactionClient,
-    MobileCoinNetworkManager {
+    MobileCoinNetworkManager, AutoCloseable {
 
     static final BigInteger INPUT_FEE = BigInteger.valueOf(0L);
     static final BigInteger OUTPUT_FEE = BigInteger.valueOf(0L);
@@ -62,18 +68,36 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
     private static final int STATUS_CHECK_DELAY_MS = 1000;
     private static final int STATUS_MAX_RETRIES = 300;
     private static final int DEFAULT_RING_SIZE = 11;
-    private static final long DEFAULT_NEW_TX_BLOCK_ATTEMPTS = 50;
     private final AccountKey accountKey;
     private final TxOutStore txOutStore;
     private final ClientConfig clientConfig;
     private final StorageAdapter cacheStorage;
+    @Nullable
+    private final TxOutStoreJournal txOutStoreJournal;
+    private final TxOutStoreWriter txOutStoreWriter;
+    @Nullable
+    private final TxOutStoreAutosaver txOutStoreAutosaver;
     private final FogReportsManager fogReportsManager;
     final FogBlockClient fogBlockClient;
     final FogUntrustedClient untrustedClient;
     final AttestedViewClient viewClient;
     final AttestedLedgerClient ledgerClient;
     final AttestedConsensusClient consensusClient;
+    final List<AttestedConsensusClient> consensusNodeClients;
     final BlockchainClient blockchainClient;
+    @Nullable
+    private final HedgedTransactionSubmitter hedgedSubmitter;
+    private final TransactionSubmissionQueue submissionQueue;
+    @Nullable
+    private final DecoyPool decoyPool;
+    @Nullable
+    private final TxOutProofCache txOutProofCache;
+    final AttestationManager attestationManager;
+    private final TombstonePolicy tombstonePolicy;
+    private final TombstoneReaper tombstoneReaper;
+    private final AccountListenerDispatcher accountListenerDispatcher;
+    // runs the ComponentsShutdown once, on shutdown() or when the client is collected
+    private final NativeCleaner.Cleanable componentsShutdown;
 
     /**
      * Construct new {@link MobileCoinClient} instance
@@ -127,6 +151,9 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         this.accountKey = accountKey;
         this.clientConfig = clientConfig;
         this.cacheStorage = clientConfig.storageAdapter;
+        this.txOutStoreJournal = (cacheStorage instanceof StreamingStorageAdapter)
+            ? new TxOutStoreJournal((StreamingStorageAdapter) cacheStorage, accountKey)
+            : null;
         FogUri normalizedFogUri = new FogUri(fogUri);
         List<MobileCoinUri> normalizedConsensusUris = createNormalizedConsensusUris(consensusUris);
         this.blockchainClient = new BlockchainClient(
@@ -141,17 +168,87 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         this.consensusClient = new AttestedConsensusClient(
             RandomLoadBalancer.create(normalizedConsensusUris),
             clientConfig.consensus);
+        this.consensusNodeClients = new ArrayList<>();
+        if (normalizedConsensusUris.size() > 1) {
+            // hedged and queued submissions require a dedicated client for each of the nodes,
+            // each of them is attested once it is first used
+            for (MobileCoinUri consensusUri : normalizedConsensusUris) {
+                consensusNodeClients.add(new AttestedConsensusClient(
+                    RandomLoadBalancer.create(consensusUri),
+                    clientConfig.consensus));
+            }
+        }
+        this.submissionQueue = new TransactionSubmissionQueue(
+            consensusNodeClients.isEmpty()
+                ? Collections.singletonList(consensusClient)
+                : consensusNodeClients,
+            blockchainClient,
+            clientConfig.submissionsPerConsensusNode,
+            clientConfig.maxQueuedSubmissions);
+        if (clientConfig.hedgedSubmissionPercentile > 0 && consensusNodeClients.size() > 1) {
+            this.hedgedSubmitter = new HedgedTransactionSubmitter(consensusNodeClients,
+                clientConfig.hedgedSubmissionPercentile,
+                clientConfig.hedgedSubmissionDelay);
+        } else {
+            this.hedgedSubmitter = null;
+        }
+        this.decoyPool = (clientConfig.decoyPoolSize > 0)
+            ? new DecoyPool(ledgerClient, clientConfig.decoyPoolSize,
+                clientConfig.decoyPoolMaxAge)
+            : null;
         this.fogBlockClient = new FogBlockClient(RandomLoadBalancer.create(normalizedFogUri),
             clientConfig.fogLedger);
         this.untrustedClient = new FogUntrustedClient(RandomLoadBalancer.create(normalizedFogUri),
             clientConfig.fogLedger);
         this.txOutStore = createTxOutStore(accountKey);
+        this.txOutStoreWriter = new TxOutStoreWriter(txOutStore, cacheStorage, txOutStoreJournal,
+            TxOutStore.createStorageKey(accountKey));
+        if (clientConfig.autosavePolicy != null && cacheStorage != null) {
+            this.txOutStoreAutosaver = new TxOutStoreAutosaver(clientConfig.autosavePolicy,
+                txOutStoreWriter);
+            txOutStore.addChangeListener(txOutStoreAutosaver);
+        } else {
+            this.txOutStoreAutosaver = null;
+        }
+        if (clientConfig.txOutProofCacheMaxAge != null) {
+            this.txOutProofCache = new TxOutProofCache(txOutStore, ledgerClient,
+                clientConfig.txOutProofCacheMaxAge);
+            txOutStore.addChangeListener(txOutProofCache);
+        } else {
+            this.txOutProofCache = null;
+        }
         this.fogReportsManager = new FogReportsManager();
+        this.accountListenerDispatcher = new AccountListenerDispatcher(txOutStore);
+        txOutStore.addChangeListener(accountListenerDispatcher);
+        this.tombstonePolicy = (clientConfig.tombstonePolicy != null)
+            ? clientConfig.tombstonePolicy
+            : TombstonePolicy.defaultPolicy();
+        this.tombstoneReaper = new TombstoneReaper(this);
+        this.attestationManager = new AttestationManager(clientConfig.attestationRefreshInterval);
+        // the standby factories must not refer to this client, so it can become unreachable
+        LoadBalancer viewLoadBalancer = viewClient.getLoadBalancer();
+        LoadBalancer ledgerLoadBalancer = ledgerClient.getLoadBalancer();
+        LoadBalancer consensusLoadBalancer = consensusClient.getLoadBalancer();
+        ClientConfig.Service fogViewConfig = clientConfig.fogView;
+        ClientConfig.Service fogLedgerConfig = clientConfig.fogLedger;
+        ClientConfig.Service consensusConfig = clientConfig.consensus;
+        attestationManager.manage(viewClient, () ->
+            new AttestedViewClient(viewLoadBalancer, fogViewConfig));
+        attestationManager.manage(ledgerClient, () ->
+            new AttestedLedgerClient(ledgerLoadBalancer, fogLedgerConfig));
+        attestationManager.manage(consensusClient, () ->
+            new AttestedConsensusClient(consensusLoadBalancer, consensusConfig));
+        this.componentsShutdown = NativeCleaner.register(this, new ComponentsShutdown(this));
         // add client provided log adapter
         LogAdapter logAdapter = clientConfig.logAdapter;
         if (null != logAdapter) {
             Logger.addAdapter(logAdapter);
         }
+        // add client provided metrics adapter
+        MetricsAdapter metricsAdapter = clientConfig.metricsAdapter;
+        if (null != metricsAdapter) {
+            Metrics.addAdapter(metricsAdapter);
+        }
     }
 
     private List<MobileCoinUri> createNormalizedConsensusUris(List<Uri> consensusUris)
@@ -165,6 +262,9 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
     }
 
     private TxOutStore createTxOutStore(AccountKey accountKey) {
+        if (txOutStoreJournal != null) {
+            return txOutStoreJournal.load(accountKey);
+        }
         String txOutStoreStorageKey = TxOutStore.createStorageKey(accountKey);
         if(cacheStorage != null && cacheStorage.has(txOutStoreStorageKey)) {
             byte[] serializedTxOutStore = cacheStorage.get(txOutStoreStorageKey);
@@ -176,7 +276,9 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
 
     private TxOutStore deserializeTxOutStore(byte[] serializedTxOutStore) {
         try {
-            return TxOutStore.fromBytes(serializedTxOutStore);
+            TxOutStore txOutStore = TxOutStore.fromBytes(serializedTxOutStore);
+            txOutStore.setAccountKey(accountKey);
+            return txOutStore;
         } catch (SerializationException e) {
             Logger.i(TAG, "Failed to deserialize the serialized TxOutStore:" + e.getMessage());
             return new TxOutStore(accountKey);
@@ -190,11 +292,11 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
             throw new StorageNotFoundException(
                 "Data cannot be persisted because no cache storage is available.");
         }
+        saveTxOutStore();
+    }
 
-        String txOutStoreStorageKey = TxOutStore.createStorageKey(accountKey);
-        byte[] serializedTxOutStore = txOutStore.toByteArray();
-
-        cacheStorage.set(txOutStoreStorageKey, serializedTxOutStore);
+    private void saveTxOutStore() throws SerializationException {
+        txOutStoreWriter.save();
     }
 
     @Override
@@ -301,9 +403,7 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
                 "amount:", amount,
                 "fee:", fee);
         final RistrettoPrivate viewKey = accountKey.getViewKey();
-        UnsignedLong blockIndex = txOutStore.getCurrentBlockIndex();
-        UnsignedLong tombstoneBlockIndex = blockIndex
-                .add(UnsignedLong.fromLongBits(DEFAULT_NEW_TX_BLOCK_ATTEMPTS));
+        UnsignedLong tombstoneBlockIndex = getTombstoneBlockIndex();
         HashSet<FogUri> reportUris = new HashSet<>();
         try {
             if (recipient.hasFogInfo()) {
@@ -318,11 +418,11 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         }
         // fetch reports and rings in parallel
         long startTime = System.currentTimeMillis();
-        Task<FogReportResponses, Exception> fetchReportsTask =
-                new Task<FogReportResponses, Exception>() {
+        Task<FogResolver, Exception> fetchReportsTask =
+                new Task<FogResolver, Exception>() {
                     @Override
-                    public FogReportResponses execute() throws Exception {
-                        return fogReportsManager.fetchReports(reportUris,
+                    public FogResolver execute() throws Exception {
+                        return fogReportsManager.getFogResolver(reportUris,
                                 tombstoneBlockIndex, clientConfig.report);
                     }
                 };
@@ -341,7 +441,7 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         ExecutorService fixedExecutorService =
                 Executors.newFixedThreadPool(2);
 
-        Future<Result<FogReportResponses, Exception>> fogReportResponsesFuture =
+        Future<Result<FogResolver, Exception>> fogResolverFuture =
                 fixedExecutorService.submit(fetchReportsTask);
 
         Future<Result<List<Ring>, Exception>> ringsListFuture =
@@ -351,90 +451,107 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         // this is not a blocking call
         fixedExecutorService.shutdown();
 
-        List<Ring> rings;
-        FogReportResponses fogReportResponses;
+        // the rings are closed on every exit path, including a failure to fetch the fog reports
+        List<Ring> rings = null;
         try {
-            Result<List<Ring>, Exception> ringsResult = ringsListFuture.get();
-            if (ringsResult.isErr()) {
-                // isError indicated that the error is non-null
-                throw Objects.requireNonNull(ringsResult.getError());
-            } else if (ringsResult.isOk()) {
-                rings = Objects.requireNonNull(ringsResult.getValue());
-            } else {
-                throw new InvalidFogResponse("Unable to retrieve Rings");
-            }
-            Result<FogReportResponses, Exception> reportsResult = fogReportResponsesFuture.get();
-            if (reportsResult.isErr()) {
-                // isError indicated that the error is non-null
-                throw Objects.requireNonNull(reportsResult.getError());
-            } else if (reportsResult.isOk()) {
-                fogReportResponses = Objects.requireNonNull(reportsResult.getValue());
-            } else {
-                throw new InvalidFogResponse("Unable to retrieve Fog Reports");
+            FogResolver fogResolver;
+            try {
+                Result<List<Ring>, Exception> ringsResult = ringsListFuture.get();
+                if (ringsResult.isErr()) {
+                    // isError indicated that the error is non-null
+                    throw Objects.requireNonNull(ringsResult.getError());
+                } else if (ringsResult.isOk()) {
+                    rings = Objects.requireNonNull(ringsResult.getValue());
+                } else {
+                    throw new InvalidFogResponse("Unable to retrieve Rings");
+                }
+                Result<FogResolver, Exception> reportsResult = fogResolverFuture.get();
+                if (reportsResult.isErr()) {
+                    // isError indicated that the error is non-null
+                    throw Objects.requireNonNull(reportsResult.getError());
+                } else if (reportsResult.isOk()) {
+                    fogResolver = Objects.requireNonNull(reportsResult.getValue());
+                } else {
+                    throw new InvalidFogResponse("Unable to retrieve Fog Reports");
+                }
+            } catch (FogReportException | InvalidFogResponse | AttestationException
+                    | NetworkException exception) {
+                Util.logException(TAG, exception);
+                throw exception;
+            } catch (InterruptedException | ExecutionException exception) {
+                NetworkException networkException =
+                        new NetworkException(504, "Timeout fetching fog reports", exception);
+                Util.logException(TAG, networkException);
+                throw networkException;
+            } catch (Exception exception) {
+                Logger.wtf(TAG, "Bug: Unexpected exception", exception);
+                throw new IllegalStateException(exception);
             }
-        } catch (FogReportException | InvalidFogResponse | AttestationException | NetworkException exception) {
-            Util.logException(TAG, exception);
-            throw exception;
-        } catch (InterruptedException | ExecutionException exception) {
-            NetworkException networkException =
-                    new NetworkException(504, "Timeout fetching fog reports", exception);
-            Util.logException(TAG, networkException);
-            throw networkException;
-        } catch (Exception exception) {
-            Logger.wtf(TAG, "Bug: Unexpected exception", exception);
-            throw new IllegalStateException(exception);
-        }
-        long endTime = System.currentTimeMillis();
-        Logger.d(TAG, "Report + Rings fetch time: " + (endTime - startTime) + "ms");
-        FogResolver fogResolver = new FogResolver(fogReportResponses,
-                clientConfig.report.getVerifier());
-        TransactionBuilder txBuilder = new TransactionBuilder(fogResolver);
-        BigInteger totalAmount = BigInteger.valueOf(0);
-        for (Ring ring : rings) {
-            OwnedTxOut utxo = ring.utxo;
-            totalAmount = totalAmount.add(utxo.getValue());
-
-            RistrettoPrivate onetimePrivateKey = Util.recoverOnetimePrivateKey(utxo.getPublicKey(),
-                    viewKey,
-                    accountKey.getSubAddressSpendKey()
-            );
+            long endTime = System.currentTimeMillis();
+            Logger.d(TAG, () -> "Report + Rings fetch time: " + (endTime - startTime) + "ms");
+            Metrics.recordStage(Metrics.Stage.FOG_REPORTS_AND_RINGS,
+                    TimeUnit.MILLISECONDS.toNanos(endTime - startTime));
+            long buildStartTime = System.nanoTime();
+            // the intermediate native objects are released as soon as the transaction is built, the
+            // fog resolver is shared with the other transactions using the same reports
+            try (TransactionBuilder txBuilder = new TransactionBuilder(fogResolver)) {
+                BigInteger totalAmount = BigInteger.valueOf(0);
+                for (Ring ring : rings) {
+                    OwnedTxOut utxo = ring.utxo;
+                    totalAmount = totalAmount.add(utxo.getValue());
 
-            txBuilder.addInput(ring.getNativeTxOuts(),
-                    ring.getNativeTxOutMembershipProofs(),
-                    ring.realIndex,
-                    onetimePrivateKey,
-                    viewKey
-            );
-        }
-        byte[] confirmationNumberOut = new byte[Receipt.CONFIRMATION_NUMBER_LENGTH];
-        TxOut pendingTxo = txBuilder.addOutput(amount,
-                recipient,
-                confirmationNumberOut
-        );
+                    try (RistrettoPrivate onetimePrivateKey = Util.recoverOnetimePrivateKey(
+                            utxo.getPublicKey(),
+                            viewKey,
+                            accountKey.getSubAddressSpendKey()
+                    )) {
+                        txBuilder.addInput(ring.getNativeTxOuts(),
+                                ring.getNativeTxOutMembershipProofs(),
+                                ring.realIndex,
+                                onetimePrivateKey,
+                                viewKey
+                        );
+                    }
+                }
+                byte[] confirmationNumberOut = new byte[Receipt.CONFIRMATION_NUMBER_LENGTH];
+                try (TxOut pendingTxo = txBuilder.addOutput(amount,
+                        recipient,
+                        confirmationNumberOut
+                )) {
+                    BigInteger finalAmount = amount.add(fee);
 
-        BigInteger finalAmount = amount.add(fee);
+                    if (totalAmount.compareTo(finalAmount) > 0) { // if total amount > finalAmount
+                        BigInteger change = totalAmount.subtract(finalAmount);
+                        txBuilder.addOutput(change,
+                                accountKey.getPublicAddress(),
+                                null
+                        ).close();
+                    }
+                    txBuilder.setTombstoneBlockIndex(tombstoneBlockIndex);
+                    txBuilder.setFee(fee.longValue());
 
-        if (totalAmount.compareTo(finalAmount) > 0) { // if total amount > finalAmount
-            BigInteger change = totalAmount.subtract(finalAmount);
-            txBuilder.addOutput(change,
-                    accountKey.getPublicAddress(),
-                    null
-            );
+                    Transaction transaction = txBuilder.build();
+                    Metrics.recordStage(Metrics.Stage.TRANSACTION_BUILD,
+                            System.nanoTime() - buildStartTime);
+                    Amount pendingAmount = pendingTxo.getAmount();
+                    Receipt receipt = new Receipt(pendingTxo.getPubKey(),
+                            confirmationNumberOut,
+                            pendingAmount,
+                            tombstoneBlockIndex
+                    );
+                    return new PendingTransaction(
+                            transaction,
+                            receipt
+                    );
+                }
+            }
+        } finally {
+            if (rings != null) {
+                for (Ring ring : rings) {
+                    ring.close();
+                }
+            }
         }
-        txBuilder.setTombstoneBlockIndex(tombstoneBlockIndex);
-        txBuilder.setFee(fee.longValue());
-
-        Transaction transaction = txBuilder.build();
-        Amount pendingAmount = pendingTxo.getAmount();
-        Receipt receipt = new Receipt(pendingTxo.getPubKey(),
-                confirmationNumberOut,
-                pendingAmount,
-                tombstoneBlockIndex
-        );
-        return new PendingTransaction(
-                transaction,
-                receipt
-        );
     }
 
     @Override
@@ -442,8 +559,9 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
             throws InvalidTransactionException, NetworkException, AttestationException {
         Logger.i(TAG, "SubmitTransaction call", null,
                 "transaction:", transaction);
-        ConsensusCommon.ProposeTxResponse txResponse =
-                consensusClient.proposeTx(transaction.toProtoBufObject());
+        ConsensusCommon.ProposeTxResponse txResponse = (hedgedSubmitter != null)
+                ? hedgedSubmitter.proposeTx(transaction.toProtoBufObject())
+                : consensusClient.proposeTx(transaction.toProtoBufObject());
         int code = txResponse.getResult().getNumber();
         if (0 != code) {
             blockchainClient.resetCache();
@@ -455,6 +573,34 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         }
     }
 
+    /**
+     * Queue the transaction for submission to consensus and return without waiting for the
+     * response, so many transactions are in flight across the consensus nodes at the same time.
+     * The call blocks while {@link ClientConfig#maxQueuedSubmissions} transactions of the same
+     * priority are queued.
+     *
+     * @param transaction obtained from {@link MobileCoinClient#prepareTransaction}
+     * @param priority    {@link TransactionSubmission.Priority#USER} for the user facing payments
+     * @return the submission completed with the consensus response
+     */
+    @NonNull
+    public TransactionSubmission submitTransactionAsync(
+            @NonNull Transaction transaction,
+            @NonNull TransactionSubmission.Priority priority
+    ) throws NetworkException {
+        Logger.i(TAG, "SubmitTransactionAsync call", null,
+                "transaction:", transaction,
+                "priority:", priority);
+        try {
+            return submissionQueue.submit(transaction, priority);
+        } catch (InterruptedException exception) {
+            NetworkException networkException =
+                    new NetworkException(504, "Interrupted queueing transaction", exception);
+            Util.logException(TAG, networkException);
+            throw networkException;
+        }
+    }
+
     @Override
     @NonNull
     public Receipt.Status getReceiptStatus(@NonNull Receipt receipt)
@@ -574,6 +720,36 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         return false;
     }
 
+    /**
+     * Returns the tombstone block of a new transaction according to the {@link TombstonePolicy}
+     */
+    @NonNull
+    UnsignedLong getTombstoneBlockIndex() throws NetworkException {
+        UnsignedLong blockIndex = txOutStore.getCurrentBlockIndex();
+        // the synchronized ledger may lag behind the consensus
+        UnsignedLong consensusBlockIndex = blockchainClient
+                .getOrFetchBlockInfo(tombstonePolicy.getMaxBlockHeightAge())
+                .getBlockIndex();
+        if (consensusBlockIndex.compareTo(blockIndex) > 0) {
+            blockIndex = consensusBlockIndex;
+        }
+        return tombstonePolicy.getTombstoneBlockIndex(blockIndex);
+    }
+
+    /**
+     * Returns the latest block index known without a network request
+     */
+    @NonNull
+    UnsignedLong getLatestKnownBlockIndex() {
+        UnsignedLong blockIndex = txOutStore.getCurrentBlockIndex();
+        // the chain is at least as high as the last block reported by consensus, even if stale
+        BlockchainClient.LastBlockInfo lastBlockInfo = blockchainClient.getLastBlockInfo();
+        if (lastBlockInfo != null && lastBlockInfo.getBlockIndex().compareTo(blockIndex) > 0) {
+            blockIndex = lastBlockInfo.getBlockIndex();
+        }
+        return blockIndex;
+    }
+
     @NonNull
     TxOutStore getTxOutStore() {
         return txOutStore;
@@ -593,6 +769,39 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         return getTxOutStore().getUnspentTxOuts();
     }
 
+    /**
+     * Add a listener of the account changes. The listener first receives the current state of the
+     * account: its synchronized TxOuts, block index and balance. Then it receives the changes
+     * found by every synchronization of the account, e.g. by {@link MobileCoinClient#getBalance}.
+     * The listener is held until it is removed.
+     */
+    public void addAccountListener(@NonNull AccountListener listener) {
+        Logger.i(TAG, "AddAccountListener call");
+        accountListenerDispatcher.addListener(listener);
+    }
+
+    /**
+     * Remove a listener added with {@link MobileCoinClient#addAccountListener}
+     */
+    public void removeAccountListener(@NonNull AccountListener listener) {
+        Logger.i(TAG, "RemoveAccountListener call");
+        accountListenerDispatcher.removeListener(listener);
+    }
+
+    /**
+     * Watch a submitted transaction in the background, the listener is notified once it is
+     * accepted or as soon as the synchronized ledger passes its tombstone block without it
+     *
+     * @param transaction obtained from {@link MobileCoinClient#prepareTransaction}
+     * @param listener    notified on a background thread
+     */
+    public void watchTransaction(@NonNull Transaction transaction,
+                                 @NonNull TransactionStatusListener listener) {
+        Logger.i(TAG, "WatchTransaction call", null,
+                "tombstone:", transaction.getTombstoneBlockIndex());
+        tombstoneReaper.watch(transaction, listener);
+    }
+
     @Override
     @NonNull
     public BigInteger getOrFetchMinimumTxFee() throws NetworkException {
@@ -629,28 +838,57 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         }
 
         HashSet<UnsignedLong> realIndices = new HashSet<>(indices);
-        // Continue selecting random indices until we got our desired amount.
         Random rnd = new Random();
-        while (indices.size() != count) {
-            UnsignedLong index = UnsignedLong.valueOf(Math.abs(rnd.nextLong()))
-                    .remainder(numTxOutsInLedger);
-            indices.add(index);
+        // the prefetched decoys must not be older than the inputs
+        UnsignedLong maxReceivedBlockIndex = UnsignedLong.ZERO;
+        for (OwnedTxOut utxo : utxos) {
+            if (utxo.getReceivedBlockIndex().compareTo(maxReceivedBlockIndex) > 0) {
+                maxReceivedBlockIndex = utxo.getReceivedBlockIndex();
+            }
         }
+        DecoyPool.Decoys decoys = (decoyPool != null)
+                ? decoyPool.take(count - utxos.size(), realIndices, maxReceivedBlockIndex,
+                        numTxOutsInLedger)
+                : null;
+        ArrayDeque<Ledger.OutputResult> ringPool;
+        List<Ledger.OutputResult> outs;
+        if (decoys != null) {
+            // only the proofs of the real inputs are fetched inline, unless they are cached relative
+            // to the Merkle root of the decoys
+            ringPool = decoys.getOutputs();
+            Map<UnsignedLong, Ledger.OutputResult> cachedOutputs = (txOutProofCache != null)
+                    ? txOutProofCache.get(utxos, decoys.getMerkleRootBlock())
+                    : null;
+            outs = (cachedOutputs != null)
+                    ? new ArrayList<>(cachedOutputs.values())
+                    : ledgerClient.getOutputs(realIndices, decoys.getMerkleRootBlock())
+                            .getResultsList();
+            if (outs.size() != utxos.size()) {
+                throw new InvalidFogResponse("getOutputs returned incorrect number of outputs");
+            }
+        } else {
+            // Continue selecting random indices until we got our desired amount.
+            while (indices.size() != count) {
+                UnsignedLong index = UnsignedLong.valueOf(Math.abs(rnd.nextLong()))
+                        .remainder(numTxOutsInLedger);
+                indices.add(index);
+            }
 
-        // Query the ledger server.
-        Ledger.GetOutputsResponse outputsResponse = ledgerClient.getOutputs(
-                new ArrayList<>(indices),
-                0
-        );
-        List<Ledger.OutputResult> outs = outputsResponse.getResultsList();
+            // Query the ledger server.
+            Ledger.GetOutputsResponse outputsResponse = ledgerClient.getOutputs(
+                    new ArrayList<>(indices),
+                    0
+            );
+            outs = outputsResponse.getResultsList();
 
-        if (outs.size() != count) {
-            throw new InvalidFogResponse("getOutputs returned incorrect number of outputs");
+            if (outs.size() != count) {
+                throw new InvalidFogResponse("getOutputs returned incorrect number of outputs");
+            }
+            ringPool = new ArrayDeque<>(count - utxos.size());
         }
 
         // Split the results into real outputs and ring outputs.
         HashMap<UnsignedLong, Ledger.OutputResult> realOutputs = new HashMap<>();
-        List<Ledger.OutputResult> ringPool = new ArrayList<>();
 
         for (Ledger.OutputResult out : outs) {
             if (realIndices.contains(UnsignedLong.fromLongBits(out.getIndex()))) {
@@ -668,8 +906,8 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
             throw new IllegalStateException("BUG");
         }
 
-        // Construct the list of rings.
-        List<Ring> rings = new ArrayList<>();
+        // Construct the list of rings, they are decoded in parallel.
+        List<Callable<Ring>> ringDecoders = new ArrayList<>(utxos.size());
         for (OwnedTxOut utxo : utxos) {
             short realIndex = (short) rnd.nextInt(DEFAULT_RING_SIZE);
             List<MobileCoinAPI.TxOut> txOuts = new ArrayList<>();
@@ -680,22 +918,20 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
                 if (i == realIndex) {
                     out = realOutputs.get(utxo.getTxOutGlobalIndex());
                 } else {
-                    out = ringPool.remove(0);
+                    out = ringPool.poll();
+                }
+                if (out == null) {
+                    throw new InvalidFogResponse("getOutputs did not return the ring outputs");
                 }
-                assert (out != null);
                 txOuts.add(out.getOutput());
                 proofs.add(out.getProof());
             }
-            try {
-                rings.add(new Ring(
-                        txOuts,
-                        proofs,
-                        realIndex,
-                        utxo
-                ));
-            } catch (Exception ex) {
-                throw new InvalidFogResponse("Unable to decode rings");
-            }
+            ringDecoders.add(() -> new Ring(
+                    txOuts,
+                    proofs,
+                    realIndex,
+                    utxo
+            ));
         }
 
         // Sanity
@@ -703,6 +939,13 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
             throw new IllegalStateException("BUG: Not all rings consumed");
         }
 
+        List<Ring> rings;
+        try {
+            rings = Ring.decodeAll(ringDecoders);
+        } catch (SerializationException exception) {
+            throw new InvalidFogResponse("Unable to decode rings", exception);
+        }
+
         // Return
         return rings;
     }
@@ -742,6 +985,12 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
                 username,
                 password
         );
+        for (AttestedConsensusClient consensusNodeClient : consensusNodeClients) {
+            consensusNodeClient.setAuthorization(
+                    username,
+                    password
+            );
+        }
         blockchainClient.setAuthorization(
                 username,
                 password
@@ -753,6 +1002,9 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
         viewClient.setTransportProtocol(protocol);
         ledgerClient.setTransportProtocol(protocol);
         consensusClient.setTransportProtocol(protocol);
+        for (AttestedConsensusClient consensusNodeClient : consensusNodeClients) {
+            consensusNodeClient.setTransportProtocol(protocol);
+        }
         blockchainClient.setTransportProtocol(protocol);
         fogBlockClient.setTransportProtocol(protocol);
         untrustedClient.setTransportProtocol(protocol);
@@ -760,29 +1012,125 @@ public final class MobileCoinClient implements MobileCoinAccountClient, MobileCo
 
     @Override
     public synchronized void shutdown() {
-        if (null != viewClient) {
-            viewClient.shutdown();
-        }
-        if (null != ledgerClient) {
-            ledgerClient.shutdown();
-        }
-        if (null != consensusClient) {
-            consensusClient.shutdown();
-        }
-        if (null != fogBlockClient) {
-            fogBlockClient.shutdown();
-        }
-        if (null != blockchainClient) {
-            blockchainClient.shutdown();
-        }
-        if (null != untrustedClient) {
-            untrustedClient.shutdown();
-        }
+        componentsShutdown.clean();
     }
 
+    /**
+     * Same as {@link #shutdown()}
+     */
     @Override
-    protected void finalize() throws Throwable {
+    public void close() {
         shutdown();
-        super.finalize();
+    }
+
+    /**
+     * Saves the {@link TxOutStore} of a client, orders the saves of the explicit cacheUserData
+     * calls and the autosaver
+     */
+    private static final class TxOutStoreWriter implements TxOutStoreAutosaver.Saver {
+        private final TxOutStore txOutStore;
+        @Nullable
+        private final StorageAdapter cacheStorage;
+        @Nullable
+        private final TxOutStoreJournal txOutStoreJournal;
+        private final String txOutStoreStorageKey;
+
+        TxOutStoreWriter(@NonNull TxOutStore txOutStore,
+                         @Nullable StorageAdapter cacheStorage,
+                         @Nullable TxOutStoreJournal txOutStoreJournal,
+                         @NonNull String txOutStoreStorageKey) {
+            this.txOutStore = txOutStore;
+            this.cacheStorage = cacheStorage;
+            this.txOutStoreJournal = txOutStoreJournal;
+            this.txOutStoreStorageKey = txOutStoreStorageKey;
+        }
+
+        @Override
+        public synchronized void save() throws SerializationException {
+            if (txOutStoreJournal != null) {
+                txOutStoreJournal.persist(txOutStore);
+                return;
+            }
+            byte[] serializedTxOutStore = txOutStore.toByteArray();
+
+            cacheStorage.set(txOutStoreStorageKey, serializedTxOutStore);
+        }
+    }
+
+    /**
+     * Shuts down the components of a client, it does not refer to the client itself
+     */
+    private static final class ComponentsShutdown implements Runnable {
+        @Nullable
+        private final TxOutStoreAutosaver txOutStoreAutosaver;
+        private final AttestationManager attestationManager;
+        private final List<AnyClient> clients;
+        @Nullable
+        private final HedgedTransactionSubmitter hedgedSubmitter;
+        private final TransactionSubmissionQueue submissionQueue;
+        @Nullable
+        private final DecoyPool decoyPool;
+        @Nullable
+        private final TxOutProofCache txOutProofCache;
+        private final FogReportsManager fogReportsManager;
+        private final TombstoneReaper tombstoneReaper;
+        private final AccountListenerDispatcher accountListenerDispatcher;
+        @Nullable
+        private final MetricsAdapter metricsAdapter;
+
+        ComponentsShutdown(@NonNull MobileCoinClient client) {
+            this.txOutStoreAutosaver = client.txOutStoreAutosaver;
+            this.attestationManager = client.attestationManager;
+            this.hedgedSubmitter = client.hedgedSubmitter;
+            this.submissionQueue = client.submissionQueue;
+            this.decoyPool = client.decoyPool;
+            this.txOutProofCache = client.txOutProofCache;
+            this.fogReportsManager = client.fogReportsManager;
+            this.tombstoneReaper = client.tombstoneReaper;
+            this.accountListenerDispatcher = client.accountListenerDispatcher;
+            this.metricsAdapter = client.clientConfig.metricsAdapter;
+            this.clients = new ArrayList<>();
+            clients.add(client.viewClient);
+            clients.add(client.ledgerClient);
+            clients.add(client.consensusClient);
+            clients.addAll(client.consensusNodeClients);
+            clients.add(client.fogBlockClient);
+            clients.add(client.blockchainClient);
+            clients.add(client.untrustedClient);
+        }
+
+        @Override
+        public void run() {
+            // flush the unsaved account changes first
+            if (null != txOutStoreAutosaver) {
+                txOutStoreAutosaver.shutdown();
+            }
+            attestationManager.shutdown();
+            if (null != hedgedSubmitter) {
+                hedgedSubmitter.shutdown();
+            }
+            submissionQueue.shutdown();
+            if (null != decoyPool) {
+                decoyPool.shutdown();
+            }
+            if (null != txOutProofCache) {
+                txOutProofCache.shutdown();
+            }
+            fogReportsManager.shutdown();
+            tombstoneReaper.shutdown();
+            accountListenerDispatcher.shutdown();
+            for (AnyClient anyClient : clients) {
+                // closing an attested client also releases the native state of its session
+                if (anyClient instanceof AttestedClient) {
+                    anyClient.close();
+                } else {
+                    anyClient.shutdown();
+                }
+            }
+            // the adapter was added by the client, stop reporting to it
+            if (null != metricsAdapter) {
+                Metrics.removeAdapter(metricsAdapter);
+            }
+        }
     }
 }
@@ -2,7 +2,18 @@
 
 package com.mobilecoin.lib;
 
-class Native {
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Base class of the objects backed by a native object
+ * <p>
+ * The native object is released by {@link #close()} or by the {@link NativeCleaner} once the
+ * object becomes unreachable. The release cannot run on the unreachable object itself, so every
+ * subclass keeps a single {@link SharedReleaser} instance which does not own a native object and
+ * frees the released native objects through its {@code finalize_jni}.
+ */
+abstract class Native implements AutoCloseable {
     private final static String MOBILECOIN_LIB_NAME = "mobilecoin";
 
     // Load JNI lib
@@ -10,5 +21,96 @@ class Native {
         System.loadLibrary(MOBILECOIN_LIB_NAME);
     }
 
+    // passed to the subclass constructors creating the instance of a SharedReleaser
+    protected static final ReleaseOnly RELEASE_ONLY = new ReleaseOnly();
+
     protected long rustObj = 0;
+    // guards the registration only, so it may be taken while holding the subclass locks
+    private final Object cleanableLock = new Object();
+    @Nullable
+    private NativeCleaner.Cleanable cleanable;
+
+    /**
+     * Registers the current native object of this instance to be released, replacing the previous
+     * registration. It must be called whenever the instance takes ownership of a native object.
+     */
+    protected final void registerNativeObject(@NonNull Releaser releaser) {
+        synchronized (cleanableLock) {
+            unregisterNativeObject();
+            long nativeObject = rustObj;
+            if (nativeObject != 0) {
+                cleanable = NativeCleaner.register(this, () -> releaser.release(nativeObject));
+            }
+        }
+    }
+
+    /**
+     * Cancels the release of the native object, e.g. before it is released or handed over
+     */
+    protected final void unregisterNativeObject() {
+        synchronized (cleanableLock) {
+            if (cleanable != null) {
+                cleanable.cancel();
+                cleanable = null;
+            }
+        }
+    }
+
+    /**
+     * Releases the native object, the instance must not be used afterwards
+     */
+    @Override
+    public void close() {
+        synchronized (cleanableLock) {
+            if (cleanable != null) {
+                cleanable.clean();
+                cleanable = null;
+                rustObj = 0;
+            }
+        }
+    }
+
+    /**
+     * Frees a native object of the subclass
+     */
+    interface Releaser {
+        void release(long rustObj);
+    }
+
+    /**
+     * Frees the native objects of a subclass one at a time through a single instance of it
+     */
+    static final class SharedReleaser<T extends Native> implements Releaser {
+        private final T releasingInstance;
+        private final Finalizer<T> finalizer;
+
+        SharedReleaser(@NonNull T releasingInstance, @NonNull Finalizer<T> finalizer) {
+            this.releasingInstance = releasingInstance;
+            this.finalizer = finalizer;
+        }
+
+        @Override
+        public void release(long rustObj) {
+            synchronized (releasingInstance) {
+                releasingInstance.rustObj = rustObj;
+                try {
+                    finalizer.finalizeNative(releasingInstance);
+                } finally {
+                    releasingInstance.rustObj = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the {@code finalize_jni} of a subclass
+     */
+    interface Finalizer<T extends Native> {
+        void finalizeNative(@NonNull T instance);
+    }
+
+    static final class ReleaseOnly {
+        private ReleaseOnly() {
+        }
+    }
 }
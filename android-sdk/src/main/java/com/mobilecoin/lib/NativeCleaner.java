@@ -0,0 +1,94 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import com.mobilecoin.lib.log.Logger;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the cleanup actions of the objects which became phantom reachable
+ * <p>
+ * Unlike {@code finalize()}, the objects are collected in a single GC cycle and the cleanup action
+ * may run earlier through {@link Cleanable#clean()}. The actions run on a single daemon thread and
+ * must not refer to the registered object, otherwise it never becomes unreachable.
+ */
+final class NativeCleaner {
+    private static final String TAG = NativeCleaner.class.getName();
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    // the references must stay reachable until they are enqueued
+    private static final Set<Cleanable> cleanables =
+            Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    static {
+        Thread cleanerThread = new Thread(NativeCleaner::processQueue, "MobileCoin-NativeCleaner");
+        cleanerThread.setDaemon(true);
+        cleanerThread.start();
+    }
+
+    private NativeCleaner() {
+    }
+
+    /**
+     * Registers an action to run once the object becomes phantom reachable
+     */
+    @NonNull
+    static Cleanable register(@NonNull Object object, @NonNull Runnable action) {
+        Cleanable cleanable = new Cleanable(object, action);
+        cleanables.add(cleanable);
+        return cleanable;
+    }
+
+    /**
+     * @return the number of the registered actions which did not run yet
+     */
+    static int getRegisteredCount() {
+        return cleanables.size();
+    }
+
+    private static void processQueue() {
+        while (true) {
+            try {
+                ((Cleanable) queue.remove()).clean();
+            } catch (InterruptedException ignored) {
+                // the cleaner thread runs for the lifetime of the process
+            } catch (Throwable throwable) {
+                Logger.e(TAG, "Cleanup action failed", throwable);
+            }
+        }
+    }
+
+    static final class Cleanable extends PhantomReference<Object> {
+        private final Runnable action;
+
+        private Cleanable(@NonNull Object object, @NonNull Runnable action) {
+            super(object, queue);
+            this.action = action;
+        }
+
+        /**
+         * Runs the action unless it already ran or the registration was cancelled
+         */
+        void clean() {
+            if (cleanables.remove(this)) {
+                clear();
+                action.run();
+            }
+        }
+
+        /**
+         * Cancels the registration without running the action
+         */
+        void cancel() {
+            if (cleanables.remove(this)) {
+                clear();
+            }
+        }
+    }
+}
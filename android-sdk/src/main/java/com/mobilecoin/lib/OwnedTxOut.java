@@ -31,18 +31,31 @@ public class OwnedTxOut implements Parcelable {
     // Bump serial version and read/write code if fields change
     private static final long serialVersionUID = 3L;
 
+    // Binary storage format flags of the optional fields, also used to mark the fields present
+    private static final int FLAG_RECEIVED_TIMESTAMP = 1;
+    private static final int FLAG_SPENT_INDEX = 1 << 1;
+    private static final int FLAG_SPENT_TIMESTAMP = 1 << 2;
+
+    // The fields are kept as primitives and 32-byte keys, large accounts hold many TxOuts.
+    // The u64 fields are unsigned long bits and the timestamps are milliseconds since epoch.
+
     //  The global index of this TxOut in the entire block chain.
-    private final UnsignedLong txOutGlobalIndex;
+    private final long txOutGlobalIndex;
 
     // The block index at which this TxOut appeared.
-    private final UnsignedLong receivedBlockIndex;
+    private final long receivedBlockIndex;
 
-    private final Date receivedBlockTimestamp;
-    private Date spentBlockTimestamp;
-    private UnsignedLong spentBlockIndex;
+    private final long receivedBlockTimestamp;
+    private long spentBlockTimestamp;
+    private long spentBlockIndex;
+    // FLAG_* of the optional fields which are set
+    private int flags;
 
-    private final BigInteger value;
-    private final RistrettoPublic txOutPublicKey;
+    private final long value;
+    private final byte[] txOutPublicKeyBytes;
+    // the native key is created on first use and owned by this TxOut
+    @Nullable
+    private volatile RistrettoPublic txOutPublicKey;
     private final byte[] keyImage;
     private int keyImageHash;
 
@@ -51,17 +64,16 @@ public class OwnedTxOut implements Parcelable {
             @NonNull AccountKey accountKey
     ) {
         try {
-            txOutGlobalIndex = UnsignedLong.fromLongBits(txOutRecord.getTxOutGlobalIndex());
+            txOutGlobalIndex = txOutRecord.getTxOutGlobalIndex();
             long longTimestampSeconds = txOutRecord.getTimestamp();
             // when the timestamp is missing U64::MAX is returned
-            UnsignedLong timestampSeconds = UnsignedLong.fromLongBits(longTimestampSeconds);
-            if (!timestampSeconds.equals(UnsignedLong.MAX_VALUE)) {
-                long longTimestampMillis = TimeUnit.SECONDS.toMillis(timestampSeconds.longValue());
-                receivedBlockTimestamp = new Date(longTimestampMillis);
+            if (longTimestampSeconds != UnsignedLong.MAX_VALUE.longValue()) {
+                receivedBlockTimestamp = TimeUnit.SECONDS.toMillis(longTimestampSeconds);
+                flags = FLAG_RECEIVED_TIMESTAMP;
             } else {
-                receivedBlockTimestamp = null;
+                receivedBlockTimestamp = 0;
             }
-            receivedBlockIndex = UnsignedLong.fromLongBits(txOutRecord.getBlockIndex());
+            receivedBlockIndex = txOutRecord.getBlockIndex();
             MobileCoinAPI.CompressedRistretto txOutPublicKeyProto =
                     MobileCoinAPI.CompressedRistretto.newBuilder()
                             .setData(txOutRecord.getTxOutPublicKeyData())
@@ -70,24 +82,29 @@ public class OwnedTxOut implements Parcelable {
                     MobileCoinAPI.CompressedRistretto.newBuilder()
                             .setData(txOutRecord.getTxOutTargetKeyData())
                             .build();
-            txOutPublicKey = RistrettoPublic.fromProtoBufObject(txOutPublicKeyProto);
             long maskedValue = txOutRecord.getTxOutAmountMaskedValue();
-            RistrettoPublic txOutSharedSecret =
-                Util.getSharedSecret(accountKey.getViewKey(), txOutPublicKey);
-            Amount amount = new Amount(txOutSharedSecret, maskedValue);
-            value = amount.unmaskValue(
-                    accountKey.getViewKey(),
-                    txOutPublicKey
-            );
-
-            MobileCoinAPI.TxOut txOutProto = MobileCoinAPI.TxOut.newBuilder()
-                    .setAmount(amount.toProtoBufObject())
-                    .setPublicKey(txOutPublicKeyProto)
-                    .setTargetKey(txOutTargetKeyProto)
-                    .build();
+            MobileCoinAPI.TxOut txOutProto;
+            // the intermediate native objects are released as soon as they are not needed
+            try (RistrettoPublic txOutPublicKey =
+                         RistrettoPublic.fromProtoBufObject(txOutPublicKeyProto);
+                 RistrettoPublic txOutSharedSecret =
+                         Util.getSharedSecret(accountKey.getViewKey(), txOutPublicKey);
+                 Amount amount = new Amount(txOutSharedSecret, maskedValue)) {
+                txOutPublicKeyBytes = txOutPublicKey.getKeyBytes();
+                value = amount.unmaskValue(
+                        accountKey.getViewKey(),
+                        txOutPublicKey
+                ).longValue();
+                txOutProto = MobileCoinAPI.TxOut.newBuilder()
+                        .setAmount(amount.toProtoBufObject())
+                        .setPublicKey(txOutPublicKeyProto)
+                        .setTargetKey(txOutTargetKeyProto)
+                        .build();
+            }
             // Calculated fields
-            TxOut nativeTxOut = TxOut.fromProtoBufObject(txOutProto);
-            keyImage = nativeTxOut.computeKeyImage(accountKey);
+            try (TxOut nativeTxOut = TxOut.fromProtoBufObject(txOutProto)) {
+                keyImage = nativeTxOut.computeKeyImage(accountKey);
+            }
         } catch (SerializationException | AmountDecoderException | TransactionBuilderException e) {
             IllegalArgumentException illegalArgumentException =
                     new IllegalArgumentException("Unable to decode the TxOutRecord", e);
@@ -96,12 +113,44 @@ public class OwnedTxOut implements Parcelable {
         }
     }
 
+    OwnedTxOut(
+            @NonNull UnsignedLong txOutGlobalIndex,
+            @NonNull UnsignedLong receivedBlockIndex,
+            @Nullable Date receivedBlockTimestamp,
+            @NonNull BigInteger value,
+            @NonNull RistrettoPublic txOutPublicKey,
+            @NonNull byte[] keyImage
+    ) {
+        this(txOutGlobalIndex.longValue(), receivedBlockIndex.longValue(),
+                receivedBlockTimestamp != null ? FLAG_RECEIVED_TIMESTAMP : 0,
+                receivedBlockTimestamp != null ? receivedBlockTimestamp.getTime() : 0,
+                value.longValue(), txOutPublicKey.getKeyBytes(), keyImage);
+    }
+
+    private OwnedTxOut(
+            long txOutGlobalIndex,
+            long receivedBlockIndex,
+            int flags,
+            long receivedBlockTimestamp,
+            long value,
+            @NonNull byte[] txOutPublicKeyBytes,
+            @NonNull byte[] keyImage
+    ) {
+        this.txOutGlobalIndex = txOutGlobalIndex;
+        this.receivedBlockIndex = receivedBlockIndex;
+        this.flags = flags;
+        this.receivedBlockTimestamp = receivedBlockTimestamp;
+        this.value = value;
+        this.txOutPublicKeyBytes = txOutPublicKeyBytes;
+        this.keyImage = keyImage;
+    }
+
     /**
      * Returns the decoded value of the TxOut
      */
     @NonNull
     public BigInteger getValue() {
-        return value;
+        return UnsignedLong.fromLongBits(value).toBigInteger();
     }
 
     @NonNull
@@ -110,48 +159,86 @@ public class OwnedTxOut implements Parcelable {
     }
 
     @NonNull
-    public synchronized UnsignedLong getReceivedBlockIndex() {
-        return receivedBlockIndex;
+    public UnsignedLong getReceivedBlockIndex() {
+        return UnsignedLong.fromLongBits(receivedBlockIndex);
     }
 
     @Nullable
     public Date getReceivedBlockTimestamp() {
-        return receivedBlockTimestamp;
+        return (flags & FLAG_RECEIVED_TIMESTAMP) != 0
+                ? new Date(receivedBlockTimestamp)
+                : null;
     }
 
     @Nullable
     public synchronized UnsignedLong getSpentBlockIndex() {
-        return spentBlockIndex;
+        return (flags & FLAG_SPENT_INDEX) != 0
+                ? UnsignedLong.fromLongBits(spentBlockIndex)
+                : null;
     }
 
     @Nullable
     public synchronized Date getSpentBlockTimestamp() {
-        return spentBlockTimestamp;
+        return (flags & FLAG_SPENT_TIMESTAMP) != 0
+                ? new Date(spentBlockTimestamp)
+                : null;
     }
 
     @NonNull
     public RistrettoPublic getPublicKey() {
-        return txOutPublicKey;
+        RistrettoPublic publicKey = txOutPublicKey;
+        if (publicKey == null) {
+            // concurrent callers may create equal keys, either of them is kept
+            try {
+                publicKey = RistrettoPublic.fromBytes(txOutPublicKeyBytes);
+            } catch (SerializationException exception) {
+                IllegalStateException illegalStateException =
+                        new IllegalStateException("Stored TxOut public key is invalid", exception);
+                Util.logException(TAG, illegalStateException);
+                throw illegalStateException;
+            }
+            txOutPublicKey = publicKey;
+        }
+        return publicKey;
+    }
+
+    /**
+     * @return whether the TxOut public key has the provided bytes, without creating a native key
+     */
+    boolean hasPublicKey(@NonNull byte[] publicKeyBytes) {
+        return Arrays.equals(txOutPublicKeyBytes, publicKeyBytes);
     }
 
     public synchronized boolean isSpent(@NonNull UnsignedLong atIndex) {
-        return (spentBlockIndex != null) && (spentBlockIndex.compareTo(atIndex) <= 0);
+        return (flags & FLAG_SPENT_INDEX) != 0
+                && UnsignedLong.compare(spentBlockIndex, atIndex.longValue()) <= 0;
+    }
+
+    /**
+     * @return whether the TxOut appeared at or before the block index
+     */
+    boolean isReceived(@NonNull UnsignedLong atIndex) {
+        return UnsignedLong.compare(receivedBlockIndex, atIndex.longValue()) <= 0;
     }
 
     synchronized void setSpent(
             @NonNull UnsignedLong spentBlockIndex,
             @Nullable Date spentBlockTimestamp
     ) {
-        Logger.i(TAG, "Setting spent status", null,
-                "spentBlockIndex:", spentBlockIndex,
-                "spentBlockTimeStamp:", spentBlockTimestamp);
-        this.spentBlockIndex = spentBlockIndex;
-        this.spentBlockTimestamp = spentBlockTimestamp;
+        if (Logger.isLoggable(Logger.Level.INFO)) {
+            Logger.i(TAG, "Setting spent status", null,
+                    "spentBlockIndex:", spentBlockIndex,
+                    "spentBlockTimeStamp:", spentBlockTimestamp);
+        }
+        this.spentBlockIndex = spentBlockIndex.longValue();
+        this.spentBlockTimestamp = (spentBlockTimestamp != null) ? spentBlockTimestamp.getTime() : 0;
+        flags = (flags & FLAG_RECEIVED_TIMESTAMP) | FLAG_SPENT_INDEX
+                | (spentBlockTimestamp != null ? FLAG_SPENT_TIMESTAMP : 0);
     }
 
     @NonNull
     UnsignedLong getTxOutGlobalIndex() {
-        return txOutGlobalIndex;
+        return UnsignedLong.fromLongBits(txOutGlobalIndex);
     }
 
     int getKeyImageHashCode() {
@@ -166,34 +253,106 @@ public class OwnedTxOut implements Parcelable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OwnedTxOut that = (OwnedTxOut) o;
-        return Objects.equals(txOutGlobalIndex, that.txOutGlobalIndex) &&
-               Objects.equals(receivedBlockIndex, that.receivedBlockIndex) &&
-               Objects.equals(spentBlockIndex, that.spentBlockIndex) &&
-               Objects.equals(value, that.value) &&
-               Objects.equals(txOutPublicKey, that.txOutPublicKey) &&
+        return txOutGlobalIndex == that.txOutGlobalIndex &&
+               receivedBlockIndex == that.receivedBlockIndex &&
+               Objects.equals(getSpentBlockIndex(), that.getSpentBlockIndex()) &&
+               value == that.value &&
+               Arrays.equals(txOutPublicKeyBytes, that.txOutPublicKeyBytes) &&
                Arrays.equals(keyImage, that.keyImage);
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(txOutGlobalIndex, receivedBlockIndex,
-                spentBlockIndex, value, txOutPublicKey);
+        int result = Long.hashCode(txOutGlobalIndex);
+        result = 31 * result + Long.hashCode(receivedBlockIndex);
+        result = 31 * result + Objects.hashCode(getSpentBlockIndex());
+        result = 31 * result + Long.hashCode(value);
+        result = 31 * result + Arrays.hashCode(txOutPublicKeyBytes);
         result = 31 * result + Arrays.hashCode(keyImage);
         return result;
     }
 
+    /**
+     * Writes this object as a record of the binary storage format
+     * @param encoder The encoder to write the record to
+     */
+    synchronized void writeTo(@NonNull BinaryEncoder encoder) {
+        int record = encoder.beginRecord();
+        encoder.writeByte(flags);
+        encoder.writeVarint(txOutGlobalIndex);
+        encoder.writeVarint(receivedBlockIndex);
+        if ((flags & FLAG_RECEIVED_TIMESTAMP) != 0) {
+            encoder.writeVarint(receivedBlockTimestamp);
+        }
+        if ((flags & FLAG_SPENT_INDEX) != 0) {
+            encoder.writeVarint(spentBlockIndex);
+        }
+        if ((flags & FLAG_SPENT_TIMESTAMP) != 0) {
+            encoder.writeVarint(spentBlockTimestamp);
+        }
+        // amounts are u64
+        encoder.writeFixed64(value);
+        encoder.writeKey(txOutPublicKeyBytes);
+        encoder.writeKey(keyImage);
+        encoder.endRecord(record);
+    }
+
+    /**
+     * Reads an OwnedTxOut record of the binary storage format
+     * @param decoder The decoder positioned at the record
+     */
+    @NonNull
+    static OwnedTxOut readFrom(@NonNull BinaryDecoder decoder) throws SerializationException {
+        BinaryDecoder record = decoder.readRecord();
+        int flags = record.readByte()
+                & (FLAG_RECEIVED_TIMESTAMP | FLAG_SPENT_INDEX | FLAG_SPENT_TIMESTAMP);
+        long txOutGlobalIndex = record.readVarint();
+        long receivedBlockIndex = record.readVarint();
+        long receivedBlockTimestamp = (flags & FLAG_RECEIVED_TIMESTAMP) != 0
+                ? record.readVarint()
+                : 0;
+        long spentBlockIndex = (flags & FLAG_SPENT_INDEX) != 0
+                ? record.readVarint()
+                : 0;
+        long spentBlockTimestamp = (flags & FLAG_SPENT_TIMESTAMP) != 0
+                ? record.readVarint()
+                : 0;
+        long value = record.readFixed64();
+        byte[] txOutPublicKeyBytes = record.readKey();
+        OwnedTxOut txOut = new OwnedTxOut(txOutGlobalIndex, receivedBlockIndex, flags,
+                receivedBlockTimestamp, value, txOutPublicKeyBytes, record.readKey());
+        txOut.spentBlockIndex = spentBlockIndex;
+        txOut.spentBlockTimestamp = spentBlockTimestamp;
+        return txOut;
+    }
+
     /**
      * Creates an OwnedTxOut from the provided parcel
      * @param parcel The parcel that contains na OwnedTxOut
      */
     private OwnedTxOut(Parcel parcel) throws SerializationException {
-        txOutGlobalIndex = parcel.readParcelable(UnsignedLong.class.getClassLoader());
-        receivedBlockIndex = parcel.readParcelable(UnsignedLong.class.getClassLoader());
-        receivedBlockTimestamp = (Date)parcel.readSerializable();
-        spentBlockTimestamp = (Date)parcel.readSerializable();
-        spentBlockIndex = parcel.readParcelable(UnsignedLong.class.getClassLoader());
-        value = (BigInteger)parcel.readSerializable();
-        txOutPublicKey = RistrettoPublic.fromBytes(parcel.createByteArray());
+        UnsignedLong txOutGlobalIndex =
+                parcel.readParcelable(UnsignedLong.class.getClassLoader());
+        UnsignedLong receivedBlockIndex =
+                parcel.readParcelable(UnsignedLong.class.getClassLoader());
+        Date receivedBlockTimestamp = (Date)parcel.readSerializable();
+        Date spentBlockTimestamp = (Date)parcel.readSerializable();
+        UnsignedLong spentBlockIndex = parcel.readParcelable(UnsignedLong.class.getClassLoader());
+        BigInteger value = (BigInteger)parcel.readSerializable();
+        this.txOutGlobalIndex = txOutGlobalIndex.longValue();
+        this.receivedBlockIndex = receivedBlockIndex.longValue();
+        this.receivedBlockTimestamp = (receivedBlockTimestamp != null)
+                ? receivedBlockTimestamp.getTime()
+                : 0;
+        this.value = value.longValue();
+        this.spentBlockIndex = (spentBlockIndex != null) ? spentBlockIndex.longValue() : 0;
+        this.spentBlockTimestamp = (spentBlockTimestamp != null)
+                ? spentBlockTimestamp.getTime()
+                : 0;
+        flags = (receivedBlockTimestamp != null ? FLAG_RECEIVED_TIMESTAMP : 0)
+                | (spentBlockIndex != null ? FLAG_SPENT_INDEX : 0)
+                | (spentBlockTimestamp != null ? FLAG_SPENT_TIMESTAMP : 0);
+        txOutPublicKeyBytes = parcel.createByteArray();
         keyImage = parcel.createByteArray();
         keyImageHash = parcel.readInt();
     }
@@ -205,13 +364,13 @@ public class OwnedTxOut implements Parcelable {
      */
     @Override
     public void writeToParcel(Parcel parcel, int flags) {
-        parcel.writeParcelable(txOutGlobalIndex, flags);
-        parcel.writeParcelable(receivedBlockIndex, flags);
-        parcel.writeSerializable(receivedBlockTimestamp);
-        parcel.writeSerializable(spentBlockTimestamp);
-        parcel.writeParcelable(spentBlockIndex, flags);
-        parcel.writeSerializable(value);
-        parcel.writeByteArray(txOutPublicKey.getKeyBytes());
+        parcel.writeParcelable(getTxOutGlobalIndex(), flags);
+        parcel.writeParcelable(getReceivedBlockIndex(), flags);
+        parcel.writeSerializable(getReceivedBlockTimestamp());
+        parcel.writeSerializable(getSpentBlockTimestamp());
+        parcel.writeParcelable(getSpentBlockIndex(), flags);
+        parcel.writeSerializable(getValue());
+        parcel.writeByteArray(txOutPublicKeyBytes);
         parcel.writeByteArray(keyImage);
         parcel.writeInt(keyImageHash);
     }
@@ -167,8 +167,9 @@ public final class Receipt {
     @Nullable
     public OwnedTxOut fetchOwnedTxOut(@NonNull MobileCoinClient mobileCoinClient) throws NetworkException,
             InvalidFogResponse, AttestationException {
+        byte[] publicKeyBytes = getPublicKey().getKeyBytes();
         return mobileCoinClient.getAccountActivity().getAllTxOuts().stream()
-                .filter(txOut -> txOut.getPublicKey().equals(getPublicKey()))
+                .filter(txOut -> txOut.hasPublicKey(publicKeyBytes))
                 .findFirst()
                 .orElse(null);
     }
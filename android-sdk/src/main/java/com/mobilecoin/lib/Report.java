@@ -14,6 +14,9 @@ import report.ReportOuterClass;
 
 final class Report extends Native {
     private final static String TAG = Report.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new Report(RELEASE_ONLY), Report::finalize_jni);
     private final long publicKeyExpiry;
 
     Report(@NonNull String fogReportId,
@@ -23,6 +26,7 @@ final class Report extends Native {
         this.publicKeyExpiry = publicKeyExpiry;
         try {
             init_jni(fogReportId, verificationReport, publicKeyExpiry);
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             throw new FogReportException("Unable to create report from the provided arguments",
                     exception);
@@ -62,14 +66,9 @@ final class Report extends Native {
         return publicKeyExpiry;
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        try {
-            finalize_jni();
-        } catch (Exception exception) {
-            Logger.e(TAG, "Failed to free fog report data", exception);
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private Report(@NonNull ReleaseOnly releaseOnly) {
+        publicKeyExpiry = 0;
     }
 
     // native calls
@@ -11,6 +11,9 @@ import java.util.List;
 
 final class ReportResponse extends Native {
     private final static String TAG = ReportResponse.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new ReportResponse(RELEASE_ONLY), ReportResponse::finalize_jni);
     private final List<Report> reports;
     private final byte[][] chain;
     private final byte[] signature;
@@ -22,6 +25,7 @@ final class ReportResponse extends Native {
         this.signature = signature;
         try {
             init_jni((reports.toArray(new Report[0])), chain, signature);
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             FogReportException fogReportException =
                     new FogReportException("Unable to create report response", exception);
@@ -48,14 +52,11 @@ final class ReportResponse extends Native {
         return signature;
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        try {
-            finalize_jni();
-        } catch (Exception exception) {
-            Logger.e(TAG, "Failed to free fog report response data", exception);
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private ReportResponse(@NonNull ReleaseOnly releaseOnly) {
+        reports = null;
+        chain = null;
+        signature = null;
     }
 
     // native calls
@@ -10,6 +10,9 @@ import com.mobilecoin.lib.log.Logger;
 
 final class ResponderId extends Native {
     private final static String TAG = ResponderId.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new ResponderId(RELEASE_ONLY), ResponderId::finalize_jni);
 
     ResponderId(@NonNull Uri serviceUri) {
         init_jni(String.format(
@@ -17,10 +20,12 @@ final class ResponderId extends Native {
                 serviceUri.getHost(),
                 serviceUri.getPort()
         ));
+        registerNativeObject(RELEASER);
     }
 
     private ResponderId(long existingRustObj) {
         rustObj = existingRustObj;
+        registerNativeObject(RELEASER);
     }
 
     @NonNull
@@ -31,6 +36,7 @@ final class ResponderId extends Native {
     ResponderId(@NonNull String responderIdString) {
         Logger.d(TAG, "Setting responder id: " + responderIdString);
         init_jni(responderIdString);
+        registerNativeObject(RELEASER);
     }
 
     static ResponderId fromStringRepresentation(String responderIdString) {
@@ -41,12 +47,8 @@ final class ResponderId extends Native {
         return new ResponderId(responderUri);
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private ResponderId(@NonNull ReleaseOnly releaseOnly) {
     }
 
     private native void init_jni(@NonNull String address);
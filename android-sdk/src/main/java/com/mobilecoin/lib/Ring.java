@@ -10,9 +10,30 @@ import com.mobilecoin.lib.log.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-final class Ring {
+final class Ring implements AutoCloseable {
     private final static String TAG = Ring.class.getName();
+    private static final int DECODE_THREADS =
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    // decodes the rings of the transactions, the idle threads are stopped
+    private static final ThreadPoolExecutor decodeExecutor = new ThreadPoolExecutor(
+            DECODE_THREADS, DECODE_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "MobileCoin-RingDecoder");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        decodeExecutor.allowCoreThreadTimeOut(true);
+    }
+
     public final short realIndex;
     public final OwnedTxOut utxo;
     private final List<TxOut> nativeTxOuts;
@@ -47,6 +68,51 @@ final class Ring {
         }
     }
 
+    /**
+     * Decodes the rings of a transaction in parallel, the calling thread decodes the first one
+     *
+     * @param decoders creating the rings, each one decodes its native TxOuts and proofs
+     * @return the rings in the order of the decoders
+     */
+    @NonNull
+    static List<Ring> decodeAll(@NonNull List<Callable<Ring>> decoders)
+            throws SerializationException {
+        List<Future<Ring>> futures = new ArrayList<>(decoders.size());
+        for (int i = 1; i < decoders.size(); ++i) {
+            futures.add(decodeExecutor.submit(decoders.get(i)));
+        }
+        List<Ring> rings = new ArrayList<>(decoders.size());
+        Throwable decodeException = null;
+        if (!decoders.isEmpty()) {
+            try {
+                rings.add(decoders.get(0).call());
+            } catch (Exception exception) {
+                decodeException = exception;
+            }
+        }
+        for (Future<Ring> future : futures) {
+            try {
+                rings.add(future.get());
+            } catch (ExecutionException exception) {
+                decodeException = exception.getCause();
+            } catch (InterruptedException exception) {
+                decodeException = exception;
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (decodeException != null) {
+            // the decoded rings are not returned, so they are released eagerly
+            for (Ring ring : rings) {
+                ring.close();
+            }
+            SerializationException serializationException =
+                    new SerializationException("Unable to decode rings", decodeException);
+            Util.logException(TAG, serializationException);
+            throw serializationException;
+        }
+        return rings;
+    }
+
     @NonNull
     public List<TxOut> getNativeTxOuts() {
         return nativeTxOuts;
@@ -56,4 +122,17 @@ final class Ring {
     public List<TxOutMembershipProof> getNativeTxOutMembershipProofs() {
         return nativeTxOutMembershipProofs;
     }
+
+    /**
+     * Releases the native TxOuts and membership proofs of the ring
+     */
+    @Override
+    public void close() {
+        for (TxOut nativeTxOut : nativeTxOuts) {
+            nativeTxOut.close();
+        }
+        for (TxOutMembershipProof nativeProof : nativeTxOutMembershipProofs) {
+            nativeProof.close();
+        }
+    }
 }
@@ -24,10 +24,15 @@ import java.util.Arrays;
  * </pre>
  */
 public final class RistrettoPrivate extends Native implements Parcelable {
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new RistrettoPrivate(RELEASE_ONLY), RistrettoPrivate::finalize_jni);
+
     private final byte[] keyBytes;
 
     private RistrettoPrivate(long existingRustObj) {
         rustObj = existingRustObj;
+        registerNativeObject(RELEASER);
         keyBytes = getKeyBytes();
     }
 
@@ -38,8 +43,10 @@ public final class RistrettoPrivate extends Native implements Parcelable {
         try {
             if (type == PayloadType.KEY_BYTES) {
                 init_jni(bytes);
+                registerNativeObject(RELEASER);
             } else if (type == PayloadType.SEED_BYTES) {
                 init_jni_seed(bytes);
+                registerNativeObject(RELEASER);
             }
             keyBytes = getKeyBytes();
         } catch (Exception ex) {
@@ -165,12 +172,9 @@ public final class RistrettoPrivate extends Native implements Parcelable {
         return Arrays.hashCode(getKeyBytes());
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private RistrettoPrivate(@NonNull ReleaseOnly releaseOnly) {
+        keyBytes = null;
     }
 
     // JNI calls
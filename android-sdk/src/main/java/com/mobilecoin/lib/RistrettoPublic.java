@@ -27,10 +27,14 @@ import java.util.Arrays;
 public final class RistrettoPublic extends Native implements Parcelable {
     public static final int PUBLIC_KEY_SIZE = 32;
     private static final long serialVersionUID = 1L;
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new RistrettoPublic(RELEASE_ONLY), RistrettoPublic::finalize_jni);
     private MobileCoinAPI.CompressedRistretto compressedRistretto;
 
     private RistrettoPublic(long existingRustObj) {
         rustObj = existingRustObj;
+        registerNativeObject(RELEASER);
         try {
             byte[] keyBytes = get_bytes();
             MobileCoinAPI.CompressedRistretto.Builder builder =
@@ -48,6 +52,7 @@ public final class RistrettoPublic extends Native implements Parcelable {
         this.compressedRistretto = compressedRistretto;
         try {
             init_jni(this.compressedRistretto.getData().toByteArray());
+            registerNativeObject(RELEASER);
         } catch (Exception ex) {
             throw new SerializationException(ex.getLocalizedMessage());
         }
@@ -129,12 +134,8 @@ public final class RistrettoPublic extends Native implements Parcelable {
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private RistrettoPublic(@NonNull ReleaseOnly releaseOnly) {
     }
 
     // JNI calls
@@ -0,0 +1,40 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link StorageAdapter} that can append to the stored values and read their ranges.
+ * <p>
+ * When the provided storage adapter implements this interface the SDK persists the account
+ * changes to an append-only journal instead of rewriting the whole account state on every
+ * {@link MobileCoinAccountClient#cacheUserData()} call.
+ */
+public interface StreamingStorageAdapter extends StorageAdapter {
+
+    /**
+     * Append the bytes to the value stored under the key, the value is created if it does not
+     * exist
+     */
+    void append(String key, byte[] bytes);
+
+    /**
+     * @return the size of the value stored under the key or zero if there is none
+     */
+    long size(String key);
+
+    /**
+     * Read up to {@code length} bytes of the value stored under the key starting at the
+     * {@code offset}
+     */
+    byte[] read(String key, long offset, int length);
+
+    /**
+     * Get the value stored under the key as a read-only buffer, implementations may return a
+     * memory mapping of the value to avoid copying it to the heap
+     *
+     * @return the value or {@code null} if there is none
+     */
+    ByteBuffer getBuffer(String key);
+}
@@ -0,0 +1,59 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Configures the tombstone block of the new transactions
+ * <p>
+ * A transaction can only be accepted in a block before its tombstone block. The tombstone is
+ * {@code blocksAhead} after the latest block reported by consensus, which is refetched if it is
+ * older than {@code maxBlockHeightAge}, or after the synchronized ledger block if that is higher.
+ */
+public final class TombstonePolicy {
+    private static final String TAG = TombstonePolicy.class.getName();
+    private final long blocksAhead;
+    private final Duration maxBlockHeightAge;
+
+    /**
+     * @param blocksAhead       number of the blocks the transactions may be accepted in
+     * @param maxBlockHeightAge the oldest consensus block height used without refetching it
+     */
+    public TombstonePolicy(long blocksAhead, @NonNull Duration maxBlockHeightAge) {
+        if (blocksAhead <= 0 || maxBlockHeightAge.isNegative()) {
+            IllegalArgumentException illegalArgumentException =
+                    new IllegalArgumentException("Tombstone blocks must be positive and the " +
+                            "block height age must not be negative");
+            Util.logException(TAG, illegalArgumentException);
+            throw illegalArgumentException;
+        }
+        this.blocksAhead = blocksAhead;
+        this.maxBlockHeightAge = maxBlockHeightAge;
+    }
+
+    /**
+     * Transactions may be accepted within 50 blocks of a consensus block height at most 10
+     * seconds old
+     */
+    @NonNull
+    public static TombstonePolicy defaultPolicy() {
+        return new TombstonePolicy(50, Duration.ofSeconds(10));
+    }
+
+    public long getBlocksAhead() {
+        return blocksAhead;
+    }
+
+    @NonNull
+    public Duration getMaxBlockHeightAge() {
+        return maxBlockHeightAge;
+    }
+
+    @NonNull
+    UnsignedLong getTombstoneBlockIndex(@NonNull UnsignedLong latestBlockIndex) {
+        return latestBlockIndex.add(UnsignedLong.fromLongBits(blocksAhead));
+    }
+}
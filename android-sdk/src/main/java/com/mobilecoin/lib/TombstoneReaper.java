@@ -0,0 +1,133 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+import com.mobilecoin.lib.log.Logger;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the status of the watched transactions in the background
+ * <p>
+ * While there are watched transactions, the account is synchronized about once per block. A
+ * transaction is reported as accepted once its outputs are found, or as failed once the
+ * synchronized ledger reaches its tombstone block without it.
+ */
+final class TombstoneReaper {
+    private static final String TAG = TombstoneReaper.class.getName();
+    // the watched transactions are checked at about the block rate
+    private static final long CHECK_INTERVAL_MS = 5000;
+    // the reaper is shut down by the client, so it must not keep the client reachable
+    private final WeakReference<MobileCoinClient> clientReference;
+    private final ScheduledExecutorService executorService;
+    // guarded by this
+    private final List<WatchedTransaction> watchedTransactions = new ArrayList<>();
+    private boolean isCheckScheduled;
+    private boolean isShutdown;
+
+    TombstoneReaper(@NonNull MobileCoinClient mobileCoinClient) {
+        this.clientReference = new WeakReference<>(mobileCoinClient);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-TombstoneReaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setKeepAliveTime(CHECK_INTERVAL_MS * 2, TimeUnit.MILLISECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        this.executorService = executor;
+    }
+
+    /**
+     * Reports the final status of the transaction to the listener
+     */
+    synchronized void watch(@NonNull Transaction transaction,
+                            @NonNull TransactionStatusListener listener) {
+        if (isShutdown) {
+            return;
+        }
+        watchedTransactions.add(new WatchedTransaction(transaction, listener));
+        scheduleCheck();
+    }
+
+    /**
+     * Stops watching the transactions, their listeners are not called
+     */
+    synchronized void shutdown() {
+        isShutdown = true;
+        executorService.shutdownNow();
+        watchedTransactions.clear();
+    }
+
+    private void scheduleCheck() {
+        if (isShutdown || isCheckScheduled || watchedTransactions.isEmpty()) {
+            return;
+        }
+        try {
+            executorService.schedule(this::check, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            isCheckScheduled = true;
+        } catch (RejectedExecutionException ignored) {
+            // the reaper is shut down
+        }
+    }
+
+    private void check() {
+        List<WatchedTransaction> pending;
+        synchronized (this) {
+            isCheckScheduled = false;
+            pending = new ArrayList<>(watchedTransactions);
+        }
+        MobileCoinClient mobileCoinClient = clientReference.get();
+        if (mobileCoinClient == null) {
+            return;
+        }
+        List<WatchedTransaction> resolved = new ArrayList<>();
+        try {
+            // a single synchronization resolves all the transactions
+            AccountSnapshot snapshot = mobileCoinClient.getAccountSnapshot();
+            for (WatchedTransaction watched : pending) {
+                Transaction.Status status = snapshot.getTransactionStatus(watched.transaction);
+                if (status != Transaction.Status.UNKNOWN) {
+                    watched.status = status;
+                    resolved.add(watched);
+                }
+            }
+        } catch (Exception exception) {
+            // checked again with the next block
+            Logger.w(TAG, "Unable to check the watched transactions", exception);
+        }
+        synchronized (this) {
+            watchedTransactions.removeAll(resolved);
+            scheduleCheck();
+        }
+        for (WatchedTransaction watched : resolved) {
+            Logger.i(TAG, "Watched transaction resolved", null,
+                    "status:", watched.status,
+                    "tombstone:", watched.transaction.getTombstoneBlockIndex());
+            try {
+                watched.listener.onTransactionStatus(watched.transaction, watched.status);
+            } catch (RuntimeException exception) {
+                Logger.w(TAG, "Transaction status listener failed", exception);
+            }
+        }
+    }
+
+    private static final class WatchedTransaction {
+        final Transaction transaction;
+        final TransactionStatusListener listener;
+        Transaction.Status status;
+
+        WatchedTransaction(@NonNull Transaction transaction,
+                           @NonNull TransactionStatusListener listener) {
+            this.transaction = transaction;
+            this.listener = listener;
+        }
+    }
+}
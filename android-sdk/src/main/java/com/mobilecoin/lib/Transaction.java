@@ -16,11 +16,15 @@ import java.util.stream.Collectors;
 
 public final class Transaction extends Native {
     private final static String TAG = Transaction.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new Transaction(RELEASE_ONLY), Transaction::finalize_jni);
     private final MobileCoinAPI.Tx protoBufTx;
     private byte[] serializedBytes;
 
     private Transaction(long existingRustObj) throws SerializationException {
         rustObj = existingRustObj;
+        registerNativeObject(RELEASER);
         try {
             protoBufTx = MobileCoinAPI.Tx.parseFrom(toByteArray());
         } catch (InvalidProtocolBufferException ex) {
@@ -130,12 +134,9 @@ public final class Transaction extends Native {
         return tombstoneBlockIndex;
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private Transaction(@NonNull ReleaseOnly releaseOnly) {
+        protoBufTx = null;
     }
 
     private native void finalize_jni();
@@ -16,10 +16,14 @@ import java.util.Locale;
 
 final class TransactionBuilder extends Native {
     private static final String TAG = TransactionBuilder.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new TransactionBuilder(RELEASE_ONLY), TransactionBuilder::finalize_jni);
 
     TransactionBuilder(@NonNull FogResolver fogResolver) throws FogReportException {
         try {
             init_jni(fogResolver);
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             throw new FogReportException("Unable to create TxBuilder", exception);
         }
@@ -74,7 +78,8 @@ final class TransactionBuilder extends Native {
     }
 
     void setTombstoneBlockIndex(@NonNull UnsignedLong value) throws TransactionBuilderException {
-        Logger.i(TAG, String.format(Locale.US, "Set transaction tombstone %s", value.toString()));
+        Logger.i(TAG, () -> String.format(Locale.US, "Set transaction tombstone %s",
+                value.toString()));
         try {
             set_tombstone_block(value.longValue());
         } catch (Exception exception) {
@@ -84,7 +89,7 @@ final class TransactionBuilder extends Native {
     }
 
     void setFee(long value) throws TransactionBuilderException {
-        Logger.i(TAG, String.format(Locale.US, "Set transaction fee %d", value));
+        Logger.i(TAG, () -> String.format(Locale.US, "Set transaction fee %d", value));
         try {
             set_fee(value);
         } catch (Exception exception) {
@@ -103,15 +108,16 @@ final class TransactionBuilder extends Native {
             Logger.e(TAG, "Unable to set transaction fee", exception);
             throw new TransactionBuilderException(
                     "Unable to build transaction from supplied " + "arguments");
+        } finally {
+            // the native builder is consumed by the build
+            if (rustObj == 0) {
+                unregisterNativeObject();
+            }
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private TransactionBuilder(@NonNull ReleaseOnly releaseOnly) {
     }
 
     private native void init_jni(@NonNull FogResolver fog_resolver);
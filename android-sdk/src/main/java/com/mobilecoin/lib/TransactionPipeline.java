@@ -0,0 +1,400 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.exceptions.AttestationException;
+import com.mobilecoin.lib.exceptions.FragmentedAccountException;
+import com.mobilecoin.lib.exceptions.InsufficientFundsException;
+import com.mobilecoin.lib.exceptions.InvalidFogResponse;
+import com.mobilecoin.lib.exceptions.InvalidTransactionException;
+import com.mobilecoin.lib.exceptions.NetworkException;
+import com.mobilecoin.lib.log.Logger;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the transactions of the queued payments ahead of time and submits them as soon as they
+ * are ready, so the send latency of a busy account is a single transaction proposal.
+ * <p>
+ * The transactions are built on the worker threads from the inputs not used by the other built or
+ * submitted transactions. The inputs of a submitted transaction are used again only once it is
+ * accepted or fails, which is detected in the background, see
+ * {@link MobileCoinClient#watchTransaction}. A built transaction close to its tombstone block is
+ * rebuilt before it is submitted.
+ */
+public final class TransactionPipeline implements AutoCloseable {
+    private static final String TAG = TransactionPipeline.class.getName();
+    // a built transaction is rebuilt once its tombstone is this close to the latest block
+    private static final long REBUILD_MARGIN_BLOCKS = 5;
+    private final MobileCoinClient mobileCoinClient;
+    private final ExecutorService buildExecutor;
+    private final ExecutorService submitExecutor;
+    private final LinkedBlockingQueue<Payment> builtPayments;
+    // limits the number of the transactions being built or waiting to be submitted
+    private final Semaphore buildPermits;
+    // the tombstones of the transactions using the inputs by their global indices, null until
+    // the transaction is built; guarded by itself
+    private final HashMap<UnsignedLong, UnsignedLong> reservedInputs;
+    private final Set<Payment> pendingPayments;
+    private volatile boolean isShutdown;
+
+    /**
+     * Creates and starts a new {@link TransactionPipeline}
+     *
+     * @param mobileCoinClient        client of the sending account
+     * @param buildThreads            number of the transactions built in parallel
+     * @param maxBuiltTransactions    number of the transactions built ahead of the submission
+     */
+    public TransactionPipeline(@NonNull MobileCoinClient mobileCoinClient,
+                               int buildThreads,
+                               int maxBuiltTransactions) {
+        if (buildThreads < 1 || maxBuiltTransactions < 1) {
+            throw new IllegalArgumentException("At least one build thread and transaction " +
+                    "are required");
+        }
+        this.mobileCoinClient = mobileCoinClient;
+        this.buildExecutor = Executors.newFixedThreadPool(buildThreads, runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-TransactionPipeline-Build");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.submitExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-TransactionPipeline-Submit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.builtPayments = new LinkedBlockingQueue<>();
+        this.buildPermits = new Semaphore(maxBuiltTransactions);
+        this.reservedInputs = new HashMap<>();
+        this.pendingPayments = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        submitExecutor.execute(this::submitBuiltPayments);
+        Logger.i(TAG, "Created new TransactionPipeline", null,
+                "build threads:", buildThreads,
+                "max built transactions:", maxBuiltTransactions);
+    }
+
+    /**
+     * Queues a payment, its transaction is built and submitted in the background
+     *
+     * @param recipient the recipient's public address
+     * @param amount    the amount to send
+     * @param fee       the transaction fee or {@code null} to pay the minimum fee
+     * @return the payment which completes with the submitted transaction
+     */
+    @NonNull
+    public Payment send(@NonNull PublicAddress recipient,
+                        @NonNull BigInteger amount,
+                        @Nullable BigInteger fee) {
+        Payment payment = new Payment(recipient, amount, fee);
+        pendingPayments.add(payment);
+        schedule(payment);
+        return payment;
+    }
+
+    /**
+     * Stops the pipeline, the payments which are not submitted yet are cancelled
+     */
+    public void shutdown() {
+        isShutdown = true;
+        buildExecutor.shutdownNow();
+        submitExecutor.shutdownNow();
+        for (Payment payment : pendingPayments) {
+            payment.cancel(false);
+        }
+        pendingPayments.clear();
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    private void schedule(@NonNull Payment payment) {
+        try {
+            if (isShutdown) {
+                throw new RejectedExecutionException();
+            }
+            buildExecutor.execute(() -> build(payment));
+        } catch (RejectedExecutionException exception) {
+            finish(payment);
+            payment.cancel(false);
+        }
+    }
+
+    private void build(@NonNull Payment payment) {
+        if (payment.isDone()) {
+            finish(payment);
+            return;
+        }
+        try {
+            buildPermits.acquire();
+        } catch (InterruptedException exception) {
+            // the pipeline is shut down
+            Thread.currentThread().interrupt();
+            return;
+        }
+        List<OwnedTxOut> inputs = null;
+        try {
+            UTXOSelector.Selection<OwnedTxOut> selection = reserveInputs(payment);
+            inputs = selection.txOuts;
+            PendingTransaction pendingTransaction = mobileCoinClient.prepareTransaction(
+                    payment.recipient,
+                    payment.amount,
+                    inputs,
+                    selection.fee
+            );
+            setTombstone(inputs, pendingTransaction.getReceipt().getTombstoneBlockIndex());
+            payment.built(pendingTransaction, inputs);
+            builtPayments.add(payment);
+        } catch (Exception exception) {
+            Logger.w(TAG, "Unable to build the payment transaction", exception);
+            if (inputs != null) {
+                releaseInputs(inputs);
+            }
+            buildPermits.release();
+            finish(payment);
+            payment.fail(exception);
+        }
+    }
+
+    private void submitBuiltPayments() {
+        while (!isShutdown) {
+            Payment payment;
+            try {
+                payment = builtPayments.take();
+            } catch (InterruptedException exception) {
+                // the pipeline is shut down
+                return;
+            }
+            buildPermits.release();
+            PendingTransaction pendingTransaction = payment.pendingTransaction;
+            List<OwnedTxOut> inputs = payment.inputs;
+            if (payment.isDone()) {
+                releaseInputs(inputs);
+                finish(payment);
+                continue;
+            }
+            UnsignedLong minTombstoneBlockIndex = mobileCoinClient.getLatestKnownBlockIndex()
+                    .add(UnsignedLong.fromLongBits(REBUILD_MARGIN_BLOCKS));
+            if (pendingTransaction.getReceipt().getTombstoneBlockIndex()
+                    .compareTo(minTombstoneBlockIndex) <= 0) {
+                Logger.i(TAG, "Rebuilding the transaction close to its tombstone block");
+                releaseInputs(inputs);
+                schedule(payment);
+                continue;
+            }
+            try {
+                mobileCoinClient.submitTransaction(pendingTransaction.getTransaction());
+                // the inputs stay reserved until they are spent or the tombstone block passes
+                mobileCoinClient.watchTransaction(pendingTransaction.getTransaction(),
+                        (transaction, status) -> releaseInputs(inputs));
+                finish(payment);
+                payment.complete(pendingTransaction);
+            } catch (InvalidTransactionException exception) {
+                // rejected, the inputs can be used by the other payments
+                releaseInputs(inputs);
+                finish(payment);
+                payment.fail(exception);
+            } catch (Exception exception) {
+                // the transaction may have been accepted, the inputs stay reserved
+                finish(payment);
+                payment.fail(exception);
+            }
+        }
+    }
+
+    @NonNull
+    private UTXOSelector.Selection<OwnedTxOut> reserveInputs(@NonNull Payment payment)
+            throws InsufficientFundsException, FragmentedAccountException, InvalidFogResponse,
+            AttestationException, NetworkException {
+        BigInteger minimumFee = (payment.fee == null)
+                ? mobileCoinClient.getOrFetchMinimumTxFee()
+                : null;
+        try {
+            return reserveInputs(payment, mobileCoinClient.getTxOutStore().getUnspentTxOuts(),
+                    minimumFee);
+        } catch (InsufficientFundsException exception) {
+            // the received or the change TxOuts may not be synchronized yet
+            return reserveInputs(payment, mobileCoinClient.getUnspentTxOuts(), minimumFee);
+        }
+    }
+
+    @NonNull
+    private UTXOSelector.Selection<OwnedTxOut> reserveInputs(
+            @NonNull Payment payment,
+            @NonNull Set<OwnedTxOut> unspent,
+            @Nullable BigInteger minimumFee
+    ) throws InsufficientFundsException, FragmentedAccountException {
+        UnsignedLong blockIndex = mobileCoinClient.getTxOutStore().getCurrentBlockIndex();
+        synchronized (reservedInputs) {
+            HashSet<UnsignedLong> unspentIndices = new HashSet<>();
+            for (OwnedTxOut txOut : unspent) {
+                unspentIndices.add(txOut.getTxOutGlobalIndex());
+            }
+            // the spent inputs and the inputs of the expired transactions are released
+            Iterator<Map.Entry<UnsignedLong, UnsignedLong>> iterator =
+                    reservedInputs.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UnsignedLong, UnsignedLong> reservation = iterator.next();
+                UnsignedLong tombstoneBlockIndex = reservation.getValue();
+                if (!unspentIndices.contains(reservation.getKey())
+                        || (tombstoneBlockIndex != null
+                        && tombstoneBlockIndex.compareTo(blockIndex) <= 0)) {
+                    iterator.remove();
+                }
+            }
+            HashSet<OwnedTxOut> available = new HashSet<>();
+            for (OwnedTxOut txOut : unspent) {
+                if (!reservedInputs.containsKey(txOut.getTxOutGlobalIndex())) {
+                    available.add(txOut);
+                }
+            }
+            UTXOSelector.Selection<OwnedTxOut> selection;
+            if (payment.fee != null) {
+                selection = UTXOSelector.selectInputsForAmount(available,
+                        payment.amount.add(payment.fee),
+                        BigInteger.ZERO,
+                        BigInteger.ZERO,
+                        BigInteger.ZERO,
+                        0
+                );
+                selection = new UTXOSelector.Selection<>(selection.txOuts, payment.fee);
+            } else {
+                selection = UTXOSelector.selectInputsForAmount(available,
+                        payment.amount,
+                        minimumFee,
+                        MobileCoinClient.INPUT_FEE,
+                        MobileCoinClient.OUTPUT_FEE,
+                        2
+                );
+            }
+            for (OwnedTxOut txOut : selection.txOuts) {
+                reservedInputs.put(txOut.getTxOutGlobalIndex(), null);
+            }
+            return selection;
+        }
+    }
+
+    private void setTombstone(@NonNull List<OwnedTxOut> inputs,
+                              @NonNull UnsignedLong tombstoneBlockIndex) {
+        synchronized (reservedInputs) {
+            for (OwnedTxOut txOut : inputs) {
+                reservedInputs.put(txOut.getTxOutGlobalIndex(), tombstoneBlockIndex);
+            }
+        }
+    }
+
+    private void releaseInputs(@NonNull List<OwnedTxOut> inputs) {
+        synchronized (reservedInputs) {
+            for (OwnedTxOut txOut : inputs) {
+                reservedInputs.remove(txOut.getTxOutGlobalIndex());
+            }
+        }
+    }
+
+    private void finish(@NonNull Payment payment) {
+        pendingPayments.remove(payment);
+    }
+
+    /**
+     * A payment queued in the {@link TransactionPipeline}, completes with the submitted
+     * transaction or fails with the exception which prevented its build or submission
+     */
+    public static final class Payment implements Future<PendingTransaction> {
+        private final Completion<PendingTransaction> completion;
+        private final PublicAddress recipient;
+        private final BigInteger amount;
+        @Nullable
+        private final BigInteger fee;
+        // the last built transaction and its inputs
+        private volatile PendingTransaction pendingTransaction;
+        private volatile List<OwnedTxOut> inputs;
+
+        private Payment(@NonNull PublicAddress recipient,
+                        @NonNull BigInteger amount,
+                        @Nullable BigInteger fee) {
+            this.completion = new Completion<>();
+            this.recipient = recipient;
+            this.amount = amount;
+            this.fee = fee;
+        }
+
+        @NonNull
+        public PublicAddress getRecipient() {
+            return recipient;
+        }
+
+        @NonNull
+        public BigInteger getAmount() {
+            return amount;
+        }
+
+        /**
+         * @return the requested fee or {@code null} if the minimum fee is paid
+         */
+        @Nullable
+        public BigInteger getFee() {
+            return fee;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return completion.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return completion.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        @Override
+        public PendingTransaction get() throws InterruptedException, ExecutionException {
+            return completion.get();
+        }
+
+        @Override
+        public PendingTransaction get(long timeout, @NonNull TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return completion.get(timeout, unit);
+        }
+
+        private void built(@NonNull PendingTransaction pendingTransaction,
+                           @NonNull List<OwnedTxOut> inputs) {
+            this.pendingTransaction = pendingTransaction;
+            this.inputs = inputs;
+        }
+
+        private void complete(@NonNull PendingTransaction pendingTransaction) {
+            completion.complete(pendingTransaction);
+        }
+
+        private void fail(@NonNull Exception exception) {
+            completion.fail(exception);
+        }
+    }
+}
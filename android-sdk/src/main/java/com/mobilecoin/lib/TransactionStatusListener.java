@@ -0,0 +1,20 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the final status of a transaction watched with
+ * {@link MobileCoinClient#watchTransaction}
+ */
+public interface TransactionStatusListener {
+    /**
+     * Called on a background thread once the transaction is accepted or fails
+     *
+     * @param transaction the watched transaction
+     * @param status      {@link Transaction.Status#ACCEPTED} or {@link Transaction.Status#FAILED}
+     */
+    void onTransactionStatus(@NonNull Transaction transaction,
+                             @NonNull Transaction.Status status);
+}
@@ -0,0 +1,117 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A transaction queued for submission with {@link MobileCoinClient#submitTransactionAsync}
+ * <p>
+ * The submission completes once consensus responds to the proposal. It fails with
+ * {@link com.mobilecoin.lib.exceptions.InvalidTransactionException} if consensus rejects the
+ * transaction, or with the network or attestation error of the proposal.
+ */
+public final class TransactionSubmission implements Future<Void> {
+    private final Completion<Void> completion;
+    private final Transaction transaction;
+    private final Priority priority;
+    // System.nanoTime() of the moments the submission was queued, proposed and completed
+    private final long queuedAt;
+    private volatile long proposedAt;
+    private volatile long completedAt;
+
+    TransactionSubmission(@NonNull Transaction transaction, @NonNull Priority priority) {
+        this.completion = new Completion<>();
+        this.transaction = transaction;
+        this.priority = priority;
+        this.queuedAt = System.nanoTime();
+    }
+
+    @NonNull
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    @NonNull
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return the time the submission waited for a consensus node or {@code null} until it is
+     * proposed
+     */
+    @Nullable
+    public Duration getQueueDelay() {
+        long proposedAt = this.proposedAt;
+        return (proposedAt != 0) ? Duration.ofNanos(proposedAt - queuedAt) : null;
+    }
+
+    /**
+     * @return the time from queueing the submission to the consensus response or {@code null}
+     * until the submission completes
+     */
+    @Nullable
+    public Duration getLatency() {
+        long completedAt = this.completedAt;
+        return (completedAt != 0) ? Duration.ofNanos(completedAt - queuedAt) : null;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return completion.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return completion.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    @Override
+    public Void get() throws InterruptedException, ExecutionException {
+        return completion.get();
+    }
+
+    @Override
+    public Void get(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return completion.get(timeout, unit);
+    }
+
+    void proposed() {
+        proposedAt = System.nanoTime();
+    }
+
+    void complete() {
+        completedAt = System.nanoTime();
+        completion.complete(null);
+    }
+
+    void fail(@NonNull Exception exception) {
+        completedAt = System.nanoTime();
+        completion.fail(exception);
+    }
+
+    /**
+     * Submission lanes in the order they are served, a queued submission is proposed only once
+     * the lanes before it are empty
+     */
+    public enum Priority {
+        // user facing payments
+        USER,
+        // defragmentation, fan-out and the other transactions nobody is waiting for
+        BACKGROUND
+    }
+}
@@ -0,0 +1,229 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.exceptions.AttestationException;
+import com.mobilecoin.lib.exceptions.InvalidTransactionException;
+import com.mobilecoin.lib.exceptions.NetworkException;
+import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.metrics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import consensus_common.ConsensusCommon;
+
+/**
+ * Proposes the queued transactions to the consensus nodes, keeping up to
+ * {@code maxInFlightPerNode} proposals in flight to each of the nodes
+ * <p>
+ * A submission is proposed to the node with the fewest proposals in flight, preferring the node
+ * that responded faster. When a node takes more than one proposal at a time, the background lane
+ * leaves its last slot to the user submissions, so a user submission does not wait behind a burst
+ * of background ones. With a single slot per node the lanes share it in priority order. Once
+ * consensus is slow to respond the submissions wait in their lanes, and queueing blocks while a
+ * lane holds {@code maxQueuedPerLane} submissions.
+ */
+final class TransactionSubmissionQueue {
+    private static final String TAG = TransactionSubmissionQueue.class.getName();
+    // weight of the latest proposal in the average latency of a node
+    private static final double LATENCY_WEIGHT = 0.2;
+    private final BlockchainClient blockchainClient;
+    private final List<Node> nodes;
+    private final int maxInFlightPerNode;
+    private final int maxQueuedPerLane;
+    private final ExecutorService executorService;
+    // guarded by this, a lane for each of the priorities
+    private final List<ArrayDeque<TransactionSubmission>> lanes;
+    private boolean isShutdown;
+
+    /**
+     * @param consensusClients   clients for each of the consensus nodes
+     * @param blockchainClient   its cached block info is reset once a transaction is rejected
+     * @param maxInFlightPerNode number of the proposals sent to a node at the same time
+     * @param maxQueuedPerLane   number of the submissions a lane holds before queueing blocks
+     */
+    TransactionSubmissionQueue(@NonNull List<AttestedConsensusClient> consensusClients,
+                               @NonNull BlockchainClient blockchainClient,
+                               int maxInFlightPerNode,
+                               int maxQueuedPerLane) {
+        if (consensusClients.isEmpty() || maxInFlightPerNode <= 0 || maxQueuedPerLane <= 0) {
+            IllegalArgumentException illegalArgumentException =
+                    new IllegalArgumentException("Submission queue requires consensus nodes " +
+                            "and positive limits");
+            Util.logException(TAG, illegalArgumentException);
+            throw illegalArgumentException;
+        }
+        this.blockchainClient = blockchainClient;
+        this.nodes = new ArrayList<>();
+        for (AttestedConsensusClient consensusClient : consensusClients) {
+            nodes.add(new Node(consensusClient));
+        }
+        this.maxInFlightPerNode = maxInFlightPerNode;
+        this.maxQueuedPerLane = maxQueuedPerLane;
+        this.lanes = new ArrayList<>();
+        for (int i = 0; i < TransactionSubmission.Priority.values().length; ++i) {
+            lanes.add(new ArrayDeque<>());
+        }
+        // the number of the threads is limited by the proposals in flight
+        this.executorService = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-SubmissionQueue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Logger.i(TAG, "Created new TransactionSubmissionQueue", null,
+                "nodes:", nodes.size(),
+                "in flight per node:", maxInFlightPerNode);
+    }
+
+    /**
+     * Queue the transaction for submission, blocking while its lane is full
+     *
+     * @return the submission, cancelled if the queue is shut down
+     */
+    @NonNull
+    synchronized TransactionSubmission submit(@NonNull Transaction transaction,
+                                              @NonNull TransactionSubmission.Priority priority)
+            throws InterruptedException {
+        TransactionSubmission submission = new TransactionSubmission(transaction, priority);
+        ArrayDeque<TransactionSubmission> lane = lanes.get(priority.ordinal());
+        while (!isShutdown && lane.size() >= maxQueuedPerLane) {
+            Logger.d(TAG, "Submission lane is full", null, "priority:", priority);
+            wait();
+        }
+        if (isShutdown) {
+            submission.cancel(false);
+            return submission;
+        }
+        lane.add(submission);
+        dispatch();
+        return submission;
+    }
+
+    /**
+     * Cancel the queued submissions, the proposals in flight are allowed to complete
+     */
+    synchronized void shutdown() {
+        isShutdown = true;
+        for (ArrayDeque<TransactionSubmission> lane : lanes) {
+            for (TransactionSubmission submission : lane) {
+                submission.cancel(false);
+            }
+            lane.clear();
+        }
+        executorService.shutdown();
+        notifyAll();
+    }
+
+    // called with the lock held
+    private void dispatch() {
+        for (TransactionSubmission.Priority priority : TransactionSubmission.Priority.values()) {
+            ArrayDeque<TransactionSubmission> lane = lanes.get(priority.ordinal());
+            while (!lane.isEmpty()) {
+                Node node = selectNode(priority);
+                if (node == null) {
+                    // the lower lanes wait for the higher ones
+                    return;
+                }
+                TransactionSubmission submission = lane.poll();
+                notifyAll();
+                if (submission.isCancelled()) {
+                    continue;
+                }
+                node.inFlight++;
+                try {
+                    executorService.execute(() -> propose(node, submission));
+                } catch (RejectedExecutionException exception) {
+                    // the queue is shut down
+                    node.inFlight--;
+                    submission.cancel(false);
+                }
+            }
+        }
+    }
+
+    // called with the lock held
+    @Nullable
+    private Node selectNode(@NonNull TransactionSubmission.Priority priority) {
+        // a single slot is shared, otherwise the last one is left to the user lane
+        int maxInFlight = (priority == TransactionSubmission.Priority.USER)
+                ? maxInFlightPerNode
+                : Math.max(1, maxInFlightPerNode - 1);
+        Node selected = null;
+        for (Node node : nodes) {
+            if (node.inFlight >= maxInFlight) {
+                continue;
+            }
+            if (selected == null
+                    || node.inFlight < selected.inFlight
+                    || (node.inFlight == selected.inFlight
+                    && node.latencyNanos < selected.latencyNanos)) {
+                selected = node;
+            }
+        }
+        return selected;
+    }
+
+    private void propose(@NonNull Node node, @NonNull TransactionSubmission submission) {
+        submission.proposed();
+        long startTime = System.nanoTime();
+        Exception error = null;
+        try {
+            ConsensusCommon.ProposeTxResponse txResponse = node.consensusClient.proposeTx(
+                    submission.getTransaction().toProtoBufObject());
+            if (0 != txResponse.getResult().getNumber()) {
+                blockchainClient.resetCache();
+                InvalidTransactionException invalidTransactionException =
+                        new InvalidTransactionException(txResponse.getResult().toString());
+                Util.logException(TAG, invalidTransactionException);
+                error = invalidTransactionException;
+            }
+        } catch (AttestationException | NetworkException | RuntimeException exception) {
+            error = exception;
+        }
+        long durationNanos = System.nanoTime() - startTime;
+        synchronized (this) {
+            node.inFlight--;
+            node.latencyNanos = (node.latencyNanos == 0)
+                    ? durationNanos
+                    : (long) (LATENCY_WEIGHT * durationNanos
+                    + (1 - LATENCY_WEIGHT) * node.latencyNanos);
+            if (!isShutdown) {
+                dispatch();
+            }
+        }
+        if (error != null) {
+            submission.fail(error);
+        } else {
+            submission.complete();
+        }
+        Metrics.recordStage(Metrics.Stage.SUBMISSION_QUEUE,
+                submission.getQueueDelay().toNanos());
+        Metrics.recordStage(Metrics.Stage.TRANSACTION_SUBMISSION, durationNanos);
+        Logger.d(TAG, "Transaction submission completed", null,
+                "priority:", submission.getPriority(),
+                "queued ms:", submission.getQueueDelay().toMillis(),
+                "latency ms:", submission.getLatency().toMillis(),
+                "node:", node.consensusClient.getCurrentServiceUri(),
+                "success:", error == null);
+    }
+
+    private static final class Node {
+        final AttestedConsensusClient consensusClient;
+        // guarded by the queue
+        int inFlight;
+        // exponentially weighted average of the proposal latency
+        long latencyNanos;
+
+        Node(@NonNull AttestedConsensusClient consensusClient) {
+            this.consensusClient = consensusClient;
+        }
+    }
+}
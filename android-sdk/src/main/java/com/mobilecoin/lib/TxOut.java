@@ -15,12 +15,16 @@ import java.util.Objects;
 
 final class TxOut extends Native {
     private final static String TAG = TxOut.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new TxOut(RELEASE_ONLY), TxOut::finalize_jni);
     private final MobileCoinAPI.TxOut protoBufTxOut;
     private final RistrettoPublic pubKey;
 
     private TxOut(@NonNull byte[] serializedBytes) throws SerializationException {
         try {
             init_from_protobuf_bytes(serializedBytes);
+            registerNativeObject(RELEASER);
             protoBufTxOut = MobileCoinAPI.TxOut.parseFrom(serializedBytes);
             pubKey = RistrettoPublic.fromProtoBufObject(protoBufTxOut.getPublicKey());
         } catch (Exception ex) {
@@ -33,6 +37,7 @@ final class TxOut extends Native {
 
     private TxOut(long existingRustObj) throws SerializationException {
         rustObj = existingRustObj;
+        registerNativeObject(RELEASER);
         try {
             protoBufTxOut = MobileCoinAPI.TxOut.parseFrom(toByteArray());
             pubKey = RistrettoPublic.fromProtoBufObject(protoBufTxOut.getPublicKey());
@@ -48,7 +53,8 @@ final class TxOut extends Native {
         try {
             protoBufTxOut = tx;
             pubKey = RistrettoPublic.fromProtoBufObject(protoBufTxOut.getPublicKey());
-            init_from_protobuf_bytes(tx.toByteString().toByteArray());
+            init_from_protobuf_bytes(tx.toByteArray());
+            registerNativeObject(RELEASER);
         } catch (Exception ex) {
             SerializationException serializationException =
                     new SerializationException(ex.getLocalizedMessage());
@@ -122,12 +128,10 @@ final class TxOut extends Native {
         return Objects.hash(protoBufTxOut, pubKey);
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private TxOut(@NonNull ReleaseOnly releaseOnly) {
+        protoBufTxOut = null;
+        pubKey = null;
     }
 
     @NonNull
@@ -9,11 +9,15 @@ import com.mobilecoin.lib.log.Logger;
 
 final class TxOutMembershipProof extends Native {
     private final static String TAG = TxOutMembershipProof.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new TxOutMembershipProof(RELEASE_ONLY), TxOutMembershipProof::finalize_jni);
 
     TxOutMembershipProof(@NonNull byte[] protobufBytes) throws SerializationException {
         Logger.i(TAG, "Initializing from protobuf");
         try {
             init_from_protobuf_bytes(protobufBytes);
+            registerNativeObject(RELEASER);
         } catch (Exception ex) {
             SerializationException serializationException =
                     new SerializationException(ex.getLocalizedMessage(), ex);
@@ -22,12 +26,8 @@ final class TxOutMembershipProof extends Native {
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private TxOutMembershipProof(@NonNull ReleaseOnly releaseOnly) {
     }
 
 
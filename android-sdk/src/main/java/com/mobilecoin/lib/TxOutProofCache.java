@@ -0,0 +1,237 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.exceptions.AttestationException;
+import com.mobilecoin.lib.exceptions.InvalidFogResponse;
+import com.mobilecoin.lib.exceptions.NetworkException;
+import com.mobilecoin.lib.log.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import fog_ledger.Ledger;
+
+/**
+ * Keeps the membership proofs of the unspent TxOuts of a {@link TxOutStore}
+ * <p>
+ * The proofs are fetched in the background in batches after the store is synchronized with the
+ * ledger. All the proofs of a transaction must share the Merkle root of its decoys, so the proofs
+ * are fetched relative to the root block last requested from the cache, or to the latest block
+ * until a root is requested. They are refetched once they are older than half of {@code maxAge}
+ * or relative to another root, are not used once they are older than {@code maxAge}, and are
+ * dropped once their TxOut is spent.
+ */
+final class TxOutProofCache implements TxOutStore.ChangeListener {
+    private static final String TAG = TxOutProofCache.class.getName();
+    // number of the proofs fetched in a single request
+    private static final int BATCH_SIZE = 64;
+
+    private final TxOutStore txOutStore;
+    private final AttestedLedgerClient ledgerClient;
+    private final long maxAgeNanos;
+    private final ExecutorService executorService;
+    // guarded by this, the keys are the global indices of the TxOuts
+    private final HashMap<Long, CachedProof> proofs = new HashMap<>();
+    // the Merkle root block the proofs are fetched relative to, 0 for the latest block
+    private long requestedRootBlock;
+    private boolean isUpdateScheduled;
+    private boolean isShutdown;
+
+    TxOutProofCache(@NonNull TxOutStore txOutStore,
+                    @NonNull AttestedLedgerClient ledgerClient,
+                    @NonNull Duration maxAge) {
+        this.txOutStore = txOutStore;
+        this.ledgerClient = ledgerClient;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.executorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MobileCoin-TxOutProofCache");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the cached outputs and membership proofs of the TxOuts, the following updates fetch the
+     * proofs relative to the requested root
+     *
+     * @param merkleRootBlock the Merkle root block the proofs must be relative to
+     * @return the outputs by the global indices of the TxOuts or {@code null} unless the proofs
+     * of all the TxOuts are cached relative to the root
+     */
+    @Nullable
+    synchronized Map<UnsignedLong, Ledger.OutputResult> get(
+            @NonNull Collection<OwnedTxOut> txOuts,
+            long merkleRootBlock
+    ) {
+        requestedRootBlock = merkleRootBlock;
+        HashMap<UnsignedLong, Ledger.OutputResult> outputs = new HashMap<>();
+        long now = System.nanoTime();
+        for (OwnedTxOut txOut : txOuts) {
+            UnsignedLong index = txOut.getTxOutGlobalIndex();
+            CachedProof proof = proofs.get(index.longValue());
+            if (proof == null || now - proof.fetchedAt > maxAgeNanos
+                    || proof.merkleRootBlock != merkleRootBlock) {
+                Logger.d(TAG, "TxOut proof is not cached", null,
+                        "index:", index,
+                        "merkle root block:", merkleRootBlock);
+                scheduleUpdate();
+                return null;
+            }
+            outputs.put(index, proof.output);
+        }
+        return outputs;
+    }
+
+    /**
+     * Stop the background updates
+     */
+    synchronized void shutdown() {
+        isShutdown = true;
+        executorService.shutdownNow();
+        proofs.clear();
+    }
+
+    @Override
+    public void onSeedAdded(int seedKey, @NonNull FogSeed seed) {
+    }
+
+    @Override
+    public void onTxOutAdded(int seedKey, @NonNull OwnedTxOut txOut) {
+    }
+
+    @Override
+    public void onSeedObsolete(int seedKey) {
+    }
+
+    @Override
+    public void onIngestInvocationDecommissioned(long ingestInvocationId) {
+    }
+
+    @Override
+    public void onTxOutRecovered(@NonNull OwnedTxOut txOut) {
+    }
+
+    @Override
+    public synchronized void onTxOutSpent(@NonNull OwnedTxOut txOut) {
+        proofs.remove(txOut.getTxOutGlobalIndex().longValue());
+    }
+
+    // the new TxOuts are confirmed and the spent ones are known once the ledger cursor moves
+    @Override
+    public synchronized void onCursorsChanged(@NonNull UnsignedLong ledgerBlockIndex,
+                                              @NonNull UnsignedLong viewBlockIndex,
+                                              long lastKnownFogViewEventId,
+                                              @Nullable UnsignedLong ledgerTotalTxCount) {
+        scheduleUpdate();
+    }
+
+    // called while the store is locked, so the store is read on the background thread
+    private void scheduleUpdate() {
+        if (isShutdown || isUpdateScheduled) {
+            return;
+        }
+        try {
+            executorService.execute(this::update);
+            isUpdateScheduled = true;
+        } catch (RejectedExecutionException ignored) {
+            // the cache is shut down
+        }
+    }
+
+    private void update() {
+        synchronized (this) {
+            isUpdateScheduled = false;
+        }
+        Set<OwnedTxOut> unspentTxOuts = txOutStore.getUnspentTxOuts();
+        List<UnsignedLong> pending = new ArrayList<>();
+        long rootBlock;
+        synchronized (this) {
+            rootBlock = requestedRootBlock;
+            HashSet<Long> unspentIndices = new HashSet<>();
+            long refreshBefore = System.nanoTime() - maxAgeNanos / 2;
+            for (OwnedTxOut txOut : unspentTxOuts) {
+                long index = txOut.getTxOutGlobalIndex().longValue();
+                unspentIndices.add(index);
+                CachedProof proof = proofs.get(index);
+                if (proof == null || proof.fetchedAt - refreshBefore < 0
+                        || (rootBlock != 0 && proof.merkleRootBlock != rootBlock)) {
+                    pending.add(UnsignedLong.fromLongBits(index));
+                }
+            }
+            proofs.keySet().retainAll(unspentIndices);
+        }
+        for (int start = 0; start < pending.size(); start += BATCH_SIZE) {
+            List<UnsignedLong> batch =
+                    pending.subList(start, Math.min(start + BATCH_SIZE, pending.size()));
+            try {
+                // 0 requests the proofs relative to the latest block, the following batches
+                // share the root of the first one
+                Ledger.GetOutputsResponse response = ledgerClient.getOutputs(batch, rootBlock);
+                if (rootBlock == 0) {
+                    rootBlock = response.getNumBlocks() - 1;
+                }
+                addProofs(response.getResultsList(), indicesOf(batch), rootBlock);
+            } catch (InvalidFogResponse | AttestationException | NetworkException
+                    | RuntimeException exception) {
+                // the missing proofs are fetched again with the next update
+                Logger.w(TAG, "Unable to fetch the TxOut proofs", exception);
+                return;
+            }
+        }
+        if (!pending.isEmpty()) {
+            Logger.d(TAG, "TxOut proofs updated", null, "fetched:", pending.size());
+        }
+    }
+
+    @NonNull
+    private static Set<Long> indicesOf(@NonNull List<UnsignedLong> batch) {
+        HashSet<Long> indices = new HashSet<>();
+        for (UnsignedLong index : batch) {
+            indices.add(index.longValue());
+        }
+        return indices;
+    }
+
+    private synchronized void addProofs(@NonNull List<Ledger.OutputResult> results,
+                                        @NonNull Set<Long> requestedIndices,
+                                        long merkleRootBlock) {
+        if (isShutdown) {
+            return;
+        }
+        long fetchedAt = System.nanoTime();
+        for (Ledger.OutputResult result : results) {
+            if (result.getResultCode() == Ledger.OutputResultCode.Exists_VALUE
+                    && requestedIndices.contains(result.getIndex())) {
+                proofs.put(result.getIndex(),
+                        new CachedProof(result, merkleRootBlock, fetchedAt));
+            }
+        }
+    }
+
+    private static final class CachedProof {
+        final Ledger.OutputResult output;
+        // the block of the Merkle root the proof is relative to
+        final long merkleRootBlock;
+        // System.nanoTime() of the moment the proof was fetched
+        final long fetchedAt;
+
+        CachedProof(@NonNull Ledger.OutputResult output, long merkleRootBlock, long fetchedAt) {
+            this.output = output;
+            this.merkleRootBlock = merkleRootBlock;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
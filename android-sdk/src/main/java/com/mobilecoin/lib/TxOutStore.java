@@ -14,17 +14,15 @@ import com.mobilecoin.lib.exceptions.KexRngException;
 import com.mobilecoin.lib.exceptions.NetworkException;
 import com.mobilecoin.lib.exceptions.SerializationException;
 import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.metrics.Metrics;
 import com.mobilecoin.lib.util.Hex;
 import fog_common.FogCommon;
 import fog_ledger.Ledger;
 import fog_view.View;
 import fog_view.View.DecommissionedIngestInvocation;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -36,14 +34,20 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 final class TxOutStore implements Parcelable {
     private static final String TAG = TxOutStore.class.getName();
 
-    // Bump serial version and read/write code if fields change
-    private static final long serialVersionUID = 2L;
+    // The binary format starts with the magic, the parcel format starts with the seeds count
+    // which never reaches the value of the magic bytes
+    private static final byte[] FORMAT_MAGIC = {'M', 'C', 'T', 'S'};
+    // Bump the format version if fields change
+    private static final int FORMAT_VERSION = 1;
+    private static final int ESTIMATED_HEADER_SIZE = 64;
+    private static final int ESTIMATED_TXO_SIZE = 96;
 
     // A map of nonce -> Seed.
     private HashMap<Integer, FogSeed> seeds;
@@ -62,10 +66,27 @@ final class TxOutStore implements Parcelable {
     // TxOuts recovered from missed blocks
     private ConcurrentLinkedQueue<OwnedTxOut> recoveredTxOuts;
 
+    // The seeds, the decommissioned ids and the recovered TxOuts of a deserialized store are
+    // decoded when they are first needed, the cursors are decoded eagerly
+    @Nullable
+    private BinaryDecoder unloadedContents;
+    // Journal entries recorded after the unloaded contents, replayed once they are decoded
+    @Nullable
+    private BinaryDecoder unloadedJournal;
+    private int unloadedJournalEntryCount;
+    // Set when a part of the serialized state could not be decoded
+    private boolean isSnapshotRequired;
+
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
     TxOutStore(@NonNull AccountKey accountKey) {
+        this();
+        this.accountKey = accountKey;
+    }
+
+    private TxOutStore() {
         this.seeds = new HashMap<>();
         this.decommissionedIngestInvocationIds = new HashSet<>();
-        this.accountKey = accountKey;
         this.ledgerBlockIndex = UnsignedLong.ZERO;
         this.viewBlockIndex = UnsignedLong.ZERO;
         this.recoveredTxOuts = new ConcurrentLinkedQueue<>();
@@ -77,23 +98,202 @@ final class TxOutStore implements Parcelable {
 
     @NonNull
     static TxOutStore fromBytes(@NonNull byte[] serialized) throws SerializationException {
+        return fromBuffer(ByteBuffer.wrap(serialized));
+    }
+
+    /**
+     * Deserializes the store from the remaining bytes of the buffer without copying them, the
+     * position of the buffer is not changed
+     */
+    @NonNull
+    static TxOutStore fromBuffer(@NonNull ByteBuffer serialized) throws SerializationException {
         Logger.i(TAG, "Deserializing the txo store from bytes");
-        Parcel parcel = Parcel.obtain();
-        parcel.unmarshall(serialized, 0, serialized.length);
-        parcel.setDataPosition(0);
-        TxOutStore deserialized = CREATOR.createFromParcel(parcel);
-        parcel.recycle();
-        return deserialized;
+        if (!isBinaryFormat(serialized)) {
+            // stores cached by the previous versions are rewritten in the binary format
+            // the next time they are serialized
+            Logger.i(TAG, "Migrating the txo store from the parcel format");
+            byte[] parcelBytes = new byte[serialized.remaining()];
+            serialized.duplicate().get(parcelBytes);
+            return fromParcelBytes(parcelBytes);
+        }
+        long startTime = System.nanoTime();
+        BinaryDecoder decoder = new BinaryDecoder(serialized);
+        decoder.readRaw(FORMAT_MAGIC.length);
+        long version = decoder.readVarint();
+        if (version > FORMAT_VERSION) {
+            throw new SerializationException("Unsupported txo store format version " + version);
+        }
+        TxOutStore store = new TxOutStore();
+        BinaryDecoder state = decoder.readRecord();
+        store.ledgerBlockIndex = UnsignedLong.fromLongBits(state.readVarint());
+        store.viewBlockIndex = UnsignedLong.fromLongBits(state.readVarint());
+        store.lastKnownFogViewEventId = state.readVarint();
+        if (state.readByte() != 0) {
+            store.ledgerTotalTxCount = UnsignedLong.fromLongBits(state.readVarint());
+        }
+        // only the framing of the contents is checked here, so a truncated store is still
+        // rejected before it is used
+        skipContents(decoder.duplicate());
+        store.unloadedContents = decoder;
+        Metrics.recordStage(Metrics.Stage.STORE_RESTORE, System.nanoTime() - startTime);
+        return store;
+    }
+
+    private static void skipContents(@NonNull BinaryDecoder contents)
+            throws SerializationException {
+        long seedCount = contents.readVarint();
+        for (long i = 0; i < seedCount; ++i) {
+            contents.readVarint();
+            contents.readRecord();
+        }
+        long decommissionedIdCount = contents.readVarint();
+        for (long i = 0; i < decommissionedIdCount; ++i) {
+            contents.readFixed64();
+        }
+        long recoveredTxOutCount = contents.readVarint();
+        for (long i = 0; i < recoveredTxOutCount; ++i) {
+            contents.readRecord();
+        }
+    }
+
+    private void readContents(@NonNull BinaryDecoder contents) throws SerializationException {
+        long seedCount = contents.readVarint();
+        for (long i = 0; i < seedCount; ++i) {
+            int key = (int) contents.readVarint();
+            seeds.put(key, FogSeed.readFrom(contents));
+        }
+        long decommissionedIdCount = contents.readVarint();
+        for (long i = 0; i < decommissionedIdCount; ++i) {
+            decommissionedIngestInvocationIds.add(contents.readFixed64());
+        }
+        long recoveredTxOutCount = contents.readVarint();
+        for (long i = 0; i < recoveredTxOutCount; ++i) {
+            recoveredTxOuts.add(OwnedTxOut.readFrom(contents));
+        }
+    }
+
+    /**
+     * Decodes the contents of a deserialized store and replays the journal recorded after it. A
+     * store which cannot be decoded is reset and synchronized again from the start.
+     */
+    private synchronized void ensureLoaded() {
+        BinaryDecoder contents = unloadedContents;
+        if (contents == null) {
+            return;
+        }
+        unloadedContents = null;
+        long startTime = System.nanoTime();
+        try {
+            readContents(contents);
+        } catch (SerializationException exception) {
+            Logger.w(TAG, "Unable to load the txo store, resetting it", exception);
+            seeds.clear();
+            decommissionedIngestInvocationIds.clear();
+            recoveredTxOuts.clear();
+            ledgerBlockIndex = UnsignedLong.ZERO;
+            viewBlockIndex = UnsignedLong.ZERO;
+            lastKnownFogViewEventId = 0;
+            ledgerTotalTxCount = null;
+            unloadedJournal = null;
+            isSnapshotRequired = true;
+        }
+        BinaryDecoder journal = unloadedJournal;
+        if (journal != null) {
+            unloadedJournal = null;
+            if (!applyJournal(journal, unloadedJournalEntryCount)) {
+                isSnapshotRequired = true;
+            }
+        }
+        Metrics.recordStage(Metrics.Stage.STORE_LOAD, System.nanoTime() - startTime);
     }
 
     @NonNull
-    byte[] toByteArray() throws SerializationException {
+    synchronized byte[] toByteArray() throws SerializationException {
         Logger.i(TAG, "Serializing txo store");
+        // unchanged contents are copied without decoding them
+        BinaryDecoder contents = (unloadedJournal == null && unloadedContents != null)
+                ? unloadedContents.duplicate()
+                : null;
+        if (contents == null) {
+            ensureLoaded();
+        }
+        int txOutCount = recoveredTxOuts.size();
+        for (FogSeed seed : seeds.values()) {
+            txOutCount += seed.getTxOuts().size();
+        }
+        BinaryEncoder encoder = new BinaryEncoder(ESTIMATED_HEADER_SIZE
+                + (contents != null ? contents.remaining() : txOutCount * ESTIMATED_TXO_SIZE));
+        encoder.writeRaw(FORMAT_MAGIC);
+        encoder.writeVarint(FORMAT_VERSION);
+        int state = encoder.beginRecord();
+        encoder.writeVarint(ledgerBlockIndex.longValue());
+        encoder.writeVarint(viewBlockIndex.longValue());
+        encoder.writeVarint(lastKnownFogViewEventId);
+        encoder.writeByte(ledgerTotalTxCount != null ? 1 : 0);
+        if (ledgerTotalTxCount != null) {
+            encoder.writeVarint(ledgerTotalTxCount.longValue());
+        }
+        encoder.endRecord(state);
+        if (contents != null) {
+            encoder.writeRaw(contents.readRaw(contents.remaining()));
+            return encoder.toByteArray();
+        }
+        encoder.writeVarint(seeds.size());
+        for (Map.Entry<Integer, FogSeed> entry : seeds.entrySet()) {
+            encoder.writeVarint(entry.getKey() & 0xFFFFFFFFL);
+            entry.getValue().writeTo(encoder);
+        }
+        encoder.writeVarint(decommissionedIngestInvocationIds.size());
+        for (Long id : decommissionedIngestInvocationIds) {
+            encoder.writeFixed64(id);
+        }
+        encoder.writeVarint(recoveredTxOuts.size());
+        for (OwnedTxOut txOut : recoveredTxOuts) {
+            txOut.writeTo(encoder);
+        }
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Restores a store serialized by {@link #toParcelBytes()}, the format used by the previous
+     * versions of the SDK
+     */
+    @NonNull
+    static TxOutStore fromParcelBytes(@NonNull byte[] serialized) {
         Parcel parcel = Parcel.obtain();
-        writeToParcel(parcel, 0);
-        byte serialized[] = parcel.marshall();
-        parcel.recycle();
-        return serialized;
+        try {
+            parcel.unmarshall(serialized, 0, serialized.length);
+            parcel.setDataPosition(0);
+            return CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * Serializes the store in the previous parcel format, which is only read for the migration
+     */
+    @NonNull
+    byte[] toParcelBytes() {
+        Parcel parcel = Parcel.obtain();
+        try {
+            writeToParcel(parcel, 0);
+            return parcel.marshall();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private static boolean isBinaryFormat(@NonNull ByteBuffer serialized) {
+        if (serialized.remaining() < FORMAT_MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < FORMAT_MAGIC.length; ++i) {
+            if (serialized.get(serialized.position() + i) != FORMAT_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -102,24 +302,38 @@ final class TxOutStore implements Parcelable {
      */
     @NonNull
     synchronized Set<OwnedTxOut> getSyncedTxOuts() {
+        ensureLoaded();
         // it's possible to have overlapping TxOuts in different Seeds
         // HashSet will leave the set unchanged if the element exists
         HashSet<OwnedTxOut> syncedTxOuts = new HashSet<>();
         for (FogSeed seed : seeds.values()) {
             for (OwnedTxOut txOut : seed.getTxOuts()) {
                 if ((getCurrentBlockIndex().equals(UnsignedLong.ZERO)
-                        || (txOut.getReceivedBlockIndex().compareTo(getCurrentBlockIndex()) <= 0))) {
+                        || txOut.isReceived(getCurrentBlockIndex()))) {
                     syncedTxOuts.add(txOut);
                 }
             }
         }
         syncedTxOuts.addAll(recoveredTxOuts.stream().filter(txOut ->
                 getCurrentBlockIndex().equals(UnsignedLong.ZERO)
-                        || txOut.getReceivedBlockIndex().compareTo(getCurrentBlockIndex()) <= 0)
+                        || txOut.isReceived(getCurrentBlockIndex()))
                 .collect(Collectors.toList()));
         return syncedTxOuts;
     }
 
+    /**
+     * @return all the TxOuts found so far, including the ones received after the current block
+     */
+    @NonNull
+    synchronized Set<OwnedTxOut> getAllTxOuts() {
+        ensureLoaded();
+        HashSet<OwnedTxOut> txOuts = new HashSet<>(recoveredTxOuts);
+        for (FogSeed seed : seeds.values()) {
+            txOuts.addAll(seed.getTxOuts());
+        }
+        return txOuts;
+    }
+
     @NonNull
     Set<OwnedTxOut> getUnspentTxOuts() {
         return getSyncedTxOuts().stream().filter(p -> !p.isSpent(getCurrentBlockIndex()))
@@ -164,8 +378,11 @@ final class TxOutStore implements Parcelable {
                                 .filter(blockRange -> (blockRange.getEnd().compareTo(finalMinBlockIndex) < 0))
                                 .collect(Collectors.toSet());
                 // fetch any missed TxOuts
+                long scanStartTime = System.nanoTime();
                 Set<OwnedTxOut> missedTxOuts = fetchFogMisses(filteredFogMisses, blockClient);
-                recoveredTxOuts.addAll(missedTxOuts);
+                Metrics.recordStage(Metrics.Stage.FOG_MISSES_SCAN,
+                        System.nanoTime() - scanStartTime);
+                addRecoveredTxOuts(missedTxOuts);
             }
         } catch (KexRngException exception) {
             throw new InvalidFogResponse("Invalid KexRng", exception);
@@ -187,6 +404,7 @@ final class TxOutStore implements Parcelable {
             @NonNull VersionedCryptoBox cryptoBox)
             throws InvalidFogResponse, NetworkException, AttestationException, KexRngException {
         Logger.i(TAG, "Updating owned TxOuts");
+        ensureLoaded();
 
         Stack<FogSeed> pendingSeeds = new Stack<>();
         HashSet<BlockRange> missedRanges = new HashSet<>();
@@ -205,38 +423,51 @@ final class TxOutStore implements Parcelable {
                 } else {
                     allTXOsRetrieved = true;
                 }
+                long queryStartTime = System.nanoTime();
                 View.QueryResponse result = viewClient
                     .request(searchKeys, lastKnownFogViewEventId, viewBlockIndex.longValue());
+                Metrics.recordStage(Metrics.Stage.VIEW_QUERY, System.nanoTime() - queryStartTime);
                 for (DecommissionedIngestInvocation decommissionedIngestInvocation : result
                     .getDecommissionedIngestInvocationsList()) {
-                  decommissionedIngestInvocationIds.add(decommissionedIngestInvocation.getIngestInvocationId());
+                  long ingestInvocationId = decommissionedIngestInvocation.getIngestInvocationId();
+                  if (decommissionedIngestInvocationIds.add(ingestInvocationId)) {
+                      for (ChangeListener changeListener : changeListeners) {
+                          changeListener.onIngestInvocationDecommissioned(ingestInvocationId);
+                      }
+                  }
                 }
                 for (FogCommon.BlockRange fogRange : result.getMissedBlockRangesList()) {
                     BlockRange range = new BlockRange(fogRange);
                     missedRanges.add(range);
                 }
-                Logger.d(TAG, String.format(Locale.US, "Received %d missed block ranges",
+                Logger.d(TAG, () -> String.format(Locale.US, "Received %d missed block ranges",
                         result.getMissedBlockRangesCount()));
-                Logger.d(TAG, String.format(Locale.US, "Received %d RNGs", result.getRngsCount()));
+                Logger.d(TAG, () -> String.format(Locale.US, "Received %d RNGs",
+                        result.getRngsCount()));
                 for (View.RngRecord rngRecord : result.getRngsList()) {
                     FogSeed existingSeed =
                             seeds.get(Arrays.hashCode(rngRecord.getPubkey().getPubkey().toByteArray()));
                     if (existingSeed == null) {
-                        Logger.d(TAG, String.format(TAG, "Adding the RNG seed %s",
+                        Logger.d(TAG, () -> String.format(Locale.US, "Adding the RNG seed %s",
                                 Hex.toString(rngRecord.getPubkey().getPubkey().toByteArray()))
                         );
                         FogSeed newSeed = fogSeedProvider.fogSeedFor(
                                 accountKey.getSubAddressViewKey(),
                                 rngRecord
                         );
+                        int seedKey =
+                                Arrays.hashCode(rngRecord.getPubkey().getPubkey().toByteArray());
                         seeds.put(
-                                Arrays.hashCode(rngRecord.getPubkey().getPubkey().toByteArray()),
+                                seedKey,
                                 newSeed
                         );
+                        for (ChangeListener changeListener : changeListeners) {
+                            changeListener.onSeedAdded(seedKey, newSeed);
+                        }
                         // received a new seed
                         pendingSeeds.add(newSeed);
                     } else {
-                        Logger.d(TAG, String.format(TAG,
+                        Logger.d(TAG, () -> String.format(Locale.US,
                                 "The RNG seed %s is found in cache, updating the record",
                                 Hex.toString(rngRecord.getPubkey().getPubkey().toByteArray()))
                         );
@@ -255,6 +486,7 @@ final class TxOutStore implements Parcelable {
                     switch (txResult.getResultCode()) {
                         case View.TxOutSearchResultCode.Found_VALUE: {
                             // Decrypt the TxOut
+                            long decryptStartTime = System.nanoTime();
                             try {
                                 byte[] plainText = cryptoBox.versionedCryptoBoxDecrypt(
                                         accountKey.getSubAddressViewKey(),
@@ -262,11 +494,17 @@ final class TxOutStore implements Parcelable {
                                 );
                                 View.TxOutRecord record = View.TxOutRecord.parseFrom(plainText);
                                 // Advance RNG.
-                                seed.addTXO(cryptoBox.ownedTxOutFor(
+                                OwnedTxOut txOut = cryptoBox.ownedTxOutFor(
                                         record,
                                         accountKey
-                                ));
-                                Logger.d(TAG, "Found TxOut in block with index " +
+                                );
+                                seed.addTXO(txOut);
+                                for (ChangeListener changeListener : changeListeners) {
+                                    changeListener.onTxOutAdded(getSeedKey(seed), txOut);
+                                }
+                                Metrics.recordStage(Metrics.Stage.TXO_DECRYPTION,
+                                        System.nanoTime() - decryptStartTime);
+                                Logger.d(TAG, () -> "Found TxOut in block with index " +
                                         record.getBlockIndex()
                                 );
                             } catch (InvalidProtocolBufferException exception) {
@@ -287,12 +525,16 @@ final class TxOutStore implements Parcelable {
                             allTXOsRetrieved = true;
                             if (isSeedDecommissioned(seed)) {
                                 seed.markObsolete();
+                                for (ChangeListener changeListener : changeListeners) {
+                                    changeListener.onSeedObsolete(getSeedKey(seed));
+                                }
                             }
                             long blockCount = result.getHighestProcessedBlockCount();
                             viewBlockIndex = (blockCount != 0)
                                     ? UnsignedLong.fromLongBits(blockCount).sub(UnsignedLong.ONE)
                                     : UnsignedLong.ZERO;
                             lastKnownFogViewEventId = result.getNextStartFromUserEventId();
+                            notifyCursorsChanged();
                             Logger.i(TAG, "View Request completed blockIndex = " + viewBlockIndex);
                             break;
                         }
@@ -308,7 +550,8 @@ final class TxOutStore implements Parcelable {
       return decommissionedIngestInvocationIds.contains(seed.getIngestInvocationId());
     }
 
-    void updateTxOutsSpentState(Ledger.CheckKeyImagesResponse keyImagesResponse) throws InvalidFogResponse {
+    synchronized void updateTxOutsSpentState(Ledger.CheckKeyImagesResponse keyImagesResponse)
+            throws InvalidFogResponse {
         for (Ledger.KeyImageResult result : keyImagesResponse.getResultsList()) {
             if (result.getKeyImageResultCode() == Ledger.KeyImageResultCode.NotSpent_VALUE) {
                 continue;
@@ -331,24 +574,28 @@ final class TxOutStore implements Parcelable {
                     UnsignedLong.fromLongBits(result.getSpentAt()),
                     spentBlockTimestamp
             );
-            Logger.d(TAG, String.format(Locale.US,
+            for (ChangeListener changeListener : changeListeners) {
+                changeListener.onTxOutSpent(utxo);
+            }
+            Logger.d(TAG, () -> String.format(Locale.US,
                     "TxOut has been marked spent in block %s",
                     Objects.requireNonNull(utxo.getSpentBlockIndex()).toString())
             );
         }
-        synchronized (this) {
-            ledgerTotalTxCount = UnsignedLong.fromLongBits(keyImagesResponse.getGlobalTxoCount());
-            ledgerBlockIndex = UnsignedLong.fromLongBits(keyImagesResponse.getNumBlocks())
-                    .sub(UnsignedLong.ONE);
-        }
+        ledgerTotalTxCount = UnsignedLong.fromLongBits(keyImagesResponse.getGlobalTxoCount());
+        ledgerBlockIndex = UnsignedLong.fromLongBits(keyImagesResponse.getNumBlocks())
+                .sub(UnsignedLong.ONE);
+        notifyCursorsChanged();
     }
 
     void updateKeyImages(@NonNull AttestedLedgerClient ledgerClient)
             throws InvalidFogResponse, NetworkException, AttestationException {
         Logger.i(TAG, "Checking unspent TXOs key images");
+        long startTime = System.nanoTime();
         Set<OwnedTxOut> txOuts = getUnspentTxOuts();
         Ledger.CheckKeyImagesResponse response = ledgerClient.checkUtxoKeyImages(txOuts);
         updateTxOutsSpentState(response);
+        Metrics.recordStage(Metrics.Stage.KEY_IMAGE_CHECK, System.nanoTime() - startTime);
     }
 
     /**
@@ -368,6 +615,176 @@ final class TxOutStore implements Parcelable {
         return recovered;
     }
 
+    synchronized void addRecoveredTxOuts(@NonNull Collection<OwnedTxOut> txOuts) {
+        ensureLoaded();
+        recoveredTxOuts.addAll(txOuts);
+        for (ChangeListener changeListener : changeListeners) {
+            for (OwnedTxOut txOut : txOuts) {
+                changeListener.onTxOutRecovered(txOut);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener notified of every change of the store, the listeners are called while the
+     * store is locked
+     */
+    void addChangeListener(@NonNull ChangeListener changeListener) {
+        changeListeners.add(changeListener);
+    }
+
+    void removeChangeListener(@NonNull ChangeListener changeListener) {
+        changeListeners.remove(changeListener);
+    }
+
+    /**
+     * Serializes the store and discards the changes pending in the journal, which are already
+     * part of the serialized store
+     */
+    @NonNull
+    synchronized byte[] toSnapshot(@NonNull TxOutStoreJournal journal)
+            throws SerializationException {
+        byte[] snapshot = toByteArray();
+        journal.reset();
+        isSnapshotRequired = false;
+        return snapshot;
+    }
+
+    /**
+     * Applies the changes recorded by a {@link TxOutStoreJournal} to this store
+     *
+     * @return {@code false} if the journal ends with a truncated or unreadable entry, the entries
+     * before it are applied
+     */
+    synchronized boolean replayJournal(@NonNull BinaryDecoder journal) {
+        if (unloadedContents == null || unloadedJournal != null) {
+            ensureLoaded();
+            return applyJournal(journal, Integer.MAX_VALUE);
+        }
+        // only the cursors are applied until the contents are loaded
+        BinaryDecoder entries = journal.duplicate();
+        int entryCount = 0;
+        boolean isComplete = true;
+        try {
+            while (journal.hasRemaining()) {
+                BinaryDecoder entry = journal.readRecord();
+                if (entry.readByte() == TxOutStoreJournal.ENTRY_CURSORS) {
+                    readCursors(entry);
+                }
+                ++entryCount;
+            }
+        } catch (SerializationException exception) {
+            Logger.w(TAG, "Unable to read the journal entry", exception);
+            isComplete = false;
+        }
+        unloadedJournal = entries;
+        unloadedJournalEntryCount = entryCount;
+        return isComplete;
+    }
+
+    private boolean applyJournal(@NonNull BinaryDecoder journal, int maxEntryCount) {
+        HashMap<Integer, OwnedTxOut> txOutsByKeyImage = new HashMap<>();
+        for (FogSeed seed : seeds.values()) {
+            for (OwnedTxOut txOut : seed.getTxOuts()) {
+                txOutsByKeyImage.put(txOut.getKeyImageHashCode(), txOut);
+            }
+        }
+        for (OwnedTxOut txOut : recoveredTxOuts) {
+            txOutsByKeyImage.put(txOut.getKeyImageHashCode(), txOut);
+        }
+        try {
+            for (int i = 0; i < maxEntryCount && journal.hasRemaining(); ++i) {
+                BinaryDecoder entry = journal.readRecord();
+                int entryType = entry.readByte();
+                switch (entryType) {
+                    case TxOutStoreJournal.ENTRY_SEED_ADDED: {
+                        int seedKey = (int) entry.readVarint();
+                        seeds.put(seedKey, FogSeed.readFrom(entry));
+                        break;
+                    }
+                    case TxOutStoreJournal.ENTRY_TXO_ADDED: {
+                        FogSeed seed = seeds.get((int) entry.readVarint());
+                        OwnedTxOut txOut = OwnedTxOut.readFrom(entry);
+                        if (seed == null) {
+                            throw new SerializationException("TxOut of an unknown seed");
+                        }
+                        seed.addTXO(txOut);
+                        txOutsByKeyImage.put(txOut.getKeyImageHashCode(), txOut);
+                        break;
+                    }
+                    case TxOutStoreJournal.ENTRY_SEED_OBSOLETE: {
+                        FogSeed seed = seeds.get((int) entry.readVarint());
+                        if (seed != null) {
+                            seed.markObsolete();
+                        }
+                        break;
+                    }
+                    case TxOutStoreJournal.ENTRY_DECOMMISSIONED: {
+                        decommissionedIngestInvocationIds.add(entry.readFixed64());
+                        break;
+                    }
+                    case TxOutStoreJournal.ENTRY_TXO_RECOVERED: {
+                        OwnedTxOut txOut = OwnedTxOut.readFrom(entry);
+                        recoveredTxOuts.add(txOut);
+                        txOutsByKeyImage.put(txOut.getKeyImageHashCode(), txOut);
+                        break;
+                    }
+                    case TxOutStoreJournal.ENTRY_TXO_SPENT: {
+                        OwnedTxOut txOut =
+                                txOutsByKeyImage.get(Arrays.hashCode(entry.readKey()));
+                        UnsignedLong spentBlockIndex = UnsignedLong.fromLongBits(entry.readVarint());
+                        Date spentBlockTimestamp = (entry.readByte() != 0)
+                                ? new Date(entry.readVarint())
+                                : null;
+                        if (txOut != null) {
+                            txOut.setSpent(spentBlockIndex, spentBlockTimestamp);
+                        }
+                        break;
+                    }
+                    case TxOutStoreJournal.ENTRY_CURSORS: {
+                        readCursors(entry);
+                        break;
+                    }
+                    default:
+                        // entries added by newer versions are skipped
+                        Logger.w(TAG, "Skipping unknown journal entry " + entryType);
+                }
+            }
+        } catch (SerializationException | KexRngException exception) {
+            Logger.w(TAG, "Unable to replay the journal entry", exception);
+            return false;
+        }
+        return true;
+    }
+
+    private void readCursors(@NonNull BinaryDecoder entry) throws SerializationException {
+        ledgerBlockIndex = UnsignedLong.fromLongBits(entry.readVarint());
+        viewBlockIndex = UnsignedLong.fromLongBits(entry.readVarint());
+        lastKnownFogViewEventId = entry.readVarint();
+        ledgerTotalTxCount = (entry.readByte() != 0)
+                ? UnsignedLong.fromLongBits(entry.readVarint())
+                : null;
+    }
+
+    /**
+     * @return {@code true} if a part of the restored state could not be decoded and the store has
+     * to be serialized again in full
+     */
+    synchronized boolean isSnapshotRequired() {
+        return isSnapshotRequired;
+    }
+
+    private static int getSeedKey(@NonNull FogSeed seed) {
+        return Arrays.hashCode(seed.getNonce());
+    }
+
+    private void notifyCursorsChanged() {
+        for (ChangeListener changeListener : changeListeners) {
+            changeListener.onCursorsChanged(ledgerBlockIndex, viewBlockIndex,
+                    lastKnownFogViewEventId, ledgerTotalTxCount);
+        }
+    }
+
     @Nullable
     OwnedTxOut getUtxoByKeyImage(@NonNull byte[] keyImage) {
         int keyImageHashCode = Arrays.hashCode(keyImage);
@@ -380,28 +797,6 @@ final class TxOutStore implements Parcelable {
         return null;
     }
 
-    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
-        out.writeLong(lastKnownFogViewEventId);
-        out.writeObject(ledgerBlockIndex);
-        out.writeObject(viewBlockIndex);
-        out.writeObject(ledgerTotalTxCount);
-        out.writeObject(seeds);
-        out.writeObject(decommissionedIngestInvocationIds);
-        out.writeObject(recoveredTxOuts);
-    }
-
-    @SuppressWarnings("unchecked")
-    private synchronized void readObject(ObjectInputStream in)
-            throws IOException, ClassNotFoundException {
-        lastKnownFogViewEventId = in.readLong();
-        ledgerBlockIndex = (UnsignedLong) in.readObject();
-        viewBlockIndex = (UnsignedLong) in.readObject();
-        ledgerTotalTxCount = (UnsignedLong) in.readObject();
-        seeds = (HashMap<Integer, FogSeed>) in.readObject();
-        decommissionedIngestInvocationIds = (Set<Long>) in.readObject();
-        recoveredTxOuts = new ConcurrentLinkedQueue<>();
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -411,6 +806,8 @@ final class TxOutStore implements Parcelable {
             return false;
         }
         TxOutStore that = (TxOutStore) o;
+        ensureLoaded();
+        that.ensureLoaded();
 
         return lastKnownFogViewEventId == that.lastKnownFogViewEventId &&
             Objects.equals(ledgerBlockIndex, that.ledgerBlockIndex) &&
@@ -439,6 +836,7 @@ final class TxOutStore implements Parcelable {
      */
     @Override
     public void writeToParcel(Parcel parcel, int flags) {
+        ensureLoaded();
         parcel.writeInt(seeds.size());
         for(Map.Entry<Integer, FogSeed> entry : this.seeds.entrySet()) {
             parcel.writeInt(entry.getKey());
@@ -506,4 +904,26 @@ final class TxOutStore implements Parcelable {
         }
     }
 
+    /**
+     * Receives the changes of a {@link TxOutStore} as they are made
+     */
+    interface ChangeListener {
+        void onSeedAdded(int seedKey, @NonNull FogSeed seed);
+
+        void onTxOutAdded(int seedKey, @NonNull OwnedTxOut txOut);
+
+        void onSeedObsolete(int seedKey);
+
+        void onIngestInvocationDecommissioned(long ingestInvocationId);
+
+        void onTxOutRecovered(@NonNull OwnedTxOut txOut);
+
+        void onTxOutSpent(@NonNull OwnedTxOut txOut);
+
+        void onCursorsChanged(@NonNull UnsignedLong ledgerBlockIndex,
+                              @NonNull UnsignedLong viewBlockIndex,
+                              long lastKnownFogViewEventId,
+                              @Nullable UnsignedLong ledgerTotalTxCount);
+    }
+
 }
@@ -0,0 +1,161 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.log.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves a {@link TxOutStore} in the background according to an {@link AutosavePolicy}
+ * <p>
+ * The saver watches the store for changes and estimates their encoded size. The changes are
+ * coalesced into a save scheduled {@code maxLatency} after the first unsaved change, or run
+ * immediately once the unsaved changes reach {@code maxBytes}.
+ */
+final class TxOutStoreAutosaver implements TxOutStore.ChangeListener {
+    private static final String TAG = TxOutStoreAutosaver.class.getName();
+    // estimated sizes of the journal entries
+    private static final long SEED_CHANGE_BYTES = 256;
+    private static final long TXO_CHANGE_BYTES = 100;
+    private static final long SMALL_CHANGE_BYTES = 48;
+
+    private final AutosavePolicy policy;
+    private final Saver saver;
+    private final ScheduledExecutorService executorService;
+    // guarded by this
+    private long unsavedBytes;
+    @Nullable
+    private ScheduledFuture<?> scheduledSave;
+    private boolean isShutdown;
+
+    TxOutStoreAutosaver(@NonNull AutosavePolicy policy, @NonNull Saver saver) {
+        this.policy = policy;
+        this.saver = saver;
+        this.executorService = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Save the unsaved changes on the calling thread and stop the background saves
+     */
+    void shutdown() {
+        synchronized (this) {
+            if (isShutdown) {
+                return;
+            }
+            isShutdown = true;
+            if (scheduledSave != null) {
+                scheduledSave.cancel(false);
+                scheduledSave = null;
+            }
+        }
+        executorService.shutdown();
+        try {
+            // let the running save finish before flushing
+            executorService.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        // a save that failed while awaited leaves unsaved changes behind
+        boolean hasUnsavedChanges;
+        synchronized (this) {
+            hasUnsavedChanges = unsavedBytes > 0;
+        }
+        if (hasUnsavedChanges) {
+            save();
+        }
+    }
+
+    @Override
+    public void onSeedAdded(int seedKey, @NonNull FogSeed seed) {
+        onChange(SEED_CHANGE_BYTES);
+    }
+
+    @Override
+    public void onTxOutAdded(int seedKey, @NonNull OwnedTxOut txOut) {
+        onChange(TXO_CHANGE_BYTES);
+    }
+
+    @Override
+    public void onSeedObsolete(int seedKey) {
+        onChange(SMALL_CHANGE_BYTES);
+    }
+
+    @Override
+    public void onIngestInvocationDecommissioned(long ingestInvocationId) {
+        onChange(SMALL_CHANGE_BYTES);
+    }
+
+    @Override
+    public void onTxOutRecovered(@NonNull OwnedTxOut txOut) {
+        onChange(TXO_CHANGE_BYTES);
+    }
+
+    @Override
+    public void onTxOutSpent(@NonNull OwnedTxOut txOut) {
+        onChange(SMALL_CHANGE_BYTES);
+    }
+
+    @Override
+    public void onCursorsChanged(@NonNull UnsignedLong ledgerBlockIndex,
+                                 @NonNull UnsignedLong viewBlockIndex,
+                                 long lastKnownFogViewEventId,
+                                 @Nullable UnsignedLong ledgerTotalTxCount) {
+        onChange(SMALL_CHANGE_BYTES);
+    }
+
+    // called while the store is locked, so it only schedules the save
+    private synchronized void onChange(long changeBytes) {
+        unsavedBytes += changeBytes;
+        if (isShutdown) {
+            return;
+        }
+        if (unsavedBytes >= policy.getMaxBytes()) {
+            if (scheduledSave == null || scheduledSave.cancel(false)) {
+                schedule(0);
+            }
+        } else if (scheduledSave == null) {
+            schedule(policy.getMaxLatency().toMillis());
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        try {
+            scheduledSave = executorService.schedule(this::save, delayMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException exception) {
+            scheduledSave = null;
+        }
+    }
+
+    private void save() {
+        synchronized (this) {
+            scheduledSave = null;
+            unsavedBytes = 0;
+        }
+        try {
+            saver.save();
+            Logger.d(TAG, "Saved the TxOutStore");
+        } catch (Exception exception) {
+            Logger.w(TAG, "Unable to save the TxOutStore", exception);
+            // retry with the next change or on shutdown
+            synchronized (this) {
+                unsavedBytes = Math.max(unsavedBytes, 1);
+            }
+        }
+    }
+
+    /**
+     * Persists the store
+     */
+    interface Saver {
+        void save() throws Exception;
+    }
+}
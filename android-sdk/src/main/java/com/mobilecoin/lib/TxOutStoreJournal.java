@@ -0,0 +1,303 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mobilecoin.lib.exceptions.SerializationException;
+import com.mobilecoin.lib.log.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.zip.CRC32;
+
+/**
+ * Journaled persistence of a {@link TxOutStore}
+ * <p>
+ * The store is persisted as a snapshot in the {@link TxOutStore} binary format followed by an
+ * append-only journal of the changes made since the snapshot was taken. Persisting the store
+ * appends the changes collected since the previous call, so its cost does not depend on the size
+ * of the account. Once the journal grows past a fraction of the snapshot the store is compacted
+ * into a new snapshot. On load the journal is replayed on top of the snapshot.
+ * <p>
+ * The journal header records the checksum of the snapshot it applies to, a journal left behind by
+ * an interrupted compaction is not replayed on top of the newer snapshot.
+ */
+final class TxOutStoreJournal implements TxOutStore.ChangeListener {
+    private static final String TAG = TxOutStoreJournal.class.getName();
+
+    // journal entry types
+    static final int ENTRY_SEED_ADDED = 1;
+    static final int ENTRY_TXO_ADDED = 2;
+    static final int ENTRY_SEED_OBSOLETE = 3;
+    static final int ENTRY_DECOMMISSIONED = 4;
+    static final int ENTRY_TXO_RECOVERED = 5;
+    static final int ENTRY_TXO_SPENT = 6;
+    static final int ENTRY_CURSORS = 7;
+
+    private static final byte[] JOURNAL_MAGIC = {'M', 'C', 'T', 'J'};
+    // Bump the journal version if the entries change
+    private static final int JOURNAL_VERSION = 1;
+    // the journal is never compacted before it reaches this size
+    private static final long MIN_COMPACTION_SIZE = 64 * 1024;
+    // the journal is compacted when it outgrows this fraction of the snapshot
+    private static final int SNAPSHOT_TO_JOURNAL_RATIO = 4;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int CHECKSUM_CHUNK_SIZE = 64 * 1024;
+
+    private final StreamingStorageAdapter storage;
+    private final String snapshotKey;
+    private final String journalKey;
+    // guards the storage writes, never held while the changes are recorded
+    private final Object persistLock = new Object();
+
+    // changes recorded since the last persist, guarded by this
+    @NonNull
+    private BinaryEncoder pendingChanges = new BinaryEncoder(INITIAL_BUFFER_SIZE);
+    private long snapshotSize;
+    private long snapshotChecksum;
+    private long journalSize;
+    private volatile boolean compactionRequired;
+
+    TxOutStoreJournal(@NonNull StreamingStorageAdapter storage, @NonNull AccountKey accountKey) {
+        this.storage = storage;
+        this.snapshotKey = TxOutStore.createStorageKey(accountKey);
+        this.journalKey = snapshotKey + "-journal";
+    }
+
+    /**
+     * Restores the store from the snapshot and the journal, the returned store reports its changes
+     * to this journal
+     */
+    @NonNull
+    TxOutStore load(@NonNull AccountKey accountKey) {
+        synchronized (persistLock) {
+            TxOutStore store = null;
+            if (storage.has(snapshotKey)) {
+                try {
+                    ByteBuffer snapshot = storage.getBuffer(snapshotKey);
+                    if (snapshot == null) {
+                        throw new SerializationException("TxOutStore snapshot is missing");
+                    }
+                    snapshotSize = snapshot.remaining();
+                    snapshotChecksum = checksum(snapshot.duplicate());
+                    // the snapshot is decoded in place, a memory-mapped snapshot is not copied
+                    store = TxOutStore.fromBuffer(snapshot);
+                    store.setAccountKey(accountKey);
+                } catch (SerializationException exception) {
+                    Logger.w(TAG, "Failed to deserialize the TxOutStore snapshot", exception);
+                }
+            }
+            if (store != null) {
+                try {
+                    replay(store);
+                } catch (SerializationException exception) {
+                    Logger.w(TAG, "Failed to replay the TxOutStore journal", exception);
+                    compactionRequired = true;
+                }
+            }
+            if (store == null) {
+                store = new TxOutStore(accountKey);
+                compactionRequired = true;
+            }
+            store.addChangeListener(this);
+            return store;
+        }
+    }
+
+    /**
+     * Persists the changes recorded since the previous call, the store is compacted into a new
+     * snapshot when the journal grows too large
+     */
+    void persist(@NonNull TxOutStore store) throws SerializationException {
+        synchronized (persistLock) {
+            byte[] changes = drain();
+            if (compactionRequired || store.isSnapshotRequired()
+                    || journalSize + changes.length > Math.max(MIN_COMPACTION_SIZE,
+                    snapshotSize / SNAPSHOT_TO_JOURNAL_RATIO)) {
+                compact(store);
+                return;
+            }
+            if (changes.length == 0) {
+                return;
+            }
+            // a failed append may leave a partial entry behind, the next persist compacts
+            compactionRequired = true;
+            if (journalSize == 0) {
+                BinaryEncoder header = new BinaryEncoder(JOURNAL_MAGIC.length + 16);
+                header.writeRaw(JOURNAL_MAGIC);
+                header.writeVarint(JOURNAL_VERSION);
+                header.writeVarint(snapshotSize);
+                header.writeVarint(snapshotChecksum);
+                storage.append(journalKey, header.toByteArray());
+                journalSize += header.size();
+            }
+            storage.append(journalKey, changes);
+            journalSize += changes.length;
+            compactionRequired = false;
+            Logger.d(TAG, () -> "Appended " + changes.length + " bytes to the TxOutStore journal");
+        }
+    }
+
+    /**
+     * Discards the recorded changes
+     */
+    synchronized void reset() {
+        pendingChanges = new BinaryEncoder(INITIAL_BUFFER_SIZE);
+    }
+
+    @Override
+    public synchronized void onSeedAdded(int seedKey, @NonNull FogSeed seed) {
+        int entry = beginEntry(ENTRY_SEED_ADDED);
+        pendingChanges.writeVarint(seedKey & 0xFFFFFFFFL);
+        try {
+            seed.writeTo(pendingChanges);
+        } catch (SerializationException exception) {
+            // the seed can only be restored from a snapshot
+            Logger.w(TAG, "Unable to journal the new seed", exception);
+            compactionRequired = true;
+        }
+        pendingChanges.endRecord(entry);
+    }
+
+    @Override
+    public synchronized void onTxOutAdded(int seedKey, @NonNull OwnedTxOut txOut) {
+        int entry = beginEntry(ENTRY_TXO_ADDED);
+        pendingChanges.writeVarint(seedKey & 0xFFFFFFFFL);
+        txOut.writeTo(pendingChanges);
+        pendingChanges.endRecord(entry);
+    }
+
+    @Override
+    public synchronized void onSeedObsolete(int seedKey) {
+        int entry = beginEntry(ENTRY_SEED_OBSOLETE);
+        pendingChanges.writeVarint(seedKey & 0xFFFFFFFFL);
+        pendingChanges.endRecord(entry);
+    }
+
+    @Override
+    public synchronized void onIngestInvocationDecommissioned(long ingestInvocationId) {
+        int entry = beginEntry(ENTRY_DECOMMISSIONED);
+        pendingChanges.writeFixed64(ingestInvocationId);
+        pendingChanges.endRecord(entry);
+    }
+
+    @Override
+    public synchronized void onTxOutRecovered(@NonNull OwnedTxOut txOut) {
+        int entry = beginEntry(ENTRY_TXO_RECOVERED);
+        txOut.writeTo(pendingChanges);
+        pendingChanges.endRecord(entry);
+    }
+
+    @Override
+    public synchronized void onTxOutSpent(@NonNull OwnedTxOut txOut) {
+        UnsignedLong spentBlockIndex = txOut.getSpentBlockIndex();
+        if (spentBlockIndex == null) {
+            return;
+        }
+        Date spentBlockTimestamp = txOut.getSpentBlockTimestamp();
+        int entry = beginEntry(ENTRY_TXO_SPENT);
+        pendingChanges.writeKey(txOut.getKeyImage().getData());
+        pendingChanges.writeVarint(spentBlockIndex.longValue());
+        pendingChanges.writeByte(spentBlockTimestamp != null ? 1 : 0);
+        if (spentBlockTimestamp != null) {
+            pendingChanges.writeVarint(spentBlockTimestamp.getTime());
+        }
+        pendingChanges.endRecord(entry);
+    }
+
+    @Override
+    public synchronized void onCursorsChanged(@NonNull UnsignedLong ledgerBlockIndex,
+                                              @NonNull UnsignedLong viewBlockIndex,
+                                              long lastKnownFogViewEventId,
+                                              @Nullable UnsignedLong ledgerTotalTxCount) {
+        int entry = beginEntry(ENTRY_CURSORS);
+        pendingChanges.writeVarint(ledgerBlockIndex.longValue());
+        pendingChanges.writeVarint(viewBlockIndex.longValue());
+        pendingChanges.writeVarint(lastKnownFogViewEventId);
+        pendingChanges.writeByte(ledgerTotalTxCount != null ? 1 : 0);
+        if (ledgerTotalTxCount != null) {
+            pendingChanges.writeVarint(ledgerTotalTxCount.longValue());
+        }
+        pendingChanges.endRecord(entry);
+    }
+
+    private int beginEntry(int entryType) {
+        int entry = pendingChanges.beginRecord();
+        pendingChanges.writeByte(entryType);
+        return entry;
+    }
+
+    @NonNull
+    private synchronized byte[] drain() {
+        byte[] changes = pendingChanges.toByteArray();
+        pendingChanges = new BinaryEncoder(INITIAL_BUFFER_SIZE);
+        return changes;
+    }
+
+    private void compact(@NonNull TxOutStore store) throws SerializationException {
+        byte[] snapshot = store.toSnapshot(this);
+        // the snapshot is written first, a journal left behind by an interrupted compaction does
+        // not match the new snapshot and is discarded on load
+        compactionRequired = true;
+        storage.set(snapshotKey, snapshot);
+        snapshotSize = snapshot.length;
+        snapshotChecksum = checksum(ByteBuffer.wrap(snapshot));
+        storage.clear(journalKey);
+        journalSize = 0;
+        compactionRequired = false;
+        Logger.i(TAG, "Compacted the TxOutStore journal into a " + snapshot.length +
+                " bytes snapshot");
+    }
+
+    private void replay(@NonNull TxOutStore store) throws SerializationException {
+        journalSize = storage.size(journalKey);
+        if (journalSize == 0) {
+            return;
+        }
+        if (journalSize > Integer.MAX_VALUE) {
+            compactionRequired = true;
+            return;
+        }
+        byte[] journal = storage.read(journalKey, 0, (int) journalSize);
+        BinaryDecoder decoder = new BinaryDecoder(journal);
+        byte[] magic = decoder.readRaw(JOURNAL_MAGIC.length);
+        for (int i = 0; i < JOURNAL_MAGIC.length; ++i) {
+            if (magic[i] != JOURNAL_MAGIC[i]) {
+                throw new SerializationException("Invalid TxOutStore journal");
+            }
+        }
+        long version = decoder.readVarint();
+        if (version > JOURNAL_VERSION) {
+            throw new SerializationException("Unsupported journal version " + version);
+        }
+        if (decoder.readVarint() != snapshotSize || decoder.readVarint() != snapshotChecksum) {
+            Logger.w(TAG, "The TxOutStore journal does not match the snapshot, discarding it");
+            journalSize = 0;
+            compactionRequired = true;
+            return;
+        }
+        if (!store.replayJournal(decoder)) {
+            // the entries appended after a partial entry would not be readable
+            compactionRequired = true;
+        }
+    }
+
+    private static long checksum(@NonNull ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        if (buffer.hasArray()) {
+            crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+            return crc.getValue();
+        }
+        // a memory-mapped buffer is read in chunks
+        byte[] chunk = new byte[Math.min(CHECKSUM_CHUNK_SIZE, buffer.remaining())];
+        while (buffer.hasRemaining()) {
+            int length = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, length);
+            crc.update(chunk, 0, length);
+        }
+        return crc.getValue();
+    }
+}
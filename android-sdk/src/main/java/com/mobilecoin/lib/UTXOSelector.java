@@ -9,6 +9,7 @@ import androidx.annotation.VisibleForTesting;
 import com.mobilecoin.lib.exceptions.FragmentedAccountException;
 import com.mobilecoin.lib.exceptions.InsufficientFundsException;
 import com.mobilecoin.lib.log.Logger;
+import com.mobilecoin.lib.metrics.Metrics;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -44,20 +45,25 @@ final class UTXOSelector {
             @NonNull BigInteger outputFee
     ) throws InsufficientFundsException {
         Logger.i(TAG, "Selecting inputs for merging");
-        List<TxOutNode> nodes = inputs.stream()
-                .map(ownedTxOut -> new TxOutNode(ownedTxOut, null))
-                .collect(Collectors.toList());
-
-        TxOutNode txOutNode = selectTxOutNodesForMerging(
-                nodes,
-                txFee,
-                inputFee,
-                outputFee
-        );
-        List<OwnedTxOut> result = txOutNode.children.stream()
-                .map(node -> node.txOut)
-                .collect(Collectors.toList());
-        return new Selection<>(result, txOutNode.getFee(txFee, inputFee));
+        long startTime = System.nanoTime();
+        try {
+            List<TxOutNode> nodes = inputs.stream()
+                    .map(ownedTxOut -> new TxOutNode(ownedTxOut, null))
+                    .collect(Collectors.toList());
+
+            TxOutNode txOutNode = selectTxOutNodesForMerging(
+                    nodes,
+                    txFee,
+                    inputFee,
+                    outputFee
+            );
+            List<OwnedTxOut> result = txOutNode.children.stream()
+                    .map(node -> node.txOut)
+                    .collect(Collectors.toList());
+            return new Selection<>(result, txOutNode.getFee(txFee, inputFee));
+        } finally {
+            Metrics.recordStage(Metrics.Stage.UTXO_SELECTION, System.nanoTime() - startTime);
+        }
     }
 
     @NonNull
@@ -128,22 +134,27 @@ final class UTXOSelector {
                 "txFee:", txFee,
                 "inputFee:", inputFee,
                 "outputFee:", outputFee);
-        List<TxOutNode> nodes = inputs.stream()
-                .map(ownedTxOut -> new TxOutNode(ownedTxOut, null))
-                .collect(Collectors.toList());
-
-        Selection<TxOutNode> selection = selectTxOutNodesForAmount(
-                nodes,
-                amount,
-                txFee,
-                inputFee,
-                outputFee,
-                outputsCount
-        );
-        List<OwnedTxOut> result = selection.txOuts.stream()
-                .map(node -> node.txOut)
-                .collect(Collectors.toList());
-        return new Selection<>(result, selection.fee);
+        long startTime = System.nanoTime();
+        try {
+            List<TxOutNode> nodes = inputs.stream()
+                    .map(ownedTxOut -> new TxOutNode(ownedTxOut, null))
+                    .collect(Collectors.toList());
+
+            Selection<TxOutNode> selection = selectTxOutNodesForAmount(
+                    nodes,
+                    amount,
+                    txFee,
+                    inputFee,
+                    outputFee,
+                    outputsCount
+            );
+            List<OwnedTxOut> result = selection.txOuts.stream()
+                    .map(node -> node.txOut)
+                    .collect(Collectors.toList());
+            return new Selection<>(result, selection.fee);
+        } finally {
+            Metrics.recordStage(Metrics.Stage.UTXO_SELECTION, System.nanoTime() - startTime);
+        }
     }
 
     @NonNull
@@ -79,7 +79,14 @@ public final class UnsignedLong extends Number implements Comparable<UnsignedLon
      */
     @Override
     public int compareTo(UnsignedLong o) {
-        return Long.compare(value + MIN_LONG_VALUE, o.value + MIN_LONG_VALUE);
+        return compare(value, o.value);
+    }
+
+    /**
+     * Compares two unsigned long bit representations without creating the wrappers
+     */
+    static int compare(long first, long second) {
+        return Long.compare(first + MIN_LONG_VALUE, second + MIN_LONG_VALUE);
     }
 
     @Override
@@ -23,7 +23,9 @@ final class Util extends Native {
             @NonNull RistrettoPrivate view_key,
             @NonNull RistrettoPrivate spend_key
     ) throws TransactionBuilderException {
-        Logger.i(TAG, "Recovering onetime private key", null, "tx_pub_key:", tx_pub_key);
+        if (Logger.isLoggable(Logger.Level.INFO)) {
+            Logger.i(TAG, "Recovering onetime private key", null, "tx_pub_key:", tx_pub_key);
+        }
         try {
             long rustObj = recover_onetime_private_key(tx_pub_key,
                     view_key,
@@ -40,7 +42,9 @@ final class Util extends Native {
         @NonNull RistrettoPrivate viewPrivateKey,
         @NonNull RistrettoPublic txOutPublicKey
     ) throws TransactionBuilderException {
-      Logger.i(TAG, "Retrieving shared secret", null, "txOut public:", txOutPublicKey);
+      if (Logger.isLoggable(Logger.Level.INFO)) {
+        Logger.i(TAG, "Retrieving shared secret", null, "txOut public:", txOutPublicKey);
+      }
       try {
         long rustObj = get_shared_secret(viewPrivateKey, txOutPublicKey);
         return RistrettoPublic.fromJNI(rustObj);
@@ -5,10 +5,12 @@ package com.mobilecoin.lib;
 import androidx.annotation.NonNull;
 
 import com.mobilecoin.lib.exceptions.FogReportException;
-import com.mobilecoin.lib.log.Logger;
 
 final class VerificationReport extends Native {
     private final static String TAG = VerificationReport.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new VerificationReport(RELEASE_ONLY), VerificationReport::finalize_jni);
 
     VerificationReport(@NonNull VerificationSignature signature,
                        @NonNull byte[][] chain,
@@ -16,19 +18,14 @@ final class VerificationReport extends Native {
     ) throws FogReportException {
         try {
             init_jni(signature, chain, http_body);
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             throw new FogReportException("Unable to create verification signature", exception);
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        try {
-            finalize_jni();
-        } catch (Exception exception) {
-            Logger.e(TAG, "Failed to free verification report data", exception);
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private VerificationReport(@NonNull ReleaseOnly releaseOnly) {
     }
 
     // native calls
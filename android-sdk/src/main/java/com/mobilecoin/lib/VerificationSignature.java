@@ -5,27 +5,24 @@ package com.mobilecoin.lib;
 import androidx.annotation.NonNull;
 
 import com.mobilecoin.lib.exceptions.FogReportException;
-import com.mobilecoin.lib.log.Logger;
 
 final class VerificationSignature extends Native {
     private final static String TAG = VerificationSignature.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new VerificationSignature(RELEASE_ONLY), VerificationSignature::finalize_jni);
 
     VerificationSignature(@NonNull byte[] sigBytes) throws FogReportException {
         try {
             init_jni(sigBytes);
+            registerNativeObject(RELEASER);
         } catch (Exception exception) {
             throw new FogReportException("Unable to create verification signature", exception);
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        try {
-            finalize_jni();
-        } catch (Exception exception) {
-            Logger.e(TAG, "Failed to free verification signature data", exception);
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private VerificationSignature(@NonNull ReleaseOnly releaseOnly) {
     }
 
     // native calls
@@ -14,11 +14,15 @@ import com.mobilecoin.lib.log.Logger;
 
 public final class Verifier extends Native {
     private static final String TAG = Verifier.class.getName();
+    // releases the native objects once their owners are closed or unreachable
+    private static final Releaser RELEASER = new SharedReleaser<>(
+            new Verifier(RELEASE_ONLY), Verifier::finalize_jni);
 
     public Verifier() throws AttestationException {
         Logger.i(TAG, "Creating a new Verifier");
         try {
             init_jni();
+            registerNativeObject(RELEASER);
         } catch (Exception ex) {
             Logger.wtf(TAG, "Unable to create a native verifier", ex);
             throw new AttestationException(ex.getLocalizedMessage(), ex);
@@ -61,12 +65,8 @@ public final class Verifier extends Native {
         return this;
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        if (rustObj != 0) {
-            finalize_jni();
-        }
-        super.finalize();
+    // creates the instance releasing the native objects of the class, see Native
+    private Verifier(@NonNull ReleaseOnly releaseOnly) {
     }
 
     // JNI calls
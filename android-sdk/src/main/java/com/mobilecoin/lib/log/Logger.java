@@ -5,40 +5,68 @@ package com.mobilecoin.lib.log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * Logger class delivers log messages from the lib/app modules to the provided {@link LogAdapter}s
+ * <p>
+ * Logging does not lock, the adapters are read from a copy-on-write list. Messages below the
+ * minimum level are dropped before they reach the adapters, the {@link Supplier} overloads also
+ * skip building the message.
  */
 public final class Logger {
     @NonNull
-    private static final ArrayList<LogAdapter> adapters =
-            new ArrayList<>(Collections.singletonList(new DebugLogAdapter()));
+    private static final List<LogAdapter> adapters =
+            new CopyOnWriteArrayList<>(Collections.singletonList(new DebugLogAdapter()));
+    @NonNull
+    private static volatile Level minimumLevel = Level.VERBOSE;
 
     private Logger() { /* no public constructor */ }
 
     /**
      * Add a log adapter to receive logs
      */
-    public static synchronized void addAdapter(@NonNull LogAdapter adapter) {
+    public static void addAdapter(@NonNull LogAdapter adapter) {
         adapters.add(adapter);
     }
 
     /**
      * Remove previously added log adapter
      */
-    public static synchronized void removeAdapter(@NonNull LogAdapter adapter) {
+    public static void removeAdapter(@NonNull LogAdapter adapter) {
         adapters.remove(adapter);
     }
 
     /**
      * Remove all previously added log adapters
      */
-    public static synchronized void clearAllAdapters() {
+    public static void clearAllAdapters() {
         adapters.clear();
     }
 
+    /**
+     * Drop all the messages below the provided level, {@link Level#VERBOSE} by default
+     */
+    public static void setMinimumLevel(@NonNull Level level) {
+        minimumLevel = level;
+    }
+
+    @NonNull
+    public static Level getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    /**
+     * Determine whether messages of the provided level reach any adapter, so the callers can skip
+     * preparing the message and its metadata
+     */
+    public static boolean isLoggable(@NonNull Level logLevel) {
+        return logLevel.compareTo(minimumLevel) >= 0 && !adapters.isEmpty();
+    }
+
     /**
      * Log an informational message
      */
@@ -48,7 +76,15 @@ public final class Logger {
     }
 
     public static void i(@NonNull String tag, @NonNull String message) {
-        i(tag, message, null);
+        if (isLoggable(Level.INFO)) {
+            logMessage(Level.INFO, tag, message, null);
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull Supplier<String> messageSupplier) {
+        if (isLoggable(Level.INFO)) {
+            logMessage(Level.INFO, tag, messageSupplier.get(), null);
+        }
     }
 
     /**
@@ -60,7 +96,15 @@ public final class Logger {
     }
 
     public static void v(@NonNull String tag, @NonNull String message) {
-        v(tag, message, null);
+        if (isLoggable(Level.VERBOSE)) {
+            logMessage(Level.VERBOSE, tag, message, null);
+        }
+    }
+
+    public static void v(@NonNull String tag, @NonNull Supplier<String> messageSupplier) {
+        if (isLoggable(Level.VERBOSE)) {
+            logMessage(Level.VERBOSE, tag, messageSupplier.get(), null);
+        }
     }
 
     /**
@@ -72,7 +116,15 @@ public final class Logger {
     }
 
     public static void d(@NonNull String tag, @NonNull String message) {
-        d(tag, message, null);
+        if (isLoggable(Level.DEBUG)) {
+            logMessage(Level.DEBUG, tag, message, null);
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull Supplier<String> messageSupplier) {
+        if (isLoggable(Level.DEBUG)) {
+            logMessage(Level.DEBUG, tag, messageSupplier.get(), null);
+        }
     }
 
     /**
@@ -84,7 +136,15 @@ public final class Logger {
     }
 
     public static void w(@NonNull String tag, @NonNull String message) {
-        w(tag, message, null);
+        if (isLoggable(Level.WARNING)) {
+            logMessage(Level.WARNING, tag, message, null);
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull Supplier<String> messageSupplier) {
+        if (isLoggable(Level.WARNING)) {
+            logMessage(Level.WARNING, tag, messageSupplier.get(), null);
+        }
     }
 
     /**
@@ -96,7 +156,15 @@ public final class Logger {
     }
 
     public static void e(@NonNull String tag, @NonNull String message) {
-        e(tag, message, null);
+        if (isLoggable(Level.ERROR)) {
+            logMessage(Level.ERROR, tag, message, null);
+        }
+    }
+
+    public static void e(@NonNull String tag, @NonNull Supplier<String> messageSupplier) {
+        if (isLoggable(Level.ERROR)) {
+            logMessage(Level.ERROR, tag, messageSupplier.get(), null);
+        }
     }
 
     /**
@@ -108,13 +176,24 @@ public final class Logger {
     }
 
     public static void wtf(@NonNull String tag, @NonNull String message) {
-        wtf(tag, message, null);
+        if (isLoggable(Level.WTF)) {
+            logMessage(Level.WTF, tag, message, null);
+        }
     }
 
-    private static synchronized void logMessage(Level logLevel, @NonNull String tag,
-                                                @NonNull String message,
-                                                @Nullable Throwable throwable,
-                                                @NonNull Object... metadata) {
+    public static void wtf(@NonNull String tag, @NonNull Supplier<String> messageSupplier) {
+        if (isLoggable(Level.WTF)) {
+            logMessage(Level.WTF, tag, messageSupplier.get(), null);
+        }
+    }
+
+    private static void logMessage(Level logLevel, @NonNull String tag,
+                                   @NonNull String message,
+                                   @Nullable Throwable throwable,
+                                   @NonNull Object... metadata) {
+        if (logLevel.compareTo(minimumLevel) < 0) {
+            return;
+        }
         for (LogAdapter logAdapter : adapters) {
             if (logAdapter.isLoggable(logLevel, tag)) {
                 logAdapter.log(logLevel, tag, message, throwable, metadata);
@@ -0,0 +1,131 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative values with a fixed memory footprint
+ * <p>
+ * Every power of two range is split into four buckets, so the reported percentiles are within 25%
+ * of the recorded values. Recording a value does not allocate.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value, negative values are recorded as zero
+     */
+    public void record(long value) {
+        long recordedValue = Math.max(0, value);
+        buckets.incrementAndGet(bucketIndex(recordedValue));
+        count.incrementAndGet();
+        sum.addAndGet(recordedValue);
+        long currentMax;
+        do {
+            currentMax = max.get();
+        } while (recordedValue > currentMax && !max.compareAndSet(currentMax, recordedValue));
+    }
+
+    /**
+     * Number of the recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Sum of the recorded values
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * The largest recorded value
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Mean of the recorded values or zero if there are none
+     */
+    public double getMean() {
+        long currentCount = count.get();
+        return (currentCount > 0) ? (double) sum.get() / currentCount : 0;
+    }
+
+    /**
+     * Estimate the value at the percentile
+     *
+     * @param percentile in the range 0..1
+     * @return the upper bound of the bucket containing the percentile or zero if no values were
+     * recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be in the range 0..1");
+        }
+        long currentCount = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            counts[i] = buckets.get(i);
+            currentCount += counts[i];
+        }
+        if (currentCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * currentCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "Histogram{" +
+                "count=" + getCount() +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(0.5) +
+                ", p99=" + getValueAtPercentile(0.99) +
+                ", max=" + getMax() +
+                '}';
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long upperBound = (SUB_BUCKETS + subBucket) * width + (width - 1);
+        // the buckets of the largest values overflow
+        return (upperBound < 0) ? Long.MAX_VALUE : upperBound;
+    }
+}
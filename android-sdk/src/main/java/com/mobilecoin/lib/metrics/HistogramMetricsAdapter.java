@@ -0,0 +1,247 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link MetricsAdapter} aggregating the measurements into {@link Histogram}s
+ * <p>
+ * The statistics of each service method, attested service and stage are created on their first
+ * event, after that recording an event only updates atomic counters and does not allocate.
+ */
+public final class HistogramMetricsAdapter implements MetricsAdapter {
+    private final ConcurrentMap<String, ConcurrentMap<String, RpcMetrics>> rpcMetrics =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AttestationMetrics> attestationMetrics =
+            new ConcurrentHashMap<>();
+    private final Histogram[] stageDurations;
+
+    public HistogramMetricsAdapter() {
+        stageDurations = new Histogram[Metrics.Stage.values().length];
+        for (int i = 0; i < stageDurations.length; ++i) {
+            stageDurations[i] = new Histogram();
+        }
+    }
+
+    @Override
+    public void recordRpc(@NonNull String service, @NonNull String method, @NonNull String status,
+                          long durationNanos, long requestBytes, long responseBytes) {
+        RpcMetrics metrics = getOrCreateRpcMetrics(service, method);
+        metrics.latency.record(durationNanos);
+        metrics.requestBytes.addAndGet(requestBytes);
+        metrics.responseBytes.addAndGet(responseBytes);
+        AtomicLong statusCount = metrics.statusCounts.get(status);
+        if (statusCount == null) {
+            statusCount = new AtomicLong();
+            AtomicLong existing = metrics.statusCounts.putIfAbsent(status, statusCount);
+            if (existing != null) {
+                statusCount = existing;
+            }
+        }
+        statusCount.incrementAndGet();
+    }
+
+    @Override
+    public void recordRetry(@NonNull String service, @NonNull String method, int statusCode) {
+        getOrCreateRpcMetrics(service, method).retries.incrementAndGet();
+    }
+
+    @Override
+    public void recordAttestation(@NonNull String service, long durationNanos, boolean success) {
+        AttestationMetrics metrics = attestationMetrics.get(service);
+        if (metrics == null) {
+            metrics = new AttestationMetrics();
+            AttestationMetrics existing = attestationMetrics.putIfAbsent(service, metrics);
+            if (existing != null) {
+                metrics = existing;
+            }
+        }
+        metrics.duration.record(durationNanos);
+        if (!success) {
+            metrics.failures.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void recordStage(@NonNull Metrics.Stage stage, long durationNanos) {
+        stageDurations[stage.ordinal()].record(durationNanos);
+    }
+
+    /**
+     * @return statistics of the service method or {@code null} if it was not called yet
+     */
+    @Nullable
+    public RpcMetrics getRpcMetrics(@NonNull String service, @NonNull String method) {
+        Map<String, RpcMetrics> serviceMetrics = rpcMetrics.get(service);
+        return (serviceMetrics != null) ? serviceMetrics.get(method) : null;
+    }
+
+    /**
+     * @return statistics of all the called methods, by service and method name
+     */
+    @NonNull
+    public Map<String, Map<String, RpcMetrics>> getRpcMetrics() {
+        HashMap<String, Map<String, RpcMetrics>> snapshot = new HashMap<>();
+        for (Map.Entry<String, ConcurrentMap<String, RpcMetrics>> entry : rpcMetrics.entrySet()) {
+            snapshot.put(entry.getKey(), Collections.unmodifiableMap(
+                    new HashMap<>(entry.getValue())));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * @return attestation statistics of the service or {@code null} if it was not attested yet
+     */
+    @Nullable
+    public AttestationMetrics getAttestationMetrics(@NonNull String service) {
+        return attestationMetrics.get(service);
+    }
+
+    /**
+     * @return durations of the stage in nanoseconds
+     */
+    @NonNull
+    public Histogram getStageDurations(@NonNull Metrics.Stage stage) {
+        return stageDurations[stage.ordinal()];
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("HistogramMetricsAdapter{");
+        for (Map.Entry<String, Map<String, RpcMetrics>> service : getRpcMetrics().entrySet()) {
+            for (Map.Entry<String, RpcMetrics> method : service.getValue().entrySet()) {
+                builder.append("\n  ").append(service.getKey()).append('/')
+                        .append(method.getKey()).append(": ").append(method.getValue());
+            }
+        }
+        for (Map.Entry<String, AttestationMetrics> service : attestationMetrics.entrySet()) {
+            builder.append("\n  attestation ").append(service.getKey()).append(": ")
+                    .append(service.getValue());
+        }
+        for (Metrics.Stage stage : Metrics.Stage.values()) {
+            Histogram durations = stageDurations[stage.ordinal()];
+            if (durations.getCount() > 0) {
+                builder.append("\n  ").append(stage).append(": ").append(durations);
+            }
+        }
+        return builder.append("\n}").toString();
+    }
+
+    @NonNull
+    private RpcMetrics getOrCreateRpcMetrics(@NonNull String service, @NonNull String method) {
+        ConcurrentMap<String, RpcMetrics> serviceMetrics = rpcMetrics.get(service);
+        if (serviceMetrics == null) {
+            serviceMetrics = new ConcurrentHashMap<>();
+            ConcurrentMap<String, RpcMetrics> existing =
+                    rpcMetrics.putIfAbsent(service, serviceMetrics);
+            if (existing != null) {
+                serviceMetrics = existing;
+            }
+        }
+        RpcMetrics metrics = serviceMetrics.get(method);
+        if (metrics == null) {
+            metrics = new RpcMetrics();
+            RpcMetrics existing = serviceMetrics.putIfAbsent(method, metrics);
+            if (existing != null) {
+                metrics = existing;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Statistics of a service method
+     */
+    public static final class RpcMetrics {
+        private final Histogram latency = new Histogram();
+        private final AtomicLong requestBytes = new AtomicLong();
+        private final AtomicLong responseBytes = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final ConcurrentMap<String, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+
+        RpcMetrics() {
+        }
+
+        /**
+         * Latencies of the calls in nanoseconds
+         */
+        @NonNull
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.get();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.get();
+        }
+
+        public long getRetryCount() {
+            return retries.get();
+        }
+
+        /**
+         * @return number of the calls completed with the status
+         */
+        public long getStatusCount(@NonNull String status) {
+            AtomicLong statusCount = statusCounts.get(status);
+            return (statusCount != null) ? statusCount.get() : 0;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "RpcMetrics{" +
+                    "latency=" + latency +
+                    ", requestBytes=" + requestBytes +
+                    ", responseBytes=" + responseBytes +
+                    ", retries=" + retries +
+                    ", statusCounts=" + statusCounts +
+                    '}';
+        }
+    }
+
+    /**
+     * Attestation statistics of a service
+     */
+    public static final class AttestationMetrics {
+        private final Histogram duration = new Histogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        AttestationMetrics() {
+        }
+
+        /**
+         * Durations of the handshakes in nanoseconds, including the failed ones
+         */
+        @NonNull
+        public Histogram getDuration() {
+            return duration;
+        }
+
+        public long getFailureCount() {
+            return failures.get();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "AttestationMetrics{" +
+                    "duration=" + duration +
+                    ", failures=" + failures +
+                    '}';
+        }
+    }
+}
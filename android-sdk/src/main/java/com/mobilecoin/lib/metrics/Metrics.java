@@ -0,0 +1,154 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Metrics class delivers measurements from the lib modules to the provided
+ * {@link MetricsAdapter}s
+ * <p>
+ * The adapters are kept in an array which is replaced on every change, so recording an event
+ * neither locks nor allocates. Without adapters the recording methods return immediately.
+ */
+public final class Metrics {
+    private static final String UNKNOWN = "unknown";
+    @NonNull
+    private static volatile MetricsAdapter[] adapters = new MetricsAdapter[0];
+    // the last remote call started by each thread, retries are attributed to it
+    private static final ThreadLocal<RpcName> lastRpc = new ThreadLocal<RpcName>() {
+        @Override
+        protected RpcName initialValue() {
+            return new RpcName();
+        }
+    };
+
+    private Metrics() { /* no public constructor */ }
+
+    /**
+     * Add a metrics adapter to receive measurements
+     */
+    public static synchronized void addAdapter(@NonNull MetricsAdapter adapter) {
+        MetricsAdapter[] newAdapters = Arrays.copyOf(adapters, adapters.length + 1);
+        newAdapters[adapters.length] = adapter;
+        adapters = newAdapters;
+    }
+
+    /**
+     * Remove previously added metrics adapter
+     */
+    public static synchronized void removeAdapter(@NonNull MetricsAdapter adapter) {
+        MetricsAdapter[] currentAdapters = adapters;
+        for (int i = 0; i < currentAdapters.length; ++i) {
+            if (currentAdapters[i] == adapter) {
+                MetricsAdapter[] newAdapters = new MetricsAdapter[currentAdapters.length - 1];
+                System.arraycopy(currentAdapters, 0, newAdapters, 0, i);
+                System.arraycopy(currentAdapters, i + 1, newAdapters, i,
+                        currentAdapters.length - i - 1);
+                adapters = newAdapters;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove all previously added metrics adapters
+     */
+    public static synchronized void clearAllAdapters() {
+        adapters = new MetricsAdapter[0];
+    }
+
+    /**
+     * Determine whether there is any adapter to receive measurements, so the callers can skip
+     * measuring
+     */
+    public static boolean isEnabled() {
+        return adapters.length > 0;
+    }
+
+    /**
+     * Remember the remote call started by the current thread, its retries are reported with its
+     * name
+     */
+    public static void onRpcStarted(@NonNull String service, @NonNull String method) {
+        if (!isEnabled()) {
+            return;
+        }
+        RpcName rpcName = lastRpc.get();
+        rpcName.service = service;
+        rpcName.method = method;
+    }
+
+    public static void recordRpc(@NonNull String service, @NonNull String method,
+                                 @NonNull String status, long durationNanos,
+                                 long requestBytes, long responseBytes) {
+        for (MetricsAdapter adapter : adapters) {
+            adapter.recordRpc(service, method, status, durationNanos, requestBytes,
+                    responseBytes);
+        }
+    }
+
+    /**
+     * Report a retry of the last remote call started by the current thread
+     */
+    public static void recordRetry(int statusCode) {
+        MetricsAdapter[] currentAdapters = adapters;
+        if (currentAdapters.length == 0) {
+            return;
+        }
+        RpcName rpcName = lastRpc.get();
+        String service = (rpcName.service != null) ? rpcName.service : UNKNOWN;
+        String method = (rpcName.method != null) ? rpcName.method : UNKNOWN;
+        for (MetricsAdapter adapter : currentAdapters) {
+            adapter.recordRetry(service, method, statusCode);
+        }
+    }
+
+    public static void recordAttestation(@NonNull String service, long durationNanos,
+                                         boolean success) {
+        for (MetricsAdapter adapter : adapters) {
+            adapter.recordAttestation(service, durationNanos, success);
+        }
+    }
+
+    public static void recordStage(@NonNull Stage stage, long durationNanos) {
+        for (MetricsAdapter adapter : adapters) {
+            adapter.recordStage(stage, durationNanos);
+        }
+    }
+
+    /**
+     * Measured stages of the account synchronization and of the transaction preparation
+     */
+    public enum Stage {
+        // fog view query for the owned TxOuts
+        VIEW_QUERY,
+        // decryption of the TxOuts found by a fog view query
+        TXO_DECRYPTION,
+        // scanning of the blocks fog view was unable to process
+        FOG_MISSES_SCAN,
+        // checking the spent status of the unspent TxOuts
+        KEY_IMAGE_CHECK,
+        // selection of the TxOuts to spend
+        UTXO_SELECTION,
+        // fetching the fog reports and the rings of the inputs
+        FOG_REPORTS_AND_RINGS,
+        // building and signing the transaction
+        TRANSACTION_BUILD,
+        // decoding the cursors of a cached TxOutStore when the client is created
+        STORE_RESTORE,
+        // decoding the seeds and TxOuts of a restored TxOutStore when they are first needed
+        STORE_LOAD,
+        // waiting of a queued transaction for a consensus node
+        SUBMISSION_QUEUE,
+        // proposing a queued transaction to consensus
+        TRANSACTION_SUBMISSION
+    }
+
+    private static final class RpcName {
+        String service;
+        String method;
+    }
+}
@@ -0,0 +1,53 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib.metrics;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Configurable metrics output conduit
+ * <p>
+ * The events are delivered on the threads performing the measured operations, implementations
+ * must be thread safe and should return quickly.
+ */
+public interface MetricsAdapter {
+
+    /**
+     * A remote call completed
+     *
+     * @param service       the full service name e.g. fog_view.FogViewAPI
+     * @param method        the method name e.g. Query
+     * @param status        the gRPC status code name, OK for the successful calls
+     * @param durationNanos time from sending the request to receiving the response
+     * @param requestBytes  size of the serialized request
+     * @param responseBytes size of the serialized response
+     */
+    void recordRpc(@NonNull String service, @NonNull String method, @NonNull String status,
+                   long durationNanos, long requestBytes, long responseBytes);
+
+    /**
+     * A failed remote call is about to be retried
+     *
+     * @param service    the full service name of the failed call
+     * @param method     the method name of the failed call
+     * @param statusCode the status code the call failed with
+     */
+    void recordRetry(@NonNull String service, @NonNull String method, int statusCode);
+
+    /**
+     * An attestation handshake completed
+     *
+     * @param service       the full name of the attested service
+     * @param durationNanos duration of the handshake
+     * @param success       whether the session was established
+     */
+    void recordAttestation(@NonNull String service, long durationNanos, boolean success);
+
+    /**
+     * A stage of the account synchronization or of the transaction preparation completed
+     *
+     * @param stage         the completed stage
+     * @param durationNanos duration of the stage
+     */
+    void recordStage(@NonNull Metrics.Stage stage, long durationNanos);
+}
@@ -0,0 +1,102 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib.network;
+
+import com.google.protobuf.MessageLite;
+import com.mobilecoin.lib.metrics.Metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * MetricsInterceptor reports the latency, the message sizes and the status of every call to the
+ * {@link Metrics} adapters. Calls are not intercepted while there are no adapters.
+ */
+public final class MetricsInterceptor implements ClientInterceptor {
+    private static final MetricsInterceptor INSTANCE = new MetricsInterceptor();
+    // bare method names by the full method names, computed once per method
+    private static final ConcurrentHashMap<String, String> methodNames = new ConcurrentHashMap<>();
+
+    private MetricsInterceptor() { /* shared instance */ }
+
+    public static MetricsInterceptor getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next
+    ) {
+        ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+        if (!Metrics.isEnabled()) {
+            return call;
+        }
+        String serviceName = String.valueOf(method.getServiceName());
+        String methodName = getMethodName(method);
+        // blocking stubs start the calls on the calling thread
+        Metrics.onRpcStarted(serviceName, methodName);
+        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(call) {
+            private long startTime;
+            private long requestBytes;
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                startTime = System.nanoTime();
+                super.start(
+                        new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+                            private long responseBytes;
+
+                            @Override
+                            public void onMessage(RespT message) {
+                                responseBytes += getSerializedSize(message);
+                                super.onMessage(message);
+                            }
+
+                            @Override
+                            public void onClose(Status status, Metadata trailers) {
+                                Metrics.recordRpc(serviceName, methodName,
+                                        status.getCode().name(), System.nanoTime() - startTime,
+                                        requestBytes, responseBytes);
+                                super.onClose(status, trailers);
+                            }
+                        },
+                        headers
+                );
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                // the size is memoized by the message and reused by the marshaller
+                requestBytes += getSerializedSize(message);
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    private static String getMethodName(MethodDescriptor<?, ?> method) {
+        String fullMethodName = method.getFullMethodName();
+        String methodName = methodNames.get(fullMethodName);
+        if (methodName == null) {
+            methodName = String.valueOf(method.getBareMethodName());
+            methodNames.put(fullMethodName, methodName);
+        }
+        return methodName;
+    }
+
+    private static long getSerializedSize(Object message) {
+        return (message instanceof MessageLite)
+                ? ((MessageLite) message).getSerializedSize()
+                : 0;
+    }
+}
@@ -20,6 +20,8 @@ import com.mobilecoin.lib.network.services.grpc.GRPCFogViewService;
 import com.mobilecoin.lib.network.services.transport.GRPCTransport;
 import com.mobilecoin.lib.network.services.transport.Transport;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -29,12 +31,32 @@ import io.grpc.ManagedChannel;
 public final class GRPCServiceAPIManager implements ServiceAPIManager {
     private static final String TAG = GRPCServiceAPIManager.class.toString();
     private static final int SHUTDOWN_TIMEOUT = 5000;
+    // owned executor, if the call executor was not provided
+    @Nullable
     private final ExecutorService executorService;
+    private final Executor callExecutor;
     private final CookieInterceptor cookieInterceptor;
     private final AuthInterceptor authInterceptor;
+    // services of the most recently used channel, a client uses one channel at a time
+    @Nullable
+    private volatile ChannelServices channelServices;
 
     public GRPCServiceAPIManager() {
-        this.executorService = Executors.newSingleThreadExecutor();
+        this(null);
+    }
+
+    /**
+     * @param callExecutor executor to run the gRPC calls on, if {@code null} a dedicated single
+     *                     thread executor is used
+     */
+    public GRPCServiceAPIManager(@Nullable Executor callExecutor) {
+        if (callExecutor != null) {
+            this.executorService = null;
+            this.callExecutor = callExecutor;
+        } else {
+            this.executorService = Executors.newSingleThreadExecutor();
+            this.callExecutor = executorService;
+        }
         this.cookieInterceptor = new CookieInterceptor();
         this.authInterceptor = new AuthInterceptor();
     }
@@ -48,94 +70,88 @@ public final class GRPCServiceAPIManager implements ServiceAPIManager {
         throw new IllegalArgumentException("BUG: should not be reachable");
     }
 
+    /**
+     * Get the cached service for the transport's channel or create a new one. The stubs are
+     * immutable and thread safe, so the services are shared by all the requests on the channel.
+     */
+    @NonNull
+    private <S> S getService(@NonNull Transport transport,
+                             @NonNull Class<S> serviceClass,
+                             @NonNull ServiceFactory<S> serviceFactory) {
+        ManagedChannel managedChannel = managedChannelFromTransport(transport);
+        ChannelServices services = channelServices;
+        if (services == null || services.managedChannel != managedChannel) {
+            services = new ChannelServices(managedChannel);
+            channelServices = services;
+        }
+        Object service = services.services.get(serviceClass);
+        if (service == null) {
+            S newService = serviceFactory.create(
+                    managedChannel,
+                    cookieInterceptor,
+                    authInterceptor,
+                    callExecutor
+            );
+            service = services.services.putIfAbsent(serviceClass, newService);
+            if (service == null) {
+                service = newService;
+            }
+        }
+        return serviceClass.cast(service);
+    }
+
     @NonNull
     @Override
     public FogViewService getFogViewService(@NonNull Transport transport) {
-        return new GRPCFogViewService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, FogViewService.class, GRPCFogViewService::new);
     }
 
     @NonNull
     @Override
     public FogUntrustedService getFogUntrustedService(@NonNull Transport transport) {
-        return new GRPCFogUntrustedService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, FogUntrustedService.class, GRPCFogUntrustedService::new);
     }
 
     @NonNull
     @Override
     public FogReportService getFogReportService(@NonNull Transport transport) {
-        return new GRPCFogReportService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, FogReportService.class, GRPCFogReportService::new);
     }
 
     @NonNull
     @Override
     public FogKeyImageService getFogKeyImageService(@NonNull Transport transport) {
-        return new GRPCFogKeyImageService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, FogKeyImageService.class, GRPCFogKeyImageService::new);
     }
 
     @NonNull
     @Override
     public FogMerkleProofService getFogMerkleProofService(@NonNull Transport transport) {
-        return new GRPCFogMerkleProofService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, FogMerkleProofService.class, GRPCFogMerkleProofService::new);
     }
 
     @NonNull
     @Override
     public FogBlockService getFogBlockService(@NonNull Transport transport) {
-        return new GRPCFogBlockService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, FogBlockService.class, GRPCFogBlockService::new);
     }
 
     @NonNull
     @Override
     public ConsensusClientService getConsensusClientService(@NonNull Transport transport) {
-        return new GRPCConsensusClientService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, ConsensusClientService.class, GRPCConsensusClientService::new);
     }
 
     @NonNull
     @Override
     public BlockchainService getBlockchainService(@NonNull Transport transport) {
-        return new GRPCBlockchainService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+        return getService(transport, BlockchainService.class, GRPCBlockchainService::new);
     }
 
     @NonNull
     @Override
-    public AttestedService getAttestedService (@NonNull Transport transport) {
-        return new GRPCAttestedService(
-                managedChannelFromTransport(transport),
-                cookieInterceptor,
-                authInterceptor,
-                executorService);
+    public AttestedService getAttestedService(@NonNull Transport transport) {
+        return getService(transport, AttestedService.class, GRPCAttestedService::new);
     }
 
     void retireExecutorService(@Nullable ExecutorService executorService) {
@@ -179,4 +195,22 @@ public final class GRPCServiceAPIManager implements ServiceAPIManager {
         retireExecutorService(executorService);
         super.finalize();
     }
+
+    private interface ServiceFactory<S> {
+        @NonNull
+        S create(@NonNull ManagedChannel managedChannel,
+                 @NonNull CookieInterceptor cookieInterceptor,
+                 @NonNull AuthInterceptor authInterceptor,
+                 @NonNull Executor executor);
+    }
+
+    private static final class ChannelServices {
+        final ManagedChannel managedChannel;
+        final ConcurrentHashMap<Class<?>, Object> services;
+
+        ChannelServices(@NonNull ManagedChannel managedChannel) {
+            this.managedChannel = managedChannel;
+            this.services = new ConcurrentHashMap<>();
+        }
+    }
 }
@@ -14,14 +14,21 @@ import com.mobilecoin.lib.network.services.http.RestFogViewService;
 import com.mobilecoin.lib.network.services.http.clients.RestClient;
 import com.mobilecoin.lib.network.services.transport.RestTransport;
 import com.mobilecoin.lib.network.services.transport.Transport;
+import com.squareup.okhttp.Credentials;
 
 public class RestServiceAPIManager implements ServiceAPIManager {
+    private volatile String authToken;
 
     @NonNull
     RestClient restClientFromTransport(@NonNull Transport transport) {
         if (transport.getTransportType() == Transport.TransportType.HTTP) {
             RestTransport restTransport = (RestTransport) transport;
-            return restTransport.getRestClient();
+            RestClient restClient = restTransport.getRestClient();
+            String authToken = this.authToken;
+            if (null != authToken) {
+                restClient.setAuthorization(authToken);
+            }
+            return restClient;
         }
         throw new IllegalArgumentException("BUG: should not be reachable");
     }
@@ -82,6 +89,9 @@ public class RestServiceAPIManager implements ServiceAPIManager {
 
     @Override
     public void setAuthorization(@NonNull String username, @NonNull String password) {
-        // TODO: currently this is handled in the requester, need to move it here
+        authToken = Credentials.basic(
+                username,
+                password
+        );
     }
 }
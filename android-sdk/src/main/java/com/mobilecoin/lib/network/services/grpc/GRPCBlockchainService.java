@@ -7,7 +7,7 @@ import com.mobilecoin.lib.network.AuthInterceptor;
 import com.mobilecoin.lib.network.CookieInterceptor;
 import com.mobilecoin.lib.network.services.BlockchainService;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 import consensus_common.BlockchainAPIGrpc;
 import consensus_common.ConsensusCommon;
@@ -19,8 +19,8 @@ public class GRPCBlockchainService
     public GRPCBlockchainService(@NonNull ManagedChannel managedChannel,
                                  @NonNull CookieInterceptor cookieInterceptor,
                                  @NonNull AuthInterceptor authInterceptor,
-                                 @NonNull ExecutorService executorService) {
-        super(managedChannel, cookieInterceptor, authInterceptor, executorService);
+                                 @NonNull Executor executor) {
+        super(managedChannel, cookieInterceptor, authInterceptor, executor);
     }
 
     @NonNull
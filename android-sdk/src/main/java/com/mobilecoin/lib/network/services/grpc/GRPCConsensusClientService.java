@@ -6,7 +6,7 @@ import com.mobilecoin.lib.network.AuthInterceptor;
 import com.mobilecoin.lib.network.CookieInterceptor;
 import com.mobilecoin.lib.network.services.ConsensusClientService;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 import attest.Attest;
 import consensus_client.ConsensusClientAPIGrpc;
@@ -19,8 +19,8 @@ public class GRPCConsensusClientService
     public GRPCConsensusClientService(@NonNull ManagedChannel managedChannel,
                                @NonNull CookieInterceptor cookieInterceptor,
                                @NonNull AuthInterceptor authInterceptor,
-                               @NonNull ExecutorService executorService) {
-        super(managedChannel, cookieInterceptor, authInterceptor, executorService);
+                               @NonNull Executor executor) {
+        super(managedChannel, cookieInterceptor, authInterceptor, executor);
     }
 
     @NonNull
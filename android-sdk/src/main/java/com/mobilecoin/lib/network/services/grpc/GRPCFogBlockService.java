@@ -6,7 +6,7 @@ import com.mobilecoin.lib.network.AuthInterceptor;
 import com.mobilecoin.lib.network.CookieInterceptor;
 import com.mobilecoin.lib.network.services.FogBlockService;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 import fog_ledger.FogBlockAPIGrpc;
 import fog_ledger.Ledger;
@@ -18,8 +18,8 @@ public class GRPCFogBlockService
     public GRPCFogBlockService(@NonNull ManagedChannel managedChannel,
                         @NonNull CookieInterceptor cookieInterceptor,
                         @NonNull AuthInterceptor authInterceptor,
-                        @NonNull ExecutorService executorService) {
-        super(managedChannel, cookieInterceptor, authInterceptor, executorService);
+                        @NonNull Executor executor) {
+        super(managedChannel, cookieInterceptor, authInterceptor, executor);
     }
 
     @NonNull
@@ -6,7 +6,7 @@ import com.mobilecoin.lib.network.AuthInterceptor;
 import com.mobilecoin.lib.network.CookieInterceptor;
 import com.mobilecoin.lib.network.services.FogReportService;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 import io.grpc.ManagedChannel;
 import report.ReportAPIGrpc;
@@ -18,8 +18,8 @@ public class GRPCFogReportService
     public GRPCFogReportService(@NonNull ManagedChannel managedChannel,
                                 @NonNull CookieInterceptor cookieInterceptor,
                                 @NonNull AuthInterceptor authInterceptor,
-                                @NonNull ExecutorService executorService) {
-        super(managedChannel, cookieInterceptor, authInterceptor, executorService);
+                                @NonNull Executor executor) {
+        super(managedChannel, cookieInterceptor, authInterceptor, executor);
     }
 
     @NonNull
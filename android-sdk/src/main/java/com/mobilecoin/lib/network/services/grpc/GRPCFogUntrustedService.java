@@ -6,7 +6,7 @@ import com.mobilecoin.lib.network.AuthInterceptor;
 import com.mobilecoin.lib.network.CookieInterceptor;
 import com.mobilecoin.lib.network.services.FogUntrustedService;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 import fog_ledger.FogUntrustedTxOutApiGrpc;
 import fog_ledger.Ledger;
@@ -19,8 +19,8 @@ public class GRPCFogUntrustedService
     public GRPCFogUntrustedService(@NonNull ManagedChannel managedChannel,
                                    @NonNull CookieInterceptor cookieInterceptor,
                                    @NonNull AuthInterceptor authInterceptor,
-                                   @NonNull ExecutorService executorService) {
-        super(managedChannel, cookieInterceptor, authInterceptor, executorService);
+                                   @NonNull Executor executor) {
+        super(managedChannel, cookieInterceptor, authInterceptor, executor);
     }
 
     @NonNull
@@ -6,7 +6,7 @@ import com.mobilecoin.lib.network.AuthInterceptor;
 import com.mobilecoin.lib.network.CookieInterceptor;
 import com.mobilecoin.lib.network.services.FogViewService;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 import attest.Attest;
 import fog_view.FogViewAPIGrpc;
@@ -17,8 +17,8 @@ public class GRPCFogViewService extends GRPCService<FogViewAPIGrpc.FogViewAPIBlo
     public GRPCFogViewService(@NonNull ManagedChannel managedChannel,
                               @NonNull CookieInterceptor cookieInterceptor,
                               @NonNull AuthInterceptor authInterceptor,
-                              @NonNull ExecutorService executorService) {
-        super(managedChannel, cookieInterceptor, authInterceptor, executorService);
+                              @NonNull Executor executor) {
+        super(managedChannel, cookieInterceptor, authInterceptor, executor);
     }
 
     @NonNull
@@ -4,9 +4,10 @@ import androidx.annotation.NonNull;
 
 import com.mobilecoin.lib.network.AuthInterceptor;
 import com.mobilecoin.lib.network.CookieInterceptor;
+import com.mobilecoin.lib.network.MetricsInterceptor;
 import com.mobilecoin.lib.network.services.ApiService;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 
 import io.grpc.ManagedChannel;
 import io.grpc.stub.AbstractStub;
@@ -20,13 +21,13 @@ abstract class GRPCService <T extends AbstractStub<T>> implements ApiService {
     GRPCService(@NonNull ManagedChannel managedChannel,
                 @NonNull CookieInterceptor cookieInterceptor,
                 @NonNull AuthInterceptor authInterceptor,
-                @NonNull ExecutorService executorService) {
+                @NonNull Executor executor) {
         this.managedChannel = managedChannel;
         apiBlockingStub = configureStub(
                 newBlockingStub(getManagedChannel()),
                 cookieInterceptor,
                 authInterceptor,
-                executorService
+                executor
         );
     }
 
@@ -47,12 +48,13 @@ abstract class GRPCService <T extends AbstractStub<T>> implements ApiService {
     protected T configureStub(@NonNull T stub,
                               @NonNull CookieInterceptor cookieInterceptor,
                               @NonNull AuthInterceptor authInterceptor,
-                              @NonNull ExecutorService executorService) {
+                              @NonNull Executor executor) {
         return stub
                 .withInterceptors(
                         cookieInterceptor,
-                        authInterceptor)
+                        authInterceptor,
+                        MetricsInterceptor.getInstance())
                 .withMaxInboundMessageSize(MAX_INBOUND_MESSAGE_SIZE)
-                .withExecutor(executorService);
+                .withExecutor(executor);
     }
 }
@@ -0,0 +1,140 @@
+// Copyright (c) 2020-2021 MobileCoin. All rights reserved.
+
+package com.mobilecoin.lib.network.services.http;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import com.mobilecoin.lib.log.Logger;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Built-in {@link Requester} that keeps the connections to the services alive and reuses them
+ * between the requests. HTTP/2 is negotiated when the server supports it, so the concurrent
+ * requests are multiplexed over a single connection. Response bodies are streamed into the
+ * protobuf parsers without being buffered first.
+ */
+public final class PooledHttpRequester implements Requester {
+    private static final String TAG = PooledHttpRequester.class.getName();
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private final OkHttpClient httpClient;
+
+    public PooledHttpRequester() {
+        this(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * @param maxIdleConnections maximum number of idle connections kept in the pool
+     * @param keepAlive          how long an idle connection is kept in the pool
+     * @param timeout            connect, read and write timeout
+     */
+    public PooledHttpRequester(int maxIdleConnections,
+                               @NonNull Duration keepAlive,
+                               @NonNull Duration timeout) {
+        if (maxIdleConnections < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative");
+        }
+        httpClient = new OkHttpClient();
+        httpClient.setConnectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis()));
+        httpClient.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        httpClient.setConnectTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        httpClient.setReadTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        httpClient.setWriteTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @NonNull
+    @Override
+    public HttpResponse httpRequest(@NonNull String httpMethod,
+                                    @NonNull Uri uri,
+                                    @NonNull Map<String, String> headers,
+                                    @NonNull byte[] body,
+                                    @NonNull String contentType
+    ) throws IOException {
+        Request request = new Request.Builder()
+                .method(httpMethod, RequestBody.create(MediaType.parse(contentType), body))
+                .headers(Headers.of(headers))
+                .url(uri.toString())
+                .build();
+        return new PooledHttpResponse(httpClient.newCall(request).execute());
+    }
+
+    private static final class PooledHttpResponse implements StreamingHttpResponse {
+        private final Response response;
+        private final Map<String, String> responseHeaders;
+        private byte[] responseData;
+
+        PooledHttpResponse(@NonNull Response response) {
+            this.response = response;
+            Headers headers = response.headers();
+            this.responseHeaders = new HashMap<>();
+            for (String name : headers.names()) {
+                responseHeaders.put(name, headers.get(name));
+            }
+        }
+
+        @Override
+        public int getResponseCode() {
+            return response.code();
+        }
+
+        /**
+         * @throws StatusRuntimeException if the body can't be read, the callers turn it into a
+         *                                {@link com.mobilecoin.lib.exceptions.NetworkException}
+         */
+        @Override
+        public synchronized byte[] getResponseData() {
+            if (null == responseData) {
+                try {
+                    responseData = response.body().bytes();
+                } catch (IOException exception) {
+                    // a truncated body must not be parsed as a valid empty response
+                    Logger.w(TAG, "Unable to read the response body", exception);
+                    throw new StatusRuntimeException(Status.UNAVAILABLE.withCause(exception));
+                }
+            }
+            return responseData;
+        }
+
+        @Override
+        public Map<String, String> getResponseHeaders() {
+            return responseHeaders;
+        }
+
+        @NonNull
+        @Override
+        public InputStream getResponseStream() throws IOException {
+            return response.body().byteStream();
+        }
+
+        @Override
+        public void close() throws IOException {
+            ResponseBody responseBody = response.body();
+            if (null != responseBody) {
+                // returns the connection to the pool
+                responseBody.close();
+            }
+        }
+    }
+}
@@ -4,7 +4,9 @@ import android.net.Uri;
 
 import androidx.annotation.NonNull;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 public interface Requester {
@@ -24,4 +26,13 @@ public interface Requester {
 
         Map<String, String> getResponseHeaders();
     }
+
+    /**
+     * Response whose body can be consumed as a stream, without buffering it into a byte array
+     * first. The response must be closed once the body is consumed.
+     */
+    interface StreamingHttpResponse extends HttpResponse, Closeable {
+        @NonNull
+        InputStream getResponseStream() throws IOException;
+    }
 }
@@ -20,11 +20,11 @@ public class RestAttestedService extends RestService implements AttestedService
     @Override
     public Attest.AuthMessage auth(Attest.AuthMessage authMessage) {
             try {
-                byte[] responseData = getRestClient().makeRequest(
+                return getRestClient().makeRequest(
                         PREFIX + SERVICE_NAME + "/" + "Auth",
-                        authMessage.toByteArray()
+                        authMessage.toByteArray(),
+                        Attest.AuthMessage.parser()
                 );
-                return Attest.AuthMessage.parseFrom(responseData);
             } catch (InvalidProtocolBufferException exception) {
                 throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
             }
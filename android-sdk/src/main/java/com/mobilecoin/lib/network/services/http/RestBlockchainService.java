@@ -21,11 +21,11 @@ public class RestBlockchainService extends RestService implements BlockchainServ
     @Override
     public ConsensusCommon.LastBlockInfoResponse getLastBlockInfo(Empty request) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "GetLastBlockInfo",
-                    request.toByteArray()
+                    request.toByteArray(),
+                    ConsensusCommon.LastBlockInfoResponse.parser()
             );
-            return ConsensusCommon.LastBlockInfoResponse.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
@@ -21,11 +21,11 @@ public class RestConsensusClientService extends RestService implements Consensus
     @Override
     public ConsensusCommon.ProposeTxResponse clientTxPropose(Attest.Message request) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "ClientTxPropose",
-                    request.toByteArray()
+                    request.toByteArray(),
+                    ConsensusCommon.ProposeTxResponse.parser()
             );
-            return ConsensusCommon.ProposeTxResponse.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
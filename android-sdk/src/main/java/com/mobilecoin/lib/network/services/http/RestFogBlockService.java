@@ -20,11 +20,11 @@ public class RestFogBlockService extends RestService implements FogBlockService
     @Override
     public Ledger.BlockResponse getBlocks(Ledger.BlockRequest request) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "GetBlocks",
-                    request.toByteArray()
+                    request.toByteArray(),
+                    Ledger.BlockResponse.parser()
             );
-            return Ledger.BlockResponse.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
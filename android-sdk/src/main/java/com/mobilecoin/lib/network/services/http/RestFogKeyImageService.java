@@ -20,11 +20,11 @@ public class RestFogKeyImageService extends RestService implements FogKeyImageSe
     @Override
     public Attest.AuthMessage auth(Attest.AuthMessage authMessage) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "Auth",
-                    authMessage.toByteArray()
+                    authMessage.toByteArray(),
+                    Attest.AuthMessage.parser()
             );
-            return Attest.AuthMessage.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
@@ -33,11 +33,11 @@ public class RestFogKeyImageService extends RestService implements FogKeyImageSe
     @Override
     public Attest.Message checkKeyImages(Attest.Message request) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "CheckKeyImages",
-                    request.toByteArray()
+                    request.toByteArray(),
+                    Attest.Message.parser()
             );
-            return Attest.Message.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
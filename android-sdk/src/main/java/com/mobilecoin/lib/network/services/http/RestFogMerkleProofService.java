@@ -20,11 +20,11 @@ public class RestFogMerkleProofService extends RestService implements FogMerkleP
     @Override
     public Attest.Message getOutputs(Attest.Message request) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "GetOutputs",
-                    request.toByteArray()
+                    request.toByteArray(),
+                    Attest.Message.parser()
             );
-            return Attest.Message.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
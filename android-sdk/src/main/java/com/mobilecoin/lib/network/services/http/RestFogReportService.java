@@ -20,11 +20,11 @@ public class RestFogReportService extends RestService implements FogReportServic
     @Override
     public ReportOuterClass.ReportResponse getReports(ReportOuterClass.ReportRequest request) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "GetReports",
-                    request.toByteArray()
+                    request.toByteArray(),
+                    ReportOuterClass.ReportResponse.parser()
             );
-            return ReportOuterClass.ReportResponse.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
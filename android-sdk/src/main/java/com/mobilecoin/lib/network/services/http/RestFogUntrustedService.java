@@ -20,11 +20,11 @@ public class RestFogUntrustedService extends RestService implements FogUntrusted
     @Override
     public Ledger.TxOutResponse getTxOuts(Ledger.TxOutRequest request) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "GetTxOuts",
-                    request.toByteArray()
+                    request.toByteArray(),
+                    Ledger.TxOutResponse.parser()
             );
-            return Ledger.TxOutResponse.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
@@ -19,11 +19,11 @@ public class RestFogViewService extends RestService implements FogViewService {
 
     public Attest.AuthMessage auth(Attest.AuthMessage authMessage) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "Auth",
-                    authMessage.toByteArray()
+                    authMessage.toByteArray(),
+                    Attest.AuthMessage.parser()
             );
-            return Attest.AuthMessage.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
@@ -31,11 +31,11 @@ public class RestFogViewService extends RestService implements FogViewService {
 
     public Attest.Message query(Attest.Message queryMessage) {
         try {
-            byte[] responseData = getRestClient().makeRequest(
+            return getRestClient().makeRequest(
                     PREFIX + SERVICE_NAME + "/" + "Query",
-                    queryMessage.toByteArray()
+                    queryMessage.toByteArray(),
+                    Attest.Message.parser()
             );
-            return Attest.Message.parseFrom(responseData);
         } catch (InvalidProtocolBufferException exception) {
             throw new StatusRuntimeException(Status.INVALID_ARGUMENT);
         }
@@ -5,11 +5,18 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.mobilecoin.lib.metrics.Metrics;
 import com.mobilecoin.lib.network.services.http.Requester;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -19,89 +26,236 @@ public final class RestClient {
     public final static String SCHEME = "https";
     public final static String SET_COOKIE_KEY = "Set-Cookie";
     public final static String COOKIE_KEY = "Cookie";
+    public final static String AUTHORIZATION_KEY = "Authorization";
     public final static String CONTENT_TYPE = "application/x-protobuf";
     private final Requester requester;
     private final Uri serviceUri;
     private final HashMap<String, String> headers;
+    private final ConcurrentHashMap<String, Uri> requestUris;
+    private final ConcurrentHashMap<String, RpcName> rpcNames;
 
     public RestClient(@NonNull Uri serviceUri, @NonNull Requester requester) {
         this.serviceUri = serviceUri;
         this.requester = requester;
         this.headers = new HashMap<>();
+        this.requestUris = new ConcurrentHashMap<>();
+        this.rpcNames = new ConcurrentHashMap<>();
     }
 
     @NonNull
     public byte[] makeRequest(@NonNull String apiPath,
                               @NonNull byte[] requestBytes) {
+        RpcName rpcName = startRpc(apiPath);
+        long startTime = System.nanoTime();
+        Status.Code statusCode = Status.Code.UNKNOWN;
+        long responseBytes = 0;
         try {
-            Uri uri = new Uri.Builder()
-                    .scheme(SCHEME)
-                    .encodedAuthority(getServiceUri().getEncodedAuthority())
-                    .path(apiPath)
-                    .build();
-            Requester.HttpResponse response = getRequester()
+            Requester.HttpResponse response = executeRequest(apiPath, requestBytes);
+            try {
+                byte[] responseData = response.getResponseData();
+                responseBytes = responseData.length;
+                statusCode = Status.Code.OK;
+                return responseData;
+            } finally {
+                closeResponse(response);
+            }
+        } catch (StatusRuntimeException exception) {
+            statusCode = exception.getStatus().getCode();
+            throw exception;
+        } finally {
+            recordRpc(rpcName, statusCode, startTime, requestBytes.length, responseBytes);
+        }
+    }
+
+    /**
+     * Make a request and parse the response, streaming the response body into the parser if the
+     * {@link Requester} supports it
+     */
+    @NonNull
+    public <T> T makeRequest(@NonNull String apiPath,
+                             @NonNull byte[] requestBytes,
+                             @NonNull Parser<T> parser) throws InvalidProtocolBufferException {
+        RpcName rpcName = startRpc(apiPath);
+        long startTime = System.nanoTime();
+        Status.Code statusCode = Status.Code.UNKNOWN;
+        long responseBytes = 0;
+        try {
+            T result = parseResponse(executeRequest(apiPath, requestBytes), parser);
+            if (rpcName != null && result instanceof MessageLite) {
+                responseBytes = ((MessageLite) result).getSerializedSize();
+            }
+            statusCode = Status.Code.OK;
+            return result;
+        } catch (StatusRuntimeException exception) {
+            statusCode = exception.getStatus().getCode();
+            throw exception;
+        } catch (InvalidProtocolBufferException exception) {
+            statusCode = Status.Code.INVALID_ARGUMENT;
+            throw exception;
+        } finally {
+            recordRpc(rpcName, statusCode, startTime, requestBytes.length, responseBytes);
+        }
+    }
+
+    @NonNull
+    private static <T> T parseResponse(@NonNull Requester.HttpResponse response,
+                                       @NonNull Parser<T> parser)
+            throws InvalidProtocolBufferException {
+        try {
+            if (response instanceof Requester.StreamingHttpResponse) {
+                try (InputStream inputStream =
+                             ((Requester.StreamingHttpResponse) response).getResponseStream()) {
+                    return parser.parseFrom(inputStream);
+                }
+            }
+            return parser.parseFrom(response.getResponseData());
+        } catch (InvalidProtocolBufferException exception) {
+            // the stream failed while reading the body rather than the body being malformed
+            if (exception.getCause() instanceof IOException) {
+                throw new StatusRuntimeException(Status.UNAVAILABLE.withCause(exception));
+            }
+            throw exception;
+        } catch (IOException exception) {
+            throw new StatusRuntimeException(Status.UNAVAILABLE.withCause(exception));
+        } finally {
+            closeResponse(response);
+        }
+    }
+
+    /**
+     * @return name of the remote call if its metrics are recorded, {@code null} otherwise
+     */
+    @Nullable
+    private RpcName startRpc(@NonNull String apiPath) {
+        if (!Metrics.isEnabled()) {
+            return null;
+        }
+        RpcName rpcName = rpcNames.get(apiPath);
+        if (null == rpcName) {
+            rpcName = RpcName.fromApiPath(apiPath);
+            rpcNames.put(apiPath, rpcName);
+        }
+        Metrics.onRpcStarted(rpcName.service, rpcName.method);
+        return rpcName;
+    }
+
+    private static void recordRpc(@Nullable RpcName rpcName, @NonNull Status.Code statusCode,
+                                  long startTime, long requestBytes, long responseBytes) {
+        if (rpcName != null) {
+            Metrics.recordRpc(rpcName.service, rpcName.method, statusCode.name(),
+                    System.nanoTime() - startTime, requestBytes, responseBytes);
+        }
+    }
+
+    @NonNull
+    private Requester.HttpResponse executeRequest(@NonNull String apiPath,
+                                                  @NonNull byte[] requestBytes) {
+        Requester.HttpResponse response;
+        try {
+            response = getRequester()
                     .httpRequest(
                             METHOD,
-                            uri,
+                            getRequestUri(apiPath),
                             getHeaders(),
                             requestBytes,
                             CONTENT_TYPE
                     );
-            Status status;
-            switch (response.getResponseCode()) {
-                case 200:
-                    status = Status.OK;
-                    break;
-                case 401:
-                    status = Status.UNAUTHENTICATED.withDescription(
-                            new String(response.getResponseData())
-                    );
-                    break;
-                case 403:
-                    status = Status.PERMISSION_DENIED.withDescription(
-                            new String(response.getResponseData())
-                    );
-                    break;
-                case 404:
-                    status = Status.NOT_FOUND.withDescription(
-                            new String(response.getResponseData())
-                    );
-                    break;
-                case 500:
-                    status = Status.INTERNAL.withDescription(
-                            new String(response.getResponseData())
-                    );
-                    break;
-                case 501:
-                    status = Status.UNIMPLEMENTED.withDescription(
-                            new String(response.getResponseData())
-                    );
-                    break;
-                case 504:
-                    status = Status.DEADLINE_EXCEEDED.withDescription(
-                            new String(response.getResponseData())
-                    );
-                    break;
-                default:
-                    status = Status.UNAVAILABLE.withDescription(
-                            new String(response.getResponseData())
-                    );
-            }
-            if (status != Status.OK) {
-                throw new StatusRuntimeException(status);
-            }
-            Map<String, String> headers = response.getResponseHeaders();
-            String cookie = headers.get(SET_COOKIE_KEY);
-            if (null == cookie) {
-                cookie = headers.get(SET_COOKIE_KEY.toLowerCase());
-            }
-            if (null != cookie) {
-                setHeader(COOKIE_KEY, cookie);
-            }
-            return response.getResponseData();
         } catch (IOException exception) {
             throw new StatusRuntimeException(Status.UNAVAILABLE.withCause(exception));
         }
+        Status status;
+        switch (response.getResponseCode()) {
+            case 200:
+                status = Status.OK;
+                break;
+            case 401:
+                status = Status.UNAUTHENTICATED.withDescription(
+                        getErrorDescription(response)
+                );
+                break;
+            case 403:
+                status = Status.PERMISSION_DENIED.withDescription(
+                        getErrorDescription(response)
+                );
+                break;
+            case 404:
+                status = Status.NOT_FOUND.withDescription(
+                        getErrorDescription(response)
+                );
+                break;
+            case 500:
+                status = Status.INTERNAL.withDescription(
+                        getErrorDescription(response)
+                );
+                break;
+            case 501:
+                status = Status.UNIMPLEMENTED.withDescription(
+                        getErrorDescription(response)
+                );
+                break;
+            case 504:
+                status = Status.DEADLINE_EXCEEDED.withDescription(
+                        getErrorDescription(response)
+                );
+                break;
+            default:
+                status = Status.UNAVAILABLE.withDescription(
+                        getErrorDescription(response)
+                );
+        }
+        if (status != Status.OK) {
+            throw new StatusRuntimeException(status);
+        }
+        Map<String, String> headers = response.getResponseHeaders();
+        String cookie = headers.get(SET_COOKIE_KEY);
+        if (null == cookie) {
+            cookie = headers.get(SET_COOKIE_KEY.toLowerCase());
+        }
+        if (null != cookie) {
+            setHeader(COOKIE_KEY, cookie);
+        }
+        return response;
+    }
+
+    @NonNull
+    private static String getErrorDescription(@NonNull Requester.HttpResponse response) {
+        try {
+            return new String(response.getResponseData());
+        } finally {
+            closeResponse(response);
+        }
+    }
+
+    private static void closeResponse(@NonNull Requester.HttpResponse response) {
+        if (response instanceof Closeable) {
+            try {
+                ((Closeable) response).close();
+            } catch (IOException ignored) { /* */ }
+        }
+    }
+
+    /**
+     * The request URIs are built once per API path
+     */
+    @NonNull
+    private Uri getRequestUri(@NonNull String apiPath) {
+        Uri uri = requestUris.get(apiPath);
+        if (null == uri) {
+            uri = new Uri.Builder()
+                    .scheme(SCHEME)
+                    .encodedAuthority(getServiceUri().getEncodedAuthority())
+                    .path(apiPath)
+                    .build();
+            requestUris.put(apiPath, uri);
+        }
+        return uri;
+    }
+
+    /**
+     * Attach the authorization token to all the subsequent requests
+     */
+    public void setAuthorization(@NonNull String authToken) {
+        setHeader(AUTHORIZATION_KEY, authToken);
     }
 
     synchronized void setHeader(@NonNull String key, @Nullable String value) {
@@ -110,7 +264,8 @@ public final class RestClient {
 
     @NonNull
     synchronized Map<String, String> getHeaders() {
-        return headers;
+        // a copy is returned as requests are made concurrently with the cookie updates
+        return new HashMap<>(headers);
     }
 
     @NonNull
@@ -122,4 +277,28 @@ public final class RestClient {
     public final Uri getServiceUri() {
         return serviceUri;
     }
+
+    /**
+     * Service and method names of an API path, e.g. /gw/fog_view.FogViewAPI/Query
+     */
+    private static final class RpcName {
+        final String service;
+        final String method;
+
+        RpcName(@NonNull String service, @NonNull String method) {
+            this.service = service;
+            this.method = method;
+        }
+
+        @NonNull
+        static RpcName fromApiPath(@NonNull String apiPath) {
+            int methodSeparator = apiPath.lastIndexOf('/');
+            if (methodSeparator < 0) {
+                return new RpcName(apiPath, apiPath);
+            }
+            int serviceSeparator = apiPath.lastIndexOf('/', methodSeparator - 1);
+            return new RpcName(apiPath.substring(serviceSeparator + 1, methodSeparator),
+                    apiPath.substring(methodSeparator + 1));
+        }
+    }
 }
@@ -5,6 +5,7 @@ package com.mobilecoin.lib.util;
 import androidx.annotation.NonNull;
 
 import com.mobilecoin.lib.exceptions.NetworkException;
+import com.mobilecoin.lib.metrics.Metrics;
 
 import java.util.Arrays;
 import java.util.concurrent.Callable;
@@ -32,6 +33,7 @@ public class NetworkingCall<T> {
                 // handle exception
                 if (Arrays.stream(retryPolicy.statusCodes).anyMatch(i -> i == exception.statusCode)) {
                     if (++count == retryPolicy.retryCount) throw exception;
+                    Metrics.recordRetry(exception.statusCode);
                 } else {
                     throw exception;
                 }